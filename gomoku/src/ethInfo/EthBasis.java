@@ -10,6 +10,9 @@ public class EthBasis {
 	// RPC 連接 URL
     public static String rpcUrl = "http://127.0.0.1:8545";
     
+    // WebSocket URL (例: "ws://127.0.0.1:8546"); 設定後即時事件改用 eth_subscribe 推播, null 則用 polling
+    public static String wsUrl = null;
+    
     // 部署的 Gomoku 合約地址
 	public static String gomokuAddress = "0xC1a3dCD9178952DB33934Be3143a6413FADe7200";
 	
@@ -20,4 +23,16 @@ public class EthBasis {
     // 帳號 2 (白方/加入者)
     public static String keystorePath2 = "/Users/nimab/Library/Mobile Documents/com~apple~CloudDocs/Desktop/nycu/Blockchain-and-Smart-Contract/Final proj/keystore/UTC--2025-12-23T13-41-05.975450132Z--1b325b09c712f993f49550da3f3c9c288e4adc50";
     public static String password2 = "nycu2";
+    
+    // 本地事件 journal 檔案 (重啟時重播, 從 checkpoint 繼續同步)
+    public static String journalPath = "gomoku-events.journal";
+    
+    // 本地聊天紀錄檔 (ChatSent 事件依 gameId 索引, 從 checkpoint 繼續同步)
+    public static String chatPath = "gomoku-chat.store";
+    
+    // 事件確認深度: 區塊上再疊幾個區塊才寫入 journal / 聊天紀錄 (0 = 立即, 可能重組的鏈請調高)
+    public static int confirmations = 0;
+    
+    // 交易卡在 mempool 時以相同 nonce 提高 gas price 重送 (FeeBumper 預設策略)
+    public static boolean feeBumping = true;
 }
\ No newline at end of file
@@ -0,0 +1,367 @@
+package ethSC;
+
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.web3j.abi.EventEncoder;
+import org.web3j.abi.datatypes.Event;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.Log;
+
+/**
+ * Reorg-safe consumption of contract logs. Logs from any source (filter polling, WebSocket,
+ * backfill) are held per block, keyed by block hash, until the block is `confirmations` deep;
+ * only then are they delivered as confirmed, exactly once and in (block, logIndex) order.
+ * Meanwhile each log is offered right away as pending, for views that want low latency and can
+ * be rolled back.
+ *
+ * Reorgs are detected three ways: a log flagged removed, a log whose block hash differs from
+ * the one held for its block number, and the head poll, which checks the newest held block's
+ * hash against the chain (one eth_getBlockByNumber per poll when nothing changed; sources that
+ * drop removed logs, like LiveLogSubscription, are covered by this). On a reorg the held blocks
+ * that left the chain are dropped and listeners are told. Only blocks with logs are held, so the
+ * fork itself may lie anywhere above the highest held block still on the chain (or, if none is,
+ * above the confirmed range); eth_getLogs re-reads from there, so recovering costs the blocks
+ * since that point, not a resync.
+ *
+ * Heads come from the HeadPoller shared by every feed and ReadCache on the same client and
+ * contract: one eth_getBlockByNumber per period and one eth_getLogs per new head, however many
+ * feeds there are. Its logs for the new blocks are offered like the source's (duplicates are
+ * ignored), so after every head the feed can tell listeners the chain is fully reflected up to
+ * that head, even when the last logs are many blocks old. Blocks the shared poll did not cover
+ * for this feed (before its first head, after a fork) are read here.
+ *
+ * Reorgs deeper than the confirmation depth cannot be undone here; they are reported on stderr.
+ * With confirmations = 0 every log is confirmed as it arrives (the previous behaviour).
+ */
+public class ConfirmedLogFeed implements Disposable {
+    private static final Comparator<Log> BY_INDEX = Comparator.comparing(Log::getLogIndex);
+
+    /**
+     * Receives the feed's output, always from one thread at a time.
+     */
+    public interface Listener {
+        /**
+         * A log on the current chain that is not yet confirmed and may still be rolled back.
+         */
+        default void pending(Log log) {
+        }
+
+        /**
+         * A log buried under the confirmation depth. Never rolled back (short of a deeper reorg).
+         */
+        void confirmed(Log log);
+
+        /**
+         * Pending logs from fromBlock up were dropped by a reorg; the new chain's logs follow as pending.
+         */
+        default void rolledBack(long fromBlock, List<Log> dropped) {
+        }
+
+        /**
+         * Every log up to headBlock has been delivered (pending or confirmed), and every log up to
+         * confirmedBlock as confirmed. Called after each head poll that saw a new block.
+         */
+        default void synced(long confirmedBlock, long headBlock) {
+        }
+    }
+
+    private static class HeldBlock {
+        final String hash;
+        final List<Log> logs = new ArrayList<>();
+
+        HeldBlock(String hash) {
+            this.hash = hash;
+        }
+    }
+
+    private final Web3j web3j;
+    private final Gomoku contract;
+    private final int confirmations;
+    private final Listener listener;
+    private final Event[] events;
+    private final Set<String> topics = new HashSet<>();
+
+    // Guarded by this
+    private final TreeMap<Long, HeldBlock> held = new TreeMap<>();
+    private long confirmedBlock = -1;
+    private long confirmedThrough = -1;   // every block up to here is confirmed, with or without logs
+    private String confirmedHash;
+    private int confirmedLogIndex = -1;   // only tracked with confirmations = 0
+    private long coveredBlock = Long.MIN_VALUE;   // logs up to here were read by the head poll
+    private long reorgs;
+    private long deepReorgs;
+    private long lastDeepReorg = -1;
+
+    private Disposable heads;
+    private Disposable source;
+    private volatile boolean disposed;
+
+    /**
+     * @param confirmations blocks on top of a log's block before it is confirmed (0 = immediately)
+     * @param events the events the source delivers (used to re-read a range after a reorg)
+     */
+    public ConfirmedLogFeed(Web3j web3j, Gomoku contract, int confirmations, Listener listener, Event... events) {
+        this.web3j = web3j;
+        this.contract = contract;
+        this.confirmations = Math.max(0, confirmations);
+        this.listener = listener;
+        this.events = events;
+        for (Event event : events) {
+            topics.add(EventEncoder.encode(event));
+        }
+    }
+
+    public int confirmations() {
+        return confirmations;
+    }
+
+    /**
+     * Consumes source from the first head seen on; see follow(Flowable, long, long).
+     */
+    public ConfirmedLogFeed follow(Flowable<Log> logs, long pollMs) {
+        return follow(logs, -1, pollMs);
+    }
+
+    /**
+     * Consumes source and follows the shared head poll (at least every pollMs) to read new
+     * blocks, confirm held blocks and check them for reorgs.
+     * @param fromBlock first block source delivers, or -1 to start at the first head seen
+     */
+    public ConfirmedLogFeed follow(Flowable<Log> logs, long fromBlock, long pollMs) {
+        if (fromBlock >= 0) {
+            synchronized (this) {
+                coveredBlock = fromBlock - 1;
+            }
+        }
+        source = logs.subscribe(this::onLog, err -> System.err.println("[X] Log feed error: " + err.getMessage()));
+        heads = HeadPoller.subscribe(web3j, contract, this::onHead, pollMs);
+        return this;
+    }
+
+    /**
+     * Highest block whose logs have all been delivered as confirmed, or -1.
+     */
+    public synchronized long confirmedBlock() {
+        return confirmedBlock;
+    }
+
+    public synchronized int pendingCount() {
+        int n = 0;
+        for (HeldBlock b : held.values()) {
+            n += b.logs.size();
+        }
+        return n;
+    }
+
+    public synchronized long reorgs() {
+        return reorgs;
+    }
+
+    /**
+     * Reorgs that reached already confirmed blocks.
+     */
+    public synchronized long deepReorgs() {
+        return deepReorgs;
+    }
+
+    // ------------ Input ------------
+
+    /**
+     * Accepts one log; duplicates (same block hash and logIndex) and already confirmed logs are ignored.
+     */
+    public synchronized void onLog(Log log) {
+        if (log.getBlockNumber() == null || log.getBlockHash() == null) {
+            return; // pending-transaction log, not in a block yet
+        }
+        long number = log.getBlockNumber().longValue();
+        String hash = log.getBlockHash().toLowerCase();
+        if (log.isRemoved()) {
+            HeldBlock b = held.get(number);
+            if (b != null && b.hash.equals(hash)) {
+                rollBack(number);
+            } else if (number <= confirmedBlock) {
+                deepReorg(number);
+            }
+            return;
+        }
+        if (confirmations == 0) {
+            int index = log.getLogIndex().intValue();
+            if (number == confirmedBlock && !hash.equals(confirmedHash)) {
+                deepReorg(number);
+                confirmedHash = hash;
+            } else if (number > confirmedBlock || (number == confirmedBlock && index > confirmedLogIndex)) {
+                listener.pending(log);
+                listener.confirmed(log);
+                confirmedBlock = number;
+                confirmedHash = hash;
+                confirmedLogIndex = index;
+            }
+            return;
+        }
+        if (number <= confirmedBlock) {
+            if (number == confirmedBlock && !hash.equals(confirmedHash)) {
+                deepReorg(number);
+            }
+            return;
+        }
+        HeldBlock b = held.get(number);
+        if (b != null && !b.hash.equals(hash)) {
+            // A sibling of a held block: the new chain's logs are arriving before the removals
+            rollBack(number);
+            b = null;
+        }
+        if (b == null) {
+            b = new HeldBlock(hash);
+            held.put(number, b);
+        } else {
+            for (Log l : b.logs) {
+                if (l.getLogIndex().equals(log.getLogIndex())) {
+                    return;
+                }
+            }
+        }
+        b.logs.add(log);
+        listener.pending(log);
+    }
+
+    /**
+     * Drops held blocks from fromBlock up and tells the listener.
+     */
+    private void rollBack(long fromBlock) {
+        Map<Long, HeldBlock> dropped = held.tailMap(fromBlock, true);
+        if (dropped.isEmpty()) {
+            return;
+        }
+        List<Log> logs = new ArrayList<>();
+        for (HeldBlock b : dropped.values()) {
+            b.logs.sort(BY_INDEX);
+            logs.addAll(b.logs);
+        }
+        dropped.clear();
+        reorgs++;
+        System.err.println("[!] Chain reorg at block " + fromBlock + ": " + logs.size() + " pending log(s) rolled back");
+        listener.rolledBack(fromBlock, logs);
+    }
+
+    private void deepReorg(long number) {
+        if (number == lastDeepReorg) {
+            return; // further logs of the same reorg
+        }
+        lastDeepReorg = number;
+        deepReorgs++;
+        System.err.println("[X] Reorg at block " + number + " is deeper than " + confirmations
+                + " confirmation(s); confirmed state may be stale (resync required)");
+    }
+
+    // ------------ Head poll ------------
+
+    /**
+     * New chain head, without logs: the new blocks are read here.
+     */
+    public void onHead(long number, String hash) throws IOException {
+        onHead(number, hash, number + 1, List.of());
+    }
+
+    /**
+     * New chain head: checks the held blocks against the chain, re-reads the range after a
+     * fork, reads blocks not covered yet, then confirms everything at least `confirmations` deep.
+     * @param logs the contract's logs (any event) in fromBlock..number, from the shared poll
+     */
+    public synchronized void onHead(long number, String hash, long fromBlock, List<Log> logs) throws IOException {
+        if (disposed) {
+            return;
+        }
+        Map.Entry<Long, HeldBlock> top = held.lastEntry();
+        long fork = -1;
+        if (top != null) {
+            long intact = -1;   // highest held block still on the chain
+            for (Map.Entry<Long, HeldBlock> e = top; e != null; e = held.lowerEntry(e.getKey())) {
+                String canonical = e.getKey() == number ? hash : canonicalHash(e.getKey());
+                if (e.getValue().hash.equalsIgnoreCase(canonical == null ? "" : canonical)) {
+                    intact = e.getKey();
+                    break;
+                }
+                fork = e.getKey();
+            }
+            if (fork >= 0) {
+                if (intact < 0 && confirmedBlock >= 0
+                        && !confirmedHash.equalsIgnoreCase(String.valueOf(canonicalHash(confirmedBlock)))) {
+                    deepReorg(confirmedBlock);
+                }
+                rollBack(fork);
+                // The blocks without logs between the last intact block and the first replaced
+                // one may have been replaced too; read again from just above the last known-good block
+                long good = intact >= 0 ? intact : Math.max(confirmedBlock, confirmedThrough);
+                coveredBlock = Math.min(coveredBlock, Math.min(good, number));
+            }
+        }
+        if (coveredBlock == Long.MIN_VALUE) {
+            coveredBlock = number - 1; // started without a block: cover from this head on
+        }
+        boolean advanced = number > coveredBlock;
+        if (advanced) {
+            long gapEnd = Math.min(fromBlock - 1, number);
+            if (coveredBlock < gapEnd) {
+                for (Log log : contract.getLogs(block(coveredBlock + 1), block(gapEnd), events)) {
+                    onLog(log);
+                }
+            }
+            coveredBlock = number;
+        }
+        for (Log log : logs) {
+            if (!log.getTopics().isEmpty() && topics.contains(log.getTopics().get(0))) {
+                onLog(log);
+            }
+        }
+        long confirmUpTo = number - confirmations;
+        confirmedThrough = Math.max(confirmedThrough, confirmUpTo);
+        while (!held.isEmpty() && held.firstKey() <= confirmUpTo) {
+            Map.Entry<Long, HeldBlock> e = held.pollFirstEntry();
+            e.getValue().logs.sort(BY_INDEX);
+            for (Log log : e.getValue().logs) {
+                listener.confirmed(log);
+            }
+            confirmedBlock = e.getKey();
+            confirmedHash = e.getValue().hash;
+        }
+        if (advanced || fork >= 0) {
+            listener.synced(Math.max(confirmUpTo, -1), number);
+        }
+    }
+
+    private String canonicalHash(long number) throws IOException {
+        EthBlock.Block b = web3j.ethGetBlockByNumber(block(number), false).send().getBlock();
+        return b == null ? null : b.getHash();
+    }
+
+    private static DefaultBlockParameter block(long number) {
+        return DefaultBlockParameter.valueOf(BigInteger.valueOf(number));
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+        if (source != null) {
+            source.dispose();
+        }
+        if (heads != null) {
+            heads.dispose();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+}
@@ -0,0 +1,214 @@
+package ethSC;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthEstimateGas;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.tx.gas.DefaultGasProvider;
+import org.web3j.tx.gas.StaticGasProvider;
+
+/**
+ * Gas limits learned per Gomoku function instead of DefaultGasProvider's fixed 9M.
+ *
+ * makeMove, claimTimeout and surrender cost depends on game state (countPieces scans longer
+ * lines, a winning move pays out, a wagered game transfers), so they are estimated for every
+ * call. The rest are cached per (function, calldata size in words, value or not): sendChat
+ * grows with the message, createGame/joinGame store a wager only when one is sent. A miss asks
+ * eth_estimateGas for the actual call; mined receipts raise the cached value when a call used
+ * more, and a receipt that came close to its limit drops the entry so the next call
+ * re-estimates. The gas price follows the fee market: eth_gasPrice plus one full base-fee step,
+ * refreshed when a new block is seen.
+ *
+ * Only the per-function ContractGasProvider methods are implemented; the deprecated no-argument
+ * ones keep StaticGasProvider's bootstrap values.
+ */
+public class EstimatingGasProvider extends StaticGasProvider {
+    // Used until the first estimate / when estimation fails (e.g. the call would revert)
+    private static final Map<String, Long> BOOTSTRAP = Map.of(
+            Gomoku.FUNC_CREATEGAME, 200_000L,
+            Gomoku.FUNC_JOINGAME, 150_000L,
+            Gomoku.FUNC_MAKEMOVE, 300_000L,
+            Gomoku.FUNC_SENDCHAT, 250_000L,
+            Gomoku.FUNC_CLAIMTIMEOUT, 150_000L,
+            Gomoku.FUNC_SURRENDER, 150_000L);
+    private static final long DEFAULT_LIMIT = 300_000L;
+    // Estimated per call, never served from the cache
+    private static final Set<String> STATE_DEPENDENT = Set.of(
+            Gomoku.FUNC_MAKEMOVE, Gomoku.FUNC_CLAIMTIMEOUT, Gomoku.FUNC_SURRENDER);
+
+    private final Web3j web3j;
+    private final String contractAddress;
+    private final String from;
+    private final int marginPercent;
+    private final long priceTtlMs;
+
+    private final Map<String, Entry> limits = new ConcurrentHashMap<>();
+    // Largest cached limit per function name, for the name-only ContractGasProvider calls
+    private final Map<String, Long> byName = new ConcurrentHashMap<>();
+
+    private volatile BigInteger gasPrice = DefaultGasProvider.GAS_PRICE;
+    private volatile BigInteger baseFee = BigInteger.ZERO;
+    private volatile long priceBlock = -1;
+    private volatile long priceCheckedAt;
+
+    /**
+     * 預設 20% 安全餘量, 費用每秒最多檢查一次
+     */
+    public EstimatingGasProvider(Web3j web3j, String contractAddress, String from) {
+        this(web3j, contractAddress, from, 20, 1000);
+    }
+
+    public EstimatingGasProvider(Web3j web3j, String contractAddress, String from, int marginPercent,
+            long priceTtlMs) {
+        super(DefaultGasProvider.GAS_PRICE, BigInteger.valueOf(DEFAULT_LIMIT));
+        this.web3j = web3j;
+        this.contractAddress = contractAddress;
+        this.from = from;
+        this.marginPercent = marginPercent;
+        this.priceTtlMs = priceTtlMs;
+    }
+
+    // ------------ Gas limit ------------
+
+    /**
+     * Gas limit for this exact call: estimated every time for state-dependent functions,
+     * otherwise cached for its class and estimated on a miss.
+     */
+    public BigInteger gasLimit(Function function, BigInteger valueWei) {
+        String name = function.getName();
+        String data = FunctionEncoder.encode(function);
+        boolean perCall = STATE_DEPENDENT.contains(name);
+        String key = key(name, data, valueWei);
+        Entry e = perCall ? null : limits.get(key);
+        if (e != null) {
+            return BigInteger.valueOf(e.limit);
+        }
+        long estimate;
+        try {
+            EthEstimateGas r = web3j.ethEstimateGas(Transaction.createFunctionCallTransaction(from, null, null, null,
+                    contractAddress, valueWei, data)).send();
+            if (r.hasError()) {
+                return BigInteger.valueOf(fallback(name));
+            }
+            estimate = r.getAmountUsed().longValue();
+        } catch (IOException ex) {
+            return BigInteger.valueOf(fallback(name));
+        }
+        if (perCall) {
+            long limit = withMargin(estimate);
+            // The blocking wrapper path reads getGasLimit(name), which must cover this call
+            byName.merge(name, limit, Math::max);
+            return BigInteger.valueOf(limit);
+        }
+        e = limits.computeIfAbsent(key, k -> new Entry());
+        synchronized (e) {
+            e.used = Math.max(e.used, estimate);
+            e.limit = withMargin(e.used);
+        }
+        byName.merge(function.getName(), e.limit, Math::max);
+        return BigInteger.valueOf(e.limit);
+    }
+
+    /**
+     * Learns from a mined receipt of function.
+     */
+    public void observe(Function function, BigInteger valueWei, TransactionReceipt receipt) {
+        if (receipt == null || receipt.getGasUsed() == null || STATE_DEPENDENT.contains(function.getName())) {
+            return;
+        }
+        String key = key(function.getName(), FunctionEncoder.encode(function), valueWei);
+        long used = receipt.getGasUsed().longValue();
+        Entry e = limits.computeIfAbsent(key, k -> new Entry());
+        synchronized (e) {
+            // Within 5% of the limit (or out of gas): the class is more expensive than we thought
+            if (e.limit > 0 && used * 100 >= e.limit * 95L) {
+                limits.remove(key);
+                byName.remove(function.getName());
+                return;
+            }
+            e.used = Math.max(e.used, used);
+            e.limit = withMargin(e.used);
+        }
+        byName.merge(function.getName(), e.limit, Math::max);
+    }
+
+    @Override
+    public BigInteger getGasLimit(String contractFunc) {
+        Long limit = byName.get(contractFunc);
+        return BigInteger.valueOf(limit != null ? limit : bootstrap(contractFunc));
+    }
+
+    private long withMargin(long gas) {
+        return gas + gas * marginPercent / 100;
+    }
+
+    private static long bootstrap(String contractFunc) {
+        return BOOTSTRAP.getOrDefault(contractFunc, DEFAULT_LIMIT);
+    }
+
+    /**
+     * When estimation fails: the largest limit seen for the function, at least the bootstrap.
+     */
+    private long fallback(String contractFunc) {
+        return Math.max(bootstrap(contractFunc), byName.getOrDefault(contractFunc, 0L));
+    }
+
+    private static String key(String name, String data, BigInteger valueWei) {
+        // 0x + 4-byte selector + 32-byte words
+        boolean paid = valueWei != null && valueWei.signum() > 0;
+        return name + ':' + Math.max(0, (data.length() - 10) / 64) + (paid ? ":v" : "");
+    }
+
+    // ------------ Fee market ------------
+
+    /**
+     * eth_gasPrice + baseFee / 8, so the price still clears the base fee if the next block is full.
+     * The same for every function.
+     */
+    @Override
+    public BigInteger getGasPrice(String contractFunc) {
+        long now = System.currentTimeMillis();
+        if (now - priceCheckedAt >= priceTtlMs) {
+            priceCheckedAt = now;
+            try {
+                refreshFees();
+            } catch (IOException e) {
+                System.err.println("[X] Fee refresh failed, keeping last gas price: " + e.getMessage());
+            }
+        }
+        return gasPrice;
+    }
+
+    private synchronized void refreshFees() throws IOException {
+        EthBlock.Block head = web3j.ethGetBlockByNumber(DefaultBlockParameterName.LATEST, false).send().getBlock();
+        if (head == null || head.getNumber().longValue() == priceBlock) {
+            return;
+        }
+        BigInteger suggested = web3j.ethGasPrice().send().getGasPrice();
+        BigInteger fee = head.getBaseFeePerGasRaw() != null ? head.getBaseFeePerGas() : BigInteger.ZERO;
+        baseFee = fee;
+        gasPrice = suggested.add(fee.shiftRight(3));
+        priceBlock = head.getNumber().longValue();
+    }
+
+    /**
+     * Base fee of the last block the price was derived from (0 before London / on dev chains).
+     */
+    public BigInteger baseFee() {
+        return baseFee;
+    }
+
+    private static class Entry {
+        long used;
+        volatile long limit;
+    }
+}
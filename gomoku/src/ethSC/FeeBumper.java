@@ -0,0 +1,238 @@
+package ethSC;
+
+import java.io.Closeable;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.tx.gas.ContractGasProvider;
+
+/**
+ * Resubmits transactions that sit in the mempool too long: same nonce, higher gas price,
+ * following a Policy. Every version stays tracked, and whichever one is mined completes the
+ * Outcome (the others can no longer be mined once their nonce is used).
+ */
+public class FeeBumper implements Closeable {
+
+    /**
+     * Escalation policy. Defaults suit a ~12 s block time.
+     */
+    public static class Policy {
+        /** pending time before the first replacement */
+        public long firstBumpMs = 20_000;
+        /** pending time between further replacements */
+        public long intervalMs = 12_000;
+        /** price increase per replacement; geth rejects replacements below +10% */
+        public int bumpPercent = 15;
+        public int maxBumps = 5;
+        /** upper bound for the gas price, or null for none */
+        public BigInteger maxGasPrice;
+    }
+
+    /**
+     * Which version of the transaction was mined.
+     */
+    public static class Outcome {
+        public final TransactionReceipt receipt;
+        /** 0 = the original, n = the n-th replacement */
+        public final int replacement;
+        /** every hash broadcast for this nonce, in order */
+        public final List<String> txHashes;
+
+        Outcome(TransactionReceipt receipt, int replacement, List<String> txHashes) {
+            this.receipt = receipt;
+            this.replacement = replacement;
+            this.txHashes = txHashes;
+        }
+    }
+
+    private final PipelinedTransactionManager tm;
+    private final ContractGasProvider gas;
+    private final Policy policy;
+    private final Set<Tracked> inFlight = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "fee-bumper");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public FeeBumper(PipelinedTransactionManager tm, ContractGasProvider gas, Policy policy) {
+        this.tm = tm;
+        this.gas = gas;
+        this.policy = policy;
+        scheduler.scheduleWithFixedDelay(this::tick, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Broadcasts and watches the transaction until one of its versions is mined.
+     * The receipt is returned whatever its status.
+     * @param contractFunc function name, for the gas provider's current price when bumping
+     */
+    public CompletableFuture<Outcome> submit(String contractFunc, BigInteger gasPrice, BigInteger gasLimit, String to,
+            String data, BigInteger value) {
+        return tm.broadcastAsync(gasPrice, gasLimit, to, data, value).thenCompose(sent -> {
+            Tracked t = new Tracked(contractFunc, sent.tx, System.currentTimeMillis() + policy.firstBumpMs);
+            inFlight.add(t);
+            watch(t, sent.txHash());
+            return t.outcome;
+        });
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private void watch(Tracked t, String txHash) {
+        int version;
+        synchronized (t) {
+            t.hashes.add(txHash);
+            version = t.hashes.size() - 1;
+        }
+        watch(t, txHash, version);
+    }
+
+    private void watch(Tracked t, String txHash, int version) {
+        tm.getReceiptTracker().track(txHash).whenComplete((receipt, err) -> {
+            if (receipt != null) {
+                mined(t, receipt, version);
+            } else {
+                failed(t, err);
+            }
+        });
+    }
+
+    private void mined(Tracked t, TransactionReceipt receipt, int version) {
+        List<String> hashes;
+        synchronized (t) {
+            if (t.outcome.isDone()) {
+                return;
+            }
+            inFlight.remove(t);
+            hashes = Collections.unmodifiableList(new ArrayList<>(t.hashes));
+        }
+        for (int i = 0; i < hashes.size(); i++) {
+            if (i != version) {
+                tm.getReceiptTracker().untrack(hashes.get(i));
+            }
+        }
+        t.outcome.complete(new Outcome(receipt, version, hashes));
+    }
+
+    private void failed(Tracked t, Throwable err) {
+        synchronized (t) {
+            t.failures++;
+            t.lastError = err;
+        }
+        giveUpIfExhausted(t);
+    }
+
+    /**
+     * Fails the outcome when every version failed and no further replacement will be sent.
+     */
+    private void giveUpIfExhausted(Tracked t) {
+        synchronized (t) {
+            if (t.outcome.isDone() || t.sending || t.failures < t.hashes.size()
+                    || (!t.stopped && t.bumps < policy.maxBumps)) {
+                return;
+            }
+            inFlight.remove(t);
+        }
+        t.outcome.completeExceptionally(t.lastError);
+    }
+
+    // ------------ Escalation ------------
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        for (Tracked t : inFlight) {
+            try {
+                maybeBump(t, now);
+                giveUpIfExhausted(t);
+            } catch (Exception e) {
+                System.err.println("[X] Fee bump failed for nonce " + t.tx.getNonce() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void maybeBump(Tracked t, long now) {
+        BigInteger price;
+        synchronized (t) {
+            if (t.stopped || t.sending || t.bumps >= policy.maxBumps || now < t.nextBumpAt) {
+                return;
+            }
+            BigInteger bumped = t.price.multiply(BigInteger.valueOf(100 + policy.bumpPercent))
+                    .divide(BigInteger.valueOf(100)).add(BigInteger.ONE);
+            price = bumped.max(gas.getGasPrice(t.contractFunc));
+            if (policy.maxGasPrice != null && price.compareTo(policy.maxGasPrice) > 0) {
+                price = policy.maxGasPrice;
+            }
+            if (price.compareTo(t.price) <= 0) {
+                t.stopped = true; // at the cap
+                return;
+            }
+            t.sending = true;
+        }
+        BigInteger newPrice = price;
+        tm.replaceAsync(t.tx, newPrice).whenComplete((response, err) -> {
+            String hash = null;
+            int version = -1;
+            synchronized (t) {
+                t.sending = false;
+                t.bumps++;
+                t.nextBumpAt = System.currentTimeMillis() + policy.intervalMs;
+                if (err == null && !response.hasError()) {
+                    t.price = newPrice;
+                    hash = response.getTransactionHash();
+                    t.hashes.add(hash);
+                    version = t.hashes.size() - 1;
+                } else if (err == null && NonceManager.isNonceTooLow(response.getError().getMessage())
+                        && !response.getError().getMessage().toLowerCase().contains("underpriced")) {
+                    // One of our versions was mined; its receipt will complete the outcome
+                    t.stopped = true;
+                } else {
+                    // Underpriced or transient: the next round bumps from a higher base
+                    t.price = newPrice;
+                    System.err.println("[X] Replacement for nonce " + t.tx.getNonce() + " rejected: "
+                            + (err != null ? err.getMessage() : response.getError().getMessage()));
+                }
+            }
+            if (hash != null) {
+                watch(t, hash, version);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private static class Tracked {
+        final String contractFunc;
+        final RawTransaction tx;
+        final List<String> hashes = new ArrayList<>();
+        final CompletableFuture<Outcome> outcome = new CompletableFuture<>();
+        BigInteger price;
+        long nextBumpAt;
+        int bumps;
+        int failures;
+        Throwable lastError;
+        boolean sending;
+        boolean stopped;
+
+        Tracked(String contractFunc, RawTransaction tx, long nextBumpAt) {
+            this.contractFunc = contractFunc;
+            this.tx = tx;
+            this.price = tx.getGasPrice();
+            this.nextBumpAt = nextBumpAt;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ethSC;
+
+import java.math.BigInteger;
+
+/**
+ * Read-only, locally held game state (e.g. gomokuState.GameStateIndex).
+ */
+public interface GameStateView {
+    /**
+     * Same shape as Gomoku.getGameInfo, or null if the game is unknown locally.
+     */
+    Gomoku.GameInfo getGameInfo(BigInteger gameId);
+
+    /**
+     * Same checks and order as Gomoku.getPiece.
+     * @throws IllegalStateException with the contract's revert reason ("Game does not exist",
+     *         "Invalid coordinates")
+     */
+    int getPiece(BigInteger gameId, int x, int y);
+
+    /**
+     * Highest block whose events are all reflected, or -1.
+     */
+    long syncedBlock();
+}
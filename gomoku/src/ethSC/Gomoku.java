@@ -1,13 +1,19 @@
 package ethSC;
 
 import io.reactivex.Flowable;
+import java.io.IOException;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.web3j.abi.EventEncoder;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.FunctionReturnDecoder;
 import org.web3j.abi.TypeReference;
+import org.web3j.abi.Utils;
 import org.web3j.abi.datatypes.Address;
 import org.web3j.abi.datatypes.Event;
 import org.web3j.abi.datatypes.Function;
@@ -17,15 +23,22 @@ import org.web3j.abi.datatypes.generated.Uint256;
 import org.web3j.abi.datatypes.generated.Uint8;
 import org.web3j.crypto.Credentials;
 import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
 import org.web3j.protocol.core.DefaultBlockParameter;
 import org.web3j.protocol.core.RemoteFunctionCall;
 import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.request.Transaction;
 import org.web3j.protocol.core.methods.response.BaseEventResponse;
+import org.web3j.protocol.core.methods.response.EthCall;
+import org.web3j.protocol.core.methods.response.EthLog;
 import org.web3j.protocol.core.methods.response.Log;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.tx.Contract;
 import org.web3j.tx.TransactionManager;
+import org.web3j.tx.exceptions.ContractCallException;
 import org.web3j.tx.gas.ContractGasProvider;
+import org.web3j.utils.Numeric;
 
 /**
  * Minimal web3j wrapper for Gomoku.sol (no deploy, load-only).
@@ -36,16 +49,25 @@ public class Gomoku extends Contract {
     public static final String BINARY = "6080604052348015600f57600080fd5b506132168061001f6000396000f3fe6080604052600436106100fe5760003560e01c806386e773f111610095578063ad86731a11610064578063ad86731a14610348578063dc4a3e9514610385578063efaa55a0146103b0578063f56f48f2146103cc578063fd61d10b146103f7576100fe565b806386e773f1146102905780638e034d48146102b957806390ea0014146102e2578063aa57f09c1461031f576100fe565b806345e09e54116100d157806345e09e54146101c857806347e1d5501461020557806357177625146102475780637255d72914610272576100fe565b80630239912514610103578063117a5b901461012e578063225b031d146101725780632e0be39a1461019d575b600080fd5b34801561010f57600080fd5b50610118610420565b60405161012591906122cf565b60405180910390f35b34801561013a57600080fd5b506101556004803603810190610150919061232a565b610425565b60405161016998979695949392919061241e565b60405180910390f35b34801561017e57600080fd5b506101876104d4565b60405161019491906122cf565b60405180910390f35b3480156101a957600080fd5b506101b26104d9565b6040516101bf919061249c565b60405180910390f35b3480156101d457600080fd5b506101ef60048036038101906101ea919061232a565b6104df565b6040516101fc91906125ff565b60405180910390f35b34801561021157600080fd5b5061022c6004803603810190610227919061232a565b6105e1565b60405161023e9695949392919061261b565b60405180910390f35b34801561025357600080fd5b5061025c6106e2565b60405161026991906122cf565b60405180910390f35b61027a6106e7565b604051610287919061249c565b60405180910390f35b34801561029c57600080fd5b506102b760048036038101906102b2919061232a565b610971565b005b3480156102c557600080fd5b506102e060048036038101906102db91906126e1565b610d01565b005b3480156102ee57600080fd5b506103096004803603810190610304919061276d565b610fcc565b60405161031691906122cf565b60405180910390f35b34801561032b57600080fd5b506103466004803603810190610341919061276d565b6110cf565b005b34801561035457600080fd5b5061036f600480360381019061036a91906127ec565b611730565b60405161037c919061249c565b60405180910390f35b34801561039157600080fd5b5061039a611748565b6040516103a791906122cf565b60405180910390f35b6103ca60048036038101906103c5919061232a565b61174d565b005b3480156103d857600080fd5b506103e1611b13565b6040516103ee919061249c565b60405180910390f35b34801561040357600080fd5b5061041e6004803603810190610419919061232a565b611b19565b005b600081565b60016020528060005260406000206000915090508060000154908060010160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff16908060020160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff16908060120160009054906101000a900460ff16908060120160019054906101000a900460ff16908060130154908060140154908060150160009054906101000a900460ff16905088565b600181565b60005481565b6104e7612262565b81600054811061052c576040517f08c379a000000000000000000000000000000000000000000000000000000000815260040161052390612876565b60405180910390fd5b60016000848152602001908152602001600020600301600f80602002604051908101604052809291906000905b828210156105d557838201600f806020026040519081016040528092919082600f80156105c1576020028201916000905b82829054906101000a900460ff1660ff168152602001906001019060208260000104928301926001038202915080841161058a5790505b505050505081526020019060010190610559565b50505050915050919050565b60008060008060008086600054811061062f576040517f08c379a000000000000000000000000000000000000000000000000000000000815260040161062690612876565b60405180910390fd5b6000600160008a815260200190815260200160002090508060010160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff168160020160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff168260120160009054906101000a900460ff168360120160019054906101000a900460ff1684601301548560150160009054906101000a900460ff16975097509750975097509750505091939550919395565b600281565b600080600260003373ffffffffffffffffffffffffffffffffffffffff1673ffffffffffffffffffffffffffffffffffffffff1681526020019081526020016000205414806107bd575060016004811115610745576107446123a7565b5b60016000600260003373ffffffffffffffffffffffffffffffffffffffff1673ffffffffffffffffffffffffffffffffffffffff16815260200190815260200160002054815260200190815260200160002060120160019054906101000a900460ff1660048111156107ba576107b96123a7565b5b14155b6107fc576040517f08c379a00000000000000000000000000000000000000000000000000000000081526004016107f3906128e2565b60405180910390fd5b600080600081548092919061081090612931565b9190505590506000600160008381526020019081526020016000209050818160000181905550338160010160006101000a81548173ffffffffffffffffffffffffffffffffffffffff021916908373ffffffffffffffffffffffffffffffffffffffff16021790555060018160120160006101000a81548160ff021916908360ff16021790555060008160120160016101000a81548160ff021916908360048111156108bf576108be6123a7565b5b021790555034816013018190555042816014018190555081600260003373ffffffffffffffffffffffffffffffffffffffff1673ffffffffffffffffffffffffffffffffffffffff168152602001908152602001600020819055503373ffffffffffffffffffffffffffffffffffffffff16827f7dfb67e9ff596fca4da65c7eedb128cd1aac553af54b3c0cb733625a2480d8bd34604051610961919061249c565b60405180910390a3819250505090565b8060005481106109b6576040517f08c379a00000000000000000000000000000000000000000000000000000000081526004016109ad90612876565b60405180910390fd5b8160006001600083815260200190815260200160002090508060010160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff1673ffffffffffffffffffffffffffffffffffffffff163373ffffffffffffffffffffffffffffffffffffffff161480610a7b57508060020160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff1673ffffffffffffffffffffffffffffffffffffffff163373ffffffffffffffffffffffffffffffffffffffff16145b610aba576040517f08c379a0000000000000000000000000000000000000000000000000000000008152600401610ab1906129eb565b60405180910390fd5b600060016000868152602001908152602001600020905060016004811115610ae557610ae46123a7565b5b8160120160019054906101000a900460ff166004811115610b0957610b086123a7565b5b14610b49576040517f08c379a0000000000000000000000000000000000000000000000000000000008152600401610b4090612a57565b60405180910390fd5b61012c8160140154610b5b9190612a77565b421015610b9d576040517f08c379a0000000000000000000000000000000000000000000000000000000008152600401610b9490612af7565b60405180910390fd5b6000600160ff168260120160009054906101000a900460ff1660ff1603610c175760038260120160016101000a81548160ff02191690836004811115610be657610be56123a7565b5b02179055508160020160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff169050610c6c565b60028260120160016101000a81548160ff02191690836004811115610c3f57610c3e6123a7565b5b02179055508160010160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff1690505b610c768682611e55565b857fa2af12fe5a420d9570e8cfd57a9a238b98626929742783b00f2b4454586f053982604051610ca69190612b17565b60405180910390a2857f69137706d65cad5bb2a9a944e02d6c3474190ffcaf7c1eb0e70474b5a52ecc628360120160019054906101000a900460ff1683604051610cf1929190612b32565b60405180910390a2505050505050565b826000548110610d46576040517f08c379a0000000000000000000000000000000000000000000000000000000008152600401610d3d90612876565b60405180910390fd5b8360006001600083815260200190815260200160002090508060010160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff1673ffffffffffffffffffffffffffffffffffffffff163373ffffffffffffffffffffffffffffffffffffffff161480610e0b57508060020160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff1673ffffffffffffffffffffffffffffffffffffffff163373ffffffffffffffffffffffffffffffffffffffff16145b610e4a576040517f08c379a0000000000000000000000000000000000000000000000000000000008152600401610e41906129eb565b60405180910390fd5b600060016000888152602001908152602001600020905060006004811115610e7557610e746123a7565b5b8160120160019054906101000a900460ff166004811115610e9957610e986123a7565b5b1480610eda575060016004811115610eb457610eb36123a7565b5b8160120160019054906101000a900460ff166004811115610ed857610ed76123a7565b5b145b610f19576040517f08c379a0000000000000000000000000000000000000000000000000000000008152600401610f1090612ba7565b60405180910390fd5b60008686905011610f5f576040517f08c379a0000000000000000000000000000000000000000000000000000000008152600401610f5690612c13565b60405180910390fd5b3373ffffffffffffffffffffffffffffffffffffffff16877fa537abec6c7b3e7b4bcf3edc35aaa9363e8223bc096a1bb2977cbcdc83c137b988888560150160009054906101000a900460ff16604051610fbb93929190612cbb565b60405180910390a350505050505050565b6000836000548110611013576040517f08c379a000000000000000000000000000000000000000000000000000000000815260040161100a90612876565b60405180910390fd5b600f60ff168460ff1610801561102f5750600f60ff168360ff16105b61106e576040517f08c379a000000000000000000000000000000000000000000000000000000000815260040161106590612d39565b60405180910390fd5b600160008681526020019081526020016000206003018460ff16600f811061109957611098612d59565b5b018360ff16600f81106110af576110ae612d59565b5b602091828204019190069054906101000a900460ff169150509392505050565b826000548110611114576040517f08c379a000000000000000000000000000000000000000000000000000000000815260040161110b90612876565b60405180910390fd5b836000600160008381526020019081526020016000209050600160048111156111405761113f6123a7565b5b8160120160019054906101000a900460ff166004811115611164576111636123a7565b5b146111a4576040517f08c379a000000000000000000000000000000000000000000000000000000000815260040161119b90612a57565b60405180910390fd5b600160ff168160120160009054906101000a900460ff1660ff160361125a578060010160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff1673ffffffffffffffffffffffffffffffffffffffff163373ffffffffffffffffffffffffffffffffffffffff1614611255576040517f08c379a000000000000000000000000000000000000000000000000000000000815260040161124c90612dd4565b60405180910390fd5b6112ed565b8060020160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff1673ffffffffffffffffffffffffffffffffffffffff163373ffffffffffffffffffffffffffffffffffffffff16146112ec576040517f08c379a00000000000000000000000000000000000000000000000000000000081526004016112e390612dd4565b60405180910390fd5b5b6000600160008881526020019081526020016000209050600f60ff168660ff161080156113205750600f60ff168560ff16105b61135f576040517f08c379a000000000000000000000000000000000000000000000000000000000815260040161135690612d39565b60405180910390fd5b600060ff16816003018760ff16600f811061137d5761137c612d59565b5b018660ff16600f811061139357611392612d59565b5b602091828204019190069054906101000a900460ff1660ff16146113ec576040517f08c379a00000000000000000000000000000000000000000000000000000000081526004016113e390612e40565b60405180910390fd5b8060120160009054906101000a900460ff16816003018760ff16600f811061141757611416612d59565b5b018660ff16600f811061142d5761142c612d59565b5b602091828204019190066101000a81548160ff021916908360ff16021790555080601501600081819054906101000a900460ff168092919061146e90612e60565b91906101000a81548160ff021916908360ff160217905550504281601401819055503373ffffffffffffffffffffffffffffffffffffffff16877f15df732bf30a0a3eb76d718825e3682221d98b34c634d29aaf9e3595b3edd68c88888560120160009054906101000a900460ff166040516114ec93929190612e89565b60405180910390a36114ff878787611ed8565b1561162f57600160ff168160120160009054906101000a900460ff1660ff16036115835760028160120160016101000a81548160ff0219169083600481111561154b5761154a6123a7565b5b021790555061157e878260010160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff16611e55565b6115df565b60038160120160016101000a81548160ff021916908360048111156115ab576115aa6123a7565b5b02179055506115de878260020160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff16611e55565b5b867f69137706d65cad5bb2a9a944e02d6c3474190ffcaf7c1eb0e70474b5a52ecc628260120160019054906101000a900460ff1633604051611622929190612b32565b60405180910390a2611727565b600f8061163c9190612ec0565b60ff168160150160009054906101000a900460ff1660ff16106116e05760048160120160016101000a81548160ff02191690836004811115611681576116806123a7565b5b021790555061168f87611fb7565b867f69137706d65cad5bb2a9a944e02d6c3474190ffcaf7c1eb0e70474b5a52ecc628260120160019054906101000a900460ff1660006040516116d3929190612b32565b60405180910390a2611726565b600160ff168160120160009054906101000a900460ff1660ff1614611706576001611709565b60025b8160120160006101000a81548160ff021916908360ff1602179055505b5b50505050505050565b60026020528060005260406000206000915090505481565b600f81565b806000548110611792576040517f08c379a000000000000000000000000000000000000000000000000000000000815260040161178990612876565b60405180910390fd5b6000600160008481526020019081526020016000209050600060048111156117bd576117bc6123a7565b5b8160120160019054906101000a900460ff1660048111156117e1576117e06123a7565b5b14611821576040517f08c379a000000000000000000000000000000000000000000000000000000000815260040161181890612f49565b60405180910390fd5b3373ffffffffffffffffffffffffffffffffffffffff168160010160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff1673ffffffffffffffffffffffffffffffffffffffff16036118b3576040517f08c379a00000000000000000000000000000000000000000000000000000000081526004016118aa90612fb5565b60405180910390fd5b806013015434146118f9576040517f08c379a00000000000000000000000000000000000000000000000000000000081526004016118f090613021565b60405180910390fd5b6000600260003373ffffffffffffffffffffffffffffffffffffffff1673ffffffffffffffffffffffffffffffffffffffff1681526020019081526020016000205414806119ce575060016004811115611956576119556123a7565b5b60016000600260003373ffffffffffffffffffffffffffffffffffffffff1673ffffffffffffffffffffffffffffffffffffffff16815260200190815260200160002054815260200190815260200160002060120160019054906101000a900460ff1660048111156119cb576119ca6123a7565b5b14155b611a0d576040517f08c379a0000000000000000000000000000000000000000000000000000000008152600401611a049061308d565b60405180910390fd5b338160020160006101000a81548173ffffffffffffffffffffffffffffffffffffffff021916908373ffffffffffffffffffffffffffffffffffffffff16021790555060018160120160016101000a81548160ff02191690836004811115611a7857611a776123a7565b5b021790555042816014018190555082600260003373ffffffffffffffffffffffffffffffffffffffff1673ffffffffffffffffffffffffffffffffffffffff168152602001908152602001600020819055503373ffffffffffffffffffffffffffffffffffffffff16837f87969bc7faf902221a147b95ceba76e011c5efb0339a0a8ee7a2bb82d9cfbbd660405160405180910390a3505050565b61012c81565b806000548110611b5e576040517f08c379a0000000000000000000000000000000000000000000000000000000008152600401611b5590612876565b60405180910390fd5b8160006001600083815260200190815260200160002090508060010160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff1673ffffffffffffffffffffffffffffffffffffffff163373ffffffffffffffffffffffffffffffffffffffff161480611c2357508060020160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff1673ffffffffffffffffffffffffffffffffffffffff163373ffffffffffffffffffffffffffffffffffffffff16145b611c62576040517f08c379a0000000000000000000000000000000000000000000000000000000008152600401611c59906129eb565b60405180910390fd5b600060016000868152602001908152602001600020905060016004811115611c8d57611c8c6123a7565b5b8160120160019054906101000a900460ff166004811115611cb157611cb06123a7565b5b14611cf1576040517f08c379a0000000000000000000000000000000000000000000000000000000008152600401611ce890612a57565b60405180910390fd5b60008160010160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff1673ffffffffffffffffffffffffffffffffffffffff163373ffffffffffffffffffffffffffffffffffffffff1603611da35760038260120160016101000a81548160ff02191690836004811115611d7257611d716123a7565b5b02179055508160020160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff169050611df8565b60028260120160016101000a81548160ff02191690836004811115611dcb57611dca6123a7565b5b02179055508160010160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff1690505b611e028682611e55565b857f69137706d65cad5bb2a9a944e02d6c3474190ffcaf7c1eb0e70474b5a52ecc628360120160019054906101000a900460ff1683604051611e45929190612b32565b60405180910390a2505050505050565b6000600160008481526020019081526020016000209050600060028260130154611e7f91906130ad565b90506000811115611ed2578273ffffffffffffffffffffffffffffffffffffffff166108fc829081150290604051600060405180830381858888f19350505050158015611ed0573d6000803e3d6000fd5b505b50505050565b6000806001600086815260200190815260200160002090506000816003018560ff16600f8110611f0b57611f0a612d59565b5b018460ff16600f8110611f2157611f20612d59565b5b602091828204019190069054906101000a900460ff169050611f4986868660016000866120be565b80611f605750611f5f86868660006001866120be565b5b80611f765750611f75868686600180866120be565b5b80611fac5750611fab86868660017fffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff866120be565b5b925050509392505050565b60006001600083815260200190815260200160002090506000816013015411156120ba578060010160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff1673ffffffffffffffffffffffffffffffffffffffff166108fc82601301549081150290604051600060405180830381858888f19350505050158015612049573d6000803e3d6000fd5b508060020160009054906101000a900473ffffffffffffffffffffffffffffffffffffffff1673ffffffffffffffffffffffffffffffffffffffff166108fc82601301549081150290604051600060405180830381858888f193505050501580156120b8573d6000803e3d6000fd5b505b5050565b6000806001600089815260200190815260200160002090506000600190506120ea89898989898961213a565b816120f591906130ef565b90506121178989898961210790613131565b8961211190613131565b8961213a565b8161212291906130ef565b905060058160ff161015925050509695505050505050565b6000806001600089815260200190815260200160002090506000808660000b8960000b6121679190613186565b905060008660000b8960000b61217d9190613186565b90505b60008260010b1215801561219d5750600f60000b60010b8260010b125b80156121ad575060008160010b12155b80156121c25750600f60000b60010b8160010b125b801561221757508560ff16846003018360ff16600f81106121e6576121e5612d59565b5b018260ff16600f81106121fc576121fb612d59565b5b602091828204019190069054906101000a900460ff1660ff16145b1561225157828061222790612e60565b9350508760000b826122399190613186565b91508660000b8161224a9190613186565b9050612180565b829450505050509695505050505050565b604051806101e00160405280600f905b61227a612290565b8152602001906001900390816122725790505090565b604051806101e00160405280600f90602082028036833780820191505090505090565b600060ff82169050919050565b6122c9816122b3565b82525050565b60006020820190506122e460008301846122c0565b92915050565b600080fd5b600080fd5b6000819050919050565b612307816122f4565b811461231257600080fd5b50565b600081359050612324816122fe565b92915050565b6000602082840312156123405761233f6122ea565b5b600061234e84828501612315565b91505092915050565b612360816122f4565b82525050565b600073ffffffffffffffffffffffffffffffffffffffff82169050919050565b600061239182612366565b9050919050565b6123a181612386565b82525050565b7f4e487b7100000000000000000000000000000000000000000000000000000000600052602160045260246000fd5b600581106123e7576123e66123a7565b5b50565b60008190506123f8826123d6565b919050565b6000612408826123ea565b9050919050565b612418816123fd565b82525050565b600061010082019050612434600083018b612357565b612441602083018a612398565b61244e6040830189612398565b61245b60608301886122c0565b612468608083018761240f565b61247560a0830186612357565b61248260c0830185612357565b61248f60e08301846122c0565b9998505050505050505050565b60006020820190506124b16000830184612357565b92915050565b6000600f9050919050565b600081905092915050565b6000819050919050565b6000600f9050919050565b600081905092915050565b6000819050919050565b612500816122b3565b82525050565b600061251283836124f7565b60208301905092915050565b6000602082019050919050565b612534816124d7565b61253e81846124e2565b9250612549826124ed565b8060005b8381101561257a5781516125618782612506565b965061256c8361251e565b92505060018101905061254d565b505050505050565b600061258e838361252b565b6101e08301905092915050565b6000602082019050919050565b6125b1816124b7565b6125bb81846124c2565b92506125c6826124cd565b8060005b838110156125f75781516125de8782612582565b96506125e98361259b565b9250506001810190506125ca565b505050505050565b6000611c208201905061261560008301846125a8565b92915050565b600060c0820190506126306000830189612398565b61263d6020830188612398565b61264a60408301876122c0565b612657606083018661240f565b6126646080830185612357565b61267160a08301846122c0565b979650505050505050565b600080fd5b600080fd5b600080fd5b60008083601f8401126126a1576126a061267c565b5b8235905067ffffffffffffffff8111156126be576126bd612681565b5b6020830191508360018202830111156126da576126d9612686565b5b9250929050565b6000806000604084860312156126fa576126f96122ea565b5b600061270886828701612315565b935050602084013567ffffffffffffffff811115612729576127286122ef565b5b6127358682870161268b565b92509250509250925092565b61274a816122b3565b811461275557600080fd5b50565b60008135905061276781612741565b92915050565b600080600060608486031215612786576127856122ea565b5b600061279486828701612315565b93505060206127a586828701612758565b92505060406127b686828701612758565b9150509250925092565b6127c981612386565b81146127d457600080fd5b50565b6000813590506127e6816127c0565b92915050565b600060208284031215612802576128016122ea565b5b6000612810848285016127d7565b91505092915050565b600082825260208201905092915050565b7f47616d6520646f6573206e6f7420657869737400000000000000000000000000600082015250565b6000612860601383612819565b915061286b8261282a565b602082019050919050565b6000602082019050818103600083015261288f81612853565b9050919050565b7f596f752061726520616c726561647920696e20612067616d6500000000000000600082015250565b60006128cc601983612819565b91506128d782612896565b602082019050919050565b600060208201905081810360008301526128fb816128bf565b9050919050565b7f4e487b7100000000000000000000000000000000000000000000000000000000600052601160045260246000fd5b600061293c826122f4565b91507fffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff820361296e5761296d612902565b5b600182019050919050565b7f596f7520617265206e6f74206120706c6179657220696e20746869732067616d60008201527f6500000000000000000000000000000000000000000000000000000000000000602082015250565b60006129d5602183612819565b91506129e082612979565b604082019050919050565b60006020820190508181036000830152612a04816129c8565b9050919050565b7f47616d65206973206e6f7420696e20706c6179696e6720737461746500000000600082015250565b6000612a41601c83612819565b9150612a4c82612a0b565b602082019050919050565b60006020820190508181036000830152612a7081612a34565b9050919050565b6000612a82826122f4565b9150612a8d836122f4565b9250828201905080821115612aa557612aa4612902565b5b92915050565b7f54696d656f7574206e6f74207265616368656400000000000000000000000000600082015250565b6000612ae1601383612819565b9150612aec82612aab565b602082019050919050565b60006020820190508181036000830152612b1081612ad4565b9050919050565b6000602082019050612b2c6000830184612398565b92915050565b6000604082019050612b47600083018561240f565b612b546020830184612398565b9392505050565b7f47616d65206973206e6f74206163746976650000000000000000000000000000600082015250565b6000612b91601283612819565b9150612b9c82612b5b565b602082019050919050565b60006020820190508181036000830152612bc081612b84565b9050919050565b7f4d65737361676520697320656d70747900000000000000000000000000000000600082015250565b6000612bfd601083612819565b9150612c0882612bc7565b602082019050919050565b60006020820190508181036000830152612c2c81612bf0565b9050919050565b82818337600083830152505050565b6000601f19601f8301169050919050565b6000612c5f8385612819565b9350612c6c838584612c33565b612c7583612c42565b840190509392505050565b6000819050919050565b6000612ca5612ca0612c9b846122b3565b612c80565b6122f4565b9050919050565b612cb581612c8a565b82525050565b60006040820190508181036000830152612cd6818587612c53565b9050612ce56020830184612cac565b949350505050565b7f496e76616c696420636f6f7264696e6174657300000000000000000000000000600082015250565b6000612d23601383612819565b9150612d2e82612ced565b602082019050919050565b60006020820190508181036000830152612d5281612d16565b9050919050565b7f4e487b7100000000000000000000000000000000000000000000000000000000600052603260045260246000fd5b7f4e6f7420796f7572207475726e00000000000000000000000000000000000000600082015250565b6000612dbe600d83612819565b9150612dc982612d88565b602082019050919050565b60006020820190508181036000830152612ded81612db1565b9050919050565b7f506f736974696f6e20616c7265616479206f6363757069656400000000000000600082015250565b6000612e2a601983612819565b9150612e3582612df4565b602082019050919050565b60006020820190508181036000830152612e5981612e1d565b9050919050565b6000612e6b826122b3565b915060ff8203612e7e57612e7d612902565b5b600182019050919050565b6000606082019050612e9e60008301866122c0565b612eab60208301856122c0565b612eb860408301846122c0565b949350505050565b6000612ecb826122b3565b9150612ed6836122b3565b9250828202612ee4816122b3565b9150808214612ef657612ef5612902565b5b5092915050565b7f47616d65206973206e6f742077616974696e6720666f7220706c617965727300600082015250565b6000612f33601f83612819565b9150612f3e82612efd565b602082019050919050565b60006020820190508181036000830152612f6281612f26565b9050919050565b7f596f752061726520616c726561647920696e20746869732067616d6500000000600082015250565b6000612f9f601c83612819565b9150612faa82612f69565b602082019050919050565b60006020820190508181036000830152612fce81612f92565b9050919050565b7f496e636f72726563742062657420616d6f756e74000000000000000000000000600082015250565b600061300b601483612819565b915061301682612fd5565b602082019050919050565b6000602082019050818103600083015261303a81612ffe565b9050919050565b7f596f752061726520616c726561647920696e20616e6f746865722067616d6500600082015250565b6000613077601f83612819565b915061308282613041565b602082019050919050565b600060208201905081810360008301526130a68161306a565b9050919050565b60006130b8826122f4565b91506130c3836122f4565b92508282026130d1816122f4565b915082820484148315176130e8576130e7612902565b5b5092915050565b60006130fa826122b3565b9150613105836122b3565b9250828201905060ff81111561311e5761311d612902565b5b92915050565b60008160000b9050919050565b600061313c82613124565b91507fffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff80820361316e5761316d612902565b5b816000039050919050565b60008160010b9050919050565b600061319182613179565b915061319c83613179565b925082820190507fffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff80008112617fff821317156131da576131d9612902565b5b9291505056fea26469706673582212203a9d883a92969e85837f80f84b9994bacc29f9dbc7bee654f0b30343c3d2bd1364736f6c634300081f0033";
 
     // Function names
-    private static final String FUNC_CREATEGAME = "createGame";
-    private static final String FUNC_JOINGAME = "joinGame";
-    private static final String FUNC_MAKEMOVE = "makeMove";
-    private static final String FUNC_SENDCHAT = "sendChat";
-    private static final String FUNC_CLAIMTIMEOUT = "claimTimeout";
-    private static final String FUNC_SURRENDER = "surrender";
+    public static final String FUNC_CREATEGAME = "createGame";
+    public static final String FUNC_JOINGAME = "joinGame";
+    public static final String FUNC_MAKEMOVE = "makeMove";
+    public static final String FUNC_SENDCHAT = "sendChat";
+    public static final String FUNC_CLAIMTIMEOUT = "claimTimeout";
+    public static final String FUNC_SURRENDER = "surrender";
     private static final String FUNC_GETGAMEINFO = "getGameInfo";
     private static final String FUNC_GETPIECE = "getPiece";
+    private static final String FUNC_GETBOARD = "getBoard";
     private static final String FUNC_GAMECOUNTER = "gameCounter";
 
+    private static final List<TypeReference<?>> GAMEINFO_OUTPUTS = Arrays.<TypeReference<?>>asList(
+            new TypeReference<Address>() {}, new TypeReference<Address>() {}, new TypeReference<Uint8>() {},
+            new TypeReference<Uint8>() {}, new TypeReference<Uint256>() {}, new TypeReference<Uint8>() {});
+
+    // Board layout (mirrors Gomoku.sol BOARD_SIZE)
+    public static final int BOARD_SIZE = 15;
+    public static final int BOARD_CELLS = BOARD_SIZE * BOARD_SIZE;
+
     // Events
     public static final Event GAMECREATED_EVENT = new Event("GameCreated",
             Arrays.<TypeReference<?>>asList(new TypeReference<Uint256>(true) {}, new TypeReference<Address>(true) {},
@@ -69,6 +91,29 @@ public class Gomoku extends Contract {
             Arrays.<TypeReference<?>>asList(new TypeReference<Uint256>(true) {}, new TypeReference<Address>(true) {},
                     new TypeReference<Utf8String>() {}, new TypeReference<Uint256>() {}));
 
+    public static final String GAMECREATED_TOPIC = EventEncoder.encode(GAMECREATED_EVENT);
+    public static final String PLAYERJOINED_TOPIC = EventEncoder.encode(PLAYERJOINED_EVENT);
+    public static final String MOVEMADE_TOPIC = EventEncoder.encode(MOVEMADE_EVENT);
+    public static final String GAMEENDED_TOPIC = EventEncoder.encode(GAMEENDED_EVENT);
+    public static final String GAMETIMEOUT_TOPIC = EventEncoder.encode(GAMESPACEOUT_EVENT);
+    public static final String CHATSENT_TOPIC = EventEncoder.encode(CHATSENT_EVENT);
+
+    public static final Event[] ALL_EVENTS = {
+        GAMECREATED_EVENT, PLAYERJOINED_EVENT, MOVEMADE_EVENT, GAMEENDED_EVENT, GAMESPACEOUT_EVENT, CHATSENT_EVENT
+    };
+
+    // Indexed by GomokuEventDecoder type
+    private static final String[] EVENT_NAMES = {
+        "unknown", "GameCreated", "PlayerJoined", "MoveMade", "GameEnded", "GameTimeout", "ChatSent"
+    };
+
+    private static final Map<String, Event> TOPIC_EVENTS = new HashMap<>();
+    static {
+        for (Event event : ALL_EVENTS) {
+            TOPIC_EVENTS.put(EventEncoder.encode(event), event);
+        }
+    }
+
     protected Gomoku(String contractAddress, Web3j web3j, Credentials credentials, ContractGasProvider gasProvider) {
         super(BINARY, contractAddress, web3j, credentials, gasProvider);
     }
@@ -90,36 +135,63 @@ public class Gomoku extends Contract {
 
     // ------------ Write functions ------------
     public RemoteFunctionCall<TransactionReceipt> createGame(BigInteger valueWei) {
-        Function function = new Function(FUNC_CREATEGAME, Collections.emptyList(), Collections.emptyList());
-        return executeRemoteCallTransaction(function, valueWei);
+        return executeRemoteCallTransaction(createGameFunction(), valueWei);
     }
 
     public RemoteFunctionCall<TransactionReceipt> joinGame(BigInteger gameId, BigInteger valueWei) {
-        Function function = new Function(FUNC_JOINGAME, Arrays.<Type>asList(new Uint256(gameId)), Collections.emptyList());
-        return executeRemoteCallTransaction(function, valueWei);
+        return executeRemoteCallTransaction(joinGameFunction(gameId), valueWei);
     }
 
     public RemoteFunctionCall<TransactionReceipt> makeMove(BigInteger gameId, int x, int y) {
-        Function function = new Function(FUNC_MAKEMOVE,
-                Arrays.<Type>asList(new Uint256(gameId), new Uint8(BigInteger.valueOf(x)), new Uint8(BigInteger.valueOf(y))),
-                Collections.emptyList());
-        return executeRemoteCallTransaction(function);
+        return executeRemoteCallTransaction(makeMoveFunction(gameId, x, y));
+    }
+
+    /**
+     * makeMove calldata, for eth_call simulation or raw submission
+     */
+    public static String encodeMakeMove(BigInteger gameId, int x, int y) {
+        return FunctionEncoder.encode(makeMoveFunction(gameId, x, y));
     }
 
     public RemoteFunctionCall<TransactionReceipt> sendChat(BigInteger gameId, String message) {
-        Function function = new Function(FUNC_SENDCHAT, Arrays.<Type>asList(new Uint256(gameId), new Utf8String(message)),
-                Collections.emptyList());
-        return executeRemoteCallTransaction(function);
+        return executeRemoteCallTransaction(sendChatFunction(gameId, message));
     }
 
     public RemoteFunctionCall<TransactionReceipt> claimTimeout(BigInteger gameId) {
-        Function function = new Function(FUNC_CLAIMTIMEOUT, Arrays.<Type>asList(new Uint256(gameId)), Collections.emptyList());
-        return executeRemoteCallTransaction(function);
+        return executeRemoteCallTransaction(claimTimeoutFunction(gameId));
     }
 
     public RemoteFunctionCall<TransactionReceipt> surrender(BigInteger gameId) {
-        Function function = new Function(FUNC_SURRENDER, Arrays.<Type>asList(new Uint256(gameId)), Collections.emptyList());
-        return executeRemoteCallTransaction(function);
+        return executeRemoteCallTransaction(surrenderFunction(gameId));
+    }
+
+    // ------------ Write function encoders (for raw / pipelined submission) ------------
+
+    public static Function createGameFunction() {
+        return new Function(FUNC_CREATEGAME, Collections.emptyList(), Collections.emptyList());
+    }
+
+    public static Function joinGameFunction(BigInteger gameId) {
+        return new Function(FUNC_JOINGAME, Arrays.<Type>asList(new Uint256(gameId)), Collections.emptyList());
+    }
+
+    public static Function makeMoveFunction(BigInteger gameId, int x, int y) {
+        return new Function(FUNC_MAKEMOVE,
+                Arrays.<Type>asList(new Uint256(gameId), new Uint8(BigInteger.valueOf(x)), new Uint8(BigInteger.valueOf(y))),
+                Collections.emptyList());
+    }
+
+    public static Function sendChatFunction(BigInteger gameId, String message) {
+        return new Function(FUNC_SENDCHAT, Arrays.<Type>asList(new Uint256(gameId), new Utf8String(message)),
+                Collections.emptyList());
+    }
+
+    public static Function claimTimeoutFunction(BigInteger gameId) {
+        return new Function(FUNC_CLAIMTIMEOUT, Arrays.<Type>asList(new Uint256(gameId)), Collections.emptyList());
+    }
+
+    public static Function surrenderFunction(BigInteger gameId) {
+        return new Function(FUNC_SURRENDER, Arrays.<Type>asList(new Uint256(gameId)), Collections.emptyList());
     }
 
     // ------------ Read functions ------------
@@ -136,20 +208,26 @@ public class Gomoku extends Contract {
     }
     
     public RemoteFunctionCall<GameInfo> getGameInfo(BigInteger gameId) {
-        Function function = new Function(FUNC_GETGAMEINFO, Arrays.<Type>asList(new Uint256(gameId)), Arrays.asList(
-                new TypeReference<Address>() {}, new TypeReference<Address>() {}, new TypeReference<Uint8>() {},
-                new TypeReference<Uint8>() {}, new TypeReference<Uint256>() {}, new TypeReference<Uint8>() {}));
-        return new RemoteFunctionCall<>(function, () -> {
-            List<Type> results = executeCallMultipleValueReturn(function);
-            GameInfo info = new GameInfo();
-            info.blackPlayer = (String) results.get(0).getValue();
-            info.whitePlayer = (String) results.get(1).getValue();
-            info.currentPlayer = ((Uint8) results.get(2)).getValue().intValue();
-            info.state = ((Uint8) results.get(3)).getValue().intValue();
-            info.betAmountWei = ((Uint256) results.get(4)).getValue();
-            info.moveCount = ((Uint8) results.get(5)).getValue().intValue();
-            return info;
-        });
+        Function function = new Function(FUNC_GETGAMEINFO, Arrays.<Type>asList(new Uint256(gameId)), GAMEINFO_OUTPUTS);
+        return new RemoteFunctionCall<>(function, () -> decodeGameInfo(executeCallWithoutDecoding(function)));
+    }
+
+    /**
+     * Decodes getGameInfo return data (black, white, currentPlayer, state, betAmount, moveCount).
+     */
+    public static GameInfo decodeGameInfo(String hex) {
+        List<Type> results = FunctionReturnDecoder.decode(hex, Utils.convert(GAMEINFO_OUTPUTS));
+        if (results.size() != GAMEINFO_OUTPUTS.size()) {
+            throw new ContractCallException("Unexpected getGameInfo return data: " + hex);
+        }
+        GameInfo info = new GameInfo();
+        info.blackPlayer = (String) results.get(0).getValue();
+        info.whitePlayer = (String) results.get(1).getValue();
+        info.currentPlayer = ((Uint8) results.get(2)).getValue().intValue();
+        info.state = ((Uint8) results.get(3)).getValue().intValue();
+        info.betAmountWei = ((Uint256) results.get(4)).getValue();
+        info.moveCount = ((Uint8) results.get(5)).getValue().intValue();
+        return info;
     }
 
     public RemoteFunctionCall<Integer> getPiece(BigInteger gameId, int x, int y) {
@@ -159,52 +237,261 @@ public class Gomoku extends Contract {
         return executeRemoteCallSingleValueReturn(function, Integer.class);
     }
 
+    /**
+     * 一次讀取整個棋盤 (單一 eth_call)
+     * @return byte[225], board[x][y] 位於 index x * 15 + y
+     */
+    public RemoteFunctionCall<byte[]> getBoard(BigInteger gameId) {
+        Function function = getBoardFunction(gameId);
+        return new RemoteFunctionCall<>(function, () -> decodeBoard(executeCallWithoutDecoding(function)));
+    }
+
+    /**
+     * Reads several boards in one JSON-RPC batch; results follow the order of gameIds.
+     */
+    public List<byte[]> getBoards(List<BigInteger> gameIds) throws IOException {
+        List<byte[]> boards = new ArrayList<>(gameIds.size());
+        if (gameIds.isEmpty()) {
+            return boards;
+        }
+        BatchRequest batch = web3j.newBatch();
+        String from = transactionManager.getFromAddress();
+        for (BigInteger gameId : gameIds) {
+            String data = FunctionEncoder.encode(getBoardFunction(gameId));
+            batch.add(web3j.ethCall(Transaction.createEthCallTransaction(from, getContractAddress(), data),
+                    defaultBlockParameter));
+        }
+        BatchResponse response = batch.send();
+        // Match by request id, servers may answer a batch out of order
+        List<Long> ids = new ArrayList<>(gameIds.size());
+        for (int i = 0; i < gameIds.size(); i++) {
+            ids.add(batch.getRequests().get(i).getId());
+            boards.add(null);
+        }
+        for (Object r : response.getResponses()) {
+            EthCall call = (EthCall) r;
+            int i = ids.indexOf(call.getId());
+            if (i < 0) {
+                continue;
+            }
+            if (call.hasError() || call.isReverted()) {
+                throw new ContractCallException("getBoard(" + gameIds.get(i) + ") failed: "
+                        + (call.hasError() ? call.getError().getMessage() : call.getRevertReason()));
+            }
+            boards.set(i, decodeBoard(call.getValue()));
+        }
+        if (boards.contains(null)) {
+            throw new ContractCallException("getBoard batch response is incomplete");
+        }
+        return boards;
+    }
+
+    /**
+     * eth_call of a read function at a fixed block, so the result belongs to exactly that block.
+     * @return raw return data, to be decoded by the caller
+     */
+    public String callAt(RemoteFunctionCall<?> call, DefaultBlockParameter block) throws IOException {
+        EthCall r = web3j.ethCall(Transaction.createEthCallTransaction(transactionManager.getFromAddress(),
+                getContractAddress(), call.encodeFunctionCall()), block).send();
+        if (r.hasError() || r.isReverted()) {
+            throw new ContractCallException("eth_call failed: "
+                    + (r.hasError() ? r.getError().getMessage() : r.getRevertReason()));
+        }
+        return r.getValue();
+    }
+
+    private static Function getBoardFunction(BigInteger gameId) {
+        return new Function(FUNC_GETBOARD, Arrays.<Type>asList(new Uint256(gameId)), Collections.emptyList());
+    }
+
+    /**
+     * uint8[15][15] is a static array: 225 words, row-major, value in the last byte of each word.
+     * Reads the hex directly so no Uint8/BigInteger is created per cell.
+     */
+    public static byte[] decodeBoard(String hex) {
+        int offset = hex != null && hex.startsWith("0x") ? 2 : 0;
+        if (hex == null || hex.length() - offset < BOARD_CELLS * 64) {
+            throw new ContractCallException("Unexpected getBoard return data: " + hex);
+        }
+        byte[] board = new byte[BOARD_CELLS];
+        for (int i = 0, p = offset + 62; i < BOARD_CELLS; i++, p += 64) {
+            board[i] = (byte) ((Character.digit(hex.charAt(p), 16) << 4) | Character.digit(hex.charAt(p + 1), 16));
+        }
+        return board;
+    }
+
     // ------------ Event helpers ------------
     public List<MoveMadeEventResponse> getMoveMadeEvents(TransactionReceipt receipt) {
-        List<EventValuesWithLog> valueList = staticExtractEventParametersWithLog(MOVEMADE_EVENT, receipt);
-        List<MoveMadeEventResponse> responses = new ArrayList<>(valueList.size());
-        for (EventValuesWithLog eventValues : valueList) {
-            MoveMadeEventResponse r = new MoveMadeEventResponse();
-            r.log = eventValues.getLog();
-            r.gameId = ((Uint256) eventValues.getIndexedValues().get(0)).getValue();
-            r.player = (String) eventValues.getIndexedValues().get(1).getValue();
-            r.x = ((Uint8) eventValues.getNonIndexedValues().get(0)).getValue().intValue();
-            r.y = ((Uint8) eventValues.getNonIndexedValues().get(1)).getValue().intValue();
-            r.piece = ((Uint8) eventValues.getNonIndexedValues().get(2)).getValue().intValue();
-            responses.add(r);
+        List<MoveMadeEventResponse> responses = new ArrayList<>();
+        for (Log log : receipt.getLogs()) {
+            if (!log.getTopics().isEmpty() && MOVEMADE_TOPIC.equals(log.getTopics().get(0))) {
+                responses.add(toMoveMade(log));
+            }
         }
         return responses;
     }
 
     public Flowable<MoveMadeEventResponse> moveMadeEventFlowable(DefaultBlockParameter start, DefaultBlockParameter end) {
         EthFilter filter = new EthFilter(start, end, getContractAddress());
-        filter.addSingleTopic(EventEncoder.encode(MOVEMADE_EVENT));
-        return web3j.ethLogFlowable(filter).map(log -> {
-            EventValuesWithLog ev = staticExtractEventParametersWithLog(MOVEMADE_EVENT, log);
-            MoveMadeEventResponse r = new MoveMadeEventResponse();
-            r.log = log;
-            r.gameId = ((Uint256) ev.getIndexedValues().get(0)).getValue();
-            r.player = (String) ev.getIndexedValues().get(1).getValue();
-            r.x = ((Uint8) ev.getNonIndexedValues().get(0)).getValue().intValue();
-            r.y = ((Uint8) ev.getNonIndexedValues().get(1)).getValue().intValue();
-            r.piece = ((Uint8) ev.getNonIndexedValues().get(2)).getValue().intValue();
-            return r;
-        });
+        filter.addSingleTopic(MOVEMADE_TOPIC);
+        return web3j.ethLogFlowable(filter).map(Gomoku::toMoveMade);
     }
 
     public Flowable<ChatSentEventResponse> chatSentEventFlowable(DefaultBlockParameter start, DefaultBlockParameter end) {
         EthFilter filter = new EthFilter(start, end, getContractAddress());
-        filter.addSingleTopic(EventEncoder.encode(CHATSENT_EVENT));
-        return web3j.ethLogFlowable(filter).map(log -> {
-            EventValuesWithLog ev = staticExtractEventParametersWithLog(CHATSENT_EVENT, log);
-            ChatSentEventResponse r = new ChatSentEventResponse();
-            r.log = log;
-            r.gameId = ((Uint256) ev.getIndexedValues().get(0)).getValue();
-            r.sender = (String) ev.getIndexedValues().get(1).getValue();
-            r.message = (String) ev.getNonIndexedValues().get(0).getValue();
-            r.moveNumber = ((Uint256) ev.getNonIndexedValues().get(1)).getValue();
-            return r;
-        });
+        filter.addSingleTopic(CHATSENT_TOPIC);
+        return web3j.ethLogFlowable(filter).map(Gomoku::toChatSent);
+    }
+
+    /**
+     * All six events through one filter and one poll loop, decoded to their typed responses.
+     */
+    public Flowable<BaseEventResponse> allEventsFlowable(DefaultBlockParameter start, DefaultBlockParameter end) {
+        return allEventsFlowable(start, end, null);
+    }
+
+    /**
+     * Same as allEventsFlowable, restricted to one game through the indexed gameId topic (null = all games).
+     */
+    public Flowable<BaseEventResponse> allEventsFlowable(DefaultBlockParameter start, DefaultBlockParameter end,
+            BigInteger gameId) {
+        EthFilter filter = eventFilter(start, end, ALL_EVENTS);
+        if (gameId != null) {
+            filter.addSingleTopic(Numeric.toHexStringWithPrefixZeroPadded(gameId, 64));
+        }
+        return web3j.ethLogFlowable(filter)
+                .filter(log -> !log.getTopics().isEmpty() && TOPIC_EVENTS.containsKey(log.getTopics().get(0)))
+                .map(Gomoku::decodeEvent);
+    }
+
+    /**
+     * Raw logs for the given events through one filter (topic0 OR'd), in block order.
+     */
+    public Flowable<Log> logFlowable(DefaultBlockParameter start, DefaultBlockParameter end, Event... events) {
+        return web3j.ethLogFlowable(eventFilter(start, end, events));
+    }
+
+    /**
+     * One-shot eth_getLogs for a closed block range.
+     */
+    public List<Log> getLogs(DefaultBlockParameter start, DefaultBlockParameter end, Event... events)
+            throws IOException {
+        EthLog ethLog = web3j.ethGetLogs(eventFilter(start, end, events)).send();
+        if (ethLog.hasError()) {
+            throw new IOException("eth_getLogs failed: " + ethLog.getError().getMessage());
+        }
+        List<Log> logs = new ArrayList<>(ethLog.getLogs().size());
+        for (EthLog.LogResult result : ethLog.getLogs()) {
+            logs.add((Log) result.get());
+        }
+        return logs;
+    }
+
+    private EthFilter eventFilter(DefaultBlockParameter start, DefaultBlockParameter end, Event... events) {
+        EthFilter filter = new EthFilter(start, end, getContractAddress());
+        String[] topics = new String[events.length];
+        for (int i = 0; i < events.length; i++) {
+            topics[i] = EventEncoder.encode(events[i]);
+        }
+        filter.addOptionalTopics(topics);
+        return filter;
+    }
+
+    // ------------ Event decoding ------------
+
+    /**
+     * Decodes any Gomoku event log by topic0, or returns null for a foreign log.
+     */
+    public static BaseEventResponse decodeEvent(Log log) {
+        if (log.getTopics() == null || log.getTopics().isEmpty()) {
+            return null;
+        }
+        Event event = TOPIC_EVENTS.get(log.getTopics().get(0));
+        if (event == GAMECREATED_EVENT) {
+            return toGameCreated(log);
+        } else if (event == PLAYERJOINED_EVENT) {
+            return toPlayerJoined(log);
+        } else if (event == MOVEMADE_EVENT) {
+            return toMoveMade(log);
+        } else if (event == GAMEENDED_EVENT) {
+            return toGameEnded(log);
+        } else if (event == GAMESPACEOUT_EVENT) {
+            return toGameTimeout(log);
+        } else if (event == CHATSENT_EVENT) {
+            return toChatSent(log);
+        }
+        return null;
+    }
+
+    // Built on GomokuEventDecoder: no TypeReference / Uint* objects, only the response's own fields
+
+    public static GameCreatedEventResponse toGameCreated(Log log) {
+        GomokuEventDecoder.Decoded d = decodeAs(log, GomokuEventDecoder.GAME_CREATED);
+        GameCreatedEventResponse r = new GameCreatedEventResponse();
+        r.log = log;
+        r.gameId = d.gameIdBig();
+        r.creator = d.accountAddress();
+        r.betAmountWei = d.betAmountWeiBig();
+        return r;
+    }
+
+    public static PlayerJoinedEventResponse toPlayerJoined(Log log) {
+        GomokuEventDecoder.Decoded d = decodeAs(log, GomokuEventDecoder.PLAYER_JOINED);
+        PlayerJoinedEventResponse r = new PlayerJoinedEventResponse();
+        r.log = log;
+        r.gameId = d.gameIdBig();
+        r.player = d.accountAddress();
+        return r;
+    }
+
+    public static MoveMadeEventResponse toMoveMade(Log log) {
+        GomokuEventDecoder.Decoded d = decodeAs(log, GomokuEventDecoder.MOVE_MADE);
+        MoveMadeEventResponse r = new MoveMadeEventResponse();
+        r.log = log;
+        r.gameId = d.gameIdBig();
+        r.player = d.accountAddress();
+        r.x = d.x;
+        r.y = d.y;
+        r.piece = d.piece;
+        return r;
+    }
+
+    public static GameEndedEventResponse toGameEnded(Log log) {
+        GomokuEventDecoder.Decoded d = decodeAs(log, GomokuEventDecoder.GAME_ENDED);
+        GameEndedEventResponse r = new GameEndedEventResponse();
+        r.log = log;
+        r.gameId = d.gameIdBig();
+        r.state = d.state;
+        r.winner = d.accountAddress();
+        return r;
+    }
+
+    public static GameTimeoutEventResponse toGameTimeout(Log log) {
+        GomokuEventDecoder.Decoded d = decodeAs(log, GomokuEventDecoder.GAME_TIMEOUT);
+        GameTimeoutEventResponse r = new GameTimeoutEventResponse();
+        r.log = log;
+        r.gameId = d.gameIdBig();
+        r.winner = d.accountAddress();
+        return r;
+    }
+
+    public static ChatSentEventResponse toChatSent(Log log) {
+        GomokuEventDecoder.Decoded d = decodeAs(log, GomokuEventDecoder.CHAT_SENT);
+        ChatSentEventResponse r = new ChatSentEventResponse();
+        r.log = log;
+        r.gameId = d.gameIdBig();
+        r.sender = d.accountAddress();
+        r.message = d.message();
+        r.moveNumber = BigInteger.valueOf(d.moveNumber);
+        return r;
+    }
+
+    private static GomokuEventDecoder.Decoded decodeAs(Log log, int type) {
+        GomokuEventDecoder.Decoded d = new GomokuEventDecoder.Decoded();
+        if (!GomokuEventDecoder.decode(log.getTopics(), log.getData(), d) || d.type != type) {
+            throw new IllegalArgumentException("Log is not a " + EVENT_NAMES[type] + " event");
+        }
+        return d;
     }
 
     // ------------ DTOs ------------
@@ -225,6 +512,28 @@ public class Gomoku extends Contract {
         public int piece;
     }
 
+    public static class GameCreatedEventResponse extends BaseEventResponse {
+        public BigInteger gameId;
+        public String creator;
+        public BigInteger betAmountWei;
+    }
+
+    public static class PlayerJoinedEventResponse extends BaseEventResponse {
+        public BigInteger gameId;
+        public String player;
+    }
+
+    public static class GameEndedEventResponse extends BaseEventResponse {
+        public BigInteger gameId;
+        public int state;     // enum GameState
+        public String winner; // zero address on draw
+    }
+
+    public static class GameTimeoutEventResponse extends BaseEventResponse {
+        public BigInteger gameId;
+        public String winner;
+    }
+
     public static class ChatSentEventResponse extends BaseEventResponse {
         public BigInteger gameId;
         public String sender;
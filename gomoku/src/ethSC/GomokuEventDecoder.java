@@ -0,0 +1,271 @@
+package ethSC;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.web3j.protocol.core.methods.response.Log;
+
+/**
+ * Hand-specialised decoders for the six Gomoku.sol event layouts.
+ *
+ * Topics and data are read straight out of the log's hex strings into primitive fields of a
+ * reusable Decoded: no TypeReference reflection, no Uint / Address / BigInteger objects.
+ * Decoding into an existing Decoded allocates nothing; the BigInteger / String forms
+ * (gameIdBig, accountAddress, message, ...) are built only when asked for.
+ *
+ * Layouts (gameId is always topic 1):
+ *   GameCreated(gameId idx, creator idx, bet)      PlayerJoined(gameId idx, player idx)
+ *   MoveMade(gameId idx, player idx, x, y, piece)  GameEnded(gameId idx, state, winner)
+ *   GameTimeout(gameId idx, winner)                ChatSent(gameId idx, sender idx, message, moveNumber)
+ */
+public final class GomokuEventDecoder {
+    public static final int UNKNOWN = 0;
+    public static final int GAME_CREATED = 1;
+    public static final int PLAYER_JOINED = 2;
+    public static final int MOVE_MADE = 3;
+    public static final int GAME_ENDED = 4;
+    public static final int GAME_TIMEOUT = 5;
+    public static final int CHAT_SENT = 6;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private GomokuEventDecoder() {
+    }
+
+    /**
+     * One decoded event; reuse a single instance per consumer thread to avoid allocation.
+     * Fields not used by the event's type keep stale values from the previous decode.
+     */
+    public static final class Decoded {
+        public int type;
+        public boolean removed;
+        public long block = -1;        // -1 if the log has none (pending)
+        public int logIndex = -1;
+        public long gameId;            // -1 if it does not fit in a long, see gameIdBig()
+        /** creator / joining player / mover / winner (zero on draw) / chat sender */
+        public final byte[] account = new byte[20];
+        public int x;
+        public int y;
+        public int piece;
+        public int state;
+        public long betAmountWei;      // -1 if it does not fit in a long, see betAmountWeiBig()
+        public long moveNumber;
+        public int messageLength;      // UTF-8 bytes
+
+        // Source of the lazily decoded forms
+        private String gameIdTopic;
+        private String data;
+        private int betPos;
+        private int messagePos;
+
+        public BigInteger gameIdBig() {
+            return gameId >= 0 ? BigInteger.valueOf(gameId) : new BigInteger(gameIdTopic.substring(2), 16);
+        }
+
+        public BigInteger betAmountWeiBig() {
+            return betAmountWei >= 0 ? BigInteger.valueOf(betAmountWei) : new BigInteger(data.substring(betPos, betPos + 64), 16);
+        }
+
+        /**
+         * account as a lowercase 0x-prefixed address, as web3j's Address.toString() gives it.
+         */
+        public String accountAddress() {
+            char[] c = new char[42];
+            c[0] = '0';
+            c[1] = 'x';
+            for (int i = 0; i < 20; i++) {
+                c[2 + 2 * i] = HEX[(account[i] >>> 4) & 0xF];
+                c[3 + 2 * i] = HEX[account[i] & 0xF];
+            }
+            return new String(c);
+        }
+
+        /**
+         * Compares account with a 0x-prefixed hex address without allocating.
+         */
+        public boolean accountEquals(String address) {
+            if (address == null || address.length() != 42) {
+                return false;
+            }
+            for (int i = 0; i < 20; i++) {
+                if ((byte) ((nibble(address, 2 + 2 * i) << 4) | nibble(address, 3 + 2 * i)) != account[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * ChatSent message text.
+         */
+        public String message() {
+            byte[] bytes = new byte[messageLength];
+            for (int i = 0; i < messageLength; i++) {
+                bytes[i] = (byte) ((nibble(data, messagePos + 2 * i) << 4) | nibble(data, messagePos + 2 * i + 1));
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    // ------------ Decoding ------------
+
+    public static int typeOf(String topic0) {
+        if (Gomoku.MOVEMADE_TOPIC.equals(topic0)) {
+            return MOVE_MADE;
+        } else if (Gomoku.CHATSENT_TOPIC.equals(topic0)) {
+            return CHAT_SENT;
+        } else if (Gomoku.GAMECREATED_TOPIC.equals(topic0)) {
+            return GAME_CREATED;
+        } else if (Gomoku.PLAYERJOINED_TOPIC.equals(topic0)) {
+            return PLAYER_JOINED;
+        } else if (Gomoku.GAMEENDED_TOPIC.equals(topic0)) {
+            return GAME_ENDED;
+        } else if (Gomoku.GAMETIMEOUT_TOPIC.equals(topic0)) {
+            return GAME_TIMEOUT;
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Allocating convenience form of decode(log, out).
+     * @return null if log is not a Gomoku event
+     */
+    public static Decoded decode(Log log) {
+        Decoded d = new Decoded();
+        return decode(log, d) ? d : null;
+    }
+
+    /**
+     * Decodes log (including block number, log index and the removed flag) into out.
+     * @return false (out.type = UNKNOWN) if log is not a Gomoku event
+     * @throws IllegalArgumentException if a Gomoku event log is truncated
+     */
+    public static boolean decode(Log log, Decoded out) {
+        out.removed = log.isRemoved();
+        out.block = quantity(log.getBlockNumberRaw());
+        out.logIndex = (int) quantity(log.getLogIndexRaw());
+        return decode(log.getTopics(), log.getData(), out);
+    }
+
+    public static boolean decode(List<String> topics, String data, Decoded out) {
+        out.type = topics == null || topics.isEmpty() ? UNKNOWN : typeOf(topics.get(0));
+        if (out.type == UNKNOWN) {
+            return false;
+        }
+        int base = data != null && data.startsWith("0x") ? 2 : 0;
+        out.data = data;
+        switch (out.type) {
+            case GAME_CREATED:
+                requireShape(topics, 3, data, base, 1);
+                out.betPos = base;
+                out.betAmountWei = longWord(data, base);
+                break;
+            case PLAYER_JOINED:
+                requireShape(topics, 3, data, base, 0);
+                break;
+            case MOVE_MADE:
+                requireShape(topics, 3, data, base, 3);
+                out.x = uint8Word(data, base);
+                out.y = uint8Word(data, base + 64);
+                out.piece = uint8Word(data, base + 128);
+                break;
+            case GAME_ENDED:
+                requireShape(topics, 2, data, base, 2);
+                out.state = uint8Word(data, base);
+                addressWord(data, base + 64, out.account);
+                break;
+            case GAME_TIMEOUT:
+                requireShape(topics, 2, data, base, 1);
+                addressWord(data, base, out.account);
+                break;
+            default: // CHAT_SENT
+                requireShape(topics, 3, data, base, 3);
+                long offset = longWord(data, base);
+                out.moveNumber = longWord(data, base + 64);
+                // Bounds are checked on the long values, before anything is narrowed to int
+                if (offset < 0 || offset > (data.length() - base - 64) / 2) {
+                    throw new IllegalArgumentException("Malformed ChatSent log data");
+                }
+                int lengthPos = base + 2 * (int) offset;
+                long length = longWord(data, lengthPos);
+                out.messagePos = lengthPos + 64;
+                if (length < 0 || length > (data.length() - out.messagePos) / 2) {
+                    throw new IllegalArgumentException("Malformed ChatSent log data");
+                }
+                out.messageLength = (int) length;
+                break;
+        }
+        String gameTopic = topics.get(1);
+        out.gameIdTopic = gameTopic;
+        out.gameId = longWord(gameTopic, 2);
+        if (out.type == GAME_CREATED || out.type == PLAYER_JOINED || out.type == MOVE_MADE || out.type == CHAT_SENT) {
+            addressWord(topics.get(2), 2, out.account);
+        }
+        return true;
+    }
+
+    private static void requireShape(List<String> topics, int topicCount, String data, int base, int words) {
+        if (topics.size() < topicCount || (words > 0 && (data == null || data.length() < base + 64 * words))) {
+            throw new IllegalArgumentException("Malformed Gomoku event log: " + topics.get(0));
+        }
+        for (int i = 1; i < topicCount; i++) {
+            if (topics.get(i).length() != 66) {
+                throw new IllegalArgumentException("Malformed Gomoku event topic: " + topics.get(i));
+            }
+        }
+    }
+
+    // ------------ Hex words ------------
+
+    private static int nibble(String s, int i) {
+        char c = s.charAt(i);
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        int lower = c | 0x20;
+        if (lower >= 'a' && lower <= 'f') {
+            return lower - 'a' + 10;
+        }
+        throw new IllegalArgumentException("Invalid hex character '" + c + "'");
+    }
+
+    private static int uint8Word(String s, int pos) {
+        return (nibble(s, pos + 62) << 4) | nibble(s, pos + 63);
+    }
+
+    /**
+     * A 32-byte word as a long, or -1 if it does not fit in 63 bits.
+     */
+    private static long longWord(String s, int pos) {
+        for (int i = pos; i < pos + 48; i++) {
+            if (s.charAt(i) != '0') {
+                return -1;
+            }
+        }
+        if (nibble(s, pos + 48) >= 8) {
+            return -1;
+        }
+        long v = 0;
+        for (int i = pos + 48; i < pos + 64; i++) {
+            v = (v << 4) | nibble(s, i);
+        }
+        return v;
+    }
+
+    private static void addressWord(String s, int pos, byte[] out) {
+        for (int i = 0, p = pos + 24; i < 20; i++, p += 2) {
+            out[i] = (byte) ((nibble(s, p) << 4) | nibble(s, p + 1));
+        }
+    }
+
+    private static long quantity(String hex) {
+        if (hex == null) {
+            return -1;
+        }
+        long v = 0;
+        for (int i = hex.startsWith("0x") ? 2 : 0; i < hex.length(); i++) {
+            v = (v << 4) | nibble(hex, i);
+        }
+        return v;
+    }
+}
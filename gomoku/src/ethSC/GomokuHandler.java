@@ -1,16 +1,28 @@
 package ethSC;
 
+import io.reactivex.Flowable;
+import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.datatypes.Event;
+import org.web3j.abi.datatypes.Function;
 import org.web3j.crypto.Credentials;
 import org.web3j.crypto.WalletUtils;
 import org.web3j.protocol.Web3j;
-import org.web3j.protocol.http.HttpService;
-import org.web3j.tx.RawTransactionManager;
-import org.web3j.tx.TransactionManager;
-import org.web3j.tx.gas.ContractGasProvider;
-import org.web3j.tx.gas.DefaultGasProvider;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.RemoteFunctionCall;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
 
 import ethInfo.EthBasis;
 
@@ -19,9 +31,21 @@ import ethInfo.EthBasis;
  * Fill EthBasis fields before running.
  */
 public class GomokuHandler {
+    // Pre-flight, estimation and fee refresh block on the node: one virtual thread each
+    private static final ExecutorService RPC = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("gomoku-rpc-", 0).factory());
+
     private final Web3j web3j;
     private final Credentials credentials;
     private final Gomoku gomoku;
+    private final EstimatingGasProvider gas;
+    private final ReceiptTracker receipts;
+    private final PipelinedTransactionManager tm;
+    private MovePreflight preflight;
+    private FeeBumper bumper;
+    private volatile ReadCache cache;
+    // Guarded by this: completes once the previous async write was handed to the sender
+    private CompletableFuture<Void> queued = CompletableFuture.completedFuture(null);
 
     /**
      * 預設建構子 - 使用帳號 1
@@ -36,10 +60,26 @@ public class GomokuHandler {
      * @param password 帳號密碼
      */
     public GomokuHandler(String keystorePath, String password) throws Exception {
-        this.web3j = Web3j.build(new HttpService(EthBasis.rpcUrl));
-        this.credentials = WalletUtils.loadCredentials(password, Paths.get(keystorePath).toFile());
-        ContractGasProvider gas = new DefaultGasProvider();
-        TransactionManager tm = new RawTransactionManager(web3j, credentials, EthBasis.chainID);
+        this(Transports.open(EthBasis.rpcUrl), keystorePath, password);
+    }
+
+    /**
+     * 指定傳輸層 (HttpService / WebSocketService / 其他 Web3jService)
+     */
+    public GomokuHandler(Web3jService service, String keystorePath, String password) throws Exception {
+        this(Web3j.build(service), WalletUtils.loadCredentials(password, Paths.get(keystorePath).toFile()), null);
+    }
+
+    /**
+     * 共用 Web3j 與收據追蹤器的輕量建構子 (見 SessionManager)
+     * @param receipts shared tracker, or null for a private one
+     */
+    public GomokuHandler(Web3j web3j, Credentials credentials, ReceiptTracker receipts) {
+        this.web3j = web3j;
+        this.credentials = credentials;
+        this.gas = new EstimatingGasProvider(web3j, EthBasis.gomokuAddress, credentials.getAddress());
+        this.receipts = receipts != null ? receipts : new ReceiptTracker(web3j);
+        this.tm = new PipelinedTransactionManager(web3j, credentials, EthBasis.chainID, this.receipts);
         this.gomoku = Gomoku.load(EthBasis.gomokuAddress, web3j, tm, gas);
         
         System.out.println("✓ Loaded account: " + credentials.getAddress());
@@ -49,31 +89,239 @@ public class GomokuHandler {
         return gomoku;
     }
 
+    public Web3j getWeb3j() {
+        return web3j;
+    }
+
+    public String getAddress() {
+        return credentials.getAddress();
+    }
+
+    /**
+     * 所有交易共用的收據追蹤器 (每個區塊查詢一次)
+     */
+    public ReceiptTracker getReceiptTracker() {
+        return receipts;
+    }
+
+    /**
+     * 即時合約事件: 設定 EthBasis.wsUrl 時使用 eth_subscribe 推播 (斷線自動重連並補齊區塊),
+     * 否則退回 filter polling
+     */
+    public Flowable<Log> liveLogs(Event... events) throws IOException {
+        if (EthBasis.wsUrl == null) {
+            return gomoku.logFlowable(DefaultBlockParameterName.LATEST, DefaultBlockParameterName.LATEST, events);
+        }
+        LiveLogSubscription sub = new LiveLogSubscription(EthBasis.wsUrl, gomoku, events);
+        sub.start();
+        return sub.logs().doOnCancel(sub::close);
+    }
+
+    public TransactionReceipt createGame(BigInteger valueWei) throws Exception {
+        return send(Gomoku.createGameFunction(), valueWei, gomoku.createGame(valueWei));
+    }
+
     public void joinGame(BigInteger gameId, BigInteger valueWei) throws Exception {
-        gomoku.joinGame(gameId, valueWei).send();
+        send(Gomoku.joinGameFunction(gameId), valueWei, gomoku.joinGame(gameId, valueWei));
+    }
+
+    /**
+     * 啟用送出前檢查 (本地狀態優先, 過時則以 eth_call 模擬)
+     * @param view local state, or null to always simulate
+     */
+    public void enablePreflight(GameStateView view) {
+        this.preflight = new MovePreflight(web3j, gomoku, credentials.getAddress(), view);
+    }
+
+    /**
+     * @return null if the move is expected to succeed (always null when pre-flight is off)
+     */
+    public MoveRejection checkMove(BigInteger gameId, int x, int y) throws IOException {
+        return preflight == null ? null : preflight.check(gameId, x, y);
     }
 
+    /**
+     * @throws MoveRejectedException if pre-flight is enabled and the move would revert; nothing is sent
+     */
     public void makeMove(BigInteger gameId, int x, int y) throws Exception {
-        gomoku.makeMove(gameId, x, y).send();
+        MoveRejection rejection = checkMove(gameId, x, y);
+        if (rejection != null) {
+            throw new MoveRejectedException(rejection, "game " + gameId + " at (" + x + ", " + y + ")");
+        }
+        send(Gomoku.makeMoveFunction(gameId, x, y), BigInteger.ZERO, gomoku.makeMove(gameId, x, y));
     }
 
     public void sendChat(BigInteger gameId, String message) throws Exception {
-        gomoku.sendChat(gameId, message).send();
+        send(Gomoku.sendChatFunction(gameId, message), BigInteger.ZERO, gomoku.sendChat(gameId, message));
     }
 
     public void claimTimeout(BigInteger gameId) throws Exception {
-        gomoku.claimTimeout(gameId).send();
+        send(Gomoku.claimTimeoutFunction(gameId), BigInteger.ZERO, gomoku.claimTimeout(gameId));
     }
 
     public void surrender(BigInteger gameId) throws Exception {
-        gomoku.surrender(gameId).send();
+        send(Gomoku.surrenderFunction(gameId), BigInteger.ZERO, gomoku.surrender(gameId));
+    }
+
+    // ------------ Async (pipelined) writes ------------
+
+    /**
+     * Non-blocking writes: each call returns at once; the node is only contacted on other threads.
+     * Nonces are allocated locally, so one account can have many transactions in the same block,
+     * and in call order: a write is estimated concurrently with earlier ones but signed after them.
+     */
+    public CompletableFuture<TransactionReceipt> createGameAsync(BigInteger valueWei) {
+        return submit(Gomoku.createGameFunction(), valueWei);
+    }
+
+    public CompletableFuture<TransactionReceipt> joinGameAsync(BigInteger gameId, BigInteger valueWei) {
+        return submit(Gomoku.joinGameFunction(gameId), valueWei);
+    }
+
+    /**
+     * Completes exceptionally with MoveRejectedException if pre-flight rejects the move.
+     */
+    public CompletableFuture<TransactionReceipt> makeMoveAsync(BigInteger gameId, int x, int y) {
+        return submit(Gomoku.makeMoveFunction(gameId, x, y), BigInteger.ZERO, () -> {
+            MoveRejection rejection = checkMove(gameId, x, y);
+            if (rejection != null) {
+                throw new MoveRejectedException(rejection, "game " + gameId + " at (" + x + ", " + y + ")");
+            }
+            return null;
+        });
+    }
+
+    public CompletableFuture<TransactionReceipt> sendChatAsync(BigInteger gameId, String message) {
+        return submit(Gomoku.sendChatFunction(gameId, message), BigInteger.ZERO);
+    }
+
+    public CompletableFuture<TransactionReceipt> claimTimeoutAsync(BigInteger gameId) {
+        return submit(Gomoku.claimTimeoutFunction(gameId), BigInteger.ZERO);
+    }
+
+    public CompletableFuture<TransactionReceipt> surrenderAsync(BigInteger gameId) {
+        return submit(Gomoku.surrenderFunction(gameId), BigInteger.ZERO);
+    }
+
+    /**
+     * 交易卡在 mempool 太久時以相同 nonce 提高 gas price 重送 (阻塞與 *Async 寫入皆適用)
+     */
+    public void enableFeeBumping(FeeBumper.Policy policy) {
+        if (bumper != null) {
+            bumper.close();
+        }
+        this.bumper = new FeeBumper(tm, gas, policy);
+    }
+
+    private CompletableFuture<TransactionReceipt> submit(Function function, BigInteger valueWei) {
+        return submit(function, valueWei, null);
+    }
+
+    /**
+     * @param precheck runs before estimation, off the caller's thread; throwing fails the write
+     */
+    private CompletableFuture<TransactionReceipt> submit(Function function, BigInteger valueWei,
+            Callable<Void> precheck) {
+        CompletableFuture<BigInteger> limit = CompletableFuture.supplyAsync(() -> {
+            try {
+                if (precheck != null) {
+                    precheck.call();
+                }
+                return gas.gasLimit(function, valueWei);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, RPC);
+        CompletableFuture<CompletableFuture<TransactionReceipt>> handed;
+        synchronized (this) {
+            // The sender allocates nonces in the order it is handed transactions: keep call order
+            handed = queued.thenCombineAsync(limit, (ignored, l) -> broadcast(function, valueWei, l), RPC);
+            queued = handed.handle((f, e) -> null);
+        }
+        return handed.thenCompose(f -> f)
+                .thenApply(receipt -> {
+                    gas.observe(function, valueWei, receipt);
+                    if (cache != null) {
+                        cache.onReceipt(receipt);
+                    }
+                    return receipt;
+                });
+    }
+
+    private CompletableFuture<TransactionReceipt> broadcast(Function function, BigInteger valueWei,
+            BigInteger limit) {
+        BigInteger price = gas.getGasPrice(function.getName());
+        String data = FunctionEncoder.encode(function);
+        if (bumper == null) {
+            return tm.submitAsync(price, limit, gomoku.getContractAddress(), data, valueWei);
+        }
+        return bumper.submit(function.getName(), price, limit, gomoku.getContractAddress(), data, valueWei)
+                .thenApply(outcome -> {
+                    if (outcome.replacement > 0) {
+                        System.out.println("✓ " + function.getName() + " mined as replacement #"
+                                + outcome.replacement + " (" + outcome.receipt.getTransactionHash() + ")");
+                    }
+                    return PipelinedTransactionManager.requireSuccess(outcome.receipt);
+                });
+    }
+
+    /**
+     * Blocking path: warms the gas cache for this exact call, then learns from its receipt.
+     * With fee bumping on, goes through the same bumped submission as the async writes.
+     */
+    private TransactionReceipt send(Function function, BigInteger valueWei,
+            RemoteFunctionCall<TransactionReceipt> call) throws Exception {
+        if (bumper != null) {
+            try {
+                return submit(function, valueWei).get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        }
+        gas.gasLimit(function, valueWei);
+        TransactionReceipt receipt = call.send();
+        gas.observe(function, valueWei, receipt);
+        if (cache != null) {
+            cache.onReceipt(receipt);
+        }
+        return receipt;
+    }
+
+    public EstimatingGasProvider getGasProvider() {
+        return gas;
+    }
+
+    /**
+     * 啟用區塊版本快取: 同一個區塊內重複讀取不再打到節點
+     */
+    public ReadCache enableReadCache() throws IOException {
+        if (cache == null) {
+            cache = new ReadCache(gomoku);
+            cache.follow(web3j);
+        }
+        return cache;
     }
 
     public Gomoku.GameInfo getGameInfo(BigInteger gameId) throws Exception {
-        return gomoku.getGameInfo(gameId).send();
+        return cache != null ? cache.getGameInfo(gameId) : gomoku.getGameInfo(gameId).send();
+    }
+
+    public BigInteger getGameCounter() throws Exception {
+        return cache != null ? cache.gameCounter() : gomoku.gameCounter().send();
     }
 
     public int getPiece(BigInteger gameId, int x, int y) throws Exception {
-        return gomoku.getPiece(gameId, x, y).send();
+        return cache != null ? cache.getPiece(gameId, x, y) : gomoku.getPiece(gameId, x, y).send();
+    }
+
+    /**
+     * 整個棋盤，index = x * 15 + y
+     */
+    public byte[] getBoard(BigInteger gameId) throws Exception {
+        return cache != null ? cache.getBoard(gameId) : gomoku.getBoard(gameId).send();
+    }
+
+    public List<byte[]> getBoards(List<BigInteger> gameIds) throws Exception {
+        return gomoku.getBoards(gameIds);
     }
 }
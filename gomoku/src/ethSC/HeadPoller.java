@@ -0,0 +1,147 @@
+package ethSC;
+
+import io.reactivex.disposables.Disposable;
+import io.reactivex.disposables.Disposables;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.Log;
+
+/**
+ * One head poll per (Web3j client, contract), shared by every ConfirmedLogFeed and ReadCache
+ * following that contract on that client.
+ *
+ * Each poll is a single eth_getBlockByNumber(latest). When the head changed, the contract's logs
+ * for the new blocks are read once (every event, one eth_getLogs) and handed to all subscribers,
+ * which keep the events they follow. An idle chain costs one call per period however many feeds
+ * and caches are attached. The period is the shortest one asked for; the poller stops when its
+ * last subscriber is disposed.
+ */
+public final class HeadPoller {
+    // Guarded by SHARED
+    private static final Map<List<Object>, HeadPoller> SHARED = new HashMap<>();
+
+    /**
+     * Receives every head change, always from the poller thread.
+     */
+    public interface Listener {
+        /**
+         * The head is now number / hash. logs are all of the contract's logs in blocks
+         * fromBlock..number of that chain (none read when fromBlock > number, e.g. on the first
+         * poll of a subscriber); earlier blocks are the subscriber's own business.
+         */
+        void onHead(long number, String hash, long fromBlock, List<Log> logs) throws IOException;
+    }
+
+    private final List<Object> key;
+    private final Web3j web3j;
+    private final Gomoku contract;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "head-poll");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Guarded by SHARED
+    private ScheduledFuture<?> task;
+    private long periodMs = Long.MAX_VALUE;
+    // Poller thread only
+    private long lastNumber = -1;
+    private String lastHash;
+
+    private HeadPoller(List<Object> key, Web3j web3j, Gomoku contract) {
+        this.key = key;
+        this.web3j = web3j;
+        this.contract = contract;
+    }
+
+    /**
+     * Delivers head changes of this client and contract to listener, polling at least every
+     * pollMs. The poller is created on first use; the current head is delivered right away.
+     */
+    public static Disposable subscribe(Web3j web3j, Gomoku contract, Listener listener, long pollMs) {
+        List<Object> key = List.of(web3j, contract.getContractAddress().toLowerCase());
+        HeadPoller poller;
+        synchronized (SHARED) {
+            poller = SHARED.computeIfAbsent(key, k -> new HeadPoller(k, web3j, contract));
+            poller.listeners.add(listener);
+            poller.scheduler.execute(() -> poller.greet(listener));
+            if (pollMs < poller.periodMs) {
+                poller.periodMs = pollMs;
+                if (poller.task != null) {
+                    poller.task.cancel(false);
+                }
+                poller.task = poller.scheduler.scheduleWithFixedDelay(poller::poll, 0, pollMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        return Disposables.fromRunnable(() -> poller.unsubscribe(listener));
+    }
+
+    private void unsubscribe(Listener listener) {
+        synchronized (SHARED) {
+            if (listeners.remove(listener) && listeners.isEmpty()) {
+                SHARED.remove(key, this);
+                scheduler.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * A late subscriber learns the head the others already have.
+     */
+    private void greet(Listener listener) {
+        if (lastNumber < 0 || !listeners.contains(listener)) {
+            return; // the next poll delivers it
+        }
+        try {
+            listener.onHead(lastNumber, lastHash, lastNumber + 1, List.of());
+        } catch (Exception e) {
+            System.err.println("[X] Head subscriber failed: " + e.getMessage());
+        }
+    }
+
+    private void poll() {
+        try {
+            EthBlock.Block latest = web3j.ethGetBlockByNumber(DefaultBlockParameterName.LATEST, false).send().getBlock();
+            if (latest == null) {
+                return;
+            }
+            long number = latest.getNumber().longValue();
+            String hash = latest.getHash();
+            if (number == lastNumber && hash.equalsIgnoreCase(lastHash)) {
+                return;
+            }
+            // New blocks since the last poll, or the replaced head itself after a reorg
+            long from = lastNumber < 0 ? number + 1 : Math.min(lastNumber + 1, number);
+            List<Log> logs = from <= number
+                    ? contract.getLogs(block(from), block(number), Gomoku.ALL_EVENTS) : List.of();
+            lastNumber = number;
+            lastHash = hash;
+            for (Listener l : listeners) {
+                try {
+                    l.onHead(number, hash, from, logs);
+                } catch (Exception e) {
+                    System.err.println("[X] Head subscriber failed: " + e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("[X] Head poll failed: " + e.getMessage());
+        }
+    }
+
+    private static DefaultBlockParameter block(long number) {
+        return DefaultBlockParameter.valueOf(BigInteger.valueOf(number));
+    }
+}
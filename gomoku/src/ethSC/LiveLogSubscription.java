@@ -0,0 +1,238 @@
+package ethSC;
+
+import io.reactivex.Flowable;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.processors.FlowableProcessor;
+import io.reactivex.processors.PublishProcessor;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.web3j.abi.EventEncoder;
+import org.web3j.abi.datatypes.Event;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.websocket.WebSocketService;
+import org.web3j.protocol.websocket.events.LogNotification;
+import org.web3j.utils.Numeric;
+
+/**
+ * Push-based contract logs over a WebSocket endpoint (eth_subscribe "logs" + "newHeads").
+ * When the socket drops it reconnects with backoff, resubscribes, and backfills the blocks
+ * missed in between, so subscribers see every log exactly once and in order.
+ *
+ * Duplicates are recognised by (block hash, logIndex), so after a reorg the new chain's logs
+ * are passed on even where they reuse block numbers already delivered. web3j's notification
+ * type carries no removed flag; ConfirmedLogFeed's head check notices the replaced blocks.
+ */
+public class LiveLogSubscription implements Closeable {
+    private static final Comparator<Log> LOG_ORDER = Comparator
+            .comparing(Log::getBlockNumber).thenComparing(Log::getLogIndex);
+    private static final long MAX_BACKOFF_MS = 30_000;
+    // Delivered blocks remembered for duplicate / reorg detection
+    private static final int KEEP_BLOCKS = 256;
+
+    private final String wsUrl;
+    private final Gomoku contract;
+    private final Event[] events;
+    private final Set<String> topics = new HashSet<>();
+    private final LogBackfill backfill;
+    private final FlowableProcessor<Log> out = PublishProcessor.<Log>create().toSerialized();
+    private final ScheduledExecutorService reconnector = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "ws-reconnect");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Guarded by lock
+    private final Object lock = new Object();
+    private final List<Log> buffer = new ArrayList<>();
+    private final TreeMap<Long, Delivered> delivered = new TreeMap<>();
+    private boolean backfilling;
+    private long lastBlock = -1;
+
+    private WebSocketService service;
+    private CompositeDisposable subscriptions = new CompositeDisposable();
+    private volatile long headBlock = -1;
+    private long startBlock = -1;
+    private volatile boolean closed;
+    private boolean reconnecting;
+    private int failures;
+
+    /**
+     * @param contract used for gap backfill after a reconnect
+     */
+    public LiveLogSubscription(String wsUrl, Gomoku contract, Event... events) {
+        this.wsUrl = wsUrl;
+        this.contract = contract;
+        this.events = events;
+        this.backfill = new LogBackfill(contract);
+        for (Event event : events) {
+            topics.add(EventEncoder.encode(event));
+        }
+    }
+
+    public Flowable<Log> logs() {
+        return out.onBackpressureBuffer();
+    }
+
+    /**
+     * Latest block number seen on newHeads, or -1.
+     */
+    public long headBlock() {
+        return headBlock;
+    }
+
+    public void start() throws IOException {
+        connect();
+    }
+
+    private void connect() throws IOException {
+        service = new WebSocketService(wsUrl, false);
+        service.connect();
+        Web3j ws = Web3j.build(service);
+
+        boolean resume = startBlock >= 0;
+        synchronized (lock) {
+            backfilling = resume;
+        }
+        subscriptions = new CompositeDisposable();
+        subscriptions.add(ws.logsNotifications(Collections.singletonList(contract.getContractAddress()),
+                Collections.emptyList())
+                .subscribe(this::onLive, this::onDisconnect));
+        subscriptions.add(ws.newHeadsNotifications()
+                .subscribe(n -> headBlock = Numeric.toBigInt(n.getParams().getResult().getNumber()).longValue(),
+                        this::onDisconnect));
+
+        long head = ws.ethBlockNumber().send().getBlockNumber().longValue();
+        headBlock = Math.max(headBlock, head);
+        if (!resume) {
+            startBlock = head;
+        } else {
+            // Re-read from the last delivered block; anything already delivered is skipped
+            long from;
+            synchronized (lock) {
+                from = lastBlock >= 0 ? lastBlock : startBlock;
+            }
+            backfill.run(from, head, log -> {
+                synchronized (lock) {
+                    deliver(log);
+                }
+            }, events);
+            synchronized (lock) {
+                buffer.sort(LOG_ORDER);
+                for (Log log : buffer) {
+                    deliver(log);
+                }
+                buffer.clear();
+                backfilling = false;
+            }
+        }
+        failures = 0;
+    }
+
+    private void onLive(LogNotification notification) {
+        org.web3j.protocol.websocket.events.Log l = notification.getParams().getResult();
+        Log log = new Log(false, l.getLogIndex(), l.getTransactionIndex(), l.getTransactionHash(),
+                l.getBlockHash(), l.getBlockNumber(), l.getAddress(), l.getData(), null, l.getTopics());
+        synchronized (lock) {
+            if (backfilling) {
+                buffer.add(log);
+            } else {
+                deliver(log);
+            }
+        }
+    }
+
+    private void deliver(Log log) {
+        if (log.getTopics() == null || log.getTopics().isEmpty() || !topics.contains(log.getTopics().get(0))) {
+            return;
+        }
+        long block = log.getBlockNumber().longValue();
+        int index = log.getLogIndex().intValue();
+        String hash = log.getBlockHash().toLowerCase();
+        if (block <= lastBlock - KEEP_BLOCKS) {
+            return;
+        }
+        Delivered d = delivered.get(block);
+        if (d != null && d.hash.equals(hash)) {
+            if (index <= d.lastLogIndex) {
+                return;
+            }
+        } else if (d != null || block < lastBlock) {
+            // A different block at a number already passed: the chain reorganised from here
+            delivered.tailMap(block, true).clear();
+            lastBlock = block;
+            d = null;
+        }
+        if (d == null) {
+            d = new Delivered(hash);
+            delivered.put(block, d);
+        }
+        d.lastLogIndex = index;
+        lastBlock = Math.max(lastBlock, block);
+        while (delivered.firstKey() <= lastBlock - KEEP_BLOCKS) {
+            delivered.pollFirstEntry();
+        }
+        out.onNext(log);
+    }
+
+    private static final class Delivered {
+        final String hash;
+        int lastLogIndex = -1;
+
+        Delivered(String hash) {
+            this.hash = hash;
+        }
+    }
+
+    private synchronized void onDisconnect(Throwable err) {
+        // Both subscriptions fail on the same drop; schedule a single reconnect
+        if (closed || reconnecting) {
+            return;
+        }
+        reconnecting = true;
+        subscriptions.dispose();
+        service.close();
+        long delay = Math.min(MAX_BACKOFF_MS, 500L << Math.min(failures, 6));
+        System.err.println("[X] WebSocket lost (" + err.getMessage() + "), reconnecting in " + delay + " ms");
+        reconnector.schedule(this::reconnect, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void reconnect() {
+        if (closed) {
+            return;
+        }
+        try {
+            connect();
+            synchronized (this) {
+                reconnecting = false;
+            }
+        } catch (Exception e) {
+            synchronized (this) {
+                failures++;
+                reconnecting = false;
+            }
+            onDisconnect(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        reconnector.shutdownNow();
+        subscriptions.dispose();
+        if (service != null) {
+            service.close();
+        }
+        out.onComplete();
+    }
+}
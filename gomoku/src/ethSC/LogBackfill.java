@@ -0,0 +1,195 @@
+package ethSC;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import org.web3j.abi.datatypes.Event;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.response.Log;
+
+/**
+ * Historical eth_getLogs backfill: the block range is cut into chunks that are fetched
+ * concurrently by a bounded pool, and logs are handed to the sink strictly in
+ * (block, logIndex) order. A chunk the node rejects as too large is split in half and
+ * the chunk size for the rest of the run shrinks accordingly. A chunk refused by a rate
+ * limit (HTTP 429 and provider equivalents) is retried with exponential backoff and jitter.
+ */
+public class LogBackfill {
+    private static final Comparator<Log> LOG_ORDER = Comparator
+            .comparing(Log::getBlockNumber).thenComparing(Log::getLogIndex);
+    private static final int MAX_RETRIES = 3;
+    private static final int MAX_THROTTLED = 8;
+    private static final long THROTTLE_BASE_MS = 500;
+    private static final long THROTTLE_MAX_MS = 30_000;
+
+    private final Gomoku contract;
+    private final int workers;
+    private final long maxChunk;
+    private long chunkSize;
+
+    /**
+     * 預設 4 個 worker, 每段最多 5000 blocks
+     */
+    public LogBackfill(Gomoku contract) {
+        this(contract, 4, 5000);
+    }
+
+    public LogBackfill(Gomoku contract, int workers, long maxChunk) {
+        if (workers < 1 || maxChunk < 1) {
+            throw new IllegalArgumentException("workers and maxChunk must be positive");
+        }
+        this.contract = contract;
+        this.workers = workers;
+        this.maxChunk = maxChunk;
+        this.chunkSize = maxChunk;
+    }
+
+    /**
+     * Fetches [fromBlock, toBlock] and feeds every log to sink in global order.
+     * @return number of logs delivered
+     */
+    public long run(long fromBlock, long toBlock, Consumer<Log> sink, Event... events) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "log-backfill");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            return run(pool, fromBlock, toBlock, sink, events);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private long run(ExecutorService pool, long fromBlock, long toBlock, Consumer<Log> sink, Event[] events)
+            throws IOException {
+        Deque<Chunk> window = new ArrayDeque<>();
+        long next = fromBlock;
+        long delivered = 0;
+
+        while (next <= toBlock || !window.isEmpty()) {
+            // Keep every worker busy plus one chunk queued behind each
+            while (next <= toBlock && window.size() < workers * 2) {
+                long end = Math.min(toBlock, next + chunkSize - 1);
+                window.addLast(submit(pool, new Chunk(next, end), events));
+                next = end + 1;
+            }
+
+            Chunk head = window.pollFirst();
+            try {
+                List<Log> logs = head.result.join();
+                logs.sort(LOG_ORDER);
+                for (Log log : logs) {
+                    sink.accept(log);
+                }
+                delivered += logs.size();
+                chunkSize = Math.min(maxChunk, chunkSize + Math.max(1, chunkSize / 4));
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                // Rate limits first: their wording ("... limit exceeded") is no reason to split
+                if (isRateLimited(cause)) {
+                    if (head.throttled >= MAX_THROTTLED) {
+                        throw new IOException("Backfill rate limited for blocks " + head.from + "-" + head.to, cause);
+                    }
+                    window.addFirst(submit(pool, head.throttle(), events));
+                } else if (isRangeTooLarge(cause) && head.from < head.to) {
+                    long mid = head.from + (head.to - head.from) / 2;
+                    chunkSize = Math.max(1, (mid - head.from + 1));
+                    window.addFirst(submit(pool, new Chunk(mid + 1, head.to), events));
+                    window.addFirst(submit(pool, new Chunk(head.from, mid), events));
+                } else if (!isRangeTooLarge(cause) && head.attempts < MAX_RETRIES) {
+                    window.addFirst(submit(pool, head.retry(), events));
+                } else {
+                    throw new IOException("Backfill failed for blocks " + head.from + "-" + head.to, cause);
+                }
+            }
+        }
+        return delivered;
+    }
+
+    private Chunk submit(ExecutorService pool, Chunk chunk, Event[] events) {
+        chunk.result = CompletableFuture.supplyAsync(() -> {
+            try {
+                if (chunk.delayMs > 0) {
+                    Thread.sleep(chunk.delayMs);
+                }
+                return contract.getLogs(block(chunk.from), block(chunk.to), events);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        }, pool);
+        return chunk;
+    }
+
+    /**
+     * Node-specific wording for "result set / range too large": geth / infura, erigon, alchemy, bsc.
+     * Only these exact phrases, so unrelated errors that mention a limit are not split forever.
+     */
+    static boolean isRangeTooLarge(Throwable e) {
+        String msg = String.valueOf(e.getMessage()).toLowerCase();
+        return msg.contains("query returned more than 10000 results") || msg.contains("block range is too wide")
+                || msg.contains("log response size exceeded") || msg.contains("exceed maximum block range");
+    }
+
+    /**
+     * HTTP 429 (web3j: "Invalid response received: 429") and the providers' JSON-RPC wording,
+     * including per-day request quotas.
+     */
+    static boolean isRateLimited(Throwable e) {
+        String msg = String.valueOf(e.getMessage()).toLowerCase();
+        return msg.contains("received: 429") || msg.contains("too many requests") || msg.contains("rate limit")
+                || msg.contains("request rate exceeded") || msg.contains("compute units per second")
+                || msg.contains("request limit exceeded") || msg.contains("request count exceeded");
+    }
+
+    private static DefaultBlockParameter block(long number) {
+        return DefaultBlockParameter.valueOf(BigInteger.valueOf(number));
+    }
+
+    private static class Chunk {
+        final long from;
+        final long to;
+        int attempts;
+        int throttled;
+        long delayMs;
+        CompletableFuture<List<Log>> result;
+
+        Chunk(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        Chunk retry() {
+            Chunk c = new Chunk(from, to);
+            c.attempts = attempts + 1;
+            c.throttled = throttled;
+            c.delayMs = 200L << c.attempts;
+            return c;
+        }
+
+        /**
+         * Rate limited: wait base * 2^n, up to the cap, plus up to 50% jitter so the workers
+         * do not come back in step.
+         */
+        Chunk throttle() {
+            Chunk c = new Chunk(from, to);
+            c.attempts = attempts;
+            c.throttled = throttled + 1;
+            long backoff = Math.min(THROTTLE_MAX_MS, THROTTLE_BASE_MS << throttled);
+            c.delayMs = backoff + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+            return c;
+        }
+    }
+}
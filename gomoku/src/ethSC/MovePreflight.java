@@ -0,0 +1,99 @@
+package ethSC;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthCall;
+
+/**
+ * Checks a makeMove before it is broadcast, so a move that would revert costs no gas.
+ * Uses the local GameStateView when it is synced to the current head, otherwise
+ * simulates the call with eth_call from the sender's address.
+ */
+public class MovePreflight {
+    private static final long HEAD_TTL_MS = 1000;
+
+    private final Web3j web3j;
+    private final Gomoku contract;
+    private final String from;
+    private final GameStateView view;
+    private volatile long head = -1;
+    private volatile long headReadAt;
+
+    /**
+     * @param view local state, or null to always simulate
+     */
+    public MovePreflight(Web3j web3j, Gomoku contract, String from, GameStateView view) {
+        this.web3j = web3j;
+        this.contract = contract;
+        this.from = from;
+        this.view = view;
+    }
+
+    /**
+     * @return null if the move is expected to succeed, otherwise why it would revert
+     */
+    public MoveRejection check(BigInteger gameId, int x, int y) throws IOException {
+        if (x < 0 || x > 255 || y < 0 || y > 255) {
+            return MoveRejection.INVALID_COORDINATES; // not a uint8, cannot even be encoded
+        }
+        Gomoku.GameInfo info = view != null ? view.getGameInfo(gameId) : null;
+        if (info != null && view.syncedBlock() >= head()) {
+            try {
+                return checkLocal(info, gameId, x, y);
+            } catch (IllegalStateException e) {
+                // The game left the view between the two reads (tentative rollback); ask the node
+            }
+        }
+        return simulate(gameId, x, y);
+    }
+
+    /**
+     * Same order as the contract: gameExists (the game is indexed), isCurrentPlayer (state, then
+     * turn; a non-player also gets "Not your turn"), coordinates, occupancy.
+     */
+    private MoveRejection checkLocal(Gomoku.GameInfo info, BigInteger gameId, int x, int y) {
+        if (info.state != 1) {
+            return MoveRejection.NOT_PLAYING;
+        }
+        String mover = info.currentPlayer == 1 ? info.blackPlayer : info.whitePlayer;
+        if (!from.equalsIgnoreCase(mover)) {
+            return MoveRejection.NOT_YOUR_TURN;
+        }
+        if (x >= Gomoku.BOARD_SIZE || y >= Gomoku.BOARD_SIZE) {
+            return MoveRejection.INVALID_COORDINATES;
+        }
+        if (view.getPiece(gameId, x, y) != 0) {
+            return MoveRejection.OCCUPIED;
+        }
+        return null;
+    }
+
+    private MoveRejection simulate(BigInteger gameId, int x, int y) throws IOException {
+        Transaction tx = Transaction.createEthCallTransaction(from, contract.getContractAddress(),
+                Gomoku.encodeMakeMove(gameId, x, y));
+        EthCall call = web3j.ethCall(tx, DefaultBlockParameterName.LATEST).send();
+        if (call.isReverted()) {
+            return MoveRejection.fromRevertReason(call.getRevertReason());
+        }
+        if (call.hasError()) {
+            String message = call.getError().getMessage();
+            if (message != null && message.contains("revert")) {
+                return MoveRejection.fromRevertReason(message);
+            }
+            throw new IOException("eth_call failed: " + message);
+        }
+        return null;
+    }
+
+    private long head() throws IOException {
+        long now = System.currentTimeMillis();
+        if (head < 0 || now - headReadAt > HEAD_TTL_MS) {
+            head = web3j.ethBlockNumber().send().getBlockNumber().longValue();
+            headReadAt = now;
+        }
+        return head;
+    }
+}
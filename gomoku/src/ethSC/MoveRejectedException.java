@@ -0,0 +1,19 @@
+package ethSC;
+
+/**
+ * Thrown by GomokuHandler.makeMove when pre-flight validation rejects the move; nothing was broadcast.
+ */
+public class MoveRejectedException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private final MoveRejection rejection;
+
+    public MoveRejectedException(MoveRejection rejection, String detail) {
+        super(rejection.reason + (detail != null ? " (" + detail + ")" : ""));
+        this.rejection = rejection;
+    }
+
+    public MoveRejection getRejection() {
+        return rejection;
+    }
+}
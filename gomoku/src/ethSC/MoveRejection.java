@@ -0,0 +1,33 @@
+package ethSC;
+
+/**
+ * Why makeMove would revert, keyed to the revert reasons in Gomoku.sol.
+ */
+public enum MoveRejection {
+    GAME_NOT_FOUND("Game does not exist"),
+    NOT_PLAYING("Game is not in playing state"),
+    NOT_YOUR_TURN("Not your turn"),
+    INVALID_COORDINATES("Invalid coordinates"),
+    OCCUPIED("Position already occupied"),
+    REVERTED("Transaction would revert");
+
+    public final String reason;
+
+    MoveRejection(String reason) {
+        this.reason = reason;
+    }
+
+    /**
+     * Maps a node's revert message (e.g. "execution reverted: Not your turn") to a rejection.
+     */
+    public static MoveRejection fromRevertReason(String message) {
+        if (message != null) {
+            for (MoveRejection r : values()) {
+                if (r != REVERTED && message.contains(r.reason)) {
+                    return r;
+                }
+            }
+        }
+        return REVERTED;
+    }
+}
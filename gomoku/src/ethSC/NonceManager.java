@@ -0,0 +1,85 @@
+package ethSC;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+
+/**
+ * In-memory nonce allocator for one account. The first nonce comes from
+ * eth_getTransactionCount(pending); after that nonces are handed out locally, so many
+ * transactions can be in flight without asking the node each time.
+ * One instance per (Web3j client, account) (see forAccount), shared by every handler of that
+ * account on that client; a different client (another node or chain, a simulator) gets its own.
+ * The client is passed in on each call rather than stored, so the registry's weak key is the
+ * only link from here to it.
+ */
+public class NonceManager {
+    // Clients by identity; a client that is no longer referenced drops its accounts
+    private static final Map<Web3j, Map<String, NonceManager>> CLIENTS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final String address;
+    private long next = -1;
+
+    private NonceManager(String address) {
+        this.address = address;
+    }
+
+    /**
+     * 取得該 Web3j 連線上帳號共用的 nonce 分配器
+     */
+    public static NonceManager forAccount(Web3j web3j, String address) {
+        return CLIENTS.computeIfAbsent(web3j, w -> new ConcurrentHashMap<>())
+                .computeIfAbsent(address.toLowerCase(), a -> new NonceManager(address));
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    /**
+     * Allocates the next nonce (loaded from the node on first use or after resync).
+     * @param web3j the client this manager was obtained for
+     */
+    public synchronized BigInteger next(Web3j web3j) throws IOException {
+        if (next < 0) {
+            resync(web3j);
+        }
+        return BigInteger.valueOf(next++);
+    }
+
+    /**
+     * Reloads from the node's pending transaction count, e.g. after "nonce too low" or a
+     * rejected send that left a gap.
+     */
+    public synchronized void resync(Web3j web3j) throws IOException {
+        next = web3j.ethGetTransactionCount(address, DefaultBlockParameterName.PENDING).send()
+                .getTransactionCount().longValue();
+    }
+
+    /**
+     * Next nonce that would be allocated, or -1 if not loaded yet.
+     */
+    public synchronized long peek() {
+        return next;
+    }
+
+    /**
+     * "nonce too low" / "replacement transaction underpriced" mean the nonce is already used.
+     * A plain "transaction underpriced" (price below the pool minimum) or a nonce gap is not.
+     */
+    static boolean isNonceTooLow(String message) {
+        String msg = String.valueOf(message).toLowerCase();
+        return msg.contains("nonce too low") || msg.contains("replacement transaction underpriced");
+    }
+
+    static boolean isAlreadyKnown(String message) {
+        String msg = String.valueOf(message).toLowerCase();
+        return msg.contains("already known") || msg.contains("already imported") || msg.contains("known transaction");
+    }
+}
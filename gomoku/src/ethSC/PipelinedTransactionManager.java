@@ -0,0 +1,195 @@
+package ethSC;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
+import org.web3j.tx.RawTransactionManager;
+
+/**
+ * RawTransactionManager with a local nonce allocator and non-blocking submission.
+ *
+ * Nonces come from a shared NonceManager instead of one eth_getTransactionCount per
+ * transaction, so both the blocking Contract calls (.send()) and submitAsync can keep several
+ * transactions of the same account in the mempool at once. "nonce too low" resyncs and
+ * re-signs with a fresh nonce; any other rejection resyncs so the next send does not leave a gap.
+ */
+public class PipelinedTransactionManager extends RawTransactionManager {
+    private static final int MAX_NONCE_RETRIES = 3;
+
+    private final Web3j web3j;
+    private final long chainId;
+    private final NonceManager nonces;
+    // Single sender: nonces reach the node in allocation order (virtual, so many accounts stay cheap)
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("tx-sender").factory());
+    private final ReceiptTracker receipts;
+
+    /**
+     * @param receipts shared by the async path and by blocking Contract calls
+     */
+    public PipelinedTransactionManager(Web3j web3j, Credentials credentials, long chainId, ReceiptTracker receipts) {
+        super(web3j, credentials, chainId, receipts.asProcessor());
+        this.web3j = web3j;
+        this.receipts = receipts;
+        this.chainId = chainId;
+        this.nonces = NonceManager.forAccount(web3j, credentials.getAddress());
+    }
+
+    public NonceManager getNonceManager() {
+        return nonces;
+    }
+
+    public long getChainId() {
+        return chainId;
+    }
+
+    @Override
+    protected BigInteger getNonce() throws IOException {
+        return nonces.next(web3j);
+    }
+
+    @Override
+    public EthSendTransaction sendTransaction(BigInteger gasPrice, BigInteger gasLimit, String to, String data,
+            BigInteger value, boolean constructor) throws IOException {
+        return broadcast(gasPrice, gasLimit, to, data, value).response;
+    }
+
+    private Sent broadcast(BigInteger gasPrice, BigInteger gasLimit, String to, String data, BigInteger value)
+            throws IOException {
+        Sent sent = null;
+        for (int attempt = 0; attempt <= MAX_NONCE_RETRIES; attempt++) {
+            RawTransaction tx = RawTransaction.createTransaction(getNonce(), gasPrice, gasLimit, to, value, data);
+            sent = new Sent(tx, signAndSendRaw(tx));
+            if (!sent.response.hasError()) {
+                return sent;
+            }
+            String message = sent.response.getError().getMessage();
+            nonces.resync(web3j);
+            if (!NonceManager.isNonceTooLow(message)) {
+                return sent;
+            }
+        }
+        return sent;
+    }
+
+    /**
+     * Re-signs tx with the same nonce and a new gas price (replacement / fee bump).
+     * The nonce allocator is not touched.
+     */
+    public EthSendTransaction replace(RawTransaction tx, BigInteger gasPrice) throws IOException {
+        return signAndSendRaw(RawTransaction.createTransaction(tx.getNonce(), gasPrice, tx.getGasLimit(), tx.getTo(),
+                tx.getValue(), tx.getData()));
+    }
+
+    private EthSendTransaction signAndSendRaw(RawTransaction tx) throws IOException {
+        String signed = sign(tx);
+        EthSendTransaction response = web3j.ethSendRawTransaction(signed).send();
+        if (response.hasError() && NonceManager.isAlreadyKnown(response.getError().getMessage())) {
+            // Same signed bytes already in the pool: treat as sent
+            response.setError(null);
+            response.setResult(Hash.sha3(signed));
+        }
+        return response;
+    }
+
+    // ------------ Async ------------
+
+    /**
+     * Signs and broadcasts without blocking the caller.
+     * @return completes with the transaction hash once the node accepted it
+     */
+    public CompletableFuture<String> sendAsync(BigInteger gasPrice, BigInteger gasLimit, String to, String data,
+            BigInteger value) {
+        return broadcastAsync(gasPrice, gasLimit, to, data, value).thenApply(sent -> sent.txHash());
+    }
+
+    /**
+     * Like sendAsync, but also returns the signed transaction (nonce, price) for later replacement.
+     */
+    public CompletableFuture<Sent> broadcastAsync(BigInteger gasPrice, BigInteger gasLimit, String to, String data,
+            BigInteger value) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Sent sent = broadcast(gasPrice, gasLimit, to, data, value);
+                if (sent.response.hasError()) {
+                    throw new CompletionException(new TransactionException(
+                            "Error processing transaction request: " + sent.response.getError().getMessage()));
+                }
+                return sent;
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, sender);
+    }
+
+    /**
+     * Async replace(), on the sender thread.
+     */
+    public CompletableFuture<EthSendTransaction> replaceAsync(RawTransaction tx, BigInteger gasPrice) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return replace(tx, gasPrice);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, sender);
+    }
+
+    /**
+     * Broadcasts and completes with the mined receipt; a reverted receipt completes exceptionally.
+     */
+    public CompletableFuture<TransactionReceipt> submitAsync(BigInteger gasPrice, BigInteger gasLimit, String to,
+            String data, BigInteger value) {
+        return sendAsync(gasPrice, gasLimit, to, data, value).thenCompose(this::receiptAsync);
+    }
+
+    /**
+     * Receipt from the shared ReceiptTracker; a failed status completes exceptionally.
+     */
+    public CompletableFuture<TransactionReceipt> receiptAsync(String txHash) {
+        return receipts.track(txHash).thenApply(PipelinedTransactionManager::requireSuccess);
+    }
+
+    static TransactionReceipt requireSuccess(TransactionReceipt receipt) {
+        if (!receipt.isStatusOK()) {
+            throw new CompletionException(new TransactionException("Transaction " + receipt.getTransactionHash()
+                    + " has failed with status: " + receipt.getStatus(), receipt));
+        }
+        return receipt;
+    }
+
+    public ReceiptTracker getReceiptTracker() {
+        return receipts;
+    }
+
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    /**
+     * A broadcast transaction and the node's answer.
+     */
+    public static class Sent {
+        public final RawTransaction tx;
+        public final EthSendTransaction response;
+
+        Sent(RawTransaction tx, EthSendTransaction response) {
+            this.tx = tx;
+            this.response = response;
+        }
+
+        public String txHash() {
+            return response.getTransactionHash();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package ethSC;
+
+import io.reactivex.disposables.Disposable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.tx.exceptions.ContractCallException;
+import org.web3j.utils.Numeric;
+
+/**
+ * Block-versioned cache for Gomoku read calls.
+ *
+ * Entries are keyed by (function, args) and tagged with the head block known when the read
+ * started; the eth_call is pinned to that block, so an entry is exactly the state at its tag
+ * and is served while the head is unchanged. A new head, a state event for the entry's gameId
+ * (which may arrive before the head is seen) or one of our own receipts (onReceipt) invalidates
+ * it. Concurrent misses for the same key share one eth_call. follow() rides on the HeadPoller
+ * shared with the log feeds of the same client, which polls at roughly the block time and brings
+ * each new block's events along, so a cached read trails the chain by at most one poll and the
+ * cache adds no RPC of its own while the chain is idle.
+ * Without a known head (follow() / onHead() not used) every read goes to the node.
+ */
+public class ReadCache {
+    private static final String GAME_COUNTER = "gameCounter";
+    private static final long HEAD_POLL_MS = 1_000;
+
+    private final Gomoku contract;
+    private final int maxEntries;
+    // LRU, guarded by this
+    private final LinkedHashMap<String, Entry> entries;
+    private volatile long head = -1;
+
+    public ReadCache(Gomoku contract) {
+        this(contract, 10_000);
+    }
+
+    public ReadCache(Gomoku contract, int maxEntries) {
+        this.contract = contract;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<String, Entry>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ReadCache.this.maxEntries;
+            }
+        };
+    }
+
+    // ------------ Reads ------------
+
+    public Gomoku.GameInfo getGameInfo(BigInteger gameId) throws Exception {
+        Gomoku.GameInfo info = read("getGameInfo:" + gameId, gameId,
+                at -> Gomoku.decodeGameInfo(contract.callAt(contract.getGameInfo(gameId), at)));
+        return copy(info);
+    }
+
+    public BigInteger gameCounter() throws Exception {
+        return read(GAME_COUNTER, null, at -> Numeric.toBigInt(contract.callAt(contract.gameCounter(), at)));
+    }
+
+    /**
+     * 整個棋盤 (index = x * 15 + y), 回傳副本
+     */
+    public byte[] getBoard(BigInteger gameId) throws Exception {
+        return read("getBoard:" + gameId, gameId,
+                at -> Gomoku.decodeBoard(contract.callAt(contract.getBoard(gameId), at))).clone();
+    }
+
+    /**
+     * Served from a cached board when there is one, otherwise a single getPiece call.
+     * Coordinates off the board fail like the contract's revert, cached board or not.
+     */
+    public int getPiece(BigInteger gameId, int x, int y) throws Exception {
+        if (x < 0 || x >= Gomoku.BOARD_SIZE || y < 0 || y >= Gomoku.BOARD_SIZE) {
+            throw new ContractCallException("eth_call failed: execution reverted: Invalid coordinates");
+        }
+        Entry board;
+        synchronized (this) {
+            board = entries.get("getBoard:" + gameId);
+        }
+        if (board != null && board.block == head && board.value.isDone()
+                && !board.value.isCompletedExceptionally()) {
+            return ((byte[]) board.value.get())[x * Gomoku.BOARD_SIZE + y];
+        }
+        return read("getPiece:" + gameId + ":" + x + ":" + y, gameId,
+                at -> Numeric.toBigInt(contract.callAt(contract.getPiece(gameId, x, y), at)).intValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T read(String key, BigInteger gameId, Loader<T> loader) throws Exception {
+        long block = head;
+        if (block < 0) {
+            return loader.load(DefaultBlockParameterName.LATEST);
+        }
+        Entry entry;
+        boolean owner = false;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null || entry.block != block || entry.value.isCompletedExceptionally()) {
+                entry = new Entry(block, gameId);
+                entries.put(key, entry);
+                owner = true;
+            }
+        }
+        if (owner) {
+            try {
+                entry.value.complete(loader.load(DefaultBlockParameter.valueOf(BigInteger.valueOf(block))));
+            } catch (Exception e) {
+                entry.value.completeExceptionally(e);
+                synchronized (this) {
+                    entries.remove(key, entry);
+                }
+                throw e;
+            }
+        }
+        try {
+            return (T) entry.value.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    // ------------ Invalidation ------------
+
+    /**
+     * New head: every entry read at an older block becomes stale.
+     */
+    public void onHead(long block) {
+        if (block <= head) {
+            return;
+        }
+        head = block;
+        synchronized (this) {
+            entries.values().removeIf(e -> e.block < block);
+        }
+    }
+
+    /**
+     * A Gomoku event: drops the entries of its gameId (topic 1), and gameCounter on GameCreated.
+     */
+    public void onLog(Log log) {
+        List<String> topics = log.getTopics();
+        if (topics == null || topics.size() < 2 || Gomoku.CHATSENT_TOPIC.equals(topics.get(0))) {
+            return;
+        }
+        if (log.getBlockNumber() != null) {
+            // The event's block is a head we may not have seen yet
+            onHead(log.getBlockNumber().longValue());
+        }
+        invalidate(Numeric.toBigInt(topics.get(1)));
+        if (Gomoku.GAMECREATED_TOPIC.equals(topics.get(0))) {
+            synchronized (this) {
+                entries.remove(GAME_COUNTER);
+            }
+        }
+    }
+
+    /**
+     * One of our own transactions was mined: its block is a head, and its events change state
+     * we may have cached. Lets a sender read its own write without waiting for the next poll.
+     */
+    public void onReceipt(TransactionReceipt receipt) {
+        if (receipt == null || receipt.getBlockNumber() == null) {
+            return;
+        }
+        onHead(receipt.getBlockNumber().longValue());
+        if (receipt.getLogs() != null) {
+            for (Log log : receipt.getLogs()) {
+                onLog(log);
+            }
+        }
+    }
+
+    public synchronized void invalidate(BigInteger gameId) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (gameId.equals(it.next().gameId)) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Follows new heads (polled every second) and Gomoku state events, starting from the
+     * current head.
+     */
+    public Disposable follow(Web3j web3j) throws IOException {
+        return follow(web3j, HEAD_POLL_MS);
+    }
+
+    /**
+     * @param pollMs head poll period; about the chain's block time or less
+     */
+    public Disposable follow(Web3j web3j, long pollMs) throws IOException {
+        onHead(web3j.ethBlockNumber().send().getBlockNumber().longValue());
+        return HeadPoller.subscribe(web3j, contract, (number, hash, fromBlock, logs) -> {
+            for (Log log : logs) {
+                onLog(log);
+            }
+            onHead(number);
+        }, pollMs);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static Gomoku.GameInfo copy(Gomoku.GameInfo src) {
+        Gomoku.GameInfo info = new Gomoku.GameInfo();
+        info.blackPlayer = src.blackPlayer;
+        info.whitePlayer = src.whitePlayer;
+        info.currentPlayer = src.currentPlayer;
+        info.state = src.state;
+        info.betAmountWei = src.betAmountWei;
+        info.moveCount = src.moveCount;
+        return info;
+    }
+
+    private interface Loader<T> {
+        T load(DefaultBlockParameter block) throws Exception;
+    }
+
+    private static class Entry {
+        final long block;
+        final BigInteger gameId;
+        final CompletableFuture<Object> value = new CompletableFuture<>();
+
+        Entry(long block, BigInteger gameId) {
+            this.block = block;
+            this.gameId = gameId;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package ethSC;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
+import org.web3j.tx.response.TransactionReceiptProcessor;
+
+/**
+ * One block-driven receipt resolver for every in-flight transaction.
+ *
+ * A single poller follows the head. Each new block is read once (tx hashes only) and matched
+ * against the pending set; receipts are then fetched in one batch, only for transactions that
+ * reached the confirmation depth or were registered since the last tick. RPC load per block
+ * is constant in the number of pending transactions: one eth_blockNumber, one
+ * eth_getBlockByNumber per new block, and at most one batch.
+ */
+public class ReceiptTracker implements Closeable {
+    private final Web3j web3j;
+    private final int confirmations;
+    private final long timeoutMs;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "receipt-tracker");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Only touched under this
+    private final Map<String, Pending> pending = new HashMap<>();
+    private long lastBlock = -1;
+
+    /**
+     * 預設: 1 個確認 (被打包即完成), 每秒檢查一次, 10 分鐘逾時
+     */
+    public ReceiptTracker(Web3j web3j) {
+        this(web3j, 1, 1000, 600_000);
+    }
+
+    /**
+     * @param confirmations blocks including the one that mined the transaction (1 = on inclusion)
+     * @param pollMs head polling interval
+     * @param timeoutMs a transaction without a confirmed receipt after this long fails
+     */
+    public ReceiptTracker(Web3j web3j, int confirmations, long pollMs, long timeoutMs) {
+        if (confirmations < 1) {
+            throw new IllegalArgumentException("confirmations must be at least 1");
+        }
+        this.web3j = web3j;
+        this.confirmations = confirmations;
+        this.timeoutMs = timeoutMs;
+        scheduler.scheduleWithFixedDelay(this::tick, pollMs, pollMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Completes with the receipt once the transaction has the configured number of confirmations,
+     * whatever its status; completes exceptionally with TransactionException on timeout.
+     */
+    public synchronized CompletableFuture<TransactionReceipt> track(String txHash) {
+        Pending p = pending.get(txHash.toLowerCase());
+        if (p == null) {
+            p = new Pending(txHash, System.currentTimeMillis() + timeoutMs);
+            pending.put(txHash.toLowerCase(), p);
+        }
+        return p.future;
+    }
+
+    /**
+     * Stops tracking txHash without completing its future (e.g. a replaced transaction).
+     */
+    public synchronized void untrack(String txHash) {
+        pending.remove(txHash.toLowerCase());
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Blocking adapter so web3j's Contract.send() path shares this tracker.
+     */
+    public TransactionReceiptProcessor asProcessor() {
+        return new TransactionReceiptProcessor(web3j) {
+            @Override
+            public TransactionReceipt waitForTransactionReceipt(String txHash) throws IOException, TransactionException {
+                try {
+                    return track(txHash).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted waiting for " + txHash, e);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof TransactionException) {
+                        throw (TransactionException) e.getCause();
+                    }
+                    throw new IOException(e.getCause());
+                }
+            }
+        };
+    }
+
+    // ------------ Poll loop ------------
+
+    private void tick() {
+        try {
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    lastBlock = -1;
+                    return;
+                }
+            }
+            long head = web3j.ethBlockNumber().send().getBlockNumber().longValue();
+            scanBlocks(head);
+            resolve(head);
+        } catch (Exception e) {
+            System.err.println("[X] Receipt tracker: " + e.getMessage());
+        }
+        expire();
+    }
+
+    /**
+     * Marks pending transactions found in blocks (lastBlock, head].
+     */
+    private void scanBlocks(long head) throws IOException {
+        long from;
+        synchronized (this) {
+            // Nothing scanned yet: new registrations are looked up directly in resolve()
+            from = lastBlock < 0 ? head + 1 : lastBlock + 1;
+            if (lastBlock < 0) {
+                lastBlock = head;
+            }
+        }
+        for (long b = from; b <= head; b++) {
+            EthBlock.Block block = web3j.ethGetBlockByNumber(DefaultBlockParameter.valueOf(BigInteger.valueOf(b)),
+                    false).send().getBlock();
+            if (block == null) {
+                break;
+            }
+            synchronized (this) {
+                for (EthBlock.TransactionResult<?> tx : block.getTransactions()) {
+                    Pending p = pending.get(String.valueOf(tx.get()).toLowerCase());
+                    if (p != null) {
+                        p.includedIn = b;
+                    }
+                }
+                lastBlock = b;
+            }
+        }
+    }
+
+    /**
+     * One batch: receipts of transactions that are deep enough, plus those never looked up.
+     */
+    private void resolve(long head) throws IOException {
+        List<Pending> due = new ArrayList<>();
+        synchronized (this) {
+            for (Pending p : pending.values()) {
+                if (!p.checked || (p.includedIn >= 0 && head - p.includedIn + 1 >= confirmations)) {
+                    due.add(p);
+                }
+            }
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        BatchRequest batch = web3j.newBatch();
+        for (Pending p : due) {
+            batch.add(web3j.ethGetTransactionReceipt(p.txHash));
+        }
+        Map<String, TransactionReceipt> receipts = new HashMap<>();
+        for (Object r : batch.send().getResponses()) {
+            EthGetTransactionReceipt response = (EthGetTransactionReceipt) r;
+            if (!response.hasError() && response.getTransactionReceipt().isPresent()) {
+                TransactionReceipt receipt = response.getTransactionReceipt().get();
+                receipts.put(receipt.getTransactionHash().toLowerCase(), receipt);
+            }
+        }
+        List<Pending> done = new ArrayList<>();
+        synchronized (this) {
+            for (Pending p : due) {
+                p.checked = true;
+                TransactionReceipt receipt = receipts.get(p.txHash.toLowerCase());
+                if (receipt == null) {
+                    // Dropped by a reorg (or not mined yet): wait to see it in a block again
+                    p.includedIn = -1;
+                    continue;
+                }
+                long mined = receipt.getBlockNumber().longValue();
+                if (head - mined + 1 >= confirmations) {
+                    pending.remove(p.txHash.toLowerCase());
+                    p.receipt = receipt;
+                    done.add(p);
+                } else {
+                    p.includedIn = mined;
+                }
+            }
+        }
+        // Outside the lock: callbacks may track() further transactions
+        for (Pending p : done) {
+            p.future.complete(p.receipt);
+        }
+    }
+
+    private void expire() {
+        long now = System.currentTimeMillis();
+        List<Pending> expired = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Pending> it = pending.values().iterator();
+            while (it.hasNext()) {
+                Pending p = it.next();
+                if (now >= p.deadline) {
+                    it.remove();
+                    expired.add(p);
+                }
+            }
+        }
+        for (Pending p : expired) {
+            p.future.completeExceptionally(new TransactionException(
+                    "No confirmed receipt for " + p.txHash + " after " + timeoutMs + " ms", p.txHash));
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        synchronized (this) {
+            for (Pending p : pending.values()) {
+                p.future.completeExceptionally(new TransactionException("Receipt tracker closed", p.txHash));
+            }
+            pending.clear();
+        }
+    }
+
+    private static class Pending {
+        final String txHash;
+        final long deadline;
+        final CompletableFuture<TransactionReceipt> future = new CompletableFuture<>();
+        long includedIn = -1;
+        boolean checked;
+        TransactionReceipt receipt;
+
+        Pending(String txHash, long deadline) {
+            this.txHash = txHash;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package ethSC;
+
+import java.io.Closeable;
+import java.net.ConnectException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.WalletUtils;
+import org.web3j.protocol.Web3j;
+
+/**
+ * Hosts many player accounts in one process on a single pooled Web3j client and one shared
+ * ReceiptTracker. Accounts are registered by keystore path; the (scrypt, seconds-long) keystore
+ * decryption runs on first use, on a small pool so several accounts unlock in parallel.
+ * Each handle is a GomokuHandler over the shared client.
+ */
+public class SessionManager implements Closeable {
+    private final Web3j web3j;
+    private final ReceiptTracker receipts;
+    private final ExecutorService decryptPool;
+    // Registration order kept for accounts()
+    private final Map<String, Account> accounts = Collections.synchronizedMap(new LinkedHashMap<>());
+    private volatile FeeBumper.Policy feePolicy;
+
+    /**
+     * 預設: 64 條 HTTP 連線, 解密並行數為 CPU 核心數的一半
+     */
+    public SessionManager(String rpcUrl) throws ConnectException {
+        this(rpcUrl, 64, Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * @param decryptThreads standard scrypt keystores need ~256 MB each while decrypting,
+     *        so keep this well below the heap size / 256 MB
+     */
+    public SessionManager(String rpcUrl, int maxConnections, int decryptThreads) throws ConnectException {
+        this.web3j = Web3j.build(Transports.openPooled(rpcUrl, maxConnections));
+        this.receipts = new ReceiptTracker(web3j);
+        this.decryptPool = Executors.newFixedThreadPool(decryptThreads, r -> {
+            Thread t = new Thread(r, "keystore-decrypt");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public Web3j getWeb3j() {
+        return web3j;
+    }
+
+    public ReceiptTracker getReceiptTracker() {
+        return receipts;
+    }
+
+    /**
+     * Turns on fee bumping (see FeeBumper) for every handle, including ones already unlocked.
+     */
+    public void enableFeeBumping(FeeBumper.Policy policy) {
+        this.feePolicy = policy;
+        for (String name : accounts()) {
+            CompletableFuture<GomokuHandler> h = accounts.get(name).handler;
+            if (h != null) {
+                h.thenAccept(handler -> handler.enableFeeBumping(policy));
+            }
+        }
+    }
+
+    private GomokuHandler newHandler(Credentials credentials) {
+        GomokuHandler handler = new GomokuHandler(web3j, credentials, receipts);
+        FeeBumper.Policy policy = feePolicy;
+        if (policy != null) {
+            handler.enableFeeBumping(policy);
+        }
+        return handler;
+    }
+
+    /**
+     * Registers an account; nothing is decrypted yet.
+     */
+    public void register(String name, String keystorePath, String password) {
+        accounts.put(name, new Account(keystorePath, password));
+    }
+
+    /**
+     * Registers an account whose credentials are already in memory.
+     */
+    public void register(String name, Credentials credentials) {
+        Account a = new Account(null, null);
+        a.handler = CompletableFuture.completedFuture(newHandler(credentials));
+        accounts.put(name, a);
+    }
+
+    public List<String> accounts() {
+        synchronized (accounts) {
+            return new ArrayList<>(accounts.keySet());
+        }
+    }
+
+    /**
+     * The handle for name, decrypting its keystore in the background on first request.
+     */
+    public CompletableFuture<GomokuHandler> session(String name) {
+        Account a = accounts.get(name);
+        if (a == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Unknown account: " + name));
+        }
+        synchronized (a) {
+            if (a.handler == null) {
+                a.handler = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        Credentials c = WalletUtils.loadCredentials(a.password, Paths.get(a.keystorePath).toFile());
+                        return newHandler(c);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, decryptPool);
+            }
+            return a.handler;
+        }
+    }
+
+    /**
+     * Blocking session(name).
+     */
+    public GomokuHandler get(String name) throws Exception {
+        try {
+            return session(name).get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Starts decrypting every registered account in parallel; completes when all are ready.
+     */
+    public CompletableFuture<Void> unlock(Set<String> names) {
+        List<CompletableFuture<GomokuHandler>> all = new ArrayList<>();
+        for (String name : names) {
+            all.add(session(name));
+        }
+        return CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0]));
+    }
+
+    public CompletableFuture<Void> unlockAll() {
+        return unlock(Set.copyOf(accounts()));
+    }
+
+    @Override
+    public void close() {
+        decryptPool.shutdownNow();
+        receipts.close();
+        web3j.shutdown();
+    }
+
+    private static class Account {
+        final String keystorePath;
+        final String password;
+        CompletableFuture<GomokuHandler> handler;
+
+        Account(String keystorePath, String password) {
+            this.keystorePath = keystorePath;
+            this.password = password;
+        }
+    }
+}
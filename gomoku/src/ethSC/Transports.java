@@ -0,0 +1,49 @@
+package ethSC;
+
+import java.net.ConnectException;
+import java.util.concurrent.TimeUnit;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.protocol.websocket.WebSocketService;
+
+/**
+ * Picks the web3j transport from the endpoint URL (http(s):// or ws(s)://).
+ */
+public final class Transports {
+    private Transports() {
+    }
+
+    public static boolean isWebSocket(String url) {
+        return url != null && (url.startsWith("ws://") || url.startsWith("wss://"));
+    }
+
+    public static Web3jService open(String url) throws ConnectException {
+        if (isWebSocket(url)) {
+            WebSocketService ws = new WebSocketService(url, false);
+            ws.connect();
+            return ws;
+        }
+        return new HttpService(url);
+    }
+
+    /**
+     * Like open, but an HTTP endpoint gets a client sized for many concurrent callers
+     * (keep-alive pool and dispatcher limits of maxConnections). A WebSocket already multiplexes.
+     */
+    public static Web3jService openPooled(String url, int maxConnections) throws ConnectException {
+        if (isWebSocket(url)) {
+            return open(url);
+        }
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxConnections);
+        dispatcher.setMaxRequestsPerHost(maxConnections);
+        OkHttpClient client = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(maxConnections, 5, TimeUnit.MINUTES))
+                .dispatcher(dispatcher)
+                .build();
+        return new HttpService(url, client);
+    }
+}
@@ -0,0 +1,486 @@
+package ethSim;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.Utf8String;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.abi.datatypes.generated.Uint8;
+import org.web3j.crypto.Hash;
+import org.web3j.utils.Numeric;
+
+import ethSC.Gomoku;
+import gomokuEngine.Board;
+
+/**
+ * Java port of Gomoku.sol: same checks in the same order, same revert reasons, same events.
+ * Every entry point validates completely before it mutates anything, so a Revert leaves the
+ * state untouched and eth_call / eth_estimateGas can run the validation alone.
+ * Not thread-safe; SimulatedNode serialises all access.
+ */
+final class SimulatedGomoku {
+    static final String ZERO_ADDRESS = "0x0000000000000000000000000000000000000000";
+    static final long TIMEOUT = 5 * 60;
+
+    // GameState
+    static final int WAITING = 0;
+    static final int PLAYING = 1;
+    static final int BLACK_WIN = 2;
+    static final int WHITE_WIN = 3;
+    static final int DRAW = 4;
+
+    // Rough execution gas on top of the intrinsic 21000 + calldata, for receipts and estimates
+    private static final long GAS_CREATE = 110_000;
+    private static final long GAS_JOIN = 55_000;
+    private static final long GAS_MOVE = 45_000;
+    private static final long GAS_MOVE_PER_READ = 2_600;
+    private static final long GAS_GAME_END = 12_000;
+    private static final long GAS_CHAT = 4_000;
+    private static final long GAS_CHAT_PER_BYTE = 8;
+    private static final long GAS_TIMEOUT = 32_000;
+    private static final long GAS_SURRENDER = 30_000;
+
+    /**
+     * require(...) failure.
+     */
+    static class Revert extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        Revert(String reason) {
+            super(reason, null, false, false);
+        }
+    }
+
+    /**
+     * An emitted event: topics and ABI-encoded data.
+     */
+    static class EmittedLog {
+        final List<String> topics;
+        final String data;
+
+        EmittedLog(String data, String... topics) {
+            this.topics = Arrays.asList(topics);
+            this.data = data;
+        }
+    }
+
+    /**
+     * Outcome of a successful call: logs emitted, execution gas, return data for views.
+     */
+    static class Result {
+        final List<EmittedLog> logs = new ArrayList<>();
+        long gas;
+        String returnData = "0x";
+    }
+
+    private static class Game {
+        final long gameId;
+        String blackPlayer = ZERO_ADDRESS;
+        String whitePlayer = ZERO_ADDRESS;
+        final Board board = new Board();
+        int state = WAITING;
+        BigInteger betAmount = BigInteger.ZERO;
+        long lastMoveTime;
+
+        Game(long gameId) {
+            this.gameId = gameId;
+        }
+
+        int currentPlayer() {
+            return board.currentPlayer();
+        }
+    }
+
+    private final String address;
+    private final Map<String, BigInteger> balances;
+    private final List<Game> games = new ArrayList<>();
+    private final Map<String, Long> playerGame = new HashMap<>();
+
+    /**
+     * @param balances the node's ledger; payouts are credited there
+     */
+    SimulatedGomoku(String address, Map<String, BigInteger> balances) {
+        this.address = address.toLowerCase();
+        this.balances = balances;
+    }
+
+    // ------------ Dispatch ------------
+
+    private static final String SEL_CREATEGAME = selector("createGame()");
+    private static final String SEL_JOINGAME = selector("joinGame(uint256)");
+    private static final String SEL_MAKEMOVE = selector("makeMove(uint256,uint8,uint8)");
+    private static final String SEL_SENDCHAT = selector("sendChat(uint256,string)");
+    private static final String SEL_CLAIMTIMEOUT = selector("claimTimeout(uint256)");
+    private static final String SEL_SURRENDER = selector("surrender(uint256)");
+    private static final String SEL_GETGAMEINFO = selector("getGameInfo(uint256)");
+    private static final String SEL_GETBOARD = selector("getBoard(uint256)");
+    private static final String SEL_GETPIECE = selector("getPiece(uint256,uint8,uint8)");
+    private static final String SEL_GAMECOUNTER = selector("gameCounter()");
+    private static final String SEL_PLAYERGAME = selector("playerGame(address)");
+
+    private static String selector(String signature) {
+        return Hash.sha3String(signature).substring(0, 10);
+    }
+
+    /**
+     * Runs one call. With apply == false only the checks run and nothing changes.
+     * @throws Revert with the contract's revert reason
+     */
+    Result call(String from, String data, BigInteger value, long timestamp, boolean apply) throws Revert {
+        String sel = data == null || data.length() < 10 ? "" : data.substring(0, 10).toLowerCase();
+        String args = data == null || data.length() < 10 ? "" : data.substring(10);
+        String sender = from == null ? ZERO_ADDRESS : from.toLowerCase();
+        boolean payable = sel.equals(SEL_CREATEGAME) || sel.equals(SEL_JOINGAME);
+        if (!payable && value != null && value.signum() > 0) {
+            throw new Revert("");
+        }
+        if (sel.equals(SEL_CREATEGAME)) {
+            return createGame(sender, value, timestamp, apply);
+        } else if (sel.equals(SEL_JOINGAME)) {
+            return joinGame(sender, word(args, 0), value, timestamp, apply);
+        } else if (sel.equals(SEL_MAKEMOVE)) {
+            return makeMove(sender, word(args, 0), uint8(args, 1), uint8(args, 2), timestamp, apply);
+        } else if (sel.equals(SEL_SENDCHAT)) {
+            return sendChat(sender, word(args, 0), string(args, 1), apply);
+        } else if (sel.equals(SEL_CLAIMTIMEOUT)) {
+            return claimTimeout(sender, word(args, 0), timestamp, apply);
+        } else if (sel.equals(SEL_SURRENDER)) {
+            return surrender(sender, word(args, 0), apply);
+        } else if (sel.equals(SEL_GETGAMEINFO)) {
+            return getGameInfo(word(args, 0));
+        } else if (sel.equals(SEL_GETBOARD)) {
+            return getBoard(word(args, 0));
+        } else if (sel.equals(SEL_GETPIECE)) {
+            return getPiece(word(args, 0), uint8(args, 1), uint8(args, 2));
+        } else if (sel.equals(SEL_GAMECOUNTER)) {
+            return encode(new Uint256(games.size()));
+        } else if (sel.equals(SEL_PLAYERGAME)) {
+            String player = Numeric.toHexStringWithPrefixZeroPadded(word(args, 0), 40);
+            return encode(new Uint256(playerGame.getOrDefault(player, 0L)));
+        }
+        // No fallback function in Gomoku.sol
+        throw new Revert("");
+    }
+
+    private static BigInteger word(String args, int i) throws Revert {
+        if (args.length() < (i + 1) * 64) {
+            throw new Revert("");
+        }
+        return new BigInteger(args.substring(i * 64, (i + 1) * 64), 16);
+    }
+
+    /**
+     * uint8 argument: above 255 fails ABI decoding, which reverts before any modifier runs.
+     */
+    private static int uint8(String args, int i) throws Revert {
+        BigInteger v = word(args, i);
+        if (v.bitLength() > 8) {
+            throw new Revert("");
+        }
+        return v.intValue();
+    }
+
+    /**
+     * Dynamic string argument; an offset or length pointing past the calldata reverts, as
+     * ABI decoding does.
+     */
+    private static String string(String args, int i) throws Revert {
+        int offset = (int) bounded(word(args, i), args.length()) * 2;
+        if (args.length() < offset + 64) {
+            throw new Revert("");
+        }
+        long length = bounded(new BigInteger(args.substring(offset, offset + 64), 16), args.length());
+        long end = offset + 64 + length * 2;
+        if (args.length() < end) {
+            throw new Revert("");
+        }
+        return new String(Numeric.hexStringToByteArray(args.substring(offset + 64, (int) end)),
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A byte offset or length from calldata, no larger than the calldata itself (in hex chars).
+     */
+    private static long bounded(BigInteger value, int hexLength) throws Revert {
+        if (value.compareTo(BigInteger.valueOf(hexLength / 2)) > 0) {
+            throw new Revert("");
+        }
+        return value.longValue();
+    }
+
+    private static Result encode(Type<?>... values) {
+        Result r = new Result();
+        r.returnData = "0x" + FunctionEncoder.encodeConstructor(Arrays.asList(values));
+        return r;
+    }
+
+    private static String topic(long value) {
+        return Numeric.toHexStringWithPrefixZeroPadded(BigInteger.valueOf(value), 64);
+    }
+
+    private static String topic(String address) {
+        return Numeric.toHexStringWithPrefixZeroPadded(Numeric.toBigInt(address), 64);
+    }
+
+    // ------------ Modifiers ------------
+
+    private Game gameExists(BigInteger gameId) throws Revert {
+        if (gameId.compareTo(BigInteger.valueOf(games.size())) >= 0) {
+            throw new Revert("Game does not exist");
+        }
+        return games.get(gameId.intValue());
+    }
+
+    private static void isPlayer(Game game, String sender) throws Revert {
+        if (!sender.equals(game.blackPlayer) && !sender.equals(game.whitePlayer)) {
+            throw new Revert("You are not a player in this game");
+        }
+    }
+
+    private boolean inPlayingGame(String player) {
+        Long id = playerGame.get(player);
+        return id != null && id != 0 && games.get(id.intValue()).state == PLAYING;
+    }
+
+    // ------------ Writes ------------
+
+    private Result createGame(String sender, BigInteger value, long timestamp, boolean apply) throws Revert {
+        if (inPlayingGame(sender)) {
+            throw new Revert("You are already in a game");
+        }
+        Result r = new Result();
+        r.gas = GAS_CREATE;
+        if (!apply) {
+            return r;
+        }
+        Game game = new Game(games.size());
+        game.blackPlayer = sender;
+        game.betAmount = value;
+        game.lastMoveTime = timestamp;
+        games.add(game);
+        playerGame.put(sender, game.gameId);
+        r.logs.add(new EmittedLog("0x" + FunctionEncoder.encodeConstructor(List.of(new Uint256(value))),
+                Gomoku.GAMECREATED_TOPIC, topic(game.gameId), topic(sender)));
+        r.returnData = encode(new Uint256(game.gameId)).returnData;
+        return r;
+    }
+
+    private Result joinGame(String sender, BigInteger gameId, BigInteger value, long timestamp, boolean apply)
+            throws Revert {
+        Game game = gameExists(gameId);
+        if (game.state != WAITING) {
+            throw new Revert("Game is not waiting for players");
+        }
+        if (game.blackPlayer.equals(sender)) {
+            throw new Revert("You are already in this game");
+        }
+        if (!value.equals(game.betAmount)) {
+            throw new Revert("Incorrect bet amount");
+        }
+        if (inPlayingGame(sender)) {
+            throw new Revert("You are already in another game");
+        }
+        Result r = new Result();
+        r.gas = GAS_JOIN;
+        if (!apply) {
+            return r;
+        }
+        game.whitePlayer = sender;
+        game.state = PLAYING;
+        game.lastMoveTime = timestamp;
+        playerGame.put(sender, game.gameId);
+        r.logs.add(new EmittedLog("0x", Gomoku.PLAYERJOINED_TOPIC, topic(game.gameId), topic(sender)));
+        return r;
+    }
+
+    private Result makeMove(String sender, BigInteger gameId, int px, int py, long timestamp,
+            boolean apply) throws Revert {
+        Game game = gameExists(gameId);
+        if (game.state != PLAYING) {
+            throw new Revert("Game is not in playing state");
+        }
+        String mover = game.currentPlayer() == Board.BLACK ? game.blackPlayer : game.whitePlayer;
+        if (!sender.equals(mover)) {
+            throw new Revert("Not your turn");
+        }
+        if (px >= Board.SIZE || py >= Board.SIZE) {
+            throw new Revert("Invalid coordinates");
+        }
+        if (!game.board.isEmpty(px, py)) {
+            throw new Revert("Position already occupied");
+        }
+        Result r = new Result();
+        int piece = game.currentPlayer();
+        r.gas = GAS_MOVE + GAS_MOVE_PER_READ * reads(game.board, px, py, piece);
+        if (!apply) {
+            return r;
+        }
+        int state = game.board.place(px, py);
+        game.lastMoveTime = timestamp;
+        r.logs.add(new EmittedLog("0x" + FunctionEncoder.encodeConstructor(List.of(new Uint8(px), new Uint8(py),
+                new Uint8(piece))), Gomoku.MOVEMADE_TOPIC, topic(game.gameId), topic(sender)));
+        if (state == Board.BLACK_WIN || state == Board.WHITE_WIN) {
+            game.state = state;
+            payout(state == Board.BLACK_WIN ? game.blackPlayer : game.whitePlayer, game.betAmount.shiftLeft(1));
+            r.logs.add(gameEnded(game, sender));
+            r.gas += GAS_GAME_END;
+        } else if (state == Board.DRAW) {
+            game.state = DRAW;
+            payout(game.blackPlayer, game.betAmount);
+            payout(game.whitePlayer, game.betAmount);
+            r.logs.add(gameEnded(game, ZERO_ADDRESS));
+            r.gas += GAS_GAME_END;
+        }
+        return r;
+    }
+
+    /**
+     * Storage reads checkWin would make for a piece at (x, y): countPieces stops at the first
+     * non-matching cell, and the || chain stops at the first direction with five.
+     */
+    private static int reads(Board board, int x, int y, int piece) {
+        int[][] dirs = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+        int reads = 1;
+        for (int[] d : dirs) {
+            int count = 1;
+            for (int s = -1; s <= 1; s += 2) {
+                int cx = x + d[0] * s;
+                int cy = y + d[1] * s;
+                while (cx >= 0 && cx < Board.SIZE && cy >= 0 && cy < Board.SIZE) {
+                    reads++;
+                    if (board.get(cx, cy) != piece) {
+                        break;
+                    }
+                    count++;
+                    cx += d[0] * s;
+                    cy += d[1] * s;
+                }
+            }
+            if (count >= 4) {
+                break; // with the new piece this direction makes five
+            }
+        }
+        return reads;
+    }
+
+    private Result sendChat(String sender, BigInteger gameId, String message, boolean apply) throws Revert {
+        Game game = gameExists(gameId);
+        isPlayer(game, sender);
+        if (game.state != WAITING && game.state != PLAYING) {
+            throw new Revert("Game is not active");
+        }
+        if (message.isEmpty()) {
+            throw new Revert("Message is empty");
+        }
+        Result r = new Result();
+        String data = "0x" + FunctionEncoder.encodeConstructor(List.of(new Utf8String(message),
+                new Uint256(game.board.moveCount())));
+        r.gas = GAS_CHAT + GAS_CHAT_PER_BYTE * (data.length() - 2) / 2;
+        if (apply) {
+            r.logs.add(new EmittedLog(data, Gomoku.CHATSENT_TOPIC, topic(game.gameId), topic(sender)));
+        }
+        return r;
+    }
+
+    private Result claimTimeout(String sender, BigInteger gameId, long timestamp, boolean apply) throws Revert {
+        Game game = gameExists(gameId);
+        isPlayer(game, sender);
+        if (game.state != PLAYING) {
+            throw new Revert("Game is not in playing state");
+        }
+        if (timestamp < game.lastMoveTime + TIMEOUT) {
+            throw new Revert("Timeout not reached");
+        }
+        Result r = new Result();
+        r.gas = GAS_TIMEOUT;
+        if (!apply) {
+            return r;
+        }
+        String winner;
+        if (game.currentPlayer() == Board.BLACK) {
+            game.state = WHITE_WIN;
+            winner = game.whitePlayer;
+        } else {
+            game.state = BLACK_WIN;
+            winner = game.blackPlayer;
+        }
+        payout(winner, game.betAmount.shiftLeft(1));
+        r.logs.add(new EmittedLog("0x" + FunctionEncoder.encodeConstructor(List.of(new Address(winner))),
+                Gomoku.GAMETIMEOUT_TOPIC, topic(game.gameId)));
+        r.logs.add(gameEnded(game, winner));
+        return r;
+    }
+
+    private Result surrender(String sender, BigInteger gameId, boolean apply) throws Revert {
+        Game game = gameExists(gameId);
+        isPlayer(game, sender);
+        if (game.state != PLAYING) {
+            throw new Revert("Game is not in playing state");
+        }
+        Result r = new Result();
+        r.gas = GAS_SURRENDER;
+        if (!apply) {
+            return r;
+        }
+        String winner;
+        if (sender.equals(game.blackPlayer)) {
+            game.state = WHITE_WIN;
+            winner = game.whitePlayer;
+        } else {
+            game.state = BLACK_WIN;
+            winner = game.blackPlayer;
+        }
+        payout(winner, game.betAmount.shiftLeft(1));
+        r.logs.add(gameEnded(game, winner));
+        return r;
+    }
+
+    private EmittedLog gameEnded(Game game, String winner) {
+        return new EmittedLog("0x" + FunctionEncoder.encodeConstructor(List.of(new Uint8(game.state),
+                new Address(winner))), Gomoku.GAMEENDED_TOPIC, topic(game.gameId));
+    }
+
+    private void payout(String to, BigInteger amount) {
+        if (amount.signum() > 0) {
+            balances.merge(address, amount.negate(), BigInteger::add);
+            balances.merge(to, amount, BigInteger::add);
+        }
+    }
+
+    // ------------ Views ------------
+
+    private Result getGameInfo(BigInteger gameId) throws Revert {
+        Game g = gameExists(gameId);
+        return encode(new Address(g.blackPlayer), new Address(g.whitePlayer), new Uint8(g.currentPlayer()),
+                new Uint8(g.state), new Uint256(g.betAmount), new Uint8(g.board.moveCount()));
+    }
+
+    private Result getBoard(BigInteger gameId) throws Revert {
+        Game g = gameExists(gameId);
+        StringBuilder sb = new StringBuilder(2 + Board.CELLS * 64);
+        sb.append("0x");
+        for (int x = 0; x < Board.SIZE; x++) {
+            for (int y = 0; y < Board.SIZE; y++) {
+                sb.append("000000000000000000000000000000000000000000000000000000000000000").append(g.board.get(x, y));
+            }
+        }
+        Result r = new Result();
+        r.returnData = sb.toString();
+        return r;
+    }
+
+    private Result getPiece(BigInteger gameId, int x, int y) throws Revert {
+        Game g = gameExists(gameId);
+        if (x >= Board.SIZE || y >= Board.SIZE) {
+            throw new Revert("Invalid coordinates");
+        }
+        return encode(new Uint8(g.board.get(x, y)));
+    }
+}
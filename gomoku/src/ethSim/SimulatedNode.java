@@ -0,0 +1,830 @@
+package ethSim;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.datatypes.Utf8String;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.SignedRawTransaction;
+import org.web3j.crypto.TransactionDecoder;
+import org.web3j.crypto.transaction.type.Transaction1559;
+import org.web3j.protocol.Service;
+import org.web3j.utils.Numeric;
+
+import ethSim.SimulatedGomoku.EmittedLog;
+import ethSim.SimulatedGomoku.Result;
+import ethSim.SimulatedGomoku.Revert;
+
+/**
+ * In-process stand-in for a JSON-RPC node running Gomoku.sol, usable anywhere a Web3jService is:
+ * Web3j.build(SimulatedNode.instantMine(...)) or new GomokuHandler(node, keystore, password).
+ *
+ * Raw transactions are decoded and their signatures checked, nonces / balances / gas are enforced
+ * like geth (nonce too low, replacement underpriced, already known, insufficient funds), and
+ * blocks, receipts, logs and polling filters are served in the usual JSON shapes.
+ * Either every transaction is mined at once in its own block (instantMine) or blocks are
+ * produced on a timer (withBlockTime). Historical state is not kept: eth_call and
+ * eth_estimateGas always run against the latest state. WebSocket subscriptions are not offered.
+ */
+public class SimulatedNode extends Service {
+    public static final long DEFAULT_BLOCK_GAS_LIMIT = 30_000_000L;
+    private static final String ZERO_HASH = "0x" + "0".repeat(64);
+    private static final String EMPTY_BLOOM = "0x" + "0".repeat(512);
+    private static final String REVERT_SELECTOR = "0x08c379a0";
+
+    private final long chainId;
+    private final String contractAddress;
+    private final boolean instant;
+    private final Map<String, BigInteger> balances = new HashMap<>();
+    private final SimulatedGomoku gomoku;
+
+    // Guarded by this
+    private final Map<String, Long> nonces = new HashMap<>();
+    private final Map<String, TreeMap<Long, Tx>> pool = new HashMap<>();
+    private final Map<String, Tx> txs = new HashMap<>();
+    private final List<Block> blocks = new ArrayList<>();
+    private final Map<String, Block> blocksByHash = new HashMap<>();
+    private final Map<String, Filter> filters = new HashMap<>();
+    private long nextFilterId = 1;
+    private long nextSeq;
+    private long timeOffset;
+    private BigInteger gasPrice = BigInteger.valueOf(1_000_000_000L);
+    private long blockGasLimit = DEFAULT_BLOCK_GAS_LIMIT;
+    private ScheduledExecutorService miner;
+
+    private SimulatedNode(long chainId, String contractAddress, boolean instant) {
+        super(false);
+        this.chainId = chainId;
+        this.contractAddress = contractAddress.toLowerCase();
+        this.instant = instant;
+        this.gomoku = new SimulatedGomoku(this.contractAddress, balances);
+        Block genesis = new Block(0, ZERO_HASH, clock());
+        genesis.seal();
+        blocks.add(genesis);
+        blocksByHash.put(genesis.hash, genesis);
+    }
+
+    /**
+     * 每筆交易送出即出塊 (自動挖礦)
+     */
+    public static SimulatedNode instantMine(long chainId, String contractAddress) {
+        return new SimulatedNode(chainId, contractAddress, true);
+    }
+
+    /**
+     * Produces a block every blockTimeMs (empty or not), like a dev chain with a fixed period.
+     */
+    public static SimulatedNode withBlockTime(long chainId, String contractAddress, long blockTimeMs) {
+        SimulatedNode node = new SimulatedNode(chainId, contractAddress, false);
+        node.miner = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sim-miner");
+            t.setDaemon(true);
+            return t;
+        });
+        node.miner.scheduleAtFixedRate(node::mine, blockTimeMs, blockTimeMs, TimeUnit.MILLISECONDS);
+        return node;
+    }
+
+    // ------------ Test controls ------------
+
+    public synchronized void fund(String address, BigInteger wei) {
+        balances.merge(address.toLowerCase(), wei, BigInteger::add);
+    }
+
+    public synchronized BigInteger balanceOf(String address) {
+        return balances.getOrDefault(address.toLowerCase(), BigInteger.ZERO);
+    }
+
+    /**
+     * Moves block.timestamp forward (e.g. past Gomoku.TIMEOUT before claimTimeout).
+     */
+    public synchronized void advanceTime(long seconds) {
+        timeOffset += seconds;
+    }
+
+    public synchronized void setGasPrice(BigInteger gasPrice) {
+        this.gasPrice = gasPrice;
+    }
+
+    public synchronized void setBlockGasLimit(long blockGasLimit) {
+        this.blockGasLimit = blockGasLimit;
+    }
+
+    /**
+     * Replaces the last depth blocks with siblings holding the same transactions (new hashes,
+     * timestamps one second later), as after a short reorg that re-included everything. Log
+     * filters report the replaced logs with removed = true, then the new ones; block filters
+     * report the new hashes. Contract state is unchanged.
+     * @return number of the first replaced block
+     */
+    public synchronized long reorg(int depth) {
+        long first = Math.max(1, head().number - depth + 1);
+        for (Filter f : filters.values()) {
+            if (f.criteria != null) {
+                for (long n = first; n <= Math.min(f.lastBlock, head().number); n++) {
+                    for (ObjectNode log : blocks.get((int) n).logs) {
+                        if (matches(f.criteria, log)) {
+                            f.removed.add(log.deepCopy().put("removed", true));
+                        }
+                    }
+                }
+            }
+            f.lastBlock = Math.min(f.lastBlock, first - 1);
+        }
+        String parent = blocks.get((int) first - 1).hash;
+        for (long n = first; n < blocks.size(); n++) {
+            Block old = blocks.get((int) n);
+            Block b = new Block(n, parent, old.timestamp + 1);
+            b.txs.addAll(old.txs);
+            b.gasUsed = old.gasUsed;
+            b.seal();
+            for (ObjectNode log : old.logs) {
+                ObjectNode copy = log.deepCopy().put("blockHash", b.hash);
+                b.logs.add(copy);
+            }
+            for (Tx t : b.txs) {
+                t.blockHash = b.hash;
+                for (int i = 0; i < t.logs.size(); i++) {
+                    t.logs.set(i, b.logs.get(Integer.decode(t.logs.get(i).get("logIndex").asText())));
+                }
+            }
+            blocks.set((int) n, b);
+            blocksByHash.put(b.hash, b);
+            parent = b.hash;
+        }
+        return first;
+    }
+
+    public synchronized long blockNumber() {
+        return head().number;
+    }
+
+    public synchronized int pendingCount() {
+        int n = 0;
+        for (TreeMap<Long, Tx> q : pool.values()) {
+            n += q.size();
+        }
+        return n;
+    }
+
+    public String getContractAddress() {
+        return contractAddress;
+    }
+
+    @Override
+    public void close() {
+        if (miner != null) {
+            miner.shutdownNow();
+        }
+    }
+
+    private long clock() {
+        return System.currentTimeMillis() / 1000 + timeOffset;
+    }
+
+    private Block head() {
+        return blocks.get(blocks.size() - 1);
+    }
+
+    private long nextTimestamp() {
+        return Math.max(clock(), head().timestamp);
+    }
+
+    private long nonce(String address) {
+        return nonces.getOrDefault(address, 0L);
+    }
+
+    private long pendingNonce(String address) {
+        long n = nonce(address);
+        TreeMap<Long, Tx> q = pool.get(address);
+        while (q != null && q.containsKey(n)) {
+            n++;
+        }
+        return n;
+    }
+
+    // ------------ Mining ------------
+
+    /**
+     * Seals a block with the executable pending transactions, highest gas price first
+     * (per sender in nonce order), up to the block gas limit.
+     * @return the new block number
+     */
+    public synchronized long mine() {
+        Block block = new Block(head().number + 1, head().hash, nextTimestamp());
+        PriorityQueue<Tx> ready = new PriorityQueue<>(Comparator.comparing((Tx t) -> t.price).reversed()
+                .thenComparingLong(t -> t.seq));
+        for (Map.Entry<String, TreeMap<Long, Tx>> e : pool.entrySet()) {
+            Tx t = e.getValue().get(nonce(e.getKey()));
+            if (t != null) {
+                ready.add(t);
+            }
+        }
+        long gasLeft = blockGasLimit;
+        while (!ready.isEmpty()) {
+            Tx t = ready.poll();
+            if (t.gasLimit > gasLeft) {
+                continue; // this sender waits for the next block
+            }
+            pool.get(t.from).remove(t.nonce);
+            nonces.put(t.from, t.nonce + 1);
+            execute(t, block);
+            gasLeft -= t.gasUsed;
+            Tx next = pool.get(t.from).get(t.nonce + 1);
+            if (next != null) {
+                ready.add(next);
+            }
+        }
+        pool.values().removeIf(TreeMap::isEmpty);
+        block.seal();
+        for (Tx t : block.txs) {
+            t.blockHash = block.hash;
+            for (ObjectNode log : t.logs) {
+                log.put("blockHash", block.hash);
+            }
+        }
+        blocks.add(block);
+        blocksByHash.put(block.hash, block);
+        return block.number;
+    }
+
+    private void execute(Tx t, Block block) {
+        t.blockNumber = block.number;
+        t.index = block.txs.size();
+        block.txs.add(t);
+        long intrinsic = intrinsicGas(t.data);
+        boolean success = false;
+        List<EmittedLog> emitted = List.of();
+        long used = intrinsic;
+        if (t.to == null) {
+            t.revertReason = "contract creation is not supported";
+        } else if (!t.to.equals(contractAddress)) {
+            success = balance(t.from).compareTo(t.value) >= 0;
+            if (success) {
+                transfer(t.from, t.to, t.value);
+            }
+        } else {
+            try {
+                Result check = gomoku.call(t.from, t.data, t.value, block.timestamp, false);
+                used = intrinsic + check.gas;
+                if (used > t.gasLimit) {
+                    used = t.gasLimit;
+                    t.revertReason = "out of gas";
+                } else {
+                    // Value moves in before the body runs (payouts may spend it)
+                    transfer(t.from, contractAddress, t.value);
+                    emitted = gomoku.call(t.from, t.data, t.value, block.timestamp, true).logs;
+                    success = true;
+                }
+            } catch (Revert r) {
+                used = Math.min(t.gasLimit, intrinsic + 2_000);
+                t.revertReason = r.getMessage();
+            } catch (RuntimeException e) {
+                // Calldata the decoder cannot handle: a failed transaction, never a lost block
+                used = Math.min(t.gasLimit, intrinsic + 2_000);
+                t.revertReason = "";
+            }
+        }
+        t.gasUsed = used;
+        t.status = success;
+        balances.merge(t.from, t.price.multiply(BigInteger.valueOf(used)).negate(), BigInteger::add);
+        block.gasUsed += used;
+        for (EmittedLog e : emitted) {
+            ObjectNode log = objectMapper.createObjectNode();
+            log.put("removed", false);
+            log.put("logIndex", hex(block.logs.size()));
+            log.put("transactionIndex", hex(t.index));
+            log.put("transactionHash", t.hash);
+            log.put("blockNumber", hex(block.number));
+            log.put("address", contractAddress);
+            log.put("data", e.data);
+            ArrayNode topics = log.putArray("topics");
+            e.topics.forEach(topics::add);
+            block.logs.add(log);
+            t.logs.add(log);
+        }
+        t.cumulativeGasUsed = block.gasUsed;
+    }
+
+    private BigInteger balance(String address) {
+        return balances.getOrDefault(address, BigInteger.ZERO);
+    }
+
+    private void transfer(String from, String to, BigInteger value) {
+        if (value.signum() > 0) {
+            balances.merge(from, value.negate(), BigInteger::add);
+            balances.merge(to, value, BigInteger::add);
+        }
+    }
+
+    private static long intrinsicGas(String data) {
+        long gas = 21_000;
+        byte[] bytes = Numeric.hexStringToByteArray(data == null ? "0x" : data);
+        for (byte b : bytes) {
+            gas += b == 0 ? 4 : 16;
+        }
+        return gas;
+    }
+
+    // ------------ JSON-RPC ------------
+
+    @Override
+    protected InputStream performIO(String payload) throws IOException {
+        JsonNode request = objectMapper.readTree(payload);
+        JsonNode response;
+        if (request.isArray()) {
+            ArrayNode all = objectMapper.createArrayNode();
+            for (JsonNode r : request) {
+                all.add(handle(r));
+            }
+            response = all;
+        } else {
+            response = handle(request);
+        }
+        return new ByteArrayInputStream(objectMapper.writeValueAsBytes(response));
+    }
+
+    private ObjectNode handle(JsonNode request) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", request.get("id"));
+        String method = request.path("method").asText();
+        JsonNode params = request.path("params");
+        try {
+            JsonNode result;
+            synchronized (this) {
+                result = dispatch(method, params);
+            }
+            response.set("result", result == null ? NullNode.getInstance() : result);
+        } catch (RpcError e) {
+            ObjectNode error = response.putObject("error");
+            error.put("code", e.code);
+            error.put("message", e.getMessage());
+            if (e.data != null) {
+                error.put("data", e.data);
+            }
+        } catch (RuntimeException e) {
+            ObjectNode error = response.putObject("error");
+            error.put("code", -32603);
+            error.put("message", "internal error: " + e);
+        }
+        return response;
+    }
+
+    private JsonNode dispatch(String method, JsonNode p) throws RpcError {
+        switch (method) {
+            case "web3_clientVersion":
+                return text("GomokuSim/1.0");
+            case "net_version":
+                return text(Long.toString(chainId));
+            case "eth_chainId":
+                return text(hex(chainId));
+            case "eth_blockNumber":
+                return text(hex(head().number));
+            case "eth_gasPrice":
+                return text(Numeric.toHexStringWithPrefix(gasPrice));
+            case "eth_getBalance":
+                return text(Numeric.toHexStringWithPrefix(balance(address(p.get(0)))));
+            case "eth_getTransactionCount":
+                String who = address(p.get(0));
+                return text(hex("pending".equals(p.path(1).asText()) ? pendingNonce(who) : nonce(who)));
+            case "eth_getCode":
+                return text(contractAddress.equals(address(p.get(0))) ? "0x6080604052" : "0x");
+            case "eth_call":
+                return text(call(p.get(0)).returnData);
+            case "eth_estimateGas":
+                return text(hex(estimate(p.get(0))));
+            case "eth_sendRawTransaction":
+                return text(sendRaw(p.get(0).asText()));
+            case "eth_getTransactionReceipt":
+                Tx mined = txs.get(p.get(0).asText().toLowerCase());
+                return mined == null || mined.blockHash == null ? null : receiptJson(mined);
+            case "eth_getTransactionByHash":
+                Tx tx = txs.get(p.get(0).asText().toLowerCase());
+                return tx == null ? null : txJson(tx);
+            case "eth_getBlockByNumber":
+                Block byNumber = block(p.get(0).asText());
+                return byNumber == null ? null : blockJson(byNumber, p.path(1).asBoolean());
+            case "eth_getBlockByHash":
+                Block byHash = blocksByHash.get(p.get(0).asText().toLowerCase());
+                return byHash == null ? null : blockJson(byHash, p.path(1).asBoolean());
+            case "eth_getLogs":
+                return getLogs(p.get(0));
+            case "eth_newFilter":
+                return text(newFilter(p.get(0)));
+            case "eth_newBlockFilter":
+                return text(newFilter(null));
+            case "eth_getFilterChanges":
+                return filterChanges(p.get(0).asText());
+            case "eth_getFilterLogs":
+                return getLogs(filter(p.get(0).asText()).criteria);
+            case "eth_uninstallFilter":
+                return objectMapper.getNodeFactory().booleanNode(filters.remove(p.get(0).asText()) != null);
+            default:
+                throw new RpcError(-32601, "the method " + method + " does not exist/is not available");
+        }
+    }
+
+    private JsonNode text(String value) {
+        return objectMapper.getNodeFactory().textNode(value);
+    }
+
+    private static String hex(long value) {
+        return "0x" + Long.toHexString(value);
+    }
+
+    private static String address(JsonNode node) {
+        return node == null || node.isNull() ? null : node.asText().toLowerCase();
+    }
+
+    private static BigInteger quantity(JsonNode node) {
+        return node == null || node.isNull() ? BigInteger.ZERO : Numeric.decodeQuantity(node.asText());
+    }
+
+    private Block block(String tag) {
+        switch (tag) {
+            case "latest":
+            case "pending":
+            case "safe":
+            case "finalized":
+                return head();
+            case "earliest":
+                return blocks.get(0);
+            default:
+                long n = Numeric.decodeQuantity(tag).longValue();
+                return n < blocks.size() ? blocks.get((int) n) : null;
+        }
+    }
+
+    // ------------ Calls ------------
+
+    private Result call(JsonNode tx) throws RpcError {
+        String to = address(tx.get("to"));
+        if (!contractAddress.equals(to)) {
+            return new Result();
+        }
+        String data = tx.has("data") ? tx.get("data").asText() : tx.path("input").asText("0x");
+        try {
+            return gomoku.call(address(tx.get("from")), data, quantity(tx.get("value")), nextTimestamp(), false);
+        } catch (Revert r) {
+            throw reverted(r.getMessage());
+        } catch (RuntimeException e) {
+            throw reverted("");
+        }
+    }
+
+    private long estimate(JsonNode tx) throws RpcError {
+        String data = tx.has("data") ? tx.get("data").asText() : tx.path("input").asText("0x");
+        return intrinsicGas(data) + call(tx).gas;
+    }
+
+    private static RpcError reverted(String reason) {
+        if (reason == null || reason.isEmpty()) {
+            return new RpcError(3, "execution reverted", "0x");
+        }
+        String data = REVERT_SELECTOR + FunctionEncoder.encodeConstructor(List.of(new Utf8String(reason)));
+        return new RpcError(3, "execution reverted: " + reason, data);
+    }
+
+    private String sendRaw(String raw) throws RpcError {
+        RawTransaction decoded;
+        String from;
+        try {
+            decoded = TransactionDecoder.decode(raw);
+            if (!(decoded instanceof SignedRawTransaction)) {
+                throw new RpcError(-32000, "invalid sender");
+            }
+            SignedRawTransaction signed = (SignedRawTransaction) decoded;
+            Long txChain = signed.getChainId();
+            if (txChain != null && txChain != chainId) {
+                throw new RpcError(-32000, "invalid chain id for signer");
+            }
+            from = signed.getFrom().toLowerCase();
+        } catch (SignatureException | RuntimeException e) {
+            throw new RpcError(-32000, "invalid transaction: " + e.getMessage());
+        }
+        String hash = Hash.sha3(raw).toLowerCase();
+        if (txs.containsKey(hash)) {
+            throw new RpcError(-32000, "already known");
+        }
+        Tx t = new Tx();
+        t.hash = hash;
+        t.from = from;
+        t.nonce = decoded.getNonce().longValue();
+        t.price = decoded.getTransaction() instanceof Transaction1559
+                ? ((Transaction1559) decoded.getTransaction()).getMaxFeePerGas()
+                : decoded.getGasPrice();
+        t.gasLimit = decoded.getGasLimit().longValue();
+        t.to = decoded.getTo() == null || decoded.getTo().isEmpty() ? null : decoded.getTo().toLowerCase();
+        t.value = decoded.getValue() == null ? BigInteger.ZERO : decoded.getValue();
+        t.data = decoded.getData() == null ? "0x" : Numeric.prependHexPrefix(decoded.getData());
+        t.seq = nextSeq++;
+
+        if (t.nonce < nonce(from)) {
+            throw new RpcError(-32000, "nonce too low");
+        }
+        if (t.gasLimit < intrinsicGas(t.data)) {
+            throw new RpcError(-32000, "intrinsic gas too low");
+        }
+        if (t.gasLimit > blockGasLimit) {
+            throw new RpcError(-32000, "exceeds block gas limit");
+        }
+        BigInteger cost = t.price.multiply(BigInteger.valueOf(t.gasLimit)).add(t.value);
+        if (balance(from).compareTo(cost) < 0) {
+            throw new RpcError(-32000, "insufficient funds for gas * price + value");
+        }
+        TreeMap<Long, Tx> queue = pool.computeIfAbsent(from, k -> new TreeMap<>());
+        Tx existing = queue.get(t.nonce);
+        if (existing != null) {
+            // geth's default price bump for a replacement: +10%
+            BigInteger min = existing.price.multiply(BigInteger.valueOf(110)).divide(BigInteger.valueOf(100));
+            if (t.price.compareTo(min) < 0) {
+                throw new RpcError(-32000, "replacement transaction underpriced");
+            }
+            txs.remove(existing.hash);
+        }
+        queue.put(t.nonce, t);
+        txs.put(hash, t);
+        if (instant) {
+            mine();
+        }
+        return hash;
+    }
+
+    // ------------ Logs and filters ------------
+
+    private ArrayNode getLogs(JsonNode criteria) throws RpcError {
+        ArrayNode out = objectMapper.createArrayNode();
+        long from;
+        long to;
+        if (criteria.hasNonNull("blockHash")) {
+            Block b = blocksByHash.get(criteria.get("blockHash").asText().toLowerCase());
+            if (b == null) {
+                throw new RpcError(-32000, "unknown block");
+            }
+            from = b.number;
+            to = b.number;
+        } else {
+            from = bound(criteria.get("fromBlock"));
+            to = bound(criteria.get("toBlock"));
+        }
+        collect(criteria, from, to, out);
+        return out;
+    }
+
+    private long bound(JsonNode tag) {
+        if (tag == null || tag.isNull()) {
+            return head().number;
+        }
+        Block b = block(tag.asText());
+        return b == null ? head().number : b.number;
+    }
+
+    private void collect(JsonNode criteria, long from, long to, ArrayNode out) {
+        for (long n = Math.max(0, from); n <= Math.min(to, head().number); n++) {
+            for (ObjectNode log : blocks.get((int) n).logs) {
+                if (matches(criteria, log)) {
+                    out.add(log);
+                }
+            }
+        }
+    }
+
+    private static boolean matches(JsonNode criteria, JsonNode log) {
+        JsonNode address = criteria.get("address");
+        if (address != null && !address.isNull()) {
+            boolean any = false;
+            for (JsonNode a : address.isArray() ? address : List.of(address)) {
+                any |= a.asText().equalsIgnoreCase(log.get("address").asText());
+            }
+            if (!any) {
+                return false;
+            }
+        }
+        JsonNode topics = criteria.get("topics");
+        if (topics == null || !topics.isArray()) {
+            return true;
+        }
+        JsonNode logTopics = log.get("topics");
+        for (int i = 0; i < topics.size(); i++) {
+            JsonNode want = topics.get(i);
+            if (want == null || want.isNull()) {
+                continue;
+            }
+            if (i >= logTopics.size()) {
+                return false;
+            }
+            String have = logTopics.get(i).asText();
+            boolean any = false;
+            for (JsonNode w : want.isArray() ? want : List.of(want)) {
+                any |= w.asText().equalsIgnoreCase(have);
+            }
+            if (!any) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String newFilter(JsonNode criteria) {
+        Filter f = new Filter();
+        f.criteria = criteria;
+        f.lastBlock = head().number;
+        String id = hex(nextFilterId++);
+        filters.put(id, f);
+        return id;
+    }
+
+    private Filter filter(String id) throws RpcError {
+        Filter f = filters.get(id);
+        if (f == null) {
+            throw new RpcError(-32000, "filter not found");
+        }
+        return f;
+    }
+
+    private ArrayNode filterChanges(String id) throws RpcError {
+        Filter f = filter(id);
+        ArrayNode out = objectMapper.createArrayNode();
+        long headNumber = head().number;
+        out.addAll(f.removed);
+        f.removed.clear();
+        if (f.criteria == null) {
+            for (long n = f.lastBlock + 1; n <= headNumber; n++) {
+                out.add(blocks.get((int) n).hash);
+            }
+        } else {
+            long from = Math.max(f.lastBlock + 1, f.criteria.hasNonNull("fromBlock")
+                    && !f.criteria.get("fromBlock").asText().startsWith("l") ? bound(f.criteria.get("fromBlock")) : 0);
+            long to = f.criteria.hasNonNull("toBlock") && f.criteria.get("toBlock").asText().startsWith("0x")
+                    ? bound(f.criteria.get("toBlock")) : headNumber;
+            collect(f.criteria, from, to, out);
+        }
+        f.lastBlock = headNumber;
+        return out;
+    }
+
+    // ------------ JSON shapes ------------
+
+    private ObjectNode receiptJson(Tx t) {
+        ObjectNode r = objectMapper.createObjectNode();
+        r.put("transactionHash", t.hash);
+        r.put("transactionIndex", hex(t.index));
+        r.put("blockHash", t.blockHash);
+        r.put("blockNumber", hex(t.blockNumber));
+        r.put("from", t.from);
+        r.put("to", t.to);
+        r.put("cumulativeGasUsed", hex(t.cumulativeGasUsed));
+        r.put("gasUsed", hex(t.gasUsed));
+        r.put("effectiveGasPrice", Numeric.toHexStringWithPrefix(t.price));
+        r.putNull("contractAddress");
+        ArrayNode logs = r.putArray("logs");
+        t.logs.forEach(logs::add);
+        r.put("logsBloom", EMPTY_BLOOM);
+        r.put("status", t.status ? "0x1" : "0x0");
+        r.put("type", "0x0");
+        return r;
+    }
+
+    private ObjectNode txJson(Tx t) {
+        ObjectNode j = objectMapper.createObjectNode();
+        j.put("hash", t.hash);
+        j.put("nonce", hex(t.nonce));
+        j.put("blockHash", t.blockHash);
+        j.put("blockNumber", t.blockHash == null ? null : hex(t.blockNumber));
+        j.put("transactionIndex", t.blockHash == null ? null : hex(t.index));
+        j.put("from", t.from);
+        j.put("to", t.to);
+        j.put("value", Numeric.toHexStringWithPrefix(t.value));
+        j.put("gasPrice", Numeric.toHexStringWithPrefix(t.price));
+        j.put("gas", hex(t.gasLimit));
+        j.put("input", t.data);
+        j.put("chainId", hex(chainId));
+        j.put("type", "0x0");
+        j.put("v", "0x0");
+        j.put("r", "0x0");
+        j.put("s", "0x0");
+        return j;
+    }
+
+    private ObjectNode blockJson(Block b, boolean fullTransactions) {
+        ObjectNode j = objectMapper.createObjectNode();
+        j.put("number", hex(b.number));
+        j.put("hash", b.hash);
+        j.put("parentHash", b.parentHash);
+        j.put("nonce", "0x0000000000000000");
+        j.put("mixHash", ZERO_HASH);
+        j.put("sha3Uncles", ZERO_HASH);
+        j.put("logsBloom", EMPTY_BLOOM);
+        j.put("transactionsRoot", ZERO_HASH);
+        j.put("stateRoot", ZERO_HASH);
+        j.put("receiptsRoot", ZERO_HASH);
+        j.put("miner", SimulatedGomoku.ZERO_ADDRESS);
+        j.put("difficulty", "0x0");
+        j.put("totalDifficulty", "0x0");
+        j.put("extraData", "0x");
+        j.put("size", "0x0");
+        j.put("gasLimit", hex(blockGasLimit));
+        j.put("gasUsed", hex(b.gasUsed));
+        j.put("timestamp", hex(b.timestamp));
+        j.put("baseFeePerGas", "0x0");
+        ArrayNode list = j.putArray("transactions");
+        for (Tx t : b.txs) {
+            if (fullTransactions) {
+                list.add(txJson(t));
+            } else {
+                list.add(t.hash);
+            }
+        }
+        j.putArray("uncles");
+        return j;
+    }
+
+    // ------------ Records ------------
+
+    private static class Tx {
+        String hash;
+        String from;
+        String to;
+        long nonce;
+        BigInteger price;
+        long gasLimit;
+        BigInteger value;
+        String data;
+        long seq;
+        // Set when mined
+        String blockHash;
+        long blockNumber;
+        int index;
+        long gasUsed;
+        long cumulativeGasUsed;
+        boolean status;
+        String revertReason;
+        final List<ObjectNode> logs = new ArrayList<>();
+    }
+
+    private static class Block {
+        final long number;
+        final String parentHash;
+        final long timestamp;
+        final List<Tx> txs = new ArrayList<>();
+        final List<ObjectNode> logs = new ArrayList<>();
+        long gasUsed;
+        String hash;
+
+        Block(long number, String parentHash, long timestamp) {
+            this.number = number;
+            this.parentHash = parentHash;
+            this.timestamp = timestamp;
+        }
+
+        void seal() {
+            StringBuilder sb = new StringBuilder(parentHash).append(number).append(':').append(timestamp);
+            for (Tx t : txs) {
+                sb.append(t.hash);
+            }
+            hash = Hash.sha3String(sb.toString()).toLowerCase();
+        }
+    }
+
+    private static class Filter {
+        JsonNode criteria; // null for a block filter
+        long lastBlock;
+        final List<ObjectNode> removed = new ArrayList<>(); // logs undone by reorg(), reported next poll
+    }
+
+    private static class RpcError extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        final int code;
+        final String data;
+
+        RpcError(int code, String message) {
+            this(code, message, null);
+        }
+
+        RpcError(int code, String message, String data) {
+            super(message, null, false, false);
+            this.code = code;
+            this.data = data;
+        }
+    }
+}
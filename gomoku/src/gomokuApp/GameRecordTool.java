@@ -0,0 +1,95 @@
+package gomokuApp;
+
+import ethInfo.EthBasis;
+import gomokuEngine.Board;
+import gomokuState.EventJournal;
+import gomokuState.GameRecord;
+import gomokuState.GameRecordExporter;
+import gomokuState.GameRecordReader;
+import gomokuState.GameRecordWriter;
+import gomokuState.GameStateIndex;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Game-record files from the command line, no chain access needed:
+ *   export [journal] <out>   every game in the event journal to a record file (open games included)
+ *   import <file>            rebuild a GameStateIndex from a record file
+ *   stats <file>             scan a record file, results and read speed
+ */
+public class GameRecordTool {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 2 && args[0].equals("export")) {
+            export(Paths.get(EthBasis.journalPath), Paths.get(args[1]));
+        } else if (args.length == 3 && args[0].equals("export")) {
+            export(Paths.get(args[1]), Paths.get(args[2]));
+        } else if (args.length == 2 && args[0].equals("import")) {
+            importIndex(Paths.get(args[1]));
+        } else if (args.length == 2 && args[0].equals("stats")) {
+            stats(Paths.get(args[1]));
+        } else {
+            System.err.println("Usage: GameRecordTool export [journal] <out> | import <file> | stats <file>");
+            System.exit(2);
+        }
+    }
+
+    private static void export(Path journalPath, Path out) throws IOException {
+        if (!Files.exists(journalPath)) {
+            System.err.println("[X] No event journal at " + journalPath);
+            System.exit(1);
+        }
+        long start = System.nanoTime();
+        try (EventJournal journal = EventJournal.open(journalPath)) {
+            GameRecordExporter exporter = new GameRecordExporter(GameRecordWriter.open(out));
+            long events = journal.replay(exporter);
+            int open = exporter.openGames();
+            exporter.close(true);
+            System.out.printf("[v] %,d events -> %,d games (%d still open) in %s, %,d bytes, %.1f ms%n", events,
+                    exporter.written(), open, out, Files.size(out), (System.nanoTime() - start) / 1e6);
+        }
+    }
+
+    private static void importIndex(Path file) throws IOException {
+        long start = System.nanoTime();
+        GameStateIndex index = new GameStateIndex();
+        long games;
+        try (GameRecordReader reader = GameRecordReader.open(file)) {
+            games = reader.replay(index);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("[v] Imported %,d games (game counter %s) in %.2f s, %,.0f games/s%n", games,
+                index.gameCounter(), seconds, games / seconds);
+    }
+
+    private static void stats(Path file) throws IOException {
+        long start = System.nanoTime();
+        long[] states = new long[5];
+        long[] reasons = new long[3];
+        long moves = 0;
+        long games = 0;
+        GameRecord r = new GameRecord();
+        try (GameRecordReader reader = GameRecordReader.open(file)) {
+            while (reader.next(r)) {
+                games++;
+                moves += r.moveCount;
+                states[Math.min(r.state, 4)]++;
+                if (r.state > Board.PLAYING) {
+                    reasons[Math.min(r.endReason, 2)]++;
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long bytes = Files.size(file);
+        System.out.printf("%,d games, %,d moves (%.1f per game), %,d bytes (%.1f per game)%n", games, moves,
+                games == 0 ? 0 : (double) moves / games, bytes, games == 0 ? 0 : (double) bytes / games);
+        System.out.printf("Waiting %,d | Playing %,d | Black wins %,d | White wins %,d | Draws %,d%n", states[0],
+                states[1], states[2], states[3], states[4]);
+        System.out.printf("Ended on board %,d | by timeout %,d | by surrender %,d%n", reasons[0], reasons[1],
+                reasons[2]);
+        System.out.printf("Read in %.2f s: %,.0f games/s, %.1f MB/s%n", seconds, games / seconds,
+                bytes / seconds / (1 << 20));
+    }
+}
@@ -1,10 +1,26 @@
 package gomokuApp;
 
+import ethSC.ConfirmedLogFeed;
+import ethSC.FeeBumper;
 import ethSC.GomokuHandler;
+import ethSC.SessionManager;
 import ethInfo.EthBasis;
+import gomokuEngine.Board;
+import gomokuEngine.Engine;
+import gomokuState.ChatStore;
+import gomokuState.ChatSync;
+import gomokuState.EventJournal;
+import gomokuState.GameStateIndex;
+import gomokuState.JournalSync;
+import gomokuState.Lobby;
+import gomokuState.TentativeGameView;
+import gomokuState.TimeoutWatchdog;
+import io.reactivex.disposables.Disposable;
 import java.math.BigInteger;
+import java.nio.file.Paths;
+import java.util.List;
 import java.util.Scanner;
-import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.Log;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.tuples.generated.Tuple6;
 
@@ -14,6 +30,12 @@ import org.web3j.tuples.generated.Tuple6;
  */
 public class GomokuCLI {
     private static final Scanner SC = new Scanner(System.in);
+    private static final GameStateIndex INDEX = new GameStateIndex();
+    private static final Lobby LOBBY = new Lobby();
+    private static final TentativeGameView TENTATIVE = new TentativeGameView(INDEX);
+    private static final long AUTO_PLAY_POLL_MS = 1_000;
+    private static Engine engine;
+    private static ChatStore chat;
 
     public static void main(String[] args) throws Exception {
         System.out.println("\n=== Gomoku Blockchain Game ===");
@@ -27,28 +49,75 @@ public class GomokuCLI {
         System.out.print("> ");
         
         String choice = SC.nextLine().trim();
-        String keystorePath;
-        String password;
-        String playerName;
-        
-        if (choice.equals("2")) {
-            keystorePath = EthBasis.keystorePath2;
-            password = EthBasis.password2;
-            playerName = "Player 2 (White)";
-        } else {
-            keystorePath = EthBasis.keystorePath1;
-            password = EthBasis.password1;
-            playerName = "Player 1 (Black)";
+        SessionManager sessions = new SessionManager(EthBasis.rpcUrl);
+        sessions.register("Player 1 (Black)", EthBasis.keystorePath1, EthBasis.password1);
+        sessions.register("Player 2 (White)", EthBasis.keystorePath2, EthBasis.password2);
+        if (EthBasis.feeBumping) {
+            sessions.enableFeeBumping(new FeeBumper.Policy());
         }
+        String playerName = choice.equals("2") ? "Player 2 (White)" : "Player 1 (Black)";
         
         System.out.println("\nUsing account: " + playerName);
-        GomokuHandler handler = new GomokuHandler(keystorePath, password);
+        GomokuHandler handler = sessions.get(playerName);
+        startIndex(handler);
+        startChat(handler);
+        handler.enableReadCache();
         System.out.println("\n[!] Reminder: After each transaction, run in Geth console:");
         System.out.println("    miner.start(1); admin.sleep(3); miner.stop()");
         
         menu(handler);
     }
 
+    /**
+     * Replays the local journal, then catches up from its checkpoint and follows new events
+     */
+    private static void startIndex(GomokuHandler handler) {
+        try {
+            EventJournal journal = EventJournal.open(Paths.get(EthBasis.journalPath));
+            TimeoutWatchdog watchdog = new TimeoutWatchdog(handler.getWeb3j(), EthBasis.gomokuAddress, List.of(handler));
+            JournalSync sync = new JournalSync(handler.getWeb3j(), handler.getContract(), journal, INDEX, LOBBY,
+                    watchdog);
+            sync.requireConfirmations(EthBasis.confirmations, TENTATIVE);
+            long t0 = System.nanoTime();
+            long replayed = sync.replay();
+            System.out.printf("[v] Replayed %d events from %s in %.1f ms%n",
+                    replayed, EthBasis.journalPath, (System.nanoTime() - t0) / 1e6);
+            long head = sync.catchUp();
+            System.out.println("[v] Local index synced to block " + head);
+            sync.follow();
+            watchdog.start();
+            handler.enablePreflight(TENTATIVE);
+            System.out.println("[v] Timeout watchdog: " + watchdog.activeGames() + " active game(s), timeouts are claimed automatically");
+        } catch (Exception e) {
+            System.out.println("[X] Local index unavailable, reading from node: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens the local chat store and keeps it synced with ChatSent events
+     */
+    private static void startChat(GomokuHandler handler) {
+        try {
+            chat = ChatStore.open(Paths.get(EthBasis.chatPath));
+            ChatSync sync = new ChatSync(handler.getWeb3j(), handler.getContract(), chat);
+            sync.requireConfirmations(EthBasis.confirmations);
+            long head = sync.catchUp();
+            sync.follow();
+            System.out.println("[v] Chat history: " + chat.size() + " messages, synced to block " + head);
+        } catch (Exception e) {
+            chat = null;
+            System.out.println("[X] Chat history unavailable: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Local index first, node as fallback
+     */
+    private static ethSC.Gomoku.GameInfo loadGameInfo(GomokuHandler handler, BigInteger gid) throws Exception {
+        ethSC.Gomoku.GameInfo info = TENTATIVE.getGameInfo(gid);
+        return info != null ? info : handler.getGameInfo(gid);
+    }
+
     private static void menu(GomokuHandler handler) throws Exception {
         boolean running = true;
         while (running) {
@@ -62,6 +131,8 @@ public class GomokuCLI {
             System.out.println("7) getGameInfo");
             System.out.println("8) getGameCounter");
             System.out.println("9) tail MoveMade events (live)");
+            System.out.println("a) auto-play (built-in engine)");
+            System.out.println("b) chat history");
             System.out.println("0) quit");
             System.out.print("> ");
             String choice = SC.nextLine().trim();
@@ -93,6 +164,12 @@ public class GomokuCLI {
                 case "9":
                     tailMoves(handler);
                     break;
+                case "a":
+                    autoPlay(handler);
+                    break;
+                case "b":
+                    chatHistory();
+                    break;
                 default:
                     running = false;
                     break;
@@ -105,10 +182,10 @@ public class GomokuCLI {
         BigInteger bet = new BigInteger(SC.nextLine());
         
         // Query current game counter before creating
-        BigInteger currentCounter = handler.getContract().gameCounter().send();
+        BigInteger currentCounter = handler.getGameCounter();
         
         // Send transaction
-        TransactionReceipt receipt = handler.getContract().createGame(bet).send();
+        TransactionReceipt receipt = handler.createGame(bet);
         System.out.println("\n[v] Transaction sent: " + receipt.getTransactionHash());
         System.out.println("[v] Status: " + (receipt.isStatusOK() ? "Success" : "Failed"));
         
@@ -131,7 +208,7 @@ public class GomokuCLI {
         
         try {
             // 使用 GameInfo 結構體
-            ethSC.Gomoku.GameInfo info = handler.getContract().getGameInfo(gid).send();
+            ethSC.Gomoku.GameInfo info = loadGameInfo(handler, gid);
             
             System.out.println("\n=== Game Info ===");
             System.out.println("Creator (Black): " + info.blackPlayer);
@@ -228,12 +305,75 @@ public class GomokuCLI {
             System.out.println("\n[v] move transaction sent");
             System.out.println("\n[!] Now run in Geth console: miner.start(1); admin.sleep(2); miner.stop()");
             
+        } catch (ethSC.MoveRejectedException e) {
+            System.out.println("\n[X] Move rejected before sending: " + e.getMessage());
         } catch (Exception e) {
             System.out.println("\n[X] Error: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
+    /**
+     * Plays this account's side of a game with the engine until the game ends or Enter is pressed
+     */
+    private static void autoPlay(GomokuHandler handler) throws Exception {
+        System.out.print("gameId: ");
+        BigInteger gid = new BigInteger(SC.nextLine().trim());
+        System.out.print("Think time per move in ms (Enter = " + Engine.DEFAULT_BUDGET_MS + ", max "
+                + Engine.MAX_BUDGET_MS + "): ");
+        String budgetInput = SC.nextLine().trim();
+        long budget = budgetInput.isEmpty() ? Engine.DEFAULT_BUDGET_MS : Long.parseLong(budgetInput);
+        if (engine == null) {
+            engine = new Engine();
+        }
+
+        System.out.println("\n[i] Auto-playing game " + gid + " on " + engine.threads() + " thread(s), press Enter to stop");
+        System.out.println("[!] Keep mining in Geth console after each move: miner.start(1); admin.sleep(2); miner.stop()");
+        int sentAt = -1;
+        boolean waitingShown = false;
+        while (System.in.available() == 0) {
+            ethSC.Gomoku.GameInfo info = loadGameInfo(handler, gid);
+            if (info.state == 0) {
+                if (!waitingShown) {
+                    System.out.println("[i] Waiting for an opponent to join...");
+                    waitingShown = true;
+                }
+                Thread.sleep(AUTO_PLAY_POLL_MS);
+                continue;
+            }
+            if (info.state != Board.PLAYING) {
+                System.out.println("\n*** Game over: " + getStateString(info.state) + " ***");
+                return;
+            }
+            int mine = handler.getAddress().equalsIgnoreCase(info.blackPlayer) ? Board.BLACK
+                    : handler.getAddress().equalsIgnoreCase(info.whitePlayer) ? Board.WHITE : 0;
+            if (mine == 0) {
+                System.out.println("\n[X] Error: This account is not playing game " + gid);
+                return;
+            }
+            if (info.currentPlayer != mine || info.moveCount == sentAt) {
+                Thread.sleep(AUTO_PLAY_POLL_MS);
+                continue;
+            }
+
+            byte[] cells = TENTATIVE.getBoard(gid);
+            Board board = Board.of(cells != null ? cells : handler.getBoard(gid), info.currentPlayer, info.state);
+            Engine.Result r = engine.search(board, budget);
+            System.out.println("\n[i] Engine: " + r);
+            try {
+                handler.makeMove(gid, r.x, r.y);
+                sentAt = info.moveCount;
+                System.out.println("[v] move (" + r.x + ", " + r.y + ") transaction sent");
+            } catch (ethSC.MoveRejectedException e) {
+                // Local view behind the chain; think again on fresh state
+                System.out.println("[X] Move rejected before sending: " + e.getMessage());
+                Thread.sleep(AUTO_PLAY_POLL_MS);
+            }
+        }
+        SC.nextLine();
+        System.out.println("[i] Auto-play stopped");
+    }
+
     private static void sendChat(GomokuHandler handler) throws Exception {
         System.out.print("gameId: ");
         BigInteger gid = new BigInteger(SC.nextLine());
@@ -245,6 +385,27 @@ public class GomokuCLI {
         System.out.println("\n[!] Now run in Geth console: miner.start(1); admin.sleep(2); miner.stop()");
     }
 
+    private static void chatHistory() {
+        if (chat == null) {
+            System.out.println("\n[X] Error: Chat history is not available");
+            return;
+        }
+        System.out.print("gameId: ");
+        long gid = Long.parseLong(SC.nextLine().trim());
+        System.out.print("Since move number (Enter = last 20 messages): ");
+        String since = SC.nextLine().trim();
+        List<ChatStore.ChatMessage> messages = since.isEmpty() ? chat.latest(gid, 20)
+                : chat.since(gid, Long.parseLong(since));
+
+        System.out.println("\n=== Chat of game " + gid + " (" + chat.count(gid) + " messages) ===");
+        if (messages.isEmpty()) {
+            System.out.println("No messages");
+        }
+        for (ChatStore.ChatMessage m : messages) {
+            System.out.println("[move " + m.moveNumber + "] " + m.sender + ": " + m.message);
+        }
+    }
+
     private static void claimTimeout(GomokuHandler handler) throws Exception {
         System.out.print("gameId: ");
         BigInteger gid = new BigInteger(SC.nextLine());
@@ -268,7 +429,7 @@ public class GomokuCLI {
         BigInteger gid = new BigInteger(SC.nextLine());
         
         try {
-            ethSC.Gomoku.GameInfo info = handler.getContract().getGameInfo(gid).send();
+            ethSC.Gomoku.GameInfo info = loadGameInfo(handler, gid);
             
             System.out.println("\n=== Game Info ===");
             System.out.println("Game ID: " + gid);
@@ -286,7 +447,7 @@ public class GomokuCLI {
     }
     
     private static void getGameCounter(GomokuHandler handler) throws Exception {
-        BigInteger counter = handler.getContract().gameCounter().send();
+        BigInteger counter = INDEX.lastBlock() >= 0 ? INDEX.gameCounter() : handler.getGameCounter();
         System.out.println("\n=== Game Statistics ===");
         System.out.println("Total Games Created: " + counter);
         
@@ -296,6 +457,12 @@ public class GomokuCLI {
             System.out.println("  - First game: ID = 0");
             System.out.println("  - Second game: ID = 1");
             System.out.println("  - Latest game: ID = " + (counter.intValue() - 1));
+            if (INDEX.lastBlock() >= 0) {
+                System.out.println("\nOpen games (" + LOBBY.waitingCount() + " waiting):");
+                for (Lobby.LobbyGame g : LOBBY.waiting(0, 10)) {
+                    System.out.println("  - ID " + g.gameId + ", bet " + g.betAmountWei + " wei, creator " + g.blackPlayer);
+                }
+            }
         } else {
             System.out.println("No games created yet");
         }
@@ -312,20 +479,44 @@ public class GomokuCLI {
         }
     }
 
-    private static void tailMoves(GomokuHandler handler) {
+    private static void tailMoves(GomokuHandler handler) throws Exception {
         System.out.println("Subscribing to MoveMade events from latest block...");
-        System.out.println("(Listening for real-time move events)");
+        System.out.println(EthBasis.wsUrl != null
+                ? "(Push via WebSocket " + EthBasis.wsUrl + ")"
+                : "(Listening for real-time move events)");
         
-        handler.getContract()
-                .moveMadeEventFlowable(DefaultBlockParameterName.LATEST, DefaultBlockParameterName.LATEST)
-                .subscribe(ev -> {
-                    System.out.printf("\n[*] Move Event | Game=%s Player=%s Position=(%d,%d) Piece=%d%n",
-                            ev.gameId, ev.player, ev.x, ev.y, ev.piece);
-                }, err -> {
-                    System.err.println("[X] Subscription error: " + err.getMessage());
-                });
+        // Moves print as they arrive; with confirmations they are marked tentative until confirmed
+        // and reported again if a reorg takes them back
+        int depth = EthBasis.confirmations;
+        ConfirmedLogFeed feed = new ConfirmedLogFeed(handler.getWeb3j(), handler.getContract(), depth,
+                new ConfirmedLogFeed.Listener() {
+                    @Override
+                    public void pending(Log log) {
+                        if (depth > 0) {
+                            printMove("[~] Move (tentative)", ethSC.Gomoku.toMoveMade(log));
+                        }
+                    }
+
+                    @Override
+                    public void confirmed(Log log) {
+                        printMove(depth > 0 ? "[*] Move (confirmed)" : "[*] Move Event", ethSC.Gomoku.toMoveMade(log));
+                    }
+
+                    @Override
+                    public void rolledBack(long fromBlock, List<Log> dropped) {
+                        System.out.printf("%n[!] Reorg at block %d: %d tentative move(s) withdrawn%n", fromBlock,
+                                dropped.size());
+                    }
+                }, ethSC.Gomoku.MOVEMADE_EVENT);
+        Disposable sub = feed.follow(handler.liveLogs(ethSC.Gomoku.MOVEMADE_EVENT), 1_000);
         
         System.out.println("Press Enter to stop listening...");
         SC.nextLine();
+        sub.dispose();
+    }
+
+    private static void printMove(String label, ethSC.Gomoku.MoveMadeEventResponse ev) {
+        System.out.printf("\n%s | Game=%s Player=%s Position=(%d,%d) Piece=%d%n",
+                label, ev.gameId, ev.player, ev.x, ev.y, ev.piece);
     }
 }
@@ -0,0 +1,124 @@
+package gomokuBench;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Minimal JMH-style harness: per benchmark, timed warmup iterations, then measured iterations
+ * reporting ns/op (mean and spread across iterations), bytes allocated per op and the resulting
+ * allocation rate (JMH's gc.alloc.rate.norm / gc.alloc.rate, from the per-thread allocation
+ * counter). Results are consumed into a sink so the JIT cannot drop the work.
+ * Single-threaded; run with a fixed heap and nothing else busy on the machine.
+ */
+public class Bench {
+
+    /**
+     * One benchmark's numbers.
+     */
+    public static class Result {
+        public String name;
+        public double nsPerOp;
+        public double nsError;      // half-width of the min..max range across iterations
+        public double bytesPerOp;
+        public double allocMbPerSec;
+        public long ops;
+    }
+
+    private final int warmupIterations;
+    private final int measureIterations;
+    private final long iterationMs;
+    private final List<Result> results = new ArrayList<>();
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private long sink;
+
+    /**
+     * 預設: 5 次預熱, 5 次量測, 每次 500 ms
+     */
+    public Bench() {
+        this(5, 5, 500);
+    }
+
+    public Bench(int warmupIterations, int measureIterations, long iterationMs) {
+        this.warmupIterations = warmupIterations;
+        this.measureIterations = measureIterations;
+        this.iterationMs = iterationMs;
+    }
+
+    public Result run(String name, Supplier<?> op) {
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(op);
+        }
+        double min = Double.MAX_VALUE;
+        double max = 0;
+        long totalOps = 0;
+        long totalNanos = 0;
+        long totalBytes = 0;
+        for (int i = 0; i < measureIterations; i++) {
+            long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+            long[] it = iteration(op);
+            totalBytes += threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+            double ns = (double) it[1] / it[0];
+            min = Math.min(min, ns);
+            max = Math.max(max, ns);
+            totalOps += it[0];
+            totalNanos += it[1];
+        }
+        Result r = new Result();
+        r.name = name;
+        r.ops = totalOps;
+        r.nsPerOp = (double) totalNanos / totalOps;
+        r.nsError = (max - min) / 2;
+        r.bytesPerOp = (double) totalBytes / totalOps;
+        r.allocMbPerSec = totalBytes / 1e6 / (totalNanos / 1e9);
+        results.add(r);
+        System.out.println(format(r));
+        return r;
+    }
+
+    /**
+     * @return {ops, nanos}
+     */
+    private long[] iteration(Supplier<?> op) {
+        long deadline = System.nanoTime() + iterationMs * 1_000_000;
+        long ops = 0;
+        long start = System.nanoTime();
+        long now;
+        do {
+            // Batches of 64 keep the clock reads out of the measurement
+            for (int i = 0; i < 64; i++) {
+                consume(op.get());
+            }
+            ops += 64;
+            now = System.nanoTime();
+        } while (now < deadline);
+        return new long[] {ops, now - start};
+    }
+
+    private void consume(Object o) {
+        sink += System.identityHashCode(o);
+    }
+
+    public List<Result> results() {
+        return results;
+    }
+
+    public static String header() {
+        return String.format("%-36s %12s %10s %12s %14s", "Benchmark", "ns/op", "±", "B/op", "alloc MB/s");
+    }
+
+    public static String format(Result r) {
+        return String.format("%-36s %12.1f %10.1f %12.1f %14.1f", r.name, r.nsPerOp, r.nsError, r.bytesPerOp,
+                r.allocMbPerSec);
+    }
+
+    /**
+     * Keeps the sink reachable so consume() cannot be optimised away.
+     */
+    @Override
+    public String toString() {
+        return "Bench[" + results.size() + " results, sink " + sink + "]";
+    }
+}
@@ -0,0 +1,266 @@
+package gomokuBench;
+
+import gomokuEngine.Board;
+import java.util.Random;
+
+/**
+ * Differential check of gomokuEngine.Board against a line-by-line port of Gomoku.sol's
+ * makeMove / checkWin / checkDirection / countPieces. Plays random games (plus full-board draws
+ * from a five-free colouring) on both and compares state, turn, move count and every cell after
+ * each move, Board.winsAt and hasFive against checkWin, the contract's revert conditions
+ * (occupied cell, coordinates up to uint8 range, game over), and undo back to the empty board.
+ * Exit code 1 on the first mismatch.
+ *
+ * Usage: BoardDifferential [--games=100000] [--seed=42]
+ */
+public class BoardDifferential {
+
+    /**
+     * Gomoku.sol, kept as close to the Solidity as Java allows.
+     */
+    private static class Reference {
+        final int[][] board = new int[15][15];
+        int currentPlayer = Board.BLACK;
+        int state = Board.PLAYING;
+        int moveCount;
+
+        /**
+         * @return the revert reason, or null if the move was applied
+         */
+        String makeMove(int x, int y) {
+            if (state != Board.PLAYING) {
+                return "Game is not in playing state";
+            }
+            if (x >= 15 || y >= 15) {
+                return "Invalid coordinates";
+            }
+            if (board[x][y] != Board.EMPTY) {
+                return "Position already occupied";
+            }
+            board[x][y] = currentPlayer;
+            moveCount++;
+            if (checkWin(x, y)) {
+                state = currentPlayer == Board.BLACK ? Board.BLACK_WIN : Board.WHITE_WIN;
+            } else if (moveCount >= 15 * 15) {
+                state = Board.DRAW;
+            } else {
+                currentPlayer = currentPlayer == Board.BLACK ? Board.WHITE : Board.BLACK;
+            }
+            return null;
+        }
+
+        boolean checkWin(int x, int y) {
+            int piece = board[x][y];
+            return checkDirection(x, y, 1, 0, piece)
+                    || checkDirection(x, y, 0, 1, piece)
+                    || checkDirection(x, y, 1, 1, piece)
+                    || checkDirection(x, y, 1, -1, piece);
+        }
+
+        boolean checkDirection(int x, int y, int dx, int dy, int piece) {
+            int count = 1;
+            count += countPieces(x, y, dx, dy, piece);
+            count += countPieces(x, y, -dx, -dy, piece);
+            return count >= 5;
+        }
+
+        int countPieces(int x0, int y0, int dx, int dy, int piece) {
+            int count = 0;
+            int x = x0 + dx;
+            int y = y0 + dy;
+            while (x >= 0 && x < 15 && y >= 0 && y < 15 && board[x][y] == piece) {
+                count++;
+                x += dx;
+                y += dy;
+            }
+            return count;
+        }
+    }
+
+    public static void main(String[] args) {
+        int games = 100_000;
+        long seed = 42;
+        for (String a : args) {
+            String value = a.substring(a.indexOf('=') + 1);
+            if (a.startsWith("--games=")) {
+                games = Integer.parseInt(value);
+            } else if (a.startsWith("--seed=")) {
+                seed = Long.parseLong(value);
+            } else {
+                System.err.println("[X] Unrecognised argument: " + a);
+                return;
+            }
+        }
+
+        Random rnd = new Random(seed);
+        int[] drawOrder = drawOrder();
+        // [0] = moves played, [state] = games ended in that state
+        long[] tally = new long[Board.DRAW + 1];
+        long t0 = System.nanoTime();
+        for (int g = 0; g < games; g++) {
+            // Every 1000th game fills the board without a five, the rest are random play
+            int[] order = g % 1000 == 0 ? drawOrder : shuffledCells(rnd);
+            String error = play(order, rnd, tally);
+            if (error != null) {
+                System.out.println("[X] Game " + g + " (seed " + seed + "): " + error);
+                System.exit(1);
+            }
+        }
+        System.out.printf("[v] %,d games, %,d moves agree with Gomoku.sol in %.1f s"
+                        + " (black %,d, white %,d, draw %,d)%n",
+                games, tally[0], (System.nanoTime() - t0) / 1e9,
+                tally[Board.BLACK_WIN], tally[Board.WHITE_WIN], tally[Board.DRAW]);
+    }
+
+    /**
+     * Plays order on both models until the game ends.
+     * @return a description of the first difference, or null
+     */
+    private static String play(int[] order, Random rnd, long[] tally) {
+        Reference ref = new Reference();
+        Board board = new Board();
+        for (int i = 0; i < order.length && ref.state == Board.PLAYING; i++) {
+            // Now and then try a move the contract must reject
+            if (rnd.nextInt(8) == 0) {
+                String error = illegal(ref, board, rnd, i, order);
+                if (error != null) {
+                    return error;
+                }
+            }
+            int x = order[i] / Board.SIZE;
+            int y = order[i] % Board.SIZE;
+            int mover = ref.currentPlayer;
+            String revert = ref.makeMove(x, y);
+            if (revert != null) {
+                return "reference reverted a legal move (" + x + ", " + y + "): " + revert;
+            }
+            board.place(x, y);
+            String diff = compare(ref, board);
+            if (diff != null) {
+                return "after move " + (i + 1) + " (" + x + ", " + y + "): " + diff;
+            }
+            boolean won = ref.checkWin(x, y);
+            if (Board.winsAt(board.toCells(), x, y) != won) {
+                return "winsAt disagrees with checkWin at (" + x + ", " + y + ")";
+            }
+            if (board.hasFive(mover) != won) {
+                // Earlier moves of the mover never made five, or the game would have ended
+                return "hasFive disagrees with checkWin at (" + x + ", " + y + ")";
+            }
+        }
+        if (ref.state == Board.PLAYING) {
+            return "game did not end after " + order.length + " moves";
+        }
+        String revert = ref.makeMove(order[0] / Board.SIZE, order[0] % Board.SIZE);
+        if (!rejects(board, order[0] / Board.SIZE, order[0] % Board.SIZE, revert)) {
+            return "move after the game ended: reference '" + revert + "', Board accepted it";
+        }
+        tally[0] += board.moveCount();
+        tally[board.state()]++;
+        int n = board.moveCount();
+        for (int i = 0; i < n; i++) {
+            board.undo();
+        }
+        if (board.moveCount() != 0 || board.currentPlayer() != Board.BLACK || board.state() != Board.PLAYING
+                || board.hasFive(Board.BLACK) || board.hasFive(Board.WHITE)) {
+            return "undo did not return to the empty board";
+        }
+        return null;
+    }
+
+    private static String illegal(Reference ref, Board board, Random rnd, int played, int[] order) {
+        int x;
+        int y;
+        if (played > 0 && rnd.nextBoolean()) {
+            int c = order[rnd.nextInt(played)]; // occupied
+            x = c / Board.SIZE;
+            y = c % Board.SIZE;
+        } else {
+            x = 15 + rnd.nextInt(241);          // off the board but a valid uint8
+            y = rnd.nextInt(256);
+            if (rnd.nextBoolean()) {
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        String revert = ref.makeMove(x, y);
+        if (revert == null) {
+            return "reference accepted an illegal move (" + x + ", " + y + ")";
+        }
+        if (!rejects(board, x, y, revert)) {
+            return "Board accepted (" + x + ", " + y + "), reference reverted: " + revert;
+        }
+        if (board.isLegal(x, y)) {
+            return "isLegal(" + x + ", " + y + ") is true, reference reverted: " + revert;
+        }
+        return compare(ref, board);
+    }
+
+    /**
+     * Does place(x, y) throw with the contract's revert reason (and leave the board unchanged)?
+     */
+    private static boolean rejects(Board board, int x, int y, String reason) {
+        try {
+            board.place(x, y);
+            return false;
+        } catch (IllegalStateException e) {
+            return reason.equals(e.getMessage());
+        }
+    }
+
+    private static String compare(Reference ref, Board board) {
+        if (board.state() != ref.state) {
+            return "state " + board.state() + ", reference " + ref.state;
+        }
+        if (board.currentPlayer() != ref.currentPlayer) {
+            return "currentPlayer " + board.currentPlayer() + ", reference " + ref.currentPlayer;
+        }
+        if (board.moveCount() != ref.moveCount) {
+            return "moveCount " + board.moveCount() + ", reference " + ref.moveCount;
+        }
+        for (int x = 0; x < Board.SIZE; x++) {
+            for (int y = 0; y < Board.SIZE; y++) {
+                if (board.get(x, y) != ref.board[x][y]) {
+                    return "cell (" + x + ", " + y + ") " + board.get(x, y) + ", reference " + ref.board[x][y];
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int[] shuffledCells(Random rnd) {
+        int[] cells = new int[Board.CELLS];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = i;
+        }
+        for (int i = cells.length - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = cells[i];
+            cells[i] = cells[j];
+            cells[j] = t;
+        }
+        return cells;
+    }
+
+    /**
+     * A move order that fills the board with no five for either colour: colour (x / 2 + y) % 2
+     * alternates along rows and runs at most two along columns and both diagonals. Black takes
+     * the 113-cell class, white the other, alternating.
+     */
+    private static int[] drawOrder() {
+        int[][] byColour = new int[2][Board.CELLS];
+        int[] count = new int[2];
+        for (int c = 0; c < Board.CELLS; c++) {
+            int k = (c / Board.SIZE / 2 + c % Board.SIZE) % 2;
+            byColour[k][count[k]++] = c;
+        }
+        int black = count[0] > count[1] ? 0 : 1;
+        int[] order = new int[Board.CELLS];
+        for (int i = 0; i < Board.CELLS; i++) {
+            int k = i % 2 == 0 ? black : 1 - black;
+            order[i] = byColour[k][i / 2];
+        }
+        return order;
+    }
+}
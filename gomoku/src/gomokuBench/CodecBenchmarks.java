@@ -0,0 +1,191 @@
+package gomokuBench;
+
+import ethSC.Gomoku;
+import ethSC.GomokuEventDecoder;
+import gomokuEngine.Board;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.Utf8String;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.abi.datatypes.generated.Uint8;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.utils.Numeric;
+
+/**
+ * Benchmarks for the hot client paths: calldata encoding (makeMove / sendChat), per-log event
+ * decoding for each Gomoku event (what moveMadeEventFlowable and friends run per log),
+ * getGameInfo / getBoard return decoding and board materialisation.
+ *
+ * Usage: CodecBenchmarks [--filter=substring] [--warmup=5] [--iterations=5] [--iteration-ms=500]
+ * Run with e.g. -Xms1g -Xmx1g -XX:+UseParallelGC for stable numbers; compare B/op across
+ * changes first, it is far less noisy than ns/op.
+ */
+public class CodecBenchmarks {
+    private static final BigInteger GAME_ID = BigInteger.valueOf(1234);
+    private static final String PLAYER = "0x851de6089fdbdee99562dd922a0aa74147f52b70";
+    private static final String OPPONENT = "0x1b325b09c712f993f49550da3f3c9c288e4adc50";
+    private static final String CHAT = "good game, well played";
+
+    private static final class Case {
+        final String name;
+        final Supplier<?> op;
+
+        Case(String name, Supplier<?> op) {
+            this.name = name;
+            this.op = op;
+        }
+    }
+
+    public static void main(String[] args) {
+        String filter = "";
+        int warmup = 5;
+        int iterations = 5;
+        long iterationMs = 500;
+        for (String a : args) {
+            String value = a.substring(a.indexOf('=') + 1);
+            if (a.startsWith("--filter=")) {
+                filter = value;
+            } else if (a.startsWith("--warmup=")) {
+                warmup = Integer.parseInt(value);
+            } else if (a.startsWith("--iterations=")) {
+                iterations = Integer.parseInt(value);
+            } else if (a.startsWith("--iteration-ms=")) {
+                iterationMs = Long.parseLong(value);
+            } else {
+                System.err.println("[X] Unrecognised argument: " + a);
+                return;
+            }
+        }
+
+        Bench bench = new Bench(warmup, iterations, iterationMs);
+        System.out.println(Bench.header());
+        for (Case c : cases()) {
+            if (c.name.contains(filter)) {
+                bench.run(c.name, c.op);
+            }
+        }
+        System.out.println("\n" + bench);
+    }
+
+    static List<Case> cases() {
+        List<Case> cases = new ArrayList<>();
+
+        // ------------ Calldata encoding ------------
+        cases.add(new Case("encode.makeMove",
+                () -> FunctionEncoder.encode(Gomoku.makeMoveFunction(GAME_ID, 7, 8))));
+        cases.add(new Case("encode.sendChat",
+                () -> FunctionEncoder.encode(Gomoku.sendChatFunction(GAME_ID, CHAT))));
+
+        // ------------ Event decoding ------------
+        Log created = log(Gomoku.GAMECREATED_TOPIC, data(new Uint256(BigInteger.TEN.pow(16))), gameTopic(),
+                addressTopic(PLAYER));
+        Log joined = log(Gomoku.PLAYERJOINED_TOPIC, "0x", gameTopic(), addressTopic(OPPONENT));
+        Log move = log(Gomoku.MOVEMADE_TOPIC,
+                data(new Uint8(BigInteger.valueOf(7)), new Uint8(BigInteger.valueOf(8)), new Uint8(BigInteger.ONE)),
+                gameTopic(), addressTopic(PLAYER));
+        Log ended = log(Gomoku.GAMEENDED_TOPIC, data(new Uint8(BigInteger.TWO), new Address(PLAYER)), gameTopic());
+        Log timeout = log(Gomoku.GAMETIMEOUT_TOPIC, data(new Address(OPPONENT)), gameTopic());
+        Log chat = log(Gomoku.CHATSENT_TOPIC, data(new Utf8String(CHAT), new Uint256(42)), gameTopic(),
+                addressTopic(PLAYER));
+        cases.add(new Case("event.GameCreated", () -> Gomoku.toGameCreated(created)));
+        cases.add(new Case("event.PlayerJoined", () -> Gomoku.toPlayerJoined(joined)));
+        cases.add(new Case("event.MoveMade", () -> Gomoku.toMoveMade(move)));
+        cases.add(new Case("event.GameEnded", () -> Gomoku.toGameEnded(ended)));
+        cases.add(new Case("event.GameTimeout", () -> Gomoku.toGameTimeout(timeout)));
+        cases.add(new Case("event.ChatSent", () -> Gomoku.toChatSent(chat)));
+        cases.add(new Case("event.decodeEvent(MoveMade)", () -> Gomoku.decodeEvent(move)));
+
+        // Specialised decoders into one reused flyweight (the history-indexing path)
+        GomokuEventDecoder.Decoded flyweight = new GomokuEventDecoder.Decoded();
+        String[] names = {"GameCreated", "PlayerJoined", "MoveMade", "GameEnded", "GameTimeout", "ChatSent"};
+        Log[] logs = {created, joined, move, ended, timeout, chat};
+        for (int i = 0; i < logs.length; i++) {
+            Log log = logs[i];
+            cases.add(new Case("event.flyweight." + names[i], () -> GomokuEventDecoder.decode(log, flyweight)));
+        }
+
+        // ------------ Call results ------------
+        String gameInfo = data(new Address(PLAYER), new Address(OPPONENT), new Uint8(BigInteger.ONE),
+                new Uint8(BigInteger.ONE), new Uint256(BigInteger.TEN.pow(16)), new Uint8(BigInteger.valueOf(37)));
+        cases.add(new Case("call.decodeGameInfo", () -> Gomoku.decodeGameInfo(gameInfo)));
+
+        byte[] cells = midGameCells();
+        Type<?>[] words = new Type<?>[Board.CELLS];
+        for (int i = 0; i < Board.CELLS; i++) {
+            words[i] = new Uint8(BigInteger.valueOf(cells[i]));
+        }
+        String boardHex = data(words);
+        cases.add(new Case("call.decodeBoard", () -> Gomoku.decodeBoard(boardHex)));
+
+        // ------------ Board ------------
+        cases.add(new Case("board.materialise(decode+of)",
+                () -> Board.of(Gomoku.decodeBoard(boardHex), Board.BLACK, Board.PLAYING)));
+        Board board = Board.of(cells, Board.BLACK, Board.PLAYING);
+        cases.add(new Case("board.toCells", board::toCells));
+        cases.add(new Case("board.readAllCells", () -> {
+            int sum = 0;
+            for (int x = 0; x < Board.SIZE; x++) {
+                for (int y = 0; y < Board.SIZE; y++) {
+                    sum += board.get(x, y);
+                }
+            }
+            return sum;
+        }));
+        Board play = new Board();
+        cases.add(new Case("board.place+undo", () -> {
+            play.place(7, 7);
+            play.undo();
+            return play;
+        }));
+        return cases;
+    }
+
+    // ------------ Fixtures ------------
+
+    private static Log log(String topic0, String data, String... indexed) {
+        Log log = new Log();
+        List<String> topics = new ArrayList<>();
+        topics.add(topic0);
+        topics.addAll(Arrays.asList(indexed));
+        log.setTopics(topics);
+        log.setData(data);
+        log.setAddress("0xc1a3dcd9178952db33934be3143a6413fade7200");
+        log.setBlockNumber("0x1");
+        log.setLogIndex("0x0");
+        log.setTransactionHash("0x" + "ab".repeat(32));
+        return log;
+    }
+
+    private static String data(Type<?>... values) {
+        return "0x" + FunctionEncoder.encodeConstructor(Arrays.asList(values));
+    }
+
+    private static String gameTopic() {
+        return Numeric.toHexStringWithPrefixZeroPadded(GAME_ID, 64);
+    }
+
+    private static String addressTopic(String address) {
+        return Numeric.toHexStringWithPrefixZeroPadded(Numeric.toBigInt(address), 64);
+    }
+
+    /**
+     * 40 stones around the center in a checkerboard pattern (position legality does not matter here).
+     */
+    private static byte[] midGameCells() {
+        byte[] cells = new byte[Board.CELLS];
+        int placed = 0;
+        for (int x = 4; x < 11 && placed < 40; x++) {
+            for (int y = 4; y < 11 && placed < 40; y++) {
+                cells[x * Board.SIZE + y] = (byte) (((x + y) & 1) == 0 ? Board.BLACK : Board.WHITE);
+                placed++;
+            }
+        }
+        return cells;
+    }
+}
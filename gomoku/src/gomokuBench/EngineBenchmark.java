@@ -0,0 +1,90 @@
+package gomokuBench;
+
+import gomokuEngine.Board;
+import gomokuEngine.Engine;
+
+/**
+ * Search throughput of gomokuEngine.Engine: fixed-budget searches on a few reference positions,
+ * first on one thread, then on all of them, reporting depth reached and nodes per second.
+ * The all-thread total is checked against --target-nps (exit code 1 if missed), so the
+ * engine's speed can be tracked per machine.
+ *
+ * Usage: EngineBenchmark [--budget-ms=2000] [--threads=N] [--rounds=3] [--target-nps=1000000]
+ */
+public class EngineBenchmark {
+    // Move sequences (x, y pairs) from engine self-play
+    private static final int[][] POSITIONS = {
+            {7, 7, 9, 7, 9, 5, 8, 6},
+            {7, 7, 9, 7, 9, 5, 8, 6, 7, 5, 5, 7, 8, 5, 6, 5, 7, 6, 7, 4},
+            {7, 7, 9, 7, 9, 5, 8, 6, 7, 5, 5, 7, 8, 5, 6, 5, 7, 6, 7, 4, 9, 3, 5, 6, 8, 3, 5, 9},
+    };
+
+    public static void main(String[] args) {
+        long budgetMs = 2_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int rounds = 3;
+        long targetNps = 1_000_000;
+        for (String a : args) {
+            String value = a.substring(a.indexOf('=') + 1);
+            if (a.startsWith("--budget-ms=")) {
+                budgetMs = Long.parseLong(value);
+            } else if (a.startsWith("--threads=")) {
+                threads = Integer.parseInt(value);
+            } else if (a.startsWith("--rounds=")) {
+                rounds = Integer.parseInt(value);
+            } else if (a.startsWith("--target-nps=")) {
+                targetNps = Long.parseLong(value);
+            } else {
+                System.err.println("[X] Unrecognised argument: " + a);
+                return;
+            }
+        }
+
+        // Warm up the JIT on one position
+        try (Engine warm = new Engine(threads, 16)) {
+            warm.search(position(POSITIONS[1]), Math.min(budgetMs, 1_000));
+        }
+        long single = run(1, budgetMs, rounds);
+        long parallel = threads > 1 ? run(threads, budgetMs, rounds) : single;
+        System.out.printf("%nSpeed-up on %d threads: %.2fx%n", threads, (double) parallel / single);
+        if (parallel >= targetNps) {
+            System.out.printf("[v] %,d nodes/s meets the target of %,d%n", parallel, targetNps);
+        } else {
+            System.out.printf("[X] %,d nodes/s is below the target of %,d%n", parallel, targetNps);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return total nodes per second over all positions and rounds
+     */
+    private static long run(int threads, long budgetMs, int rounds) {
+        System.out.printf("%n=== %d thread(s), %d ms per move ===%n", threads, budgetMs);
+        System.out.printf("%-10s %6s %14s %10s %14s  %s%n", "position", "depth", "nodes", "ms", "nodes/s", "move");
+        long nodes = 0;
+        long nanos = 0;
+        try (Engine engine = new Engine(threads, 64)) {
+            for (int round = 0; round < rounds; round++) {
+                engine.clearTable();
+                for (int i = 0; i < POSITIONS.length; i++) {
+                    Engine.Result r = engine.search(position(POSITIONS[i]), budgetMs);
+                    nodes += r.nodes;
+                    nanos += r.elapsedNanos;
+                    System.out.printf("%-10s %6d %,14d %10.1f %,14d  (%d, %d)%n", "#" + (i + 1) + "/" + (round + 1),
+                            r.depth, r.nodes, r.elapsedNanos / 1e6, r.nodesPerSecond(), r.x, r.y);
+                }
+            }
+        }
+        long nps = nodes * 1_000_000_000L / Math.max(1, nanos);
+        System.out.printf("Total: %,d nodes/s%n", nps);
+        return nps;
+    }
+
+    private static Board position(int[] moves) {
+        Board b = new Board();
+        for (int i = 0; i < moves.length; i += 2) {
+            b.place(moves[i], moves[i + 1]);
+        }
+        return b;
+    }
+}
@@ -0,0 +1,268 @@
+package gomokuEngine;
+
+/**
+ * Bitboard mirror of the Gomoku.sol rules (makeMove / checkWin / draw at 225 moves).
+ *
+ * Each colour is a 256-bit set in long[4]. Cell (x, y) is bit x * 16 + y; column 15 of every
+ * row is a permanently empty guard, so line shifts never wrap from one row into the next.
+ * Coordinates follow the contract: board[x][y], 0 <= x, y < 15.
+ * place/undo do not allocate. Not thread-safe; use one Board per thread.
+ */
+public final class Board {
+    public static final int SIZE = 15;
+    public static final int CELLS = SIZE * SIZE;
+
+    // Pieces (Gomoku.sol EMPTY / BLACK / WHITE)
+    public static final int EMPTY = 0;
+    public static final int BLACK = 1;
+    public static final int WHITE = 2;
+
+    // Game states (Gomoku.sol GameState)
+    public static final int PLAYING = 1;
+    public static final int BLACK_WIN = 2;
+    public static final int WHITE_WIN = 3;
+    public static final int DRAW = 4;
+
+    private static final int STRIDE = 16;
+    private static final int WORDS = 4;
+    // Bit-index steps for horizontal (y), vertical (x), main diagonal, anti-diagonal
+    private static final int[] STEPS = {1, STRIDE, STRIDE + 1, STRIDE - 1};
+
+    private final long[] black = new long[WORDS];
+    private final long[] white = new long[WORDS];
+    private final short[] history = new short[CELLS];
+    private final long[] scratchA = new long[WORDS];
+    private final long[] scratchB = new long[WORDS];
+    private int moveCount;
+    private int base; // moves loaded by of(), not undoable
+    private int currentPlayer = BLACK;
+    private int state = PLAYING;
+
+    public Board() {
+    }
+
+    /**
+     * Loads a position read from the contract (Gomoku.getBoard layout, index x * 15 + y).
+     * Move order is unknown, so such a position cannot be undone past its starting point.
+     */
+    public static Board of(byte[] cells, int currentPlayer, int state) {
+        Board b = new Board();
+        int count = 0;
+        for (int i = 0; i < CELLS; i++) {
+            if (cells[i] != EMPTY) {
+                int bit = (i / SIZE) * STRIDE + i % SIZE;
+                (cells[i] == BLACK ? b.black : b.white)[bit >>> 6] |= 1L << bit;
+                count++;
+            }
+        }
+        b.moveCount = count;
+        b.base = count;
+        b.currentPlayer = currentPlayer;
+        b.state = state;
+        return b;
+    }
+
+    // ------------ Queries ------------
+
+    public int get(int x, int y) {
+        int bit = x * STRIDE + y;
+        long m = 1L << bit;
+        int w = bit >>> 6;
+        return (black[w] & m) != 0 ? BLACK : (white[w] & m) != 0 ? WHITE : EMPTY;
+    }
+
+    public boolean isEmpty(int x, int y) {
+        int bit = x * STRIDE + y;
+        return ((black[bit >>> 6] | white[bit >>> 6]) & (1L << bit)) == 0;
+    }
+
+    /**
+     * Same checks makeMove performs before placing (state, bounds, occupancy).
+     */
+    public boolean isLegal(int x, int y) {
+        return state == PLAYING && x >= 0 && x < SIZE && y >= 0 && y < SIZE && isEmpty(x, y);
+    }
+
+    public int moveCount() {
+        return moveCount;
+    }
+
+    public int currentPlayer() {
+        return currentPlayer;
+    }
+
+    public int state() {
+        return state;
+    }
+
+    /**
+     * Cell index (x * 15 + y) of the n-th move, 0-based.
+     */
+    public int moveAt(int n) {
+        return history[n];
+    }
+
+    /**
+     * Live view of one colour's bitboard (bit x * 16 + y). Do not modify.
+     */
+    public long[] bits(int piece) {
+        return piece == BLACK ? black : white;
+    }
+
+    // ------------ Moves ------------
+
+    /**
+     * Places the current player's piece and applies the contract's win/draw/turn logic.
+     * @return the resulting game state
+     * @throws IllegalStateException where the contract would revert
+     */
+    public int place(int x, int y) {
+        if (state != PLAYING) {
+            throw new IllegalStateException("Game is not in playing state");
+        }
+        if (x < 0 || x >= SIZE || y < 0 || y >= SIZE) {
+            throw new IllegalStateException("Invalid coordinates");
+        }
+        int bit = x * STRIDE + y;
+        long m = 1L << bit;
+        int w = bit >>> 6;
+        if (((black[w] | white[w]) & m) != 0) {
+            throw new IllegalStateException("Position already occupied");
+        }
+        long[] own = currentPlayer == BLACK ? black : white;
+        own[w] |= m;
+        history[moveCount++] = (short) (x * SIZE + y);
+
+        if (fiveThrough(own, bit)) {
+            state = currentPlayer == BLACK ? BLACK_WIN : WHITE_WIN;
+        } else if (moveCount >= CELLS) {
+            state = DRAW;
+        } else {
+            currentPlayer = currentPlayer == BLACK ? WHITE : BLACK;
+        }
+        return state;
+    }
+
+    /**
+     * Takes back the last move placed on this board.
+     */
+    public void undo() {
+        if (moveCount <= base) {
+            throw new IllegalStateException("No move to undo");
+        }
+        int cell = history[--moveCount];
+        int bit = (cell / SIZE) * STRIDE + cell % SIZE;
+        long m = ~(1L << bit);
+        int w = bit >>> 6;
+        // The mover is whoever owns the bit; after a win/draw the turn was never switched
+        if ((black[w] & ~m) != 0) {
+            black[w] &= m;
+            currentPlayer = BLACK;
+        } else {
+            white[w] &= m;
+            currentPlayer = WHITE;
+        }
+        state = PLAYING;
+    }
+
+    // ------------ Five-in-a-row ------------
+
+    /**
+     * checkWin equivalent: a run of at least five through bit, in any of the four directions.
+     * The 9-cell window around the move is gathered into bits 0..8 (centre at bit 4) and
+     * matched against the five masks 0x1F << k that contain the centre. The empty guard column
+     * and the empty 16th row break any window that would leave the board.
+     */
+    private static boolean fiveThrough(long[] own, int bit) {
+        for (int d = 0; d < 4; d++) {
+            int step = STEPS[d];
+            int window = 0;
+            for (int k = -4; k <= 4; k++) {
+                int b = bit + k * step;
+                if (b >= 0 && b < WORDS * 64 && (own[b >>> 6] & (1L << b)) != 0) {
+                    window |= 1 << (k + 4);
+                }
+            }
+            for (int k = 0; k <= 4; k++) {
+                int mask = 0x1F << k;
+                if ((window & mask) == mask) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whole-board check: does piece have five (or more) in a row anywhere?
+     * Shift-and-mask over the 256-bit set: m = b & b>>s & b>>2s & b>>3s & b>>4s.
+     */
+    public boolean hasFive(int piece) {
+        long[] b = piece == BLACK ? black : white;
+        for (int step : STEPS) {
+            long[] m = scratchA;
+            System.arraycopy(b, 0, m, 0, WORDS);
+            for (int k = 1; k <= 4; k++) {
+                shiftRight(b, k * step, scratchB);
+                for (int w = 0; w < WORDS; w++) {
+                    m[w] &= scratchB[w];
+                }
+            }
+            if ((m[0] | m[1] | m[2] | m[3]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * checkWin over a getBoard-layout array (index x * 15 + y): does the piece at (x, y) make
+     * five or more in a row? For callers that keep plain cells rather than a Board.
+     */
+    public static boolean winsAt(byte[] cells, int x, int y) {
+        byte piece = cells[x * SIZE + y];
+        if (piece == EMPTY) {
+            return false;
+        }
+        return runThrough(cells, x, y, 1, 0, piece) >= 5 || runThrough(cells, x, y, 0, 1, piece) >= 5
+                || runThrough(cells, x, y, 1, 1, piece) >= 5 || runThrough(cells, x, y, 1, -1, piece) >= 5;
+    }
+
+    private static int runThrough(byte[] cells, int x, int y, int dx, int dy, byte piece) {
+        int count = 1;
+        for (int s = -1; s <= 1; s += 2) {
+            int cx = x + s * dx;
+            int cy = y + s * dy;
+            while (cx >= 0 && cx < SIZE && cy >= 0 && cy < SIZE && cells[cx * SIZE + cy] == piece) {
+                count++;
+                cx += s * dx;
+                cy += s * dy;
+            }
+        }
+        return count;
+    }
+
+    private static void shiftRight(long[] src, int n, long[] dst) {
+        int words = n >>> 6;
+        int bits = n & 63;
+        for (int w = 0; w < WORDS; w++) {
+            int s = w + words;
+            long lo = s < WORDS ? src[s] >>> bits : 0;
+            long hi = bits != 0 && s + 1 < WORDS ? src[s + 1] << (64 - bits) : 0;
+            dst[w] = lo | hi;
+        }
+    }
+
+    /**
+     * Same layout as Gomoku.getBoard: byte[225], index x * 15 + y.
+     */
+    public byte[] toCells() {
+        byte[] cells = new byte[CELLS];
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                cells[x * SIZE + y] = (byte) get(x, y);
+            }
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,578 @@
+package gomokuEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Computer player for the contract's 15x15 board (five or more in a row wins, no opening rules).
+ *
+ * Iterative-deepening alpha-beta (principal variation search) over SearchBoard's bitboards and
+ * pattern cache, with a shared lock-free TranspositionTable. Threat rules cut the tree: a five
+ * is taken, a four is blocked, an open four wins, and against an open three only blocks and
+ * counter-fours are searched. Before the main search and at every horizon node a VCF search
+ * (victory by continuous fours: attacker plays only fours, each reply is forced) looks for a
+ * forced win. Each iteration searches the best root move on the calling thread, then splits the
+ * remaining root moves across a ForkJoinPool with null windows against the shared alpha.
+ *
+ * The budget is a hard deadline, capped well inside the contract's move timeout. Instances are
+ * thread-safe and meant to be shared; close() stops the worker pool.
+ */
+public class Engine implements AutoCloseable {
+    /**
+     * Gomoku.sol TIMEOUT: a player who does not move in time loses to claimTimeout.
+     */
+    public static final long CONTRACT_TIMEOUT_MS = 5 * 60 * 1000;
+    /**
+     * Upper bound on thinking time per move; the rest of the timeout is left for the
+     * transaction to be mined.
+     */
+    public static final long MAX_BUDGET_MS = CONTRACT_TIMEOUT_MS / 10;
+    public static final long DEFAULT_BUDGET_MS = 5_000;
+
+    static final int WIN = 1_000_000;
+    static final int WIN_BOUND = WIN - 1_000;
+    /**
+     * Scores at or above this are forced wins for the side to move (below minus it, forced losses).
+     */
+    public static final int WIN_SCORE = WIN_BOUND;
+    private static final int INF = WIN + 1;
+    private static final int MAX_DEPTH = 32;
+    private static final int MAX_PLY = 96;
+    private static final int WIDTH = 12;          // moves tried at inner nodes, best-ordered first
+    private static final int ROOT_WIDTH = 24;
+    private static final int LEAF_VCF_DEPTH = 4;  // attacker fours tried at the horizon
+    private static final int ROOT_VCF_DEPTH = 14;
+
+    private final int threads;
+    private final ForkJoinPool pool;
+    private final TranspositionTable table;
+
+    /**
+     * Result of one search.
+     */
+    public static final class Result {
+        public final int x;
+        public final int y;
+        public final int score;         // side to move's view; above WIN_SCORE means a forced win
+        public final int depth;         // last fully searched depth, 0 if decided by threat rules / VCF
+        public final long nodes;
+        public final long elapsedNanos;
+        public final boolean forced;
+
+        Result(int cell, int score, int depth, long nodes, long elapsedNanos, boolean forced) {
+            this.x = cell / Board.SIZE;
+            this.y = cell % Board.SIZE;
+            this.score = score;
+            this.depth = depth;
+            this.nodes = nodes;
+            this.elapsedNanos = elapsedNanos;
+            this.forced = forced;
+        }
+
+        public boolean isWinning() {
+            return score >= WIN_SCORE;
+        }
+
+        public boolean isLosing() {
+            return score <= -WIN_SCORE;
+        }
+
+        public long nodesPerSecond() {
+            return elapsedNanos > 0 ? nodes * 1_000_000_000L / elapsedNanos : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("(%d, %d) score %d%s, depth %d, %,d nodes in %.1f ms (%,d nodes/s)",
+                    x, y, score, isWinning() ? " (forced win)" : isLosing() ? " (lost)" : "",
+                    depth, nodes, elapsedNanos / 1e6, nodesPerSecond());
+        }
+    }
+
+    public Engine() {
+        this(Runtime.getRuntime().availableProcessors(), 64);
+    }
+
+    /**
+     * @param threads search threads (root moves searched in parallel)
+     * @param tableMegabytes transposition table size, shared by all searches of this engine
+     */
+    public Engine(int threads, int tableMegabytes) {
+        this.threads = Math.max(1, threads);
+        this.pool = new ForkJoinPool(this.threads);
+        this.table = new TranspositionTable(tableMegabytes);
+    }
+
+    public int threads() {
+        return threads;
+    }
+
+    /**
+     * Forgets all stored positions (e.g. between unrelated benchmark runs).
+     */
+    public void clearTable() {
+        table.clear();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    // ------------ Search ------------
+
+    public Result search(Board board) {
+        return search(board, DEFAULT_BUDGET_MS);
+    }
+
+    /**
+     * Best move for board's current player within budgetMs (capped at MAX_BUDGET_MS).
+     * @throws IllegalStateException if the game is over
+     */
+    public Result search(Board board, long budgetMs) {
+        if (board.state() != Board.PLAYING) {
+            throw new IllegalStateException("Game is not in playing state");
+        }
+        long start = System.nanoTime();
+        long budgetNanos = Math.max(1, Math.min(budgetMs, MAX_BUDGET_MS)) * 1_000_000L;
+        Context ctx = new Context(board, start + budgetNanos);
+        table.nextGeneration();
+        Searcher main = ctx.searcher();
+        SearchBoard p = main.pos;
+        int me = p.board.currentPlayer();
+        int other = 3 - me;
+
+        // Threat rules first: these positions have a single sensible move
+        int n = p.candidates(main.moves[0]);
+        int forced = -1;
+        int forcedScore = 0;
+        if (p.count(me, Patterns.RANK_FIVE) > 0) {
+            forced = find(p, main.moves[0], n, me, Patterns.RANK_FIVE);
+            forcedScore = WIN - 1;
+        } else if (p.count(other, Patterns.RANK_FIVE) > 0) {
+            forced = find(p, main.moves[0], n, other, Patterns.RANK_FIVE);
+            forcedScore = p.count(other, Patterns.RANK_FIVE) > 1 ? -(WIN - 2) : p.evaluate();
+        } else if (p.count(me, Patterns.RANK_OPEN_FOUR) > 0) {
+            forced = find(p, main.moves[0], n, me, Patterns.RANK_OPEN_FOUR);
+            forcedScore = WIN - 3;
+        } else if (n == 1) {
+            forced = main.moves[0][0];
+            forcedScore = p.evaluate();
+        } else {
+            // At most a fifth of the budget; the main search still finds shorter wins
+            main.limit = start + budgetNanos / 5;
+            try {
+                forced = main.rootVcf(ROOT_VCF_DEPTH);
+                forcedScore = WIN - 2 * ROOT_VCF_DEPTH - 1;
+            } catch (Aborted e) {
+                forced = -1;
+                ctx.stop.set(false);
+            }
+            main.limit = ctx.deadline;
+        }
+        if (forced >= 0) {
+            return new Result(forced, forcedScore, 0, ctx.nodes(), System.nanoTime() - start, true);
+        }
+
+        n = main.generate(0, TranspositionTable.NO_MOVE, false, ROOT_WIDTH);
+        int[] rootMoves = new int[n];
+        int[] rootScores = new int[n];
+        System.arraycopy(main.moves[0], 0, rootMoves, 0, n);
+        int bestMove = rootMoves[0];
+        int bestScore = p.evaluate();
+        int depthDone = 0;
+        for (int depth = 1; depth <= MAX_DEPTH && !ctx.stop.get(); depth++) {
+            Iteration it = searchRoot(ctx, main, rootMoves, rootScores, depth);
+            if (it.firstDone) {
+                bestMove = it.bestMove;
+                bestScore = it.bestScore;
+            }
+            if (!it.complete) {
+                break;
+            }
+            depthDone = depth;
+            if (Math.abs(bestScore) >= WIN_BOUND || System.nanoTime() - start > budgetNanos / 2) {
+                break; // decided, or the next iteration would not finish in time
+            }
+            sortRoot(rootMoves, rootScores, bestMove);
+        }
+        return new Result(bestMove, bestScore, depthDone, ctx.nodes(), System.nanoTime() - start, false);
+    }
+
+    private static int find(SearchBoard p, int[] cells, int n, int piece, int minRank) {
+        for (int i = 0; i < n; i++) {
+            if (p.rank(piece, cells[i]) >= minRank) {
+                return cells[i];
+            }
+        }
+        throw new IllegalStateException("Threat cell outside the candidate area");
+    }
+
+    private static final class Iteration {
+        boolean complete;
+        boolean firstDone;
+        int bestMove;
+        int bestScore = -INF;
+    }
+
+    /**
+     * One iteration: the first root move with a full window on this thread, the rest in
+     * parallel with null windows against the best score so far, re-searched when they beat it.
+     */
+    private Iteration searchRoot(Context ctx, Searcher main, int[] rootMoves, int[] rootScores, int depth) {
+        Iteration it = new Iteration();
+        try {
+            main.pos.place(rootMoves[0]);
+            try {
+                it.bestScore = -main.search(depth - 1, -INF, INF, 1);
+            } finally {
+                main.pos.undo();
+            }
+        } catch (Aborted e) {
+            return it;
+        }
+        it.bestMove = rootMoves[0];
+        it.firstDone = true;
+        rootScores[0] = it.bestScore;
+        AtomicInteger alpha = new AtomicInteger(it.bestScore);
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 1; i < rootMoves.length; i++) {
+            int index = i;
+            tasks.add(() -> {
+                Searcher s = ctx.searcher();
+                try {
+                    int move = rootMoves[index];
+                    int a = alpha.get();
+                    s.pos.place(move);
+                    int score;
+                    try {
+                        score = -s.search(depth - 1, -a - 1, -a, 1);
+                        if (score > a) {
+                            score = -s.search(depth - 1, -INF, -a, 1);
+                        }
+                    } finally {
+                        s.pos.undo();
+                    }
+                    rootScores[index] = score;
+                    alpha.accumulateAndGet(score, Math::max);
+                    synchronized (it) {
+                        if (score > it.bestScore) {
+                            it.bestScore = score;
+                            it.bestMove = move;
+                        }
+                    }
+                } catch (Aborted e) {
+                    rootScores[index] = -INF;
+                } finally {
+                    ctx.release(s);
+                }
+                return null;
+            });
+        }
+        pool.invokeAll(tasks);
+        synchronized (it) {
+            it.complete = !ctx.stop.get();
+        }
+        return it;
+    }
+
+    /**
+     * Best move first, then by this iteration's scores (stable).
+     */
+    private static void sortRoot(int[] moves, int[] scores, int best) {
+        for (int i = 1; i < moves.length; i++) {
+            int m = moves[i];
+            int s = scores[i];
+            int j = i;
+            while (j > 0 && (m == best || (moves[j - 1] != best && scores[j - 1] < s))) {
+                moves[j] = moves[j - 1];
+                scores[j] = scores[j - 1];
+                j--;
+            }
+            moves[j] = m;
+            scores[j] = s;
+        }
+    }
+
+    // ------------ Per-search state ------------
+
+    private static final class Aborted extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Aborted() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final Aborted ABORTED = new Aborted();
+
+    /**
+     * One search() call: deadline, stop flag and the searchers (one per concurrent task).
+     */
+    private final class Context {
+        final Board root;
+        final long deadline;
+        final AtomicBoolean stop = new AtomicBoolean();
+        final ConcurrentLinkedQueue<Searcher> idle = new ConcurrentLinkedQueue<>();
+        final ConcurrentLinkedQueue<Searcher> all = new ConcurrentLinkedQueue<>();
+
+        Context(Board root, long deadline) {
+            this.root = root;
+            this.deadline = deadline;
+        }
+
+        Searcher searcher() {
+            Searcher s = idle.poll();
+            if (s == null) {
+                s = new Searcher(new SearchBoard(root), this);
+                all.add(s);
+            }
+            return s;
+        }
+
+        void release(Searcher s) {
+            idle.offer(s);
+        }
+
+        long nodes() {
+            long n = 0;
+            for (Searcher s : all) {
+                n += s.nodes;
+            }
+            return n;
+        }
+    }
+
+    private final class Searcher {
+        final SearchBoard pos;
+        final Context ctx;
+        final int[][] moves = new int[MAX_PLY][Board.CELLS];
+        final int[][] scores = new int[MAX_PLY][Board.CELLS];
+        long nodes;
+        long limit;
+
+        Searcher(SearchBoard pos, Context ctx) {
+            this.pos = pos;
+            this.ctx = ctx;
+            this.limit = ctx.deadline;
+        }
+
+        private void tick() {
+            if ((++nodes & 1023) == 0 && (ctx.stop.get() || System.nanoTime() - limit > 0)) {
+                ctx.stop.set(true);
+                throw ABORTED;
+            }
+        }
+
+        /**
+         * Negamax alpha-beta (PVS) from the side to move's point of view.
+         */
+        int search(int depth, int alpha, int beta, int ply) {
+            tick();
+            SearchBoard p = pos;
+            int state = p.board.state();
+            if (state == Board.DRAW) {
+                return 0;
+            } else if (state != Board.PLAYING) {
+                return -(WIN - ply); // the previous move made five
+            }
+            int me = p.board.currentPlayer();
+            int other = 3 - me;
+            if (p.count(me, Patterns.RANK_FIVE) > 0) {
+                return WIN - ply - 1;
+            }
+            boolean mustBlock = p.count(other, Patterns.RANK_FIVE) > 0;
+            if (!mustBlock && p.count(me, Patterns.RANK_OPEN_FOUR) > 0) {
+                return WIN - ply - 3;
+            }
+            if (depth <= 0 || ply >= MAX_PLY - 2 * LEAF_VCF_DEPTH - 2) {
+                if (!mustBlock && vcf(me, LEAF_VCF_DEPTH, ply)) {
+                    return WIN - ply - 2 * LEAF_VCF_DEPTH - 1;
+                }
+                return p.evaluate();
+            }
+
+            long entry = table.probe(p.hash);
+            int ttMove = TranspositionTable.NO_MOVE;
+            if (entry != 0) {
+                ttMove = TranspositionTable.move(entry);
+                if (TranspositionTable.depth(entry) >= depth) {
+                    int s = fromTable(TranspositionTable.score(entry), ply);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.EXACT || (bound == TranspositionTable.LOWER && s >= beta)
+                            || (bound == TranspositionTable.UPPER && s <= alpha)) {
+                        return s;
+                    }
+                }
+            }
+
+            int n = generate(ply, ttMove, mustBlock, WIDTH);
+            if (n == 0) {
+                return 0;
+            }
+            int[] ms = moves[ply];
+            int alpha0 = alpha;
+            int best = -INF;
+            int bestMove = TranspositionTable.NO_MOVE;
+            for (int i = 0; i < n; i++) {
+                int m = ms[i];
+                p.place(m);
+                int s;
+                try {
+                    if (i == 0) {
+                        s = -search(depth - 1, -beta, -alpha, ply + 1);
+                    } else {
+                        s = -search(depth - 1, -alpha - 1, -alpha, ply + 1);
+                        if (s > alpha && s < beta) {
+                            s = -search(depth - 1, -beta, -alpha, ply + 1);
+                        }
+                    }
+                } finally {
+                    p.undo();
+                }
+                if (s > best) {
+                    best = s;
+                    bestMove = m;
+                    if (s > alpha) {
+                        alpha = s;
+                        if (s >= beta) {
+                            break;
+                        }
+                    }
+                }
+            }
+            int bound = best >= beta ? TranspositionTable.LOWER
+                    : best > alpha0 ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+            table.store(p.hash, bestMove, depth, bound, toTable(best, ply));
+            return best;
+        }
+
+        /**
+         * Ordered moves for the side to move into moves[ply]: only the blocks if the opponent
+         * has a five to make; only blocks and own fours against an open three; otherwise the
+         * width best candidates by own plus opponent's cell value (attack and defence).
+         */
+        int generate(int ply, int ttMove, boolean mustBlock, int width) {
+            SearchBoard p = pos;
+            int me = p.board.currentPlayer();
+            int other = 3 - me;
+            int[] out = moves[ply];
+            int[] sc = scores[ply];
+            int n = p.candidates(out);
+            if (mustBlock) {
+                int k = 0;
+                for (int i = 0; i < n; i++) {
+                    if (p.rank(other, out[i]) == Patterns.RANK_FIVE) {
+                        out[k++] = out[i];
+                    }
+                }
+                return k;
+            }
+            boolean defend = p.count(other, Patterns.RANK_OPEN_FOUR) > 0;
+            int limit = defend ? Board.CELLS : width;
+            int k = 0;
+            for (int i = 0; i < n; i++) {
+                int c = out[i];
+                if (defend && p.maxLine(me, c) < Patterns.FOUR && p.maxLine(other, c) < Patterns.FOUR) {
+                    continue;
+                }
+                int s = c == ttMove ? Integer.MAX_VALUE : p.value(me, c) * 5 + p.value(other, c) * 4;
+                if (k == limit && s <= sc[k - 1]) {
+                    continue;
+                }
+                // Insertion into the sorted prefix; i >= k, so out[i] is already read
+                int j = k < limit ? k++ : k - 1;
+                while (j > 0 && sc[j - 1] < s) {
+                    sc[j] = sc[j - 1];
+                    out[j] = out[j - 1];
+                    j--;
+                }
+                sc[j] = s;
+                out[j] = c;
+            }
+            return k;
+        }
+
+        /**
+         * Can attacker (to move) force five with fours alone, within depth of its moves?
+         */
+        boolean vcf(int attacker, int depth, int ply) {
+            tick();
+            SearchBoard p = pos;
+            if (p.count(attacker, Patterns.RANK_FIVE) > 0) {
+                return true;
+            }
+            if (p.count(3 - attacker, Patterns.RANK_FIVE) > 0) {
+                return false; // would have to block instead
+            }
+            if (p.count(attacker, Patterns.RANK_OPEN_FOUR) > 0) {
+                return true;
+            }
+            if (depth == 0) {
+                return false;
+            }
+            int[] cells = moves[ply];
+            int n = p.candidates(cells);
+            for (int i = 0; i < n; i++) {
+                if (tryFour(attacker, cells[i], depth, ply)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean tryFour(int attacker, int cell, int depth, int ply) {
+            SearchBoard p = pos;
+            if (p.maxLine(attacker, cell) < Patterns.FOUR) {
+                return false;
+            }
+            p.place(cell);
+            try {
+                int block = p.fiveCellNear(attacker, cell);
+                if (block < 0) {
+                    return false;
+                }
+                if (p.place(block) != Board.PLAYING) {
+                    p.undo();
+                    return false; // the block made five for the defender
+                }
+                try {
+                    return vcf(attacker, depth - 1, ply + 2);
+                } finally {
+                    p.undo();
+                }
+            } finally {
+                p.undo();
+            }
+        }
+
+        /**
+         * First move of a VCF win for the side to move, or -1.
+         */
+        int rootVcf(int depth) {
+            int me = pos.board.currentPlayer();
+            int[] cells = moves[0];
+            int n = pos.candidates(cells);
+            for (int i = 0; i < n; i++) {
+                if (tryFour(me, cells[i], depth, 1)) {
+                    return cells[i];
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static int toTable(int score, int ply) {
+        return score >= WIN_BOUND ? score + ply : score <= -WIN_BOUND ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        return score >= WIN_BOUND ? score - ply : score <= -WIN_BOUND ? score + ply : score;
+    }
+}
@@ -0,0 +1,155 @@
+package gomokuEngine;
+
+import java.util.Arrays;
+
+/**
+ * Line-pattern tables for the engine.
+ *
+ * A cell's situation along one direction is the 9-cell window around it (offsets -4..4): own
+ * stones and blocked cells (opponent stones or off the board) at the 8 non-centre offsets,
+ * packed into 8 bits each. LINE[own << 8 | blocked] is the line category a stone placed at the
+ * centre would make. The table is derived from the five-in-a-row rule alone, so it agrees with
+ * Board.place / Gomoku.sol checkWin (overlines win too).
+ */
+final class Patterns {
+    // Line categories for a stone placed at the window centre
+    static final int NONE = 0;
+    static final int ONE = 1;         // room for five, nothing more
+    static final int TWO = 2;
+    static final int OPEN_TWO = 3;
+    static final int THREE = 4;       // one move from a four
+    static final int OPEN_THREE = 5;  // one move from an open four
+    static final int FOUR = 6;        // one cell completes five
+    static final int OPEN_FOUR = 7;   // two or more cells complete five
+    static final int FIVE = 8;
+
+    // Cell ranks, combining the four directions; ordered by urgency
+    static final int RANK_NONE = 0;
+    static final int RANK_OPEN_THREE = 1;
+    static final int RANK_FOUR = 2;
+    static final int RANK_DOUBLE_THREE = 3;
+    static final int RANK_FOUR_THREE = 4;
+    static final int RANK_OPEN_FOUR = 5;  // open four or double four: wins against any defence
+    static final int RANK_FIVE = 6;
+    static final int RANKS = 7;
+
+    static final int[] LINE_VALUE = {0, 1, 4, 12, 20, 60, 70, 400, 2000};
+    static final int[] RANK_VALUE = {0, 0, 0, 200, 400, 800, 4000};
+
+    static final byte[] LINE = new byte[1 << 16];
+    // Indexed by the four line categories c0 * 729 + c1 * 81 + c2 * 9 + c3
+    static final byte[] RANK = new byte[9 * 9 * 9 * 9];
+    static final int[] VALUE = new int[9 * 9 * 9 * 9];
+
+    static {
+        int[] memo = new int[1 << 18];
+        Arrays.fill(memo, -1);
+        for (int own = 0; own < 256; own++) {
+            for (int blocked = 0; blocked < 256; blocked++) {
+                if ((own & blocked) == 0) {
+                    LINE[own << 8 | blocked] = (byte) category(spread(own) | 1 << 4, spread(blocked), memo);
+                }
+            }
+        }
+        for (int combo = 0; combo < RANK.length; combo++) {
+            int rank = rank(combo);
+            int value = RANK_VALUE[rank];
+            for (int c = combo, d = 0; d < 4; d++, c /= 9) {
+                value += LINE_VALUE[c % 9];
+            }
+            RANK[combo] = (byte) rank;
+            VALUE[combo] = value;
+        }
+    }
+
+    private Patterns() {
+    }
+
+    /**
+     * Rank of a cell from its four line categories.
+     */
+    private static int rank(int combo) {
+        int fours = 0;
+        int openThrees = 0;
+        for (int d = 0; d < 4; d++, combo /= 9) {
+            int c = combo % 9;
+            if (c == FIVE) {
+                return RANK_FIVE;
+            } else if (c == OPEN_FOUR) {
+                fours += 2;
+            } else if (c == FOUR) {
+                fours++;
+            } else if (c == OPEN_THREE) {
+                openThrees++;
+            }
+        }
+        if (fours >= 2) {
+            return RANK_OPEN_FOUR;
+        } else if (fours == 1) {
+            return openThrees > 0 ? RANK_FOUR_THREE : RANK_FOUR;
+        } else if (openThrees >= 2) {
+            return RANK_DOUBLE_THREE;
+        }
+        return openThrees == 1 ? RANK_OPEN_THREE : RANK_NONE;
+    }
+
+    /**
+     * 8-bit window (offsets -4..-1, 1..4) to 9-bit line (offsets -4..4, centre at bit 4).
+     */
+    private static int spread(int bits8) {
+        return (bits8 & 0x0F) | (bits8 & 0xF0) << 1;
+    }
+
+    private static boolean fiveThroughCentre(int own) {
+        for (int k = 0; k <= 4; k++) {
+            int mask = 0x1F << k;
+            if ((own & mask) == mask) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Category of the centre stone on line own (9 bits, centre set): five, else how many empty
+     * cells complete a five through the centre, else one step down from the best next move.
+     */
+    private static int category(int own, int blocked, int[] memo) {
+        int key = own << 9 | blocked;
+        if (memo[key] >= 0) {
+            return memo[key];
+        }
+        int result;
+        if (fiveThroughCentre(own)) {
+            result = FIVE;
+        } else {
+            int completions = 0;
+            int best = NONE;
+            for (int e = 0; e < 9; e++) {
+                int bit = 1 << e;
+                if (((own | blocked) & bit) != 0) {
+                    continue;
+                }
+                if (fiveThroughCentre(own | bit)) {
+                    completions++;
+                } else if (completions == 0) {
+                    best = Math.max(best, category(own | bit, blocked, memo));
+                }
+            }
+            if (completions > 0) {
+                result = completions >= 2 ? OPEN_FOUR : FOUR;
+            } else {
+                switch (best) {
+                    case OPEN_FOUR: result = OPEN_THREE; break;
+                    case FOUR: result = THREE; break;
+                    case OPEN_THREE: result = OPEN_TWO; break;
+                    case THREE: result = TWO; break;
+                    case OPEN_TWO: case TWO: result = ONE; break;
+                    default: result = NONE; break;
+                }
+            }
+        }
+        memo[key] = result;
+        return result;
+    }
+}
@@ -0,0 +1,299 @@
+package gomokuEngine;
+
+import java.util.SplittableRandom;
+
+/**
+ * Board plus the incremental state the search needs: a Zobrist hash and, for every empty cell
+ * and colour, the line category in each direction (Patterns.LINE over the bitboards), the
+ * cell's rank and value, and per-colour totals. A move only changes the windows of the cells
+ * within four steps along its four lines, so place/undo refresh at most 32 cells and evaluation
+ * is a subtraction. Candidate moves come from dilating the occupancy bitboard.
+ *
+ * One per search thread; place/undo do not allocate.
+ */
+final class SearchBoard {
+    private static final int SIZE = Board.SIZE;
+    private static final int CELLS = Board.CELLS;
+    private static final int[][] DIRS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+    // Bitboard index steps to the eight neighbours, as shifts in either direction
+    private static final int[] SHIFTS = {1, 15, 16, 17};
+
+    // WINDOW[(cell * 4 + d) * 8 + i]: bitboard index of window offset i (-4..-1, 1..4), -1 off the board
+    private static final int[] WINDOW = new int[CELLS * 4 * 8];
+    // NEIGHBOURS[(cell * 4 + d) * 8 + i]: cell index at the same offsets, -1 off the board
+    private static final int[] NEIGHBOURS = new int[CELLS * 4 * 8];
+    private static final long[][] ZOBRIST = new long[3][CELLS];
+    private static final long SIDE;
+    // Bitboard cells that are on the board (column 15 and row 15 are padding)
+    private static final long[] ON_BOARD = new long[4];
+
+    static {
+        for (int cell = 0; cell < CELLS; cell++) {
+            int x = cell / SIZE;
+            int y = cell % SIZE;
+            ON_BOARD[bit(cell) >>> 6] |= 1L << bit(cell);
+            for (int d = 0; d < 4; d++) {
+                int i = 0;
+                for (int k = -4; k <= 4; k++) {
+                    if (k == 0) {
+                        continue;
+                    }
+                    int nx = x + k * DIRS[d][0];
+                    int ny = y + k * DIRS[d][1];
+                    boolean inside = nx >= 0 && nx < SIZE && ny >= 0 && ny < SIZE;
+                    WINDOW[(cell * 4 + d) * 8 + i] = inside ? nx * 16 + ny : -1;
+                    NEIGHBOURS[(cell * 4 + d) * 8 + i] = inside ? nx * SIZE + ny : -1;
+                    i++;
+                }
+            }
+        }
+        SplittableRandom rnd = new SplittableRandom(0x5EED_600D_6A3EL);
+        for (int piece = Board.BLACK; piece <= Board.WHITE; piece++) {
+            for (int cell = 0; cell < CELLS; cell++) {
+                ZOBRIST[piece][cell] = rnd.nextLong();
+            }
+        }
+        SIDE = rnd.nextLong();
+    }
+
+    final Board board;
+    private final long[] black;
+    private final long[] white;
+    long hash;
+
+    // Indexed by piece (1 = black, 2 = white)
+    private final byte[][] line = new byte[3][CELLS * 4];
+    private final byte[][] rank = new byte[3][CELLS];
+    private final int[][] value = new int[3][CELLS];
+    private final int[][] rankCount = new int[3][Patterns.RANKS];
+    private final int[] total = new int[3];
+    private final long[] scratch = new long[4];
+    private final long[] near1 = new long[4];
+    private final long[] near2 = new long[4];
+
+    SearchBoard(Board position) {
+        this.board = Board.of(position.toCells(), position.currentPlayer(), position.state());
+        this.black = board.bits(Board.BLACK);
+        this.white = board.bits(Board.WHITE);
+        for (int cell = 0; cell < CELLS; cell++) {
+            int piece = board.get(cell / SIZE, cell % SIZE);
+            if (piece != Board.EMPTY) {
+                hash ^= ZOBRIST[piece][cell];
+            }
+        }
+        if (board.currentPlayer() == Board.WHITE) {
+            hash ^= SIDE;
+        }
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (isEmpty(cell)) {
+                for (int d = 0; d < 4; d++) {
+                    refreshLine(cell, d);
+                }
+                refreshCell(cell);
+            }
+        }
+    }
+
+    static int bit(int cell) {
+        return (cell / SIZE) * 16 + cell % SIZE;
+    }
+
+    boolean isEmpty(int cell) {
+        int b = bit(cell);
+        return ((black[b >>> 6] | white[b >>> 6]) & (1L << b)) == 0;
+    }
+
+    // ------------ Moves ------------
+
+    /**
+     * Places the side to move's stone at cell (must be empty, game still playing).
+     * @return the resulting game state
+     */
+    int place(int cell) {
+        int piece = board.currentPlayer();
+        int state = board.place(cell / SIZE, cell % SIZE);
+        hash ^= ZOBRIST[piece][cell] ^ SIDE;
+        clearCell(cell);
+        refreshAround(cell);
+        return state;
+    }
+
+    void undo() {
+        int cell = board.moveAt(board.moveCount() - 1);
+        board.undo();
+        hash ^= ZOBRIST[board.currentPlayer()][cell] ^ SIDE;
+        for (int d = 0; d < 4; d++) {
+            refreshLine(cell, d);
+        }
+        refreshCell(cell);
+        refreshAround(cell);
+    }
+
+    // ------------ Pattern cache ------------
+
+    private void refreshAround(int cell) {
+        int base = cell * 32;
+        for (int d = 0; d < 4; d++) {
+            for (int i = 0; i < 8; i++) {
+                int n = NEIGHBOURS[base + d * 8 + i];
+                if (n >= 0 && isEmpty(n)) {
+                    refreshLine(n, d);
+                    refreshCell(n);
+                }
+            }
+        }
+    }
+
+    private void refreshLine(int cell, int d) {
+        int base = (cell * 4 + d) * 8;
+        int b = 0;
+        int w = 0;
+        int off = 0;
+        for (int i = 0; i < 8; i++) {
+            int idx = WINDOW[base + i];
+            if (idx < 0) {
+                off |= 1 << i;
+            } else {
+                long m = 1L << idx;
+                if ((black[idx >>> 6] & m) != 0) {
+                    b |= 1 << i;
+                } else if ((white[idx >>> 6] & m) != 0) {
+                    w |= 1 << i;
+                }
+            }
+        }
+        line[Board.BLACK][cell * 4 + d] = Patterns.LINE[b << 8 | w | off];
+        line[Board.WHITE][cell * 4 + d] = Patterns.LINE[w << 8 | b | off];
+    }
+
+    private void refreshCell(int cell) {
+        for (int piece = Board.BLACK; piece <= Board.WHITE; piece++) {
+            byte[] l = line[piece];
+            int i = cell * 4;
+            int combo = ((l[i] * 9 + l[i + 1]) * 9 + l[i + 2]) * 9 + l[i + 3];
+            set(piece, cell, Patterns.RANK[combo], Patterns.VALUE[combo]);
+        }
+    }
+
+    private void clearCell(int cell) {
+        set(Board.BLACK, cell, Patterns.RANK_NONE, 0);
+        set(Board.WHITE, cell, Patterns.RANK_NONE, 0);
+    }
+
+    private void set(int piece, int cell, int newRank, int newValue) {
+        int[] counts = rankCount[piece];
+        counts[rank[piece][cell]]--;
+        counts[newRank]++;
+        rank[piece][cell] = (byte) newRank;
+        total[piece] += newValue - value[piece][cell];
+        value[piece][cell] = newValue;
+    }
+
+    // ------------ Queries ------------
+
+    /**
+     * Number of empty cells where piece would reach at least the given rank.
+     */
+    int count(int piece, int minRank) {
+        int n = 0;
+        for (int r = minRank; r < Patterns.RANKS; r++) {
+            n += rankCount[piece][r];
+        }
+        return n;
+    }
+
+    int rank(int piece, int cell) {
+        return rank[piece][cell];
+    }
+
+    int value(int piece, int cell) {
+        return value[piece][cell];
+    }
+
+    /**
+     * Best line category piece would make at cell over the four directions.
+     */
+    int maxLine(int piece, int cell) {
+        byte[] l = line[piece];
+        int i = cell * 4;
+        return Math.max(Math.max(l[i], l[i + 1]), Math.max(l[i + 2], l[i + 3]));
+    }
+
+    /**
+     * Static evaluation from the side to move's point of view. The side to move gets its
+     * threats in first, so its potential counts for more.
+     */
+    int evaluate() {
+        int me = board.currentPlayer();
+        int other = 3 - me;
+        return total[me] - (total[other] * 3 >> 2);
+    }
+
+    /**
+     * An empty cell on one of cell's four lines (within four steps) where piece makes five, or -1.
+     */
+    int fiveCellNear(int piece, int cell) {
+        int base = cell * 32;
+        for (int i = 0; i < 32; i++) {
+            int n = NEIGHBOURS[base + i];
+            if (n >= 0 && rank[piece][n] == Patterns.RANK_FIVE && isEmpty(n)) {
+                return n;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Empty cells within two steps (any direction) of a stone, written to out.
+     * @return how many; on an empty board just the centre
+     */
+    int candidates(int[] out) {
+        long[] occ = scratch;
+        boolean any = false;
+        for (int w = 0; w < 4; w++) {
+            occ[w] = black[w] | white[w];
+            any |= occ[w] != 0;
+        }
+        if (!any) {
+            out[0] = (SIZE / 2) * SIZE + SIZE / 2;
+            return 1;
+        }
+        long[] near = near2;
+        dilate(occ, near1);
+        dilate(near1, near);
+        int n = 0;
+        for (int w = 0; w < 4; w++) {
+            long bits = near[w] & ~occ[w];
+            while (bits != 0) {
+                int b = w * 64 + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                out[n++] = (b >>> 4) * SIZE + (b & 15);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * dst = src grown by one cell in all eight directions, clipped to the board.
+     */
+    private static void dilate(long[] src, long[] dst) {
+        long s0 = src[0], s1 = src[1], s2 = src[2], s3 = src[3];
+        long r0 = s0, r1 = s1, r2 = s2, r3 = s3;
+        for (int shift : SHIFTS) {
+            // up: bit i -> i + shift
+            r3 |= s3 << shift | s2 >>> (64 - shift);
+            r2 |= s2 << shift | s1 >>> (64 - shift);
+            r1 |= s1 << shift | s0 >>> (64 - shift);
+            r0 |= s0 << shift;
+            // down: bit i -> i - shift
+            r0 |= s0 >>> shift | s1 << (64 - shift);
+            r1 |= s1 >>> shift | s2 << (64 - shift);
+            r2 |= s2 >>> shift | s3 << (64 - shift);
+            r3 |= s3 >>> shift;
+        }
+        dst[0] = r0 & ON_BOARD[0];
+        dst[1] = r1 & ON_BOARD[1];
+        dst[2] = r2 & ON_BOARD[2];
+        dst[3] = r3 & ON_BOARD[3];
+    }
+}
@@ -0,0 +1,94 @@
+package gomokuEngine;
+
+import java.util.Arrays;
+
+/**
+ * Lock-free transposition table shared by all search threads.
+ *
+ * Each entry is two longs, key ^ data and data (Hyatt's lockless hashing): a racing writer can
+ * leave a torn pair, but then key ^ data no longer reproduces the probed hash and the entry
+ * reads as a miss, so no lock or CAS is needed. Buckets of two: the first slot keeps the deeper
+ * result of the current search, the second always takes the newest.
+ *
+ * Data layout: move (8 bits, 255 = none) | depth (8) | bound (2) | valid (1) | generation (8)
+ * | score (high 32).
+ */
+final class TranspositionTable {
+    static final int EXACT = 0;
+    static final int LOWER = 1;   // score >= stored (fail high)
+    static final int UPPER = 2;   // score <= stored (fail low)
+    static final int NO_MOVE = 255;
+
+    private static final long VALID = 1L << 18;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private volatile int generation;
+
+    TranspositionTable(int megabytes) {
+        int entries = Integer.highestOneBit(Math.max(1, megabytes) * (1 << 20) / 16);
+        this.keys = new long[entries];
+        this.data = new long[entries];
+        this.mask = entries - 2;
+    }
+
+    /**
+     * Starts a new search: older entries become preferred replacement victims.
+     */
+    void nextGeneration() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * @return the entry's data, or 0 if the position is not stored
+     */
+    long probe(long hash) {
+        int i = (int) hash & mask;
+        long d = data[i];
+        if ((keys[i] ^ d) == hash && d != 0) {
+            return d;
+        }
+        d = data[i + 1];
+        if ((keys[i + 1] ^ d) == hash && d != 0) {
+            return d;
+        }
+        return 0;
+    }
+
+    void store(long hash, int move, int depth, int bound, int score) {
+        int gen = generation;
+        long d = (move & 0xFFL) | (long) Math.max(0, Math.min(depth, 255)) << 8 | (long) bound << 16 | VALID
+                | (long) gen << 19 | (long) score << 32;
+        int i = (int) hash & mask;
+        long old = data[i];
+        if ((keys[i] ^ old) == hash || ((old >>> 19) & 0xFF) != gen || depth(old) <= depth) {
+            keys[i] = hash ^ d;
+            data[i] = d;
+        } else {
+            keys[i + 1] = hash ^ d;
+            data[i + 1] = d;
+        }
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+    }
+
+    static int move(long d) {
+        return (int) (d & 0xFF);
+    }
+
+    static int depth(long d) {
+        return (int) ((d >>> 8) & 0xFF);
+    }
+
+    static int bound(long d) {
+        return (int) ((d >>> 16) & 0x3);
+    }
+
+    static int score(long d) {
+        return (int) (d >>> 32);
+    }
+}
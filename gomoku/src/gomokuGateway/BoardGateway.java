@@ -0,0 +1,386 @@
+package gomokuGateway;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import ethInfo.EthBasis;
+import ethSC.GomokuHandler;
+import ethSC.Transports;
+import gomokuState.ChatStore;
+import gomokuState.ChatSync;
+import gomokuState.EventJournal;
+import gomokuState.GameStateIndex;
+import gomokuState.JournalSync;
+import io.reactivex.disposables.Disposable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.Keys;
+import org.web3j.protocol.Web3j;
+
+/**
+ * Read-only gateway between the node and the web UI. It follows the contract once (JournalSync +
+ * ChatSync into a GameStateIndex and ChatStore, as the CLI does) and serves every browser from
+ * that local state, so node load no longer grows with the number of viewers.
+ *
+ *   GET /api/counter                        {gameCounter, syncedBlock}
+ *   GET /api/games/{id}                     snapshot: GameInfo + board + recent chat
+ *   GET /api/games/{id}/chat?offset=&limit= chat history page
+ *   GET /api/games/{id}/events              Server-Sent Events: snapshot, then per-game deltas
+ *   GET /*                                  web UI files (with --web=DIR)
+ *
+ * One virtual thread per push client; see EventStream for the backpressure policy.
+ *
+ * Usage: BoardGateway [--port=8090] [--web=../web-ui] [--max-clients=10000] [--queue=256]
+ *                     [--journal=gomoku-events.journal] [--chat=gomoku-chat.store] [--confirmations=N]
+ * (give it its own journal and chat files when a CLI runs in the same directory)
+ */
+public class BoardGateway implements Closeable {
+    private static final long HEARTBEAT_MS = 15_000;
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "html", "text/html; charset=utf-8",
+            "js", "application/javascript; charset=utf-8",
+            "css", "text/css; charset=utf-8",
+            "json", "application/json",
+            "png", "image/png",
+            "svg", "image/svg+xml");
+
+    private final GameStateIndex index;
+    private final ChatStore chat;
+    private final GameFeed feed;
+    private final int maxClients;
+    private final int queueCapacity;
+    private int confirmations = EthBasis.confirmations;
+    private final AtomicInteger clients = new AtomicInteger();
+    private final List<Disposable> subscriptions = new ArrayList<>();
+    private final List<Closeable> stores = new ArrayList<>();
+    private ExecutorService threads;
+    private HttpServer server;
+    private Path webRoot;
+
+    public BoardGateway(GameStateIndex index, ChatStore chat, int maxClients, int queueCapacity) {
+        this.index = index;
+        this.chat = chat;
+        this.feed = new GameFeed(index, chat);
+        this.maxClients = maxClients;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public GameFeed feed() {
+        return feed;
+    }
+
+    /**
+     * Confirmation depth for sync() (default EthBasis.confirmations); viewers then only see
+     * events that can no longer be reorged away.
+     */
+    public void setConfirmations(int confirmations) {
+        this.confirmations = confirmations;
+    }
+
+    /**
+     * Replays the local journal and chat store, catches up with the chain and follows it.
+     * The feed is fed alongside the index, so pushes start with the live stream.
+     */
+    public void sync(GomokuHandler handler, Path journalPath) throws IOException {
+        EventJournal journal = EventJournal.open(journalPath);
+        stores.add(journal);
+        JournalSync journalSync = new JournalSync(handler.getWeb3j(), handler.getContract(), journal, index, feed);
+        journalSync.requireConfirmations(confirmations, null);
+        long t0 = System.nanoTime();
+        long replayed = journalSync.replay();
+        long head = journalSync.catchUp();
+        subscriptions.add(journalSync.follow());
+        System.out.printf("[v] Index: %d events replayed, synced to block %d in %.1f ms%n", replayed, head,
+                (System.nanoTime() - t0) / 1e6);
+        if (chat != null) {
+            ChatSync chatSync = new ChatSync(handler.getWeb3j(), handler.getContract(), chat, feed::chatSent);
+            chatSync.requireConfirmations(confirmations);
+            head = chatSync.catchUp();
+            subscriptions.add(chatSync.follow());
+            System.out.println("[v] Chat: " + chat.size() + " messages, synced to block " + head);
+        }
+    }
+
+    /**
+     * Starts serving on port (0 = any free port).
+     * @param webRoot directory of the web UI to serve as static files, or null
+     * @return the bound port
+     */
+    public int start(int port, Path webRoot) throws IOException {
+        this.webRoot = webRoot == null ? null : webRoot.toAbsolutePath().normalize();
+        threads = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(threads);
+        server.createContext("/api/", this::api);
+        server.createContext("/", this::staticFile);
+        server.start();
+        return server.getAddress().getPort();
+    }
+
+    public int clients() {
+        return clients.get();
+    }
+
+    // ------------ API ------------
+
+    private void api(HttpExchange ex) throws IOException {
+        try {
+            cors(ex.getResponseHeaders());
+            if (ex.getRequestMethod().equals("OPTIONS")) {
+                ex.sendResponseHeaders(204, -1);
+                return;
+            }
+            if (!ex.getRequestMethod().equals("GET")) {
+                send(ex, 405, "{\"error\":\"GET only\"}");
+                return;
+            }
+            String[] parts = ex.getRequestURI().getPath().split("/");
+            // "", "api", "games", id, [sub]
+            if (parts.length == 3 && parts[2].equals("counter")) {
+                send(ex, 200, "{\"gameCounter\":" + index.gameCounter() + ",\"syncedBlock\":" + index.syncedBlock()
+                        + "}");
+            } else if (parts.length >= 4 && parts.length <= 5 && parts[2].equals("games")) {
+                long gameId = parseId(parts[3]);
+                String sub = parts.length == 5 ? parts[4] : "";
+                if (gameId < 0) {
+                    send(ex, 400, "{\"error\":\"bad game id\"}");
+                } else if (sub.isEmpty()) {
+                    String snapshot = feed.snapshot(gameId);
+                    send(ex, snapshot == null ? 404 : 200, snapshot == null ? notFound(gameId) : snapshot);
+                } else if (sub.equals("chat")) {
+                    chatPage(ex, gameId);
+                } else if (sub.equals("events")) {
+                    events(ex, gameId);
+                } else {
+                    send(ex, 404, "{\"error\":\"not found\"}");
+                }
+            } else {
+                send(ex, 404, "{\"error\":\"not found\"}");
+            }
+        } finally {
+            ex.close();
+        }
+    }
+
+    private void chatPage(HttpExchange ex, long gameId) throws IOException {
+        if (chat == null) {
+            send(ex, 503, "{\"error\":\"chat history unavailable\"}");
+            return;
+        }
+        Map<String, String> query = query(ex.getRequestURI());
+        int limit = Math.min(parseInt(query.get("limit"), 100), 1000);
+        List<ChatStore.ChatMessage> page = query.containsKey("offset")
+                ? chat.page(gameId, parseInt(query.get("offset"), 0), limit)
+                : chat.latest(gameId, limit);
+        List<Object> messages = new ArrayList<>(page.size());
+        for (ChatStore.ChatMessage m : page) {
+            messages.add(feed.chatNode(m));
+        }
+        send(ex, 200, "{\"total\":" + chat.count(gameId) + ",\"messages\":" + feed.json(messages) + "}");
+    }
+
+    /**
+     * Streams a game's frames until the client disconnects. Runs on the client's own virtual thread.
+     */
+    private void events(HttpExchange ex, long gameId) throws IOException {
+        if (clients.incrementAndGet() > maxClients) {
+            clients.decrementAndGet();
+            send(ex, 503, "{\"error\":\"too many clients\"}");
+            return;
+        }
+        EventStream stream = new EventStream(gameId, queueCapacity);
+        try {
+            String snapshot = feed.subscribe(stream);
+            if (snapshot == null) {
+                send(ex, 404, notFound(gameId));
+                return;
+            }
+            Headers h = ex.getResponseHeaders();
+            h.set("Content-Type", "text/event-stream; charset=utf-8");
+            h.set("Cache-Control", "no-cache");
+            ex.sendResponseHeaders(200, 0);
+            OutputStream out = ex.getResponseBody();
+            write(out, "retry: 3000\n\n" + snapshot);
+            while (!stream.isClosed()) {
+                String frame = stream.take(HEARTBEAT_MS);
+                if (frame == null) {
+                    write(out, ": ping\n\n");
+                } else if (frame == EventStream.RESYNC) {
+                    String fresh = feed.snapshotFrame(gameId);
+                    if (fresh != null) {
+                        write(out, fresh);
+                    }
+                } else {
+                    write(out, frame);
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            // Client went away
+        } finally {
+            feed.unsubscribe(stream);
+            clients.decrementAndGet();
+        }
+    }
+
+    // ------------ Static files ------------
+
+    private void staticFile(HttpExchange ex) throws IOException {
+        try {
+            if (webRoot == null) {
+                send(ex, 404, "{\"error\":\"not found\"}");
+                return;
+            }
+            String path = ex.getRequestURI().getPath();
+            Path file = webRoot.resolve(path.equals("/") ? "index.html" : path.substring(1)).normalize();
+            if (!file.startsWith(webRoot) || !Files.isRegularFile(file)) {
+                send(ex, 404, "{\"error\":\"not found\"}");
+                return;
+            }
+            String name = file.getFileName().toString();
+            String type = CONTENT_TYPES.getOrDefault(name.substring(name.lastIndexOf('.') + 1),
+                    "application/octet-stream");
+            ex.getResponseHeaders().set("Content-Type", type);
+            ex.sendResponseHeaders(200, Files.size(file));
+            try (OutputStream out = ex.getResponseBody()) {
+                Files.copy(file, out);
+            }
+        } finally {
+            ex.close();
+        }
+    }
+
+    // ------------ Helpers ------------
+
+    private static void write(OutputStream out, String frame) throws IOException {
+        out.write(frame.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static void send(HttpExchange ex, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void cors(Headers h) {
+        h.set("Access-Control-Allow-Origin", "*");
+        h.set("Access-Control-Allow-Methods", "GET, OPTIONS");
+    }
+
+    private static String notFound(long gameId) {
+        return "{\"error\":\"game " + gameId + " not found\"}";
+    }
+
+    private static long parseId(String s) {
+        try {
+            return Long.parseLong(s);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int parseInt(String s, int fallback) {
+        try {
+            return s == null ? fallback : Math.max(0, Integer.parseInt(s));
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static Map<String, String> query(URI uri) {
+        Map<String, String> q = new HashMap<>();
+        String raw = uri.getRawQuery();
+        if (raw != null) {
+            for (String kv : raw.split("&")) {
+                int eq = kv.indexOf('=');
+                if (eq > 0) {
+                    q.put(kv.substring(0, eq), kv.substring(eq + 1));
+                }
+            }
+        }
+        return q;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (server != null) {
+            server.stop(0);
+            threads.shutdownNow();
+        }
+        subscriptions.forEach(Disposable::dispose);
+        for (Closeable c : stores) {
+            c.close();
+        }
+        if (chat != null) {
+            chat.close();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = 8090;
+        Path web = null;
+        int maxClients = 10_000;
+        int queue = 256;
+        Path journal = Paths.get(EthBasis.journalPath);
+        Path chatPath = Paths.get(EthBasis.chatPath);
+        int confirmations = EthBasis.confirmations;
+        for (String a : args) {
+            String value = a.substring(a.indexOf('=') + 1);
+            if (a.startsWith("--port=")) {
+                port = Integer.parseInt(value);
+            } else if (a.startsWith("--web=")) {
+                web = Paths.get(value);
+            } else if (a.startsWith("--max-clients=")) {
+                maxClients = Integer.parseInt(value);
+            } else if (a.startsWith("--queue=")) {
+                queue = Integer.parseInt(value);
+            } else if (a.startsWith("--journal=")) {
+                journal = Paths.get(value);
+            } else if (a.startsWith("--chat=")) {
+                chatPath = Paths.get(value);
+            } else if (a.startsWith("--confirmations=")) {
+                confirmations = Integer.parseInt(value);
+            } else {
+                System.err.println("[X] Unrecognised argument: " + a);
+                return;
+            }
+        }
+        System.out.println("\n=== Gomoku Board Gateway ===");
+        System.out.println("Using RPC: " + EthBasis.rpcUrl);
+        System.out.println("Contract: " + EthBasis.gomokuAddress);
+        // Read-only: any key will do, nothing is ever signed
+        Web3j web3j = Web3j.build(Transports.open(EthBasis.rpcUrl));
+        GomokuHandler handler = new GomokuHandler(web3j, Credentials.create(Keys.createEcKeyPair()), null);
+        ChatStore chat = ChatStore.open(chatPath);
+        BoardGateway gateway = new BoardGateway(new GameStateIndex(), chat, maxClients, queue);
+        gateway.setConfirmations(confirmations);
+        gateway.sync(handler, journal);
+        int bound = gateway.start(port, web);
+        System.out.println("[v] Serving on http://localhost:" + bound + (web != null ? " (web UI from " + web + ")" : ""));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                gateway.close();
+            } catch (IOException e) {
+                System.err.println("[X] Gateway shutdown: " + e.getMessage());
+            }
+        }));
+    }
+}
@@ -0,0 +1,94 @@
+package gomokuGateway;
+
+import java.util.ArrayDeque;
+
+/**
+ * Outbound queue of one push client. The feed thread only ever offer()s, which never blocks;
+ * the client's own thread take()s and writes to the socket at whatever speed the client reads.
+ *
+ * Backpressure: the queue is bounded. A client that falls behind by more than capacity frames
+ * has its backlog dropped and gets one RESYNC instead, upon which its writer sends a fresh
+ * snapshot. A slow viewer therefore costs at most capacity frames of memory and never delays
+ * the feed or the other viewers; it just sees fewer intermediate states.
+ */
+final class EventStream {
+    /** Returned by take() when the backlog was dropped and a snapshot must be sent. */
+    static final String RESYNC = "";
+
+    final long gameId;
+    private final ArrayDeque<String> queue;
+    private final int capacity;
+    private boolean resync;
+    private boolean closed;
+    private long dropped;
+
+    EventStream(long gameId, int capacity) {
+        this.gameId = gameId;
+        this.capacity = capacity;
+        this.queue = new ArrayDeque<>(Math.min(capacity, 64));
+    }
+
+    /**
+     * Queues a frame without blocking.
+     * @return false if the stream is closed (the feed can forget it)
+     */
+    synchronized boolean offer(String frame) {
+        if (closed) {
+            return false;
+        }
+        if (resync) {
+            // The snapshot sent on resync will include this frame's change
+            dropped++;
+            return true;
+        }
+        if (queue.size() >= capacity) {
+            dropped += queue.size() + 1;
+            queue.clear();
+            resync = true;
+        } else {
+            queue.add(frame);
+        }
+        notifyAll();
+        return true;
+    }
+
+    /**
+     * Next frame, RESYNC, or null if nothing arrived within timeoutMs (time for a heartbeat)
+     * or the stream was closed.
+     */
+    synchronized String take(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (!closed && !resync && queue.isEmpty()) {
+            long wait = deadline - System.currentTimeMillis();
+            if (wait <= 0) {
+                return null;
+            }
+            wait(wait);
+        }
+        if (closed) {
+            return null;
+        }
+        if (resync) {
+            resync = false;
+            return RESYNC;
+        }
+        return queue.poll();
+    }
+
+    synchronized void close() {
+        closed = true;
+        queue.clear();
+        notifyAll();
+    }
+
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Frames skipped because the client was too slow.
+     */
+    synchronized long dropped() {
+        return dropped;
+    }
+}
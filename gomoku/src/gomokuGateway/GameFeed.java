@@ -0,0 +1,224 @@
+package gomokuGateway;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import gomokuState.ChatStore;
+import gomokuState.GameEventListener;
+import gomokuState.GameStateIndex;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Turns the single followed event stream into per-game push frames. Registered after the
+ * GameStateIndex in the same fan-out, so the index already reflects an event when its frame is
+ * built. Each frame is serialised once and queued on every viewer of the game; nothing here
+ * touches the node.
+ *
+ * Frames (Server-Sent Events, data is JSON):
+ *   snapshot  game info + board (board[x][y], contract coordinates) + recent chat
+ *   joined    {gameId, player}
+ *   move      {gameId, x, y, piece, player, moveCount}
+ *   timeout   {gameId, winner}
+ *   ended     {gameId, state, winner}
+ *   chat      {gameId, sender, message, moveNumber, block, logIndex}
+ * A client can drop a move whose moveCount it already has, and should reload the snapshot on a
+ * gap; a snapshot can race ahead of the deltas queued before it.
+ */
+public class GameFeed implements GameEventListener {
+    static final int SNAPSHOT_CHAT = 50;
+    private static final String ZERO_ADDRESS = "0x0000000000000000000000000000000000000000";
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final GameStateIndex index;
+    private final ChatStore chat;
+    private final Map<Long, List<EventStream>> viewers = new ConcurrentHashMap<>();
+
+    /**
+     * @param chat chat history for snapshots, or null
+     */
+    public GameFeed(GameStateIndex index, ChatStore chat) {
+        this.index = index;
+        this.chat = chat;
+    }
+
+    // ------------ Viewers ------------
+
+    /**
+     * Adds a viewer and returns the snapshot it starts from (null if the game is not indexed,
+     * then nothing is registered). Atomic with respect to publishing, so no delta is lost
+     * between the snapshot and the first queued frame.
+     */
+    synchronized String subscribe(EventStream stream) {
+        String snapshot = snapshotFrame(stream.gameId);
+        if (snapshot != null) {
+            viewers.computeIfAbsent(stream.gameId, k -> new CopyOnWriteArrayList<>()).add(stream);
+        }
+        return snapshot;
+    }
+
+    synchronized void unsubscribe(EventStream stream) {
+        stream.close();
+        List<EventStream> list = viewers.get(stream.gameId);
+        if (list != null) {
+            list.remove(stream);
+            if (list.isEmpty()) {
+                viewers.remove(stream.gameId);
+            }
+        }
+    }
+
+    public int viewers(long gameId) {
+        List<EventStream> list = viewers.get(gameId);
+        return list == null ? 0 : list.size();
+    }
+
+    public int viewers() {
+        int n = 0;
+        for (List<EventStream> list : viewers.values()) {
+            n += list.size();
+        }
+        return n;
+    }
+
+    private void publish(long gameId, String event, ObjectNode data) {
+        List<EventStream> list = viewers.get(gameId);
+        if (list == null) {
+            return;
+        }
+        String frame = frame(event, data);
+        for (EventStream s : list) {
+            if (!s.offer(frame)) {
+                list.remove(s);
+            }
+        }
+    }
+
+    private boolean watched(BigInteger gameId) {
+        return viewers.containsKey(gameId.longValue());
+    }
+
+    // ------------ Events ------------
+
+    @Override
+    public void gameCreated(long block, int logIndex, BigInteger gameId, String creator, BigInteger betAmountWei) {
+        // Nobody can be watching a game before it exists
+    }
+
+    @Override
+    public synchronized void playerJoined(long block, int logIndex, BigInteger gameId, String player) {
+        if (watched(gameId)) {
+            publish(gameId.longValue(), "joined", node(gameId).put("player", player));
+        }
+    }
+
+    @Override
+    public synchronized void moveMade(long block, int logIndex, BigInteger gameId, String player, int x, int y,
+            int piece) {
+        if (!watched(gameId)) {
+            return;
+        }
+        GameStateIndex.Game g = index.getGame(gameId);
+        publish(gameId.longValue(), "move", node(gameId).put("x", x).put("y", y).put("piece", piece)
+                .put("player", player).put("moveCount", g == null ? 0 : g.moveCount));
+    }
+
+    @Override
+    public synchronized void gameTimeout(long block, int logIndex, BigInteger gameId, String winner) {
+        if (watched(gameId)) {
+            publish(gameId.longValue(), "timeout", node(gameId).put("winner", winner));
+        }
+    }
+
+    @Override
+    public synchronized void gameEnded(long block, int logIndex, BigInteger gameId, int state, String winner) {
+        if (watched(gameId)) {
+            publish(gameId.longValue(), "ended", node(gameId).put("state", state).put("winner", winner));
+        }
+    }
+
+    /**
+     * New ChatSent message (hook for ChatSync).
+     */
+    public synchronized void chatSent(ChatStore.ChatMessage m) {
+        if (viewers.containsKey(m.gameId)) {
+            publish(m.gameId, "chat", chatNode(m));
+        }
+    }
+
+    // ------------ JSON ------------
+
+    /**
+     * Snapshot of a game as JSON, or null if the game is not indexed.
+     */
+    public synchronized String snapshot(long gameId) {
+        ObjectNode s = snapshotNode(gameId);
+        return s == null ? null : s.toString();
+    }
+
+    String snapshotFrame(long gameId) {
+        ObjectNode s = snapshotNode(gameId);
+        return s == null ? null : frame("snapshot", s);
+    }
+
+    private ObjectNode snapshotNode(long gameId) {
+        BigInteger id = BigInteger.valueOf(gameId);
+        ObjectNode s = json.createObjectNode();
+        byte[] board;
+        synchronized (index) {
+            GameStateIndex.Game g = index.getGame(id);
+            if (g == null) {
+                return null;
+            }
+            board = index.getBoard(id);
+            s.put("gameId", gameId)
+                    .put("blackPlayer", g.blackPlayer)
+                    .put("whitePlayer", g.whitePlayer == null ? ZERO_ADDRESS : g.whitePlayer)
+                    .put("currentPlayer", g.currentPlayer)
+                    .put("state", g.state)
+                    .put("betAmount", g.betAmountWei.toString())
+                    .put("moveCount", g.moveCount)
+                    .put("winner", g.winner == null ? ZERO_ADDRESS : g.winner);
+        }
+        s.put("syncedBlock", index.syncedBlock());
+        ArrayNode rows = s.putArray("board");
+        for (int x = 0; x < 15; x++) {
+            ArrayNode row = rows.addArray();
+            for (int y = 0; y < 15; y++) {
+                row.add(board[x * 15 + y]);
+            }
+        }
+        ArrayNode messages = s.putArray("chat");
+        if (chat != null) {
+            for (ChatStore.ChatMessage m : chat.latest(gameId, SNAPSHOT_CHAT)) {
+                messages.add(chatNode(m));
+            }
+        }
+        return s;
+    }
+
+    ObjectNode chatNode(ChatStore.ChatMessage m) {
+        return json.createObjectNode().put("gameId", m.gameId).put("sender", m.sender).put("message", m.message)
+                .put("moveNumber", m.moveNumber).put("block", m.block).put("logIndex", m.logIndex);
+    }
+
+    String json(Object value) {
+        try {
+            return json.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ObjectNode node(BigInteger gameId) {
+        return json.createObjectNode().put("gameId", gameId.longValue());
+    }
+
+    private static String frame(String event, ObjectNode data) {
+        // ObjectNode.toString() is single-line JSON, so one data: line per frame
+        return "event: " + event + "\ndata: " + data + "\n\n";
+    }
+}
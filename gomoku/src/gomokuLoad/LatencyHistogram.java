@@ -0,0 +1,106 @@
+package gomokuLoad;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear latency histogram in the HdrHistogram layout: values (microseconds) below
+ * 128 get exact buckets, above that every power of two is split into 64 buckets, so any
+ * recorded value is reported within 1.6% (two significant digits). Covers 1 µs to ~9 days.
+ * record() is wait-free and safe from any number of threads; reads are approximate while
+ * recording continues.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKETS = 64;
+    private static final int MAX_SHIFT = 40;
+
+    private final AtomicLongArray counts = new AtomicLongArray(SUB_BUCKETS * (MAX_SHIFT + 2));
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        record(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    public void record(long micros) {
+        long v = Math.max(0, micros);
+        counts.incrementAndGet(index(v));
+        total.incrementAndGet();
+        sum.addAndGet(v);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    private static int index(long v) {
+        int shift = Math.max(0, 57 - Long.numberOfLeadingZeros(v)); // bits above the top 7
+        if (shift > MAX_SHIFT) {
+            shift = MAX_SHIFT;
+            v = (2L * SUB_BUCKETS << shift) - 1;
+        }
+        return (int) (SUB_BUCKETS * shift + (v >>> shift));
+    }
+
+    /**
+     * 桶的上界 (同一桶內的最大值)
+     */
+    private static long highestEquivalent(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long mantissa = index - (long) SUB_BUCKETS * shift;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    public long count() {
+        return total.get();
+    }
+
+    public long maxMicros() {
+        return max.get();
+    }
+
+    public double meanMicros() {
+        long n = total.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * @param percentile 0..100
+     * @return smallest bucket bound with at least percentile % of the values at or below it
+     */
+    public long percentileMicros(double percentile) {
+        long n = total.get();
+        if (n == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestEquivalent(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        total.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    /**
+     * One line: count, mean and p50 / p90 / p99 / p99.9 / max in milliseconds.
+     */
+    public String summary() {
+        return String.format("n=%d mean=%.2f p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f (ms)",
+                count(), meanMicros() / 1000.0, percentileMicros(50) / 1000.0, percentileMicros(90) / 1000.0,
+                percentileMicros(99) / 1000.0, percentileMicros(99.9) / 1000.0, maxMicros() / 1000.0);
+    }
+}
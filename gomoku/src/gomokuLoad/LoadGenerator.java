@@ -0,0 +1,354 @@
+package gomokuLoad;
+
+import ethInfo.EthBasis;
+import ethSC.Gomoku;
+import ethSC.GomokuHandler;
+import ethSC.ReceiptTracker;
+import ethSC.Transports;
+import ethSim.SimulatedNode;
+import gomokuEngine.Board;
+import io.reactivex.disposables.Disposable;
+import java.io.File;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.Keys;
+import org.web3j.crypto.WalletUtils;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.utils.Async;
+import org.web3j.utils.Convert;
+
+/**
+ * Load-test driver: N player pairs, each on its own virtual thread, create, join and play full
+ * games through GomokuHandler (plus chat traffic), against a real node or the in-process
+ * SimulatedNode. Reports moves/s, games/s and latency percentiles for
+ * submit -> receipt and submit -> event observed (MoveMade / ChatSent on the live log feed).
+ *
+ * Usage: LoadGenerator [--pairs=8] [--games=2] [--strategy=greedy|adjacent|random|engine] [--think-ms=0]
+ *        [--chat-every=5] [--max-moves=225] [--bet-wei=0] [--poll-ms=250]
+ *        [--rpc=URL --keystores=DIR --password=PW]   (default: simulated node)
+ *        [--block-ms=0]                               (simulated only; 0 = mine every transaction)
+ */
+public class LoadGenerator {
+
+    /**
+     * 壓測參數
+     */
+    public static class Config {
+        public int pairs = 8;
+        public int gamesPerPair = 2;
+        public MoveStrategy strategy = MoveStrategy.GREEDY;
+        public long thinkMs = 0;
+        public int chatEvery = 5;       // one chat message every n moves, 0 = none
+        public int maxMoves = Board.CELLS; // unfinished games are surrendered at this point
+        public BigInteger betWei = BigInteger.ZERO;
+        public long seed = 1;
+    }
+
+    /**
+     * Results of one run.
+     */
+    public static class Report {
+        public final LatencyHistogram receiptLatency = new LatencyHistogram();
+        public final LatencyHistogram eventLatency = new LatencyHistogram();
+        public final AtomicLong moves = new AtomicLong();
+        public final AtomicLong chats = new AtomicLong();
+        public final AtomicLong lateChats = new AtomicLong();
+        public final AtomicLong games = new AtomicLong();
+        public final AtomicLong failures = new AtomicLong();
+        public long elapsedNanos;
+
+        public double movesPerSecond() {
+            return moves.get() * 1e9 / Math.max(1, elapsedNanos);
+        }
+
+        public double gamesPerSecond() {
+            return games.get() * 1e9 / Math.max(1, elapsedNanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("elapsed %.1fs  games %d (%.2f/s)  moves %d (%.1f/s)  chats %d (+%d late)  failures %d%n"
+                    + "  submit->receipt  %s%n  submit->event    %s",
+                    elapsedNanos / 1e9, games.get(), gamesPerSecond(), moves.get(), movesPerSecond(),
+                    chats.get(), lateChats.get(), failures.get(), receiptLatency.summary(), eventLatency.summary());
+        }
+    }
+
+    private final Config config;
+    private final Report report = new Report();
+    // Event key (see moveKey / chatKey) -> submit time, removed when the event is seen
+    private final Map<String, Long> awaitingEvent = new ConcurrentHashMap<>();
+
+    public LoadGenerator(Config config) {
+        this.config = config;
+    }
+
+    /**
+     * Plays config.gamesPerPair games on every pair and blocks until all are done.
+     * @param players 2 * config.pairs handlers; pair i is (players[2i] black, players[2i+1] white)
+     */
+    public Report run(List<GomokuHandler> players) throws Exception {
+        if (players.size() < 2 * config.pairs) {
+            throw new IllegalArgumentException("Need " + 2 * config.pairs + " accounts, have " + players.size());
+        }
+        Disposable feed = players.get(0).liveLogs(Gomoku.MOVEMADE_EVENT, Gomoku.CHATSENT_EVENT)
+                .subscribe(this::onLog, err -> System.err.println("[X] Event feed: " + err.getMessage()));
+        long start = System.nanoTime();
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> pairs = new ArrayList<>();
+            for (int i = 0; i < config.pairs; i++) {
+                GomokuHandler black = players.get(2 * i);
+                GomokuHandler white = players.get(2 * i + 1);
+                Random rnd = new Random(config.seed + i);
+                pairs.add(threads.submit(() -> playPair(black, white, rnd)));
+            }
+            for (Future<?> f : pairs) {
+                f.get();
+            }
+        }
+        report.elapsedNanos = System.nanoTime() - start;
+        // Give the feed one more poll for the last events
+        Thread.sleep(2_000);
+        feed.dispose();
+        return report;
+    }
+
+    private Void playPair(GomokuHandler black, GomokuHandler white, Random rnd) {
+        for (int g = 0; g < config.gamesPerPair; g++) {
+            try {
+                playGame(black, white, rnd);
+                report.games.incrementAndGet();
+            } catch (Exception e) {
+                report.failures.incrementAndGet();
+                System.err.println("[X] Game failed (" + black.getAddress() + "): " + rootMessage(e));
+            }
+        }
+        return null;
+    }
+
+    private void playGame(GomokuHandler black, GomokuHandler white, Random rnd) throws Exception {
+        TransactionReceipt created = timed(black.createGameAsync(config.betWei), null);
+        BigInteger gameId = createdGameId(created);
+        timed(white.joinGameAsync(gameId, config.betWei), null);
+
+        Board board = new Board();
+        List<CompletableFuture<?>> chats = new ArrayList<>();
+        GomokuHandler mover = black;
+        try {
+            while (board.state() == Board.PLAYING && board.moveCount() < config.maxMoves) {
+                mover = board.currentPlayer() == Board.BLACK ? black : white;
+                int cell = config.strategy.next(board, rnd);
+                int x = cell / Board.SIZE;
+                int y = cell % Board.SIZE;
+                if (config.thinkMs > 0) {
+                    Thread.sleep(config.thinkMs);
+                }
+                timed(mover.makeMoveAsync(gameId, x, y), moveKey(gameId, x, y));
+                board.place(x, y);
+                report.moves.incrementAndGet();
+                if (config.chatEvery > 0 && board.moveCount() % config.chatEvery == 0 && board.state() == Board.PLAYING) {
+                    String message = "gl hf #" + board.moveCount();
+                    chats.add(chat(mover, gameId, message));
+                }
+            }
+            if (board.state() == Board.PLAYING) {
+                // Move cap: free both accounts for the next game
+                timed(mover.surrenderAsync(gameId), null);
+            }
+        } finally {
+            CompletableFuture.allOf(chats.toArray(new CompletableFuture<?>[0])).exceptionally(e -> null).join();
+            for (CompletableFuture<?> c : chats) {
+                if (!c.isCompletedExceptionally()) {
+                    continue;
+                }
+                if (board.state() != Board.PLAYING) {
+                    // Mined after the opponent's winning move: the contract rejects it, as it should
+                    report.lateChats.incrementAndGet();
+                } else {
+                    report.failures.incrementAndGet();
+                    System.err.println("[X] Chat failed: " + rootMessage(c.handle((r, e) -> e).join()));
+                }
+            }
+        }
+    }
+
+    private CompletableFuture<?> chat(GomokuHandler sender, BigInteger gameId, String message) {
+        String key = chatKey(gameId, message);
+        long start = System.nanoTime();
+        awaitingEvent.put(key, start);
+        return sender.sendChatAsync(gameId, message).whenComplete((r, e) -> {
+            if (e == null) {
+                report.receiptLatency.recordNanos(System.nanoTime() - start);
+                report.chats.incrementAndGet();
+            } else {
+                awaitingEvent.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Waits for the receipt and records submit -> receipt; eventKey (may be null) is
+     * registered first so the event can never be seen before its start time.
+     */
+    private TransactionReceipt timed(CompletableFuture<TransactionReceipt> submit, String eventKey) throws Exception {
+        long start = System.nanoTime();
+        if (eventKey != null) {
+            awaitingEvent.put(eventKey, start);
+        }
+        try {
+            TransactionReceipt receipt = submit.get();
+            report.receiptLatency.recordNanos(System.nanoTime() - start);
+            return receipt;
+        } catch (ExecutionException e) {
+            if (eventKey != null) {
+                awaitingEvent.remove(eventKey);
+            }
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    private void onLog(Log log) {
+        long now = System.nanoTime();
+        String key;
+        if (Gomoku.MOVEMADE_TOPIC.equals(log.getTopics().get(0))) {
+            Gomoku.MoveMadeEventResponse e = Gomoku.toMoveMade(log);
+            key = moveKey(e.gameId, e.x, e.y);
+        } else {
+            Gomoku.ChatSentEventResponse e = Gomoku.toChatSent(log);
+            key = chatKey(e.gameId, e.message);
+        }
+        Long start = awaitingEvent.remove(key);
+        if (start != null) {
+            report.eventLatency.recordNanos(now - start);
+        }
+    }
+
+    // The contract allows each cell once per game, so (game, cell) identifies a move
+    private static String moveKey(BigInteger gameId, int x, int y) {
+        return gameId + ":" + x + ":" + y;
+    }
+
+    private static String chatKey(BigInteger gameId, String message) {
+        return gameId + ":chat:" + message;
+    }
+
+    private static BigInteger createdGameId(TransactionReceipt receipt) {
+        for (Log log : receipt.getLogs()) {
+            if (Gomoku.GAMECREATED_TOPIC.equals(log.getTopics().get(0))) {
+                return Gomoku.toGameCreated(log).gameId;
+            }
+        }
+        throw new IllegalStateException("No GameCreated event in " + receipt.getTransactionHash());
+    }
+
+    private static String rootMessage(Throwable e) {
+        while (e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e.getMessage();
+    }
+
+    // ------------ Command line ------------
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (!a.startsWith("--") || eq < 0) {
+                System.err.println("[X] Unrecognised argument: " + a);
+                return;
+            }
+            opts.put(a.substring(2, eq), a.substring(eq + 1));
+        }
+        Config config = new Config();
+        config.pairs = Integer.parseInt(opts.getOrDefault("pairs", "8"));
+        config.gamesPerPair = Integer.parseInt(opts.getOrDefault("games", "2"));
+        config.strategy = MoveStrategy.parse(opts.getOrDefault("strategy", "greedy"));
+        config.thinkMs = Long.parseLong(opts.getOrDefault("think-ms", "0"));
+        config.chatEvery = Integer.parseInt(opts.getOrDefault("chat-every", "5"));
+        config.maxMoves = Integer.parseInt(opts.getOrDefault("max-moves", String.valueOf(Board.CELLS)));
+        config.betWei = new BigInteger(opts.getOrDefault("bet-wei", "0"));
+        long pollMs = Long.parseLong(opts.getOrDefault("poll-ms", "250"));
+        int accounts = 2 * config.pairs;
+
+        Web3jService service;
+        List<Credentials> credentials;
+        SimulatedNode node = null;
+        if (opts.containsKey("rpc")) {
+            service = Transports.openPooled(opts.get("rpc"), accounts + 8);
+            credentials = loadKeystores(opts.get("keystores"), opts.get("password"), accounts);
+        } else {
+            long blockMs = Long.parseLong(opts.getOrDefault("block-ms", "0"));
+            node = blockMs > 0
+                    ? SimulatedNode.withBlockTime(EthBasis.chainID, EthBasis.gomokuAddress, blockMs)
+                    : SimulatedNode.instantMine(EthBasis.chainID, EthBasis.gomokuAddress);
+            service = node;
+            credentials = new ArrayList<>();
+            for (int i = 0; i < accounts; i++) {
+                Credentials c = Credentials.create(Keys.createEcKeyPair());
+                node.fund(c.getAddress(), Convert.toWei("1000", Convert.Unit.ETHER).toBigInteger());
+                credentials.add(c);
+            }
+        }
+
+        Web3j web3j = Web3j.build(service, pollMs, Async.defaultExecutorService());
+        ReceiptTracker receipts = new ReceiptTracker(web3j, 1, pollMs, 600_000);
+        List<GomokuHandler> players = new ArrayList<>();
+        for (Credentials c : credentials) {
+            players.add(new GomokuHandler(web3j, c, receipts));
+        }
+        System.out.println("\n[v] " + config.pairs + " pairs x " + config.gamesPerPair + " games, strategy "
+                + config.strategy + (node != null ? ", simulated node" : ", " + opts.get("rpc")));
+        try {
+            Report report = new LoadGenerator(config).run(players);
+            System.out.println("[v] " + report);
+        } finally {
+            receipts.close();
+            web3j.shutdown();
+            System.exit(0);
+        }
+    }
+
+    /**
+     * Decrypts the first n keystore files of dir (all with the same password) in parallel.
+     */
+    private static List<Credentials> loadKeystores(String dir, String password, int n) throws Exception {
+        File[] files = dir == null ? null : new File(dir).listFiles(File::isFile);
+        if (files == null || files.length < n) {
+            throw new IllegalArgumentException("--keystores must name a directory with at least " + n + " keystores");
+        }
+        Arrays.sort(files);
+        // scrypt needs ~256 MB per decryption, so not one thread per file
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        try {
+            List<Future<Credentials>> loading = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                File f = files[i];
+                loading.add(pool.submit(() -> WalletUtils.loadCredentials(password, f)));
+            }
+            List<Credentials> out = new ArrayList<>();
+            for (Future<Credentials> f : loading) {
+                out.add(f.get());
+            }
+            return out;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
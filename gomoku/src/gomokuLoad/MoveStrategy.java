@@ -0,0 +1,155 @@
+package gomokuLoad;
+
+import gomokuEngine.Board;
+import gomokuEngine.Engine;
+import java.util.Random;
+
+/**
+ * Move pickers for bot games. They only need to be cheap and legal, not strong:
+ * the point is realistic game lengths and board shapes.
+ */
+public enum MoveStrategy {
+    /**
+     * Any empty cell. Games run long and mostly end in surrender at the move cap.
+     */
+    RANDOM {
+        @Override
+        int next(Board board, Random rnd) {
+            return randomEmpty(board, rnd);
+        }
+    },
+    /**
+     * An empty cell next to an existing piece (center on the first move).
+     */
+    ADJACENT {
+        @Override
+        int next(Board board, Random rnd) {
+            return adjacent(board, rnd);
+        }
+    },
+    /**
+     * Extends the mover's longest line through the cell, else blocks the opponent's,
+     * else plays adjacent. Games end in a win after a few dozen moves.
+     */
+    GREEDY {
+        @Override
+        int next(Board board, Random rnd) {
+            int me = board.currentPlayer();
+            int other = me == Board.BLACK ? Board.WHITE : Board.BLACK;
+            int best = -1;
+            int bestScore = 0;
+            for (int cell = 0; cell < Board.CELLS; cell++) {
+                int x = cell / Board.SIZE;
+                int y = cell % Board.SIZE;
+                if (!board.isEmpty(x, y)) {
+                    continue;
+                }
+                // Own lines count a little more so a four is finished rather than blocked
+                int own = run(board, x, y, me) - 1;
+                int theirs = run(board, x, y, other) - 1;
+                int score = Math.max(own > 0 ? 2 * own + 1 : 0, 2 * theirs);
+                if (score > bestScore || (score == bestScore && rnd.nextInt(4) == 0)) {
+                    best = cell;
+                    bestScore = score;
+                }
+            }
+            return bestScore > 0 ? best : adjacent(board, rnd);
+        }
+    },
+    /**
+     * The built-in engine with a short budget, after two random adjacent openings so games
+     * differ. Real game shapes and lengths; costs CPU on the load generator box.
+     */
+    ENGINE {
+        @Override
+        int next(Board board, Random rnd) {
+            if (board.moveCount() < 2) {
+                return adjacent(board, rnd);
+            }
+            Engine.Result r = SharedEngine.ENGINE.search(board, ENGINE_BUDGET_MS);
+            return r.x * Board.SIZE + r.y;
+        }
+    };
+
+    private static final long ENGINE_BUDGET_MS = 200;
+
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    /**
+     * One engine (worker pool and transposition table) for all bots, created on first use.
+     */
+    private static final class SharedEngine {
+        static final Engine ENGINE = new Engine();
+    }
+
+    /**
+     * @return the cell index (x * 15 + y) to play; the board must still be PLAYING
+     */
+    abstract int next(Board board, Random rnd);
+
+    public static MoveStrategy parse(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+
+    private static int randomEmpty(Board board, Random rnd) {
+        int start = rnd.nextInt(Board.CELLS);
+        for (int i = 0; i < Board.CELLS; i++) {
+            int cell = (start + i) % Board.CELLS;
+            if (board.isEmpty(cell / Board.SIZE, cell % Board.SIZE)) {
+                return cell;
+            }
+        }
+        throw new IllegalStateException("Board is full");
+    }
+
+    private static int adjacent(Board board, Random rnd) {
+        if (board.moveCount() == 0) {
+            return (Board.SIZE / 2) * Board.SIZE + Board.SIZE / 2;
+        }
+        int start = rnd.nextInt(Board.CELLS);
+        for (int i = 0; i < Board.CELLS; i++) {
+            int cell = (start + i) % Board.CELLS;
+            int x = cell / Board.SIZE;
+            int y = cell % Board.SIZE;
+            if (board.isEmpty(x, y) && hasNeighbour(board, x, y)) {
+                return cell;
+            }
+        }
+        return randomEmpty(board, rnd);
+    }
+
+    private static boolean hasNeighbour(Board board, int x, int y) {
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                int nx = x + dx;
+                int ny = y + dy;
+                if ((dx != 0 || dy != 0) && inside(nx, ny) && !board.isEmpty(nx, ny)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Longest line of piece that a stone at (x, y) would complete.
+     */
+    private static int run(Board board, int x, int y, int piece) {
+        int best = 0;
+        for (int[] d : DIRECTIONS) {
+            int n = 1;
+            for (int s = 1; inside(x + d[0] * s, y + d[1] * s) && board.get(x + d[0] * s, y + d[1] * s) == piece; s++) {
+                n++;
+            }
+            for (int s = 1; inside(x - d[0] * s, y - d[1] * s) && board.get(x - d[0] * s, y - d[1] * s) == piece; s++) {
+                n++;
+            }
+            best = Math.max(best, n);
+        }
+        return best;
+    }
+
+    private static boolean inside(int x, int y) {
+        return x >= 0 && x < Board.SIZE && y >= 0 && y < Board.SIZE;
+    }
+}
@@ -0,0 +1,363 @@
+package gomokuState;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.web3j.utils.Numeric;
+
+/**
+ * Local chat history per game. sendChat stores nothing on chain, ChatSent events are all
+ * there is, so this store is what makes a game's conversation one lookup instead of a log scan.
+ *
+ * In memory: per game, messages in chain order (block, logIndex), which is also moveNumber
+ * order (moveNumber is the game's moveCount when the message was sent). Page and since-move
+ * queries are a hash lookup plus a binary search / slice.
+ *
+ * On disk: append-only file, 32-byte header (magic, version, committed length, checkpoint
+ * block), then variable-length records:
+ *   gameId | block delta | logIndex | moveNumber | message length  (unsigned varints)
+ *   sender (20 bytes) | message (UTF-8)
+ * A typical record is message + 25 bytes. Records past the committed length (a crash
+ * mid-append) are dropped on open and the checkpoint moved back so ChatSync fetches them again.
+ */
+public class ChatStore implements Closeable {
+    private static final int MAGIC = 0x474d4b43; // "GMKC"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int OFF_COMMITTED = 8;
+    private static final int OFF_CHECKPOINT = 16;
+
+    /**
+     * One ChatSent event.
+     */
+    public static class ChatMessage {
+        public final long gameId;
+        public final String sender;
+        public final String message;
+        public final long moveNumber;  // game.moveCount when sent
+        public final long block;
+        public final int logIndex;
+
+        ChatMessage(long gameId, String sender, String message, long moveNumber, long block, int logIndex) {
+            this.gameId = gameId;
+            this.sender = sender;
+            this.message = message;
+            this.moveNumber = moveNumber;
+            this.block = block;
+            this.logIndex = logIndex;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final FileChannel channel;
+    private final Map<Long, List<ChatMessage>> games = new HashMap<>();
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    private ByteBuffer record = ByteBuffer.allocate(256);
+    private long end = HEADER_SIZE;   // committed + appended since the last checkpoint
+    private long checkpoint = -1;
+    private long count;
+    private long lastBlock = -1;
+    private int lastLogIndex = -1;
+
+    private ChatStore(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * 開啟或建立聊天紀錄檔
+     */
+    public static ChatStore open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        ChatStore store = new ChatStore(channel);
+        try {
+            if (channel.size() < HEADER_SIZE) {
+                store.writeHeader();
+            } else {
+                store.load(path);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return store;
+    }
+
+    private void load(Path path) throws IOException {
+        ByteBuffer h = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(h, 0);
+        if (h.getInt(0) != MAGIC || h.getInt(4) != VERSION) {
+            throw new IOException("Not a Gomoku chat store: " + path);
+        }
+        long committed = h.getLong(OFF_COMMITTED);
+        checkpoint = h.getLong(OFF_CHECKPOINT);
+        long limit = Math.min(committed, channel.size());
+        InputStream in = new BufferedInputStream(Channels.newInputStream(channel.position(HEADER_SIZE)), 1 << 16);
+        DataInputStream data = new DataInputStream(in);
+        long pos = HEADER_SIZE;
+        long block = 0;
+        byte[] sender = new byte[20];
+        while (pos < limit) {
+            long start = pos;
+            try {
+                long gameId = readVarint(data);
+                long delta = readVarint(data);
+                int logIndex = (int) readVarint(data);
+                long moveNumber = readVarint(data);
+                int length = (int) readVarint(data);
+                data.readFully(sender);
+                byte[] text = new byte[length];
+                data.readFully(text);
+                pos += varintSize(gameId) + varintSize(delta) + varintSize(logIndex) + varintSize(moveNumber)
+                        + varintSize(length) + 20 + length;
+                if (pos > limit) {
+                    pos = start;
+                    break;
+                }
+                block += delta;
+                add(new ChatMessage(gameId, Numeric.toHexString(sender), new String(text, StandardCharsets.UTF_8),
+                        moveNumber, block, logIndex));
+            } catch (EOFException e) {
+                pos = start;
+                break;
+            }
+        }
+        end = pos;
+        if (pos < committed) {
+            // Torn tail: fetch the last block again, duplicates of what survived are skipped
+            checkpoint = Math.max(-1, Math.min(checkpoint, lastBlock - 1));
+            System.err.println("[X] Chat store " + path + " was cut short, resyncing from block " + (checkpoint + 1));
+        }
+        channel.truncate(end);
+        writeHeader();
+    }
+
+    private long lastBlockOr0() {
+        return lastBlock < 0 ? 0 : lastBlock;
+    }
+
+    // ------------ Append ------------
+
+    /**
+     * Adds a ChatSent event; events older than or equal to the last one added are ignored.
+     * @return whether it was added
+     */
+    public boolean append(long block, int logIndex, BigInteger gameId, String sender, String message,
+            long moveNumber) throws IOException {
+        if (gameId.bitLength() > 63) {
+            throw new IllegalArgumentException("gameId does not fit the chat store: " + gameId);
+        }
+        lock.writeLock().lock();
+        try {
+            if (block < lastBlock || (block == lastBlock && logIndex <= lastLogIndex)) {
+                return false;
+            }
+            byte[] text = message.getBytes(StandardCharsets.UTF_8);
+            byte[] address = Numeric.hexStringToByteArray(sender);
+            ByteBuffer r = recordBuffer(5 * 10 + 20 + text.length);
+            putVarint(r, gameId.longValue());
+            putVarint(r, block - lastBlockOr0());
+            putVarint(r, logIndex);
+            putVarint(r, moveNumber);
+            putVarint(r, text.length);
+            r.put(address.length == 20 ? address : new byte[20]);
+            r.put(text);
+            r.flip();
+            long pos = end;
+            while (r.hasRemaining()) {
+                pos += channel.write(r, pos);
+            }
+            end = pos;
+            add(new ChatMessage(gameId.longValue(), sender.toLowerCase(), message, moveNumber, block, logIndex));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(ChatMessage m) {
+        games.computeIfAbsent(m.gameId, k -> new ArrayList<>()).add(m);
+        lastBlock = m.block;
+        lastLogIndex = m.logIndex;
+        count++;
+    }
+
+    private ByteBuffer recordBuffer(int size) {
+        if (record.capacity() < size) {
+            record = ByteBuffer.allocate(Integer.highestOneBit(size) << 1);
+        }
+        record.clear();
+        return record;
+    }
+
+    /**
+     * Last block whose ChatSent events are all in the store, or -1.
+     */
+    public long checkpoint() {
+        lock.readLock().lock();
+        try {
+            return checkpoint;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves the checkpoint forward and commits everything appended so far.
+     */
+    public void checkpoint(long block) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (block > checkpoint) {
+                checkpoint = block;
+                writeHeader();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        header.clear();
+        header.putInt(MAGIC).putInt(VERSION).putLong(end).putLong(checkpoint).putLong(0);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    // ------------ Queries ------------
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int count(long gameId) {
+        lock.readLock().lock();
+        try {
+            List<ChatMessage> chat = games.get(gameId);
+            return chat == null ? 0 : chat.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Messages of a game, oldest first.
+     */
+    public List<ChatMessage> page(long gameId, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            List<ChatMessage> chat = games.getOrDefault(gameId, Collections.emptyList());
+            int from = Math.min(Math.max(offset, 0), chat.size());
+            return new ArrayList<>(chat.subList(from, (int) Math.min((long) from + limit, chat.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The last limit messages of a game, oldest first.
+     */
+    public List<ChatMessage> latest(long gameId, int limit) {
+        lock.readLock().lock();
+        try {
+            List<ChatMessage> chat = games.getOrDefault(gameId, Collections.emptyList());
+            return new ArrayList<>(chat.subList(Math.max(0, chat.size() - limit), chat.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Messages sent at or after moveNumber (i.e. once the game had that many moves), oldest first.
+     */
+    public List<ChatMessage> since(long gameId, long moveNumber) {
+        lock.readLock().lock();
+        try {
+            List<ChatMessage> chat = games.getOrDefault(gameId, Collections.emptyList());
+            int lo = 0;
+            int hi = chat.size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (chat.get(mid).moveNumber < moveNumber) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return new ArrayList<>(chat.subList(lo, chat.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void flush() throws IOException {
+        lock.writeLock().lock();
+        try {
+            channel.force(false);
+            writeHeader();
+            channel.force(false);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    // ------------ Varints ------------
+
+    private static void putVarint(ByteBuffer b, long v) {
+        while ((v & ~0x7FL) != 0) {
+            b.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        b.put((byte) v);
+    }
+
+    private static long readVarint(DataInputStream in) throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return v;
+            }
+        }
+        throw new IOException("Malformed varint in chat store");
+    }
+
+    private static int varintSize(long v) {
+        int n = 1;
+        while ((v & ~0x7FL) != 0) {
+            v >>>= 7;
+            n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,127 @@
+package gomokuState;
+
+import io.reactivex.disposables.Disposable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.util.function.Consumer;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.Log;
+
+import ethSC.ConfirmedLogFeed;
+import ethSC.Gomoku;
+import ethSC.LogBackfill;
+
+/**
+ * Keeps a ChatStore in step with the chain's ChatSent events: catch up from the store's
+ * checkpoint, then follow ChatSent logs. Same checkpointing and confirmation handling as JournalSync.
+ */
+public class ChatSync {
+    private static final long HEAD_POLL_MS = 1_000;
+
+    private final Web3j web3j;
+    private final Gomoku contract;
+    private final ChatStore store;
+    private final LogBackfill backfill;
+    private final Consumer<ChatStore.ChatMessage> onMessage;
+    private int confirmations;
+    private long currentBlock = -1;
+
+    public ChatSync(Web3j web3j, Gomoku contract, ChatStore store) {
+        this(web3j, contract, store, null);
+    }
+
+    /**
+     * @param onMessage called with each message newly added to the store (e.g. to push it to viewers), or null
+     */
+    public ChatSync(Web3j web3j, Gomoku contract, ChatStore store, Consumer<ChatStore.ChatMessage> onMessage) {
+        this.web3j = web3j;
+        this.contract = contract;
+        this.store = store;
+        this.backfill = new LogBackfill(contract);
+        this.onMessage = onMessage;
+    }
+
+    /**
+     * Only stores messages once their block is confirmations deep (the store is append-only,
+     * so a reorged message could not be taken back). Call before catchUp().
+     */
+    public void requireConfirmations(int confirmations) {
+        this.confirmations = confirmations;
+    }
+
+    /**
+     * Fetches ChatSent logs after the checkpoint up to the current head, less the confirmation
+     * depth (chunked, in parallel).
+     * @return the head block now covered by the checkpoint
+     */
+    public long catchUp() throws IOException {
+        long head = web3j.ethBlockNumber().send().getBlockNumber().longValue() - confirmations;
+        long from = store.checkpoint() + 1;
+        if (from <= head) {
+            try {
+                backfill.run(from, head, log -> apply(Gomoku.toChatSent(log)), Gomoku.CHATSENT_EVENT);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        store.checkpoint(head);
+        store.flush();
+        return head;
+    }
+
+    /**
+     * Follows new ChatSent events after the checkpoint. A block is checkpointed once an event from
+     * a later block is confirmed or a head poll has covered it.
+     */
+    public Disposable follow() {
+        long from = store.checkpoint() + 1;
+        ConfirmedLogFeed feed = new ConfirmedLogFeed(web3j, contract, confirmations, new ConfirmedLogFeed.Listener() {
+            @Override
+            public void confirmed(Log log) {
+                apply(Gomoku.toChatSent(log));
+            }
+
+            @Override
+            public void synced(long confirmedBlock, long headBlock) {
+                try {
+                    store.checkpoint(confirmedBlock);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }, Gomoku.CHATSENT_EVENT);
+        return feed.follow(contract.logFlowable(block(from), DefaultBlockParameterName.LATEST, Gomoku.CHATSENT_EVENT),
+                from, HEAD_POLL_MS);
+    }
+
+    private synchronized void apply(Gomoku.ChatSentEventResponse e) {
+        Log log = e.log;
+        if (log.isRemoved() || log.getBlockNumber() == null) {
+            return;
+        }
+        long block = log.getBlockNumber().longValue();
+        try {
+            if (block > currentBlock) {
+                if (currentBlock >= 0) {
+                    store.checkpoint(block - 1);
+                }
+                currentBlock = block;
+            }
+            int logIndex = log.getLogIndex().intValue();
+            if (store.append(block, logIndex, e.gameId, e.sender, e.message, e.moveNumber.longValue())
+                    && onMessage != null) {
+                onMessage.accept(new ChatStore.ChatMessage(e.gameId.longValue(), e.sender.toLowerCase(), e.message,
+                        e.moveNumber.longValue(), block, logIndex));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static DefaultBlockParameter block(long number) {
+        return DefaultBlockParameter.valueOf(BigInteger.valueOf(number));
+    }
+}
@@ -0,0 +1,256 @@
+package gomokuState;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.web3j.utils.Numeric;
+
+/**
+ * Append-only, memory-mapped journal of decoded game events with a sync checkpoint.
+ *
+ * Header (64 bytes): magic, version, record count, checkpoint block.
+ * Record (80 bytes):
+ *   0 type | 1 x | 2 y | 3 piece/state | 4 logIndex (int) | 8 block (long) | 16 gameId (long)
+ *   24 address (20 bytes) | 48 betAmount (uint256, big-endian)
+ */
+public class EventJournal implements GameEventListener, Closeable {
+    private static final int MAGIC = 0x474d4b4a; // "GMKJ"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 80;
+    private static final long INITIAL_RECORDS = 64 * 1024;
+
+    private static final int OFF_COUNT = 8;
+    private static final int OFF_CHECKPOINT = 16;
+
+    static final byte TYPE_GAMECREATED = 1;
+    static final byte TYPE_PLAYERJOINED = 2;
+    static final byte TYPE_MOVEMADE = 3;
+    static final byte TYPE_GAMEENDED = 4;
+    static final byte TYPE_GAMETIMEOUT = 5;
+
+    private final FileChannel channel;
+    private MappedByteBuffer map;
+    private long count;
+    private long lastBlock = -1;
+    private int lastLogIndex = -1;
+
+    private EventJournal(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * 開啟或建立 journal 檔案
+     */
+    public static EventJournal open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        EventJournal journal = new EventJournal(channel);
+        boolean fresh = channel.size() < HEADER_SIZE;
+        journal.remap(Math.max(channel.size(), HEADER_SIZE + INITIAL_RECORDS * RECORD_SIZE));
+        if (fresh) {
+            journal.map.putInt(0, MAGIC);
+            journal.map.putInt(4, VERSION);
+            journal.map.putLong(OFF_COUNT, 0);
+            journal.map.putLong(OFF_CHECKPOINT, -1);
+        } else if (journal.map.getInt(0) != MAGIC || journal.map.getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException("Not a Gomoku event journal: " + path);
+        }
+        journal.count = journal.map.getLong(OFF_COUNT);
+        if (journal.count > 0) {
+            int pos = journal.position(journal.count - 1);
+            journal.lastBlock = journal.map.getLong(pos + 8);
+            journal.lastLogIndex = journal.map.getInt(pos + 4);
+        }
+        return journal;
+    }
+
+    private void remap(long size) throws IOException {
+        if (size - HEADER_SIZE > (long) Integer.MAX_VALUE - RECORD_SIZE) {
+            throw new IOException("Event journal is full");
+        }
+        if (map != null) {
+            map.force();
+        }
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private int position(long record) {
+        return (int) (HEADER_SIZE + record * RECORD_SIZE);
+    }
+
+    public synchronized long size() {
+        return count;
+    }
+
+    /**
+     * Last block whose events are all in the journal, or -1.
+     */
+    public synchronized long checkpoint() {
+        return map.getLong(OFF_CHECKPOINT);
+    }
+
+    public synchronized void checkpoint(long block) {
+        if (block > checkpoint()) {
+            map.putLong(OFF_CHECKPOINT, block);
+        }
+    }
+
+    // ------------ Append ------------
+
+    /**
+     * Reserves the next record slot, or returns -1 for an already journaled position.
+     */
+    private int next(long block, int logIndex, byte type, BigInteger gameId) {
+        if (block < lastBlock || (block == lastBlock && logIndex <= lastLogIndex)) {
+            return -1;
+        }
+        if (gameId.bitLength() > 63) {
+            throw new IllegalArgumentException("gameId does not fit the journal: " + gameId);
+        }
+        int pos;
+        try {
+            if (position(count + 1) > map.capacity()) {
+                remap(HEADER_SIZE + count * 2 * RECORD_SIZE);
+            }
+            pos = position(count);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot grow event journal", e);
+        }
+        map.put(pos, type);
+        map.putInt(pos + 4, logIndex);
+        map.putLong(pos + 8, block);
+        map.putLong(pos + 16, gameId.longValue());
+        lastBlock = block;
+        lastLogIndex = logIndex;
+        return pos;
+    }
+
+    private void commit() {
+        map.putLong(OFF_COUNT, ++count);
+    }
+
+    private void putAddress(int pos, String address) {
+        byte[] bytes = Numeric.hexStringToByteArray(address);
+        for (int i = 0; i < 20; i++) {
+            map.put(pos + 24 + i, bytes.length == 20 ? bytes[i] : 0);
+        }
+    }
+
+    @Override
+    public synchronized void gameCreated(long block, int logIndex, BigInteger gameId, String creator,
+            BigInteger betAmountWei) {
+        int pos = next(block, logIndex, TYPE_GAMECREATED, gameId);
+        if (pos < 0) {
+            return;
+        }
+        putAddress(pos, creator);
+        byte[] bet = Numeric.toBytesPadded(betAmountWei, 32);
+        for (int i = 0; i < 32; i++) {
+            map.put(pos + 48 + i, bet[i]);
+        }
+        commit();
+    }
+
+    @Override
+    public synchronized void playerJoined(long block, int logIndex, BigInteger gameId, String player) {
+        int pos = next(block, logIndex, TYPE_PLAYERJOINED, gameId);
+        if (pos < 0) {
+            return;
+        }
+        putAddress(pos, player);
+        commit();
+    }
+
+    @Override
+    public synchronized void moveMade(long block, int logIndex, BigInteger gameId, String player, int x, int y,
+            int piece) {
+        int pos = next(block, logIndex, TYPE_MOVEMADE, gameId);
+        if (pos < 0) {
+            return;
+        }
+        map.put(pos + 1, (byte) x);
+        map.put(pos + 2, (byte) y);
+        map.put(pos + 3, (byte) piece);
+        putAddress(pos, player);
+        commit();
+    }
+
+    @Override
+    public synchronized void gameEnded(long block, int logIndex, BigInteger gameId, int state, String winner) {
+        int pos = next(block, logIndex, TYPE_GAMEENDED, gameId);
+        if (pos < 0) {
+            return;
+        }
+        map.put(pos + 3, (byte) state);
+        putAddress(pos, winner);
+        commit();
+    }
+
+    @Override
+    public synchronized void gameTimeout(long block, int logIndex, BigInteger gameId, String winner) {
+        int pos = next(block, logIndex, TYPE_GAMETIMEOUT, gameId);
+        if (pos < 0) {
+            return;
+        }
+        putAddress(pos, winner);
+        commit();
+    }
+
+    // ------------ Replay ------------
+
+    /**
+     * 依序重播所有紀錄
+     * @return number of records replayed
+     */
+    public synchronized long replay(GameEventListener listener) {
+        byte[] address = new byte[20];
+        byte[] bet = new byte[32];
+        for (long r = 0; r < count; r++) {
+            int pos = position(r);
+            byte type = map.get(pos);
+            int logIndex = map.getInt(pos + 4);
+            long block = map.getLong(pos + 8);
+            BigInteger gameId = BigInteger.valueOf(map.getLong(pos + 16));
+            map.get(pos + 24, address);
+            String addr = Numeric.toHexString(address);
+            switch (type) {
+                case TYPE_GAMECREATED:
+                    map.get(pos + 48, bet);
+                    listener.gameCreated(block, logIndex, gameId, addr, new BigInteger(1, bet));
+                    break;
+                case TYPE_PLAYERJOINED:
+                    listener.playerJoined(block, logIndex, gameId, addr);
+                    break;
+                case TYPE_MOVEMADE:
+                    listener.moveMade(block, logIndex, gameId, addr, map.get(pos + 1), map.get(pos + 2),
+                            map.get(pos + 3));
+                    break;
+                case TYPE_GAMEENDED:
+                    listener.gameEnded(block, logIndex, gameId, map.get(pos + 3), addr);
+                    break;
+                case TYPE_GAMETIMEOUT:
+                    listener.gameTimeout(block, logIndex, gameId, addr);
+                    break;
+                default:
+                    throw new IllegalStateException("Corrupt journal record " + r + " (type " + type + ")");
+            }
+        }
+        return count;
+    }
+
+    public synchronized void flush() {
+        map.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        map.force();
+        channel.close();
+    }
+}
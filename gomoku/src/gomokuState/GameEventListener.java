@@ -0,0 +1,19 @@
+package gomokuState;
+
+import java.math.BigInteger;
+
+/**
+ * Receiver for decoded Gomoku.sol game events (ChatSent excluded).
+ * Calls arrive in (block, logIndex) order.
+ */
+public interface GameEventListener {
+    void gameCreated(long block, int logIndex, BigInteger gameId, String creator, BigInteger betAmountWei);
+
+    void playerJoined(long block, int logIndex, BigInteger gameId, String player);
+
+    void moveMade(long block, int logIndex, BigInteger gameId, String player, int x, int y, int piece);
+
+    void gameEnded(long block, int logIndex, BigInteger gameId, int state, String winner);
+
+    void gameTimeout(long block, int logIndex, BigInteger gameId, String winner);
+}
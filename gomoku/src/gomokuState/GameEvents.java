@@ -0,0 +1,129 @@
+package gomokuState;
+
+import java.math.BigInteger;
+import org.web3j.abi.datatypes.Event;
+import org.web3j.protocol.core.methods.response.Log;
+
+import ethSC.Gomoku;
+import ethSC.GomokuEventDecoder;
+
+/**
+ * Decodes raw contract logs once and fans them out to listeners.
+ */
+public final class GameEvents {
+    public static final Event[] STATE_EVENTS = {
+        Gomoku.GAMECREATED_EVENT, Gomoku.PLAYERJOINED_EVENT, Gomoku.MOVEMADE_EVENT,
+        Gomoku.GAMEENDED_EVENT, Gomoku.GAMESPACEOUT_EVENT
+    };
+
+    // Values are copied out before any listener runs, so a listener may dispatch again
+    private static final ThreadLocal<GomokuEventDecoder.Decoded> DECODED =
+            ThreadLocal.withInitial(GomokuEventDecoder.Decoded::new);
+
+    private GameEvents() {
+    }
+
+    /**
+     * @return false if the log is removed or not a game state event
+     */
+    public static boolean dispatch(Log log, GameEventListener... listeners) {
+        GomokuEventDecoder.Decoded d = DECODED.get();
+        if (log.isRemoved() || !GomokuEventDecoder.decode(log, d)) {
+            return false;
+        }
+        long block = d.block;
+        int logIndex = d.logIndex;
+
+        switch (d.type) {
+            case GomokuEventDecoder.GAME_CREATED: {
+                BigInteger gameId = d.gameIdBig();
+                String creator = d.accountAddress();
+                BigInteger bet = d.betAmountWeiBig();
+                for (GameEventListener l : listeners) {
+                    l.gameCreated(block, logIndex, gameId, creator, bet);
+                }
+                return true;
+            }
+            case GomokuEventDecoder.PLAYER_JOINED: {
+                BigInteger gameId = d.gameIdBig();
+                String player = d.accountAddress();
+                for (GameEventListener l : listeners) {
+                    l.playerJoined(block, logIndex, gameId, player);
+                }
+                return true;
+            }
+            case GomokuEventDecoder.MOVE_MADE: {
+                BigInteger gameId = d.gameIdBig();
+                String player = d.accountAddress();
+                int x = d.x;
+                int y = d.y;
+                int piece = d.piece;
+                for (GameEventListener l : listeners) {
+                    l.moveMade(block, logIndex, gameId, player, x, y, piece);
+                }
+                return true;
+            }
+            case GomokuEventDecoder.GAME_ENDED: {
+                BigInteger gameId = d.gameIdBig();
+                int state = d.state;
+                String winner = d.accountAddress();
+                for (GameEventListener l : listeners) {
+                    l.gameEnded(block, logIndex, gameId, state, winner);
+                }
+                return true;
+            }
+            case GomokuEventDecoder.GAME_TIMEOUT: {
+                BigInteger gameId = d.gameIdBig();
+                String winner = d.accountAddress();
+                for (GameEventListener l : listeners) {
+                    l.gameTimeout(block, logIndex, gameId, winner);
+                }
+                return true;
+            }
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * One listener that forwards every call to all of listeners, in order.
+     */
+    public static GameEventListener fanOut(GameEventListener... listeners) {
+        return new GameEventListener() {
+            @Override
+            public void gameCreated(long block, int logIndex, BigInteger gameId, String creator, BigInteger bet) {
+                for (GameEventListener l : listeners) {
+                    l.gameCreated(block, logIndex, gameId, creator, bet);
+                }
+            }
+
+            @Override
+            public void playerJoined(long block, int logIndex, BigInteger gameId, String player) {
+                for (GameEventListener l : listeners) {
+                    l.playerJoined(block, logIndex, gameId, player);
+                }
+            }
+
+            @Override
+            public void moveMade(long block, int logIndex, BigInteger gameId, String player, int x, int y, int piece) {
+                for (GameEventListener l : listeners) {
+                    l.moveMade(block, logIndex, gameId, player, x, y, piece);
+                }
+            }
+
+            @Override
+            public void gameEnded(long block, int logIndex, BigInteger gameId, int state, String winner) {
+                for (GameEventListener l : listeners) {
+                    l.gameEnded(block, logIndex, gameId, state, winner);
+                }
+            }
+
+            @Override
+            public void gameTimeout(long block, int logIndex, BigInteger gameId, String winner) {
+                for (GameEventListener l : listeners) {
+                    l.gameTimeout(block, logIndex, gameId, winner);
+                }
+            }
+        };
+    }
+}
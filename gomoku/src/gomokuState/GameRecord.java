@@ -0,0 +1,91 @@
+package gomokuState;
+
+import gomokuEngine.Board;
+import java.math.BigInteger;
+import java.util.Arrays;
+import org.web3j.utils.Numeric;
+
+/**
+ * One game as stored by GameRecordWriter: players, bet, result and the move list (cell index
+ * x * 15 + y per move; black moves first and colours alternate, so pieces are implicit).
+ * Readers fill a reused instance, so keep a copy() of anything that must outlive the next read.
+ */
+public class GameRecord {
+    // How the game ended (only meaningful once state > Playing)
+    public static final int END_BOARD = 0;      // five in a row or full board, or not ended yet
+    public static final int END_TIMEOUT = 1;    // claimTimeout
+    public static final int END_SURRENDER = 2;  // surrender
+
+    public long gameId;
+    public final byte[] black = new byte[20];
+    public final byte[] white = new byte[20]; // zero until someone joins
+    public BigInteger betAmountWei = BigInteger.ZERO;
+    public int state;                          // enum GameState
+    public int endReason;
+    public long createdBlock;
+    public long endedBlock = -1;               // -1 while the game is open
+    public final byte[] moves = new byte[Board.CELLS];
+    public int moveCount;
+
+    public void clear() {
+        gameId = 0;
+        Arrays.fill(black, (byte) 0);
+        Arrays.fill(white, (byte) 0);
+        betAmountWei = BigInteger.ZERO;
+        state = 0;
+        endReason = END_BOARD;
+        createdBlock = 0;
+        endedBlock = -1;
+        moveCount = 0;
+    }
+
+    public GameRecord copy() {
+        GameRecord r = new GameRecord();
+        r.gameId = gameId;
+        System.arraycopy(black, 0, r.black, 0, 20);
+        System.arraycopy(white, 0, r.white, 0, 20);
+        r.betAmountWei = betAmountWei;
+        r.state = state;
+        r.endReason = endReason;
+        r.createdBlock = createdBlock;
+        r.endedBlock = endedBlock;
+        System.arraycopy(moves, 0, r.moves, 0, moveCount);
+        r.moveCount = moveCount;
+        return r;
+    }
+
+    public String blackAddress() {
+        return Numeric.toHexString(black);
+    }
+
+    public String whiteAddress() {
+        return Numeric.toHexString(white);
+    }
+
+    /**
+     * Winner's address, or null on a draw or while the game is open.
+     */
+    public String winnerAddress() {
+        return state == Board.BLACK_WIN ? blackAddress() : state == Board.WHITE_WIN ? whiteAddress() : null;
+    }
+
+    public int moveX(int n) {
+        return (moves[n] & 0xFF) / Board.SIZE;
+    }
+
+    public int moveY(int n) {
+        return (moves[n] & 0xFF) % Board.SIZE;
+    }
+
+    /**
+     * Replays the moves on a fresh Board (can be stepped back with undo()).
+     * @throws IllegalStateException if the move list is not a legal game
+     */
+    public Board toBoard() {
+        Board b = new Board();
+        for (int i = 0; i < moveCount; i++) {
+            b.place(moveX(i), moveY(i));
+        }
+        return b;
+    }
+}
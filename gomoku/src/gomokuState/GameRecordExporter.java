@@ -0,0 +1,165 @@
+package gomokuState;
+
+import gomokuEngine.Board;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.web3j.utils.Numeric;
+
+/**
+ * Streams games from the event stream into a GameRecordWriter: each game is assembled in memory
+ * while it is open and written out the moment its GameEnded arrives, so memory holds only the
+ * open games. Feed it from EventJournal.replay() or a live follow (GameEvents.fanOut).
+ *
+ * The end reason is recovered from the events: GameTimeout before GameEnded is a timeout, a last
+ * move that made five or filled the board (checked on the game's own cells) is a board result,
+ * anything else is a surrender.
+ */
+public class GameRecordExporter implements GameEventListener, Closeable {
+    private static class OpenGame {
+        final GameRecord record = new GameRecord();
+        final byte[] cells = new byte[Board.CELLS];
+        boolean decided;   // the last move won or filled the board
+        boolean timedOut;
+    }
+
+    private final GameRecordWriter writer;
+    private final Map<BigInteger, OpenGame> open = new HashMap<>();
+    private long lastBlock = -1;
+    private int lastLogIndex = -1;
+
+    public GameRecordExporter(GameRecordWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Games written so far.
+     */
+    public synchronized long written() {
+        return writer.count();
+    }
+
+    /**
+     * Games created but not yet ended.
+     */
+    public synchronized int openGames() {
+        return open.size();
+    }
+
+    private boolean advance(long block, int logIndex) {
+        if (block < lastBlock || (block == lastBlock && logIndex <= lastLogIndex)) {
+            return false;
+        }
+        lastBlock = block;
+        lastLogIndex = logIndex;
+        return true;
+    }
+
+    @Override
+    public synchronized void gameCreated(long block, int logIndex, BigInteger gameId, String creator,
+            BigInteger betAmountWei) {
+        if (!advance(block, logIndex)) {
+            return;
+        }
+        OpenGame g = new OpenGame();
+        g.record.gameId = gameId.longValueExact();
+        putAddress(g.record.black, creator);
+        g.record.betAmountWei = betAmountWei;
+        g.record.createdBlock = block;
+        open.put(gameId, g);
+    }
+
+    @Override
+    public synchronized void playerJoined(long block, int logIndex, BigInteger gameId, String player) {
+        OpenGame g = open.get(gameId);
+        if (!advance(block, logIndex) || g == null) {
+            return;
+        }
+        putAddress(g.record.white, player);
+        g.record.state = Board.PLAYING;
+    }
+
+    @Override
+    public synchronized void moveMade(long block, int logIndex, BigInteger gameId, String player, int x, int y,
+            int piece) {
+        OpenGame g = open.get(gameId);
+        if (!advance(block, logIndex) || g == null || g.record.moveCount == Board.CELLS) {
+            return;
+        }
+        g.record.moves[g.record.moveCount++] = (byte) (x * Board.SIZE + y);
+        g.cells[x * Board.SIZE + y] = (byte) piece;
+        g.decided = Board.winsAt(g.cells, x, y) || g.record.moveCount == Board.CELLS;
+    }
+
+    @Override
+    public synchronized void gameTimeout(long block, int logIndex, BigInteger gameId, String winner) {
+        OpenGame g = open.get(gameId);
+        if (advance(block, logIndex) && g != null) {
+            g.timedOut = true;
+        }
+    }
+
+    @Override
+    public synchronized void gameEnded(long block, int logIndex, BigInteger gameId, int state, String winner) {
+        OpenGame g = open.get(gameId);
+        if (!advance(block, logIndex) || g == null) {
+            return;
+        }
+        GameRecord r = g.record;
+        r.state = state;
+        r.endedBlock = block;
+        if (g.timedOut) {
+            r.endReason = GameRecord.END_TIMEOUT;
+        } else if (g.decided) {
+            r.endReason = GameRecord.END_BOARD;
+        } else {
+            r.endReason = GameRecord.END_SURRENDER;
+        }
+        open.remove(gameId);
+        write(r);
+    }
+
+    private void write(GameRecord r) {
+        try {
+            writer.write(r);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Game record export failed at game " + r.gameId, e);
+        }
+    }
+
+    private static void putAddress(byte[] into, String address) {
+        byte[] bytes = Numeric.hexStringToByteArray(address);
+        if (bytes.length == 20) {
+            System.arraycopy(bytes, 0, into, 0, 20);
+        }
+    }
+
+    /**
+     * Writes the games still open (in gameId order) if includeOpen, then closes the writer.
+     */
+    public synchronized void close(boolean includeOpen) throws IOException {
+        if (includeOpen) {
+            List<OpenGame> rest = new ArrayList<>(open.values());
+            rest.sort(Comparator.comparingLong(g -> g.record.gameId));
+            for (OpenGame g : rest) {
+                writer.write(g.record);
+            }
+        }
+        open.clear();
+        writer.close();
+    }
+
+    /**
+     * Closes the writer, dropping games that have not ended.
+     */
+    @Override
+    public void close() throws IOException {
+        close(false);
+    }
+}
@@ -0,0 +1,208 @@
+package gomokuState;
+
+import gomokuEngine.Board;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.web3j.utils.Numeric;
+
+/**
+ * Sequential reader of GameRecordWriter files. Records are decoded into a caller-supplied
+ * GameRecord from a 1 MB buffer, so a scan allocates nothing per game (bar the BigInteger of a
+ * non-zero bet) and runs at disk speed.
+ *
+ * replay() rebuilds local state from a file without the chain: it feeds a GameEventListener
+ * the events each game would have emitted.
+ */
+public class GameRecordReader implements Closeable {
+    private static final String ZERO_ADDRESS = "0x0000000000000000000000000000000000000000";
+
+    private final ReadableByteChannel in;
+    private final ByteBuffer buf = ByteBuffer.allocate(1 << 20);
+    private final byte[] bet = new byte[32];
+    private long count;
+
+    /**
+     * Reads and checks the file header; in is closed with this reader.
+     */
+    public GameRecordReader(ReadableByteChannel in) throws IOException {
+        this.in = in;
+        buf.flip();
+        if (!ensure(GameRecordWriter.HEADER_SIZE)) {
+            throw new IOException("Not a Gomoku game record file (too short)");
+        }
+        int magic = buf.getInt();
+        int version = buf.getShort() & 0xFFFF;
+        buf.position(buf.position() + GameRecordWriter.HEADER_SIZE - 6);
+        if (magic != GameRecordWriter.MAGIC || version != GameRecordWriter.VERSION) {
+            throw new IOException("Not a Gomoku game record file (magic " + Integer.toHexString(magic)
+                    + ", version " + version + ")");
+        }
+    }
+
+    public static GameRecordReader open(Path path) throws IOException {
+        return new GameRecordReader(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * Number of records read (or skipped) so far.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Decodes the next record into r.
+     * @return false at the end of the file
+     * @throws EOFException if the file ends inside a record
+     */
+    public boolean next(GameRecord r) throws IOException {
+        int end = nextRecord();
+        if (end < 0) {
+            return false;
+        }
+        r.state = buf.get() & 0xFF;
+        r.endReason = buf.get() & 0xFF;
+        r.moveCount = buf.get() & 0xFF;
+        int betLength = buf.get() & 0xFF;
+        r.gameId = varint();
+        r.createdBlock = varint();
+        long ended = varint();
+        r.endedBlock = ended == 0 ? -1 : r.createdBlock + ended - 1;
+        buf.get(r.black).get(r.white);
+        if (betLength == 0) {
+            r.betAmountWei = BigInteger.ZERO;
+        } else {
+            buf.get(bet, 0, betLength);
+            r.betAmountWei = new BigInteger(1, bet, 0, betLength);
+        }
+        buf.get(r.moves, 0, r.moveCount);
+        if (buf.position() > end) {
+            throw new IOException("Corrupt game record " + count);
+        }
+        // Fields appended by later versions are skipped
+        buf.position(end);
+        return true;
+    }
+
+    /**
+     * Skips the next record without decoding it.
+     * @return false at the end of the file
+     */
+    public boolean skip() throws IOException {
+        int end = nextRecord();
+        if (end < 0) {
+            return false;
+        }
+        buf.position(end);
+        return true;
+    }
+
+    /**
+     * Positions the buffer on the next record's body.
+     * @return the buffer position where the record ends, or -1 at the end of the file
+     */
+    private int nextRecord() throws IOException {
+        if (!ensure(2)) {
+            if (buf.hasRemaining()) {
+                throw new EOFException("Game record file ends inside record " + count);
+            }
+            return -1;
+        }
+        int length = buf.getShort() & 0xFFFF;
+        if (!ensure(length)) {
+            throw new EOFException("Game record file ends inside record " + count);
+        }
+        count++;
+        return buf.position() + length;
+    }
+
+    /**
+     * Makes at least n bytes available, refilling the buffer as needed.
+     */
+    private boolean ensure(int n) throws IOException {
+        if (buf.remaining() >= n) {
+            return true;
+        }
+        buf.compact();
+        try {
+            while (buf.position() < n) {
+                if (in.read(buf) < 0) {
+                    return false;
+                }
+            }
+        } finally {
+            buf.flip();
+        }
+        return true;
+    }
+
+    private long varint() throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = buf.get() & 0xFF;
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return v;
+            }
+        }
+        throw new IOException("Malformed varint in game record " + count);
+    }
+
+    // ------------ Replay ------------
+
+    /**
+     * Feeds listener the events of every remaining game: GameCreated, PlayerJoined, MoveMade
+     * each move, then GameTimeout / GameEnded as the contract emits them. Positions are
+     * synthetic (block = record number, logIndex = event number within the game, with
+     * GameEnded adjacent to the last MoveMade only when that move ended the game), so use a
+     * fresh listener such as a new GameStateIndex or Lobby, not one that also follows the chain.
+     * @return number of games replayed
+     */
+    public long replay(GameEventListener listener) throws IOException {
+        GameRecord r = new GameRecord();
+        long games = 0;
+        while (next(r)) {
+            long block = count;
+            int logIndex = 0;
+            BigInteger gameId = BigInteger.valueOf(r.gameId);
+            String black = Numeric.toHexString(r.black);
+            String white = Numeric.toHexString(r.white);
+            listener.gameCreated(block, logIndex++, gameId, black, r.betAmountWei);
+            if (r.state == 0) {
+                games++;
+                continue;
+            }
+            listener.playerJoined(block, logIndex++, gameId, white);
+            for (int i = 0; i < r.moveCount; i++) {
+                int piece = (i & 1) == 0 ? Board.BLACK : Board.WHITE;
+                listener.moveMade(block, logIndex++, gameId, piece == Board.BLACK ? black : white,
+                        r.moveX(i), r.moveY(i), piece);
+            }
+            if (r.state > Board.PLAYING) {
+                String winner = r.state == Board.BLACK_WIN ? black
+                        : r.state == Board.WHITE_WIN ? white : ZERO_ADDRESS;
+                if (r.endReason == GameRecord.END_TIMEOUT) {
+                    listener.gameTimeout(block, ++logIndex, gameId, winner);
+                    logIndex++;
+                } else if (r.endReason == GameRecord.END_SURRENDER) {
+                    logIndex++; // separate transaction from the last move
+                }
+                listener.gameEnded(block, logIndex, gameId, r.state, winner);
+            }
+            games++;
+        }
+        return games;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
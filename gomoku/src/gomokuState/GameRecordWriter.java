@@ -0,0 +1,94 @@
+package gomokuState;
+
+import gomokuEngine.Board;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streaming writer of the compact game-record format.
+ *
+ * File header (16 bytes): magic "GMKR", version (u16), reserved.
+ * Record:
+ *   u16 length of the rest of the record (readers can skip without parsing)
+ *   u8 state | u8 endReason | u8 moveCount | u8 bet length
+ *   gameId | createdBlock | endedBlock - createdBlock + 1 (0 = open)   (unsigned varints)
+ *   black (20 bytes) | white (20 bytes) | bet (big-endian, minimal) | moves (one byte each, x * 15 + y)
+ * A finished 40-move game with a bet takes about 100 bytes.
+ */
+public class GameRecordWriter implements Closeable {
+    static final int MAGIC = 0x474d4b52; // "GMKR"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int MAX_RECORD = 2 + 4 + 3 * 10 + 40 + 32 + Board.CELLS;
+
+    private static final byte[] NO_BET = new byte[0];
+
+    private final OutputStream out;
+    private final ByteBuffer buf = ByteBuffer.allocate(MAX_RECORD);
+    private long count;
+
+    /**
+     * Writes the file header; out is closed with this writer.
+     */
+    public GameRecordWriter(OutputStream out) throws IOException {
+        this.out = out;
+        buf.putInt(MAGIC).putShort((short) VERSION).putShort((short) 0).putLong(0);
+        out.write(buf.array(), 0, HEADER_SIZE);
+    }
+
+    public static GameRecordWriter open(Path path) throws IOException {
+        return new GameRecordWriter(new BufferedOutputStream(Files.newOutputStream(path), 1 << 20));
+    }
+
+    public void write(GameRecord r) throws IOException {
+        byte[] bet = r.betAmountWei.signum() == 0 ? NO_BET : unsignedBytes(r.betAmountWei.toByteArray());
+        if (bet.length > 32 || r.gameId < 0 || r.moveCount > Board.CELLS) {
+            throw new IllegalArgumentException("Game " + r.gameId + " does not fit a game record");
+        }
+        buf.clear();
+        buf.putShort((short) 0); // length, patched below
+        buf.put((byte) r.state).put((byte) r.endReason).put((byte) r.moveCount).put((byte) bet.length);
+        putVarint(buf, r.gameId);
+        putVarint(buf, r.createdBlock);
+        putVarint(buf, r.endedBlock < 0 ? 0 : r.endedBlock - r.createdBlock + 1);
+        buf.put(r.black).put(r.white).put(bet).put(r.moves, 0, r.moveCount);
+        buf.putShort(0, (short) (buf.position() - 2));
+        out.write(buf.array(), 0, buf.position());
+        count++;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private static byte[] unsignedBytes(byte[] twosComplement) {
+        if (twosComplement.length > 1 && twosComplement[0] == 0) {
+            byte[] b = new byte[twosComplement.length - 1];
+            System.arraycopy(twosComplement, 1, b, 0, b.length);
+            return b;
+        }
+        return twosComplement;
+    }
+
+    static void putVarint(ByteBuffer b, long v) {
+        while ((v & ~0x7FL) != 0) {
+            b.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        b.put((byte) v);
+    }
+}
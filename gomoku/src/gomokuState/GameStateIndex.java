@@ -0,0 +1,280 @@
+package gomokuState;
+
+import io.reactivex.disposables.Disposable;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.response.Log;
+
+import ethSC.GameStateView;
+import ethSC.Gomoku;
+import gomokuEngine.Board;
+
+/**
+ * In-memory game state rebuilt from Gomoku.sol events.
+ * Logs must be applied in (block, logIndex) order; older or duplicate logs are ignored,
+ * so replaying an overlapping range is safe. Single writer, many readers.
+ */
+public class GameStateIndex implements GameEventListener, GameStateView {
+    private static final String ZERO_ADDRESS = "0x0000000000000000000000000000000000000000";
+
+    private final Map<BigInteger, Game> games = new ConcurrentHashMap<>();
+    private volatile BigInteger gameCounter = BigInteger.ZERO;
+    private volatile long lastBlock = -1;
+    private volatile int lastLogIndex = -1;
+    private volatile long syncedBlock = -1;
+
+    /**
+     * 追蹤合約事件並更新索引
+     */
+    public Disposable follow(Gomoku contract, DefaultBlockParameter start, DefaultBlockParameter end) {
+        return contract.logFlowable(start, end, GameEvents.STATE_EVENTS)
+                .subscribe(this::apply, err -> System.err.println("[X] Index sync error: " + err.getMessage()));
+    }
+
+    /**
+     * Applies one contract log. Returns false if the log is not a game state event.
+     */
+    public boolean apply(Log log) {
+        return GameEvents.dispatch(log, this);
+    }
+
+    /**
+     * Accepts only positions after the last applied one.
+     */
+    private boolean advance(long block, int logIndex) {
+        if (block < lastBlock || (block == lastBlock && logIndex <= lastLogIndex)) {
+            return false;
+        }
+        lastBlock = block;
+        lastLogIndex = logIndex;
+        return true;
+    }
+
+    @Override
+    public synchronized void gameCreated(long block, int logIndex, BigInteger gameId, String creator,
+            BigInteger betAmountWei) {
+        if (!advance(block, logIndex)) {
+            return;
+        }
+        Game g = new Game(gameId);
+        g.blackPlayer = creator;
+        g.betAmountWei = betAmountWei;
+        g.lastBlock = block;
+        games.put(gameId, g);
+        if (gameId.compareTo(gameCounter) >= 0) {
+            gameCounter = gameId.add(BigInteger.ONE);
+        }
+    }
+
+    @Override
+    public synchronized void playerJoined(long block, int logIndex, BigInteger gameId, String player) {
+        Game g = games.get(gameId);
+        if (!advance(block, logIndex) || g == null) {
+            return;
+        }
+        g.whitePlayer = player;
+        g.state = 1;
+        g.lastBlock = block;
+    }
+
+    @Override
+    public synchronized void moveMade(long block, int logIndex, BigInteger gameId, String player, int x, int y,
+            int piece) {
+        Game g = games.get(gameId);
+        if (!advance(block, logIndex) || g == null) {
+            return;
+        }
+        g.board[x * Gomoku.BOARD_SIZE + y] = (byte) piece;
+        g.moveCount++;
+        // The contract switches turns unless the move wins or fills the board; decided from the
+        // board itself, since log positions cannot tell a winning move from a later surrender
+        if (!Board.winsAt(g.board, x, y) && g.moveCount < Gomoku.BOARD_CELLS) {
+            g.currentPlayer = piece == 1 ? 2 : 1;
+        }
+        g.lastBlock = block;
+    }
+
+    @Override
+    public synchronized void gameEnded(long block, int logIndex, BigInteger gameId, int state, String winner) {
+        Game g = games.get(gameId);
+        if (!advance(block, logIndex) || g == null) {
+            return;
+        }
+        g.state = state;
+        g.winner = ZERO_ADDRESS.equals(winner) ? null : winner;
+        g.lastBlock = block;
+    }
+
+    @Override
+    public synchronized void gameTimeout(long block, int logIndex, BigInteger gameId, String winner) {
+        // State change arrives with the GameEnded that follows
+        advance(block, logIndex);
+    }
+
+    /**
+     * Copies a game from another index, outside the event order (TentativeGameView layers
+     * pending events over confirmed games this way).
+     */
+    synchronized void seed(GameStateIndex from, BigInteger gameId) {
+        Game g;
+        synchronized (from) {
+            Game source = from.games.get(gameId);
+            g = source == null ? null : source.copy();
+        }
+        if (g != null) {
+            games.put(gameId, g);
+            if (gameId.compareTo(gameCounter) >= 0) {
+                gameCounter = gameId.add(BigInteger.ONE);
+            }
+        }
+    }
+
+    // ------------ Lookups ------------
+
+    public BigInteger gameCounter() {
+        return gameCounter;
+    }
+
+    public long lastBlock() {
+        return lastBlock;
+    }
+
+    @Override
+    public long syncedBlock() {
+        return syncedBlock;
+    }
+
+    /**
+     * Called by the sync driver once every event up to block has been applied.
+     */
+    public void markSynced(long block) {
+        if (block > syncedBlock) {
+            syncedBlock = block;
+        }
+    }
+
+    public Game getGame(BigInteger gameId) {
+        return games.get(gameId);
+    }
+
+    /**
+     * Same shape as Gomoku.getGameInfo, or null if the game is not indexed.
+     */
+    @Override
+    public Gomoku.GameInfo getGameInfo(BigInteger gameId) {
+        Game g = games.get(gameId);
+        if (g == null) {
+            return null;
+        }
+        synchronized (this) {
+            Gomoku.GameInfo info = new Gomoku.GameInfo();
+            info.blackPlayer = g.blackPlayer;
+            info.whitePlayer = g.whitePlayer;
+            info.currentPlayer = g.currentPlayer;
+            info.state = g.state;
+            info.betAmountWei = g.betAmountWei;
+            info.moveCount = g.moveCount;
+            return info;
+        }
+    }
+
+    @Override
+    public int getPiece(BigInteger gameId, int x, int y) {
+        Game g = games.get(gameId);
+        if (g == null) {
+            throw new IllegalStateException("Game does not exist");
+        }
+        if (x < 0 || x >= Gomoku.BOARD_SIZE || y < 0 || y >= Gomoku.BOARD_SIZE) {
+            throw new IllegalStateException("Invalid coordinates");
+        }
+        return g.board[x * Gomoku.BOARD_SIZE + y];
+    }
+
+    /**
+     * Copy of the board, index = x * 15 + y.
+     */
+    public byte[] getBoard(BigInteger gameId) {
+        Game g = games.get(gameId);
+        return g == null ? null : g.board.clone();
+    }
+
+    // ------------ Consistency check ------------
+
+    /**
+     * 與鏈上 getGameInfo 比對
+     * @return differences, empty when the index matches the contract
+     */
+    public List<String> verify(Gomoku contract, BigInteger gameId) throws Exception {
+        List<String> diffs = new ArrayList<>();
+        Gomoku.GameInfo local = getGameInfo(gameId);
+        if (local == null) {
+            diffs.add("game " + gameId + " not indexed");
+            return diffs;
+        }
+        Gomoku.GameInfo chain = contract.getGameInfo(gameId).send();
+        compare(diffs, gameId, "blackPlayer", local.blackPlayer, chain.blackPlayer);
+        compare(diffs, gameId, "whitePlayer", local.whitePlayer, chain.whitePlayer);
+        compare(diffs, gameId, "currentPlayer", local.currentPlayer, chain.currentPlayer);
+        compare(diffs, gameId, "state", local.state, chain.state);
+        compare(diffs, gameId, "betAmountWei", local.betAmountWei, chain.betAmountWei);
+        compare(diffs, gameId, "moveCount", local.moveCount, chain.moveCount);
+        return diffs;
+    }
+
+    public List<String> verifyAll(Gomoku contract) throws Exception {
+        List<String> diffs = new ArrayList<>();
+        BigInteger counter = contract.gameCounter().send();
+        if (!counter.equals(gameCounter)) {
+            diffs.add("gameCounter: local=" + gameCounter + " chain=" + counter);
+        }
+        for (BigInteger id = BigInteger.ZERO; id.compareTo(counter) < 0; id = id.add(BigInteger.ONE)) {
+            diffs.addAll(verify(contract, id));
+        }
+        return diffs;
+    }
+
+    private static void compare(List<String> diffs, BigInteger gameId, String field, Object local, Object chain) {
+        String l = local == null ? ZERO_ADDRESS : local.toString();
+        String c = chain == null ? ZERO_ADDRESS : chain.toString();
+        if (!l.equalsIgnoreCase(c)) {
+            diffs.add("game " + gameId + " " + field + ": local=" + l + " chain=" + c);
+        }
+    }
+
+    // ------------ Model ------------
+
+    public static class Game {
+        public final BigInteger gameId;
+        public String blackPlayer;
+        public String whitePlayer;
+        public int currentPlayer = 1; // 1 = black, 2 = white
+        public int state;             // enum GameState
+        public BigInteger betAmountWei = BigInteger.ZERO;
+        public int moveCount;
+        public String winner;
+        public long lastBlock;
+        public final byte[] board = new byte[Gomoku.BOARD_CELLS];
+
+        Game(BigInteger gameId) {
+            this.gameId = gameId;
+        }
+
+        Game copy() {
+            Game g = new Game(gameId);
+            g.blackPlayer = blackPlayer;
+            g.whitePlayer = whitePlayer;
+            g.currentPlayer = currentPlayer;
+            g.state = state;
+            g.betAmountWei = betAmountWei;
+            g.moveCount = moveCount;
+            g.winner = winner;
+            g.lastBlock = lastBlock;
+            System.arraycopy(board, 0, g.board, 0, board.length);
+            return g;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package gomokuState;
+
+import io.reactivex.disposables.Disposable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.List;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.Log;
+
+import ethSC.ConfirmedLogFeed;
+import ethSC.Gomoku;
+import ethSC.LogBackfill;
+
+/**
+ * Keeps a GameStateIndex and its EventJournal in step with the chain:
+ * replay the journal, catch up from the checkpoint, then follow new blocks.
+ * With requireConfirmations, only confirmed events reach the journal and views (see ConfirmedLogFeed).
+ */
+public class JournalSync {
+    private static final long HEAD_POLL_MS = 1_000;
+
+    private final Web3j web3j;
+    private final Gomoku contract;
+    private final EventJournal journal;
+    private final GameStateIndex index;
+    private final GameEventListener listeners;
+    private final LogBackfill backfill;
+    private int confirmations;
+    private TentativeGameView tentative;
+    private long currentBlock = -1;
+
+    /**
+     * @param others further in-memory views fed alongside the index (e.g. Lobby)
+     */
+    public JournalSync(Web3j web3j, Gomoku contract, EventJournal journal, GameStateIndex index,
+            GameEventListener... others) {
+        this.web3j = web3j;
+        this.contract = contract;
+        this.journal = journal;
+        this.index = index;
+        GameEventListener[] views = new GameEventListener[others.length + 1];
+        views[0] = index;
+        System.arraycopy(others, 0, views, 1, others.length);
+        this.listeners = GameEvents.fanOut(views);
+        this.backfill = new LogBackfill(contract);
+    }
+
+    /**
+     * Holds new events until they are confirmations blocks deep, so a reorg never reaches the
+     * journal or the views; tentative, if not null, gets them as soon as they arrive and is rolled
+     * back on a reorg. Call before catchUp().
+     */
+    public void requireConfirmations(int confirmations, TentativeGameView tentative) {
+        this.confirmations = confirmations;
+        this.tentative = tentative;
+    }
+
+    /**
+     * 從本地 journal 重建索引
+     * @return number of events replayed
+     */
+    public long replay() {
+        return journal.replay(listeners);
+    }
+
+    /**
+     * Fetches everything after the checkpoint up to the current head, less the confirmation
+     * depth (chunked, in parallel).
+     * @return the head block now covered by the checkpoint
+     */
+    public long catchUp() throws IOException {
+        long head = web3j.ethBlockNumber().send().getBlockNumber().longValue() - confirmations;
+        long from = journal.checkpoint() + 1;
+        if (from <= head) {
+            backfill.run(from, head, this::apply, GameEvents.STATE_EVENTS);
+        }
+        journal.checkpoint(head);
+        journal.flush();
+        index.markSynced(head);
+        return head;
+    }
+
+    /**
+     * Follows new logs after the checkpoint. A block is checkpointed, and the index marked synced
+     * to it, once a log from a later block is confirmed or a head poll has covered it.
+     */
+    public Disposable follow() {
+        long from = journal.checkpoint() + 1;
+        ConfirmedLogFeed feed = new ConfirmedLogFeed(web3j, contract, confirmations, new ConfirmedLogFeed.Listener() {
+            @Override
+            public void pending(Log log) {
+                if (tentative != null) {
+                    tentative.pending(log);
+                }
+            }
+
+            @Override
+            public void confirmed(Log log) {
+                apply(log);
+                if (tentative != null) {
+                    tentative.confirmed(log);
+                }
+            }
+
+            @Override
+            public void rolledBack(long fromBlock, List<Log> dropped) {
+                if (tentative != null) {
+                    tentative.rolledBack(fromBlock, dropped);
+                }
+            }
+
+            @Override
+            public void synced(long confirmedBlock, long headBlock) {
+                journal.checkpoint(confirmedBlock);
+                index.markSynced(confirmedBlock);
+                if (tentative != null) {
+                    tentative.synced(confirmedBlock, headBlock);
+                }
+            }
+        }, GameEvents.STATE_EVENTS);
+        return feed.follow(contract.logFlowable(block(from), DefaultBlockParameterName.LATEST, GameEvents.STATE_EVENTS),
+                from, HEAD_POLL_MS);
+    }
+
+    private synchronized void apply(Log log) {
+        if (log.isRemoved() || log.getBlockNumber() == null) {
+            return;
+        }
+        long block = log.getBlockNumber().longValue();
+        if (block > currentBlock) {
+            if (currentBlock >= 0) {
+                journal.checkpoint(block - 1);
+                index.markSynced(block - 1);
+            }
+            currentBlock = block;
+        }
+        GameEvents.dispatch(log, journal, listeners);
+    }
+
+    private static DefaultBlockParameter block(long number) {
+        return DefaultBlockParameter.valueOf(BigInteger.valueOf(number));
+    }
+}
@@ -0,0 +1,314 @@
+package gomokuState;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Matchmaking indexes built incrementally from GameCreated / PlayerJoined / GameEnded:
+ * waiting games by id and by bet, games per player (plus the contract's playerGame mapping)
+ * and recently active games. Queries are tree / hash lookups plus the page itself, so they
+ * stay well under a millisecond with tens of thousands of games.
+ * Events must arrive in (block, logIndex) order; older or duplicate ones are ignored.
+ */
+public class Lobby implements GameEventListener {
+    private static final int RECENT_LIMIT = 1024;
+
+    /**
+     * Snapshot of one game as the lobby sees it.
+     */
+    public static class LobbyGame {
+        public long gameId;
+        public String blackPlayer;
+        public String whitePlayer;
+        public int state;         // enum GameState, 0 = Waiting
+        public BigInteger betAmountWei;
+        public long createdBlock;
+        public long lastBlock;
+
+        LobbyGame copy() {
+            LobbyGame g = new LobbyGame();
+            g.gameId = gameId;
+            g.blackPlayer = blackPlayer;
+            g.whitePlayer = whitePlayer;
+            g.state = state;
+            g.betAmountWei = betAmountWei;
+            g.createdBlock = createdBlock;
+            g.lastBlock = lastBlock;
+            return g;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, LobbyGame> games = new HashMap<>();
+    private final NavigableSet<Long> waiting = new TreeSet<>();
+    private final NavigableMap<BigInteger, NavigableSet<Long>> waitingByBet = new TreeMap<>();
+    private final Map<String, List<Long>> byPlayer = new HashMap<>();
+    private final Map<String, Long> playerGame = new HashMap<>();
+    // Insertion order = activity order, most recent last
+    private final LinkedHashMap<Long, LobbyGame> recent = new LinkedHashMap<>();
+    private long lastBlock = -1;
+    private int lastLogIndex = -1;
+
+    // ------------ Updates ------------
+
+    private boolean advance(long block, int logIndex) {
+        if (block < lastBlock || (block == lastBlock && logIndex <= lastLogIndex)) {
+            return false;
+        }
+        lastBlock = block;
+        lastLogIndex = logIndex;
+        return true;
+    }
+
+    private void touch(LobbyGame g, long block) {
+        g.lastBlock = block;
+        recent.putLast(g.gameId, g);
+        if (recent.size() > RECENT_LIMIT) {
+            recent.pollFirstEntry();
+        }
+    }
+
+    private void unlistWaiting(LobbyGame g) {
+        if (waiting.remove(g.gameId)) {
+            NavigableSet<Long> ids = waitingByBet.get(g.betAmountWei);
+            ids.remove(g.gameId);
+            if (ids.isEmpty()) {
+                waitingByBet.remove(g.betAmountWei);
+            }
+        }
+    }
+
+    private void addPlayer(String player, long gameId) {
+        String key = player.toLowerCase();
+        byPlayer.computeIfAbsent(key, k -> new ArrayList<>()).add(gameId);
+        playerGame.put(key, gameId);
+    }
+
+    @Override
+    public void gameCreated(long block, int logIndex, BigInteger gameId, String creator, BigInteger betAmountWei) {
+        lock.writeLock().lock();
+        try {
+            if (!advance(block, logIndex)) {
+                return;
+            }
+            LobbyGame g = new LobbyGame();
+            g.gameId = gameId.longValue();
+            g.blackPlayer = creator;
+            g.betAmountWei = betAmountWei;
+            g.createdBlock = block;
+            games.put(g.gameId, g);
+            waiting.add(g.gameId);
+            waitingByBet.computeIfAbsent(betAmountWei, b -> new TreeSet<>()).add(g.gameId);
+            addPlayer(creator, g.gameId);
+            touch(g, block);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void playerJoined(long block, int logIndex, BigInteger gameId, String player) {
+        lock.writeLock().lock();
+        try {
+            LobbyGame g = games.get(gameId.longValue());
+            if (!advance(block, logIndex) || g == null) {
+                return;
+            }
+            unlistWaiting(g);
+            g.whitePlayer = player;
+            g.state = 1;
+            addPlayer(player, g.gameId);
+            touch(g, block);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void moveMade(long block, int logIndex, BigInteger gameId, String player, int x, int y, int piece) {
+        lock.writeLock().lock();
+        try {
+            LobbyGame g = games.get(gameId.longValue());
+            if (advance(block, logIndex) && g != null) {
+                touch(g, block);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void gameEnded(long block, int logIndex, BigInteger gameId, int state, String winner) {
+        lock.writeLock().lock();
+        try {
+            LobbyGame g = games.get(gameId.longValue());
+            if (!advance(block, logIndex) || g == null) {
+                return;
+            }
+            unlistWaiting(g);
+            g.state = state;
+            touch(g, block);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void gameTimeout(long block, int logIndex, BigInteger gameId, String winner) {
+        // GameEnded follows in the same transaction
+        lock.writeLock().lock();
+        try {
+            advance(block, logIndex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ------------ Queries ------------
+
+    public int waitingCount() {
+        lock.readLock().lock();
+        try {
+            return waiting.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public LobbyGame getGame(long gameId) {
+        lock.readLock().lock();
+        try {
+            LobbyGame g = games.get(gameId);
+            return g == null ? null : g.copy();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 等待中的遊戲, 依 gameId 由舊到新
+     */
+    public List<LobbyGame> waiting(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return page(waiting.iterator(), offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Waiting games with minBet <= bet <= maxBet (either bound may be null), by bet then gameId.
+     */
+    public List<LobbyGame> waitingByBet(BigInteger minBet, BigInteger maxBet, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            NavigableMap<BigInteger, NavigableSet<Long>> range = waitingByBet;
+            if (minBet != null && maxBet != null) {
+                range = waitingByBet.subMap(minBet, true, maxBet, true);
+            } else if (minBet != null) {
+                range = waitingByBet.tailMap(minBet, true);
+            } else if (maxBet != null) {
+                range = waitingByBet.headMap(maxBet, true);
+            }
+            List<LobbyGame> out = new ArrayList<>(Math.min(limit, 64));
+            int skip = offset;
+            for (NavigableSet<Long> ids : range.values()) {
+                if (skip >= ids.size()) {
+                    skip -= ids.size();
+                    continue;
+                }
+                List<LobbyGame> part = page(ids.iterator(), skip, limit - out.size());
+                out.addAll(part);
+                skip = 0;
+                if (out.size() >= limit) {
+                    break;
+                }
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Oldest waiting game with exactly this bet that player did not create, or null.
+     */
+    public LobbyGame findMatch(BigInteger betAmountWei, String player) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Long> ids = waitingByBet.get(betAmountWei);
+            if (ids == null) {
+                return null;
+            }
+            for (Long id : ids) {
+                LobbyGame g = games.get(id);
+                if (player == null || !g.blackPlayer.equalsIgnoreCase(player)) {
+                    return g.copy();
+                }
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Mirror of the contract's playerGame mapping: last game created or joined (0 if none).
+     */
+    public long playerGame(String player) {
+        lock.readLock().lock();
+        try {
+            return playerGame.getOrDefault(player.toLowerCase(), 0L);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Games a player created or joined, newest first.
+     */
+    public List<LobbyGame> gamesOf(String player, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Long> ids = byPlayer.getOrDefault(player.toLowerCase(), Collections.emptyList());
+            return page(ids.reversed().iterator(), offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Games with the most recent events first (the last RECENT_LIMIT only).
+     */
+    public List<LobbyGame> recentlyActive(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return page(recent.sequencedKeySet().reversed().iterator(), offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<LobbyGame> page(Iterator<Long> ids, int offset, int limit) {
+        List<LobbyGame> out = new ArrayList<>(Math.min(limit, 64));
+        for (int i = 0; ids.hasNext() && out.size() < limit; i++) {
+            Long id = ids.next();
+            if (i >= offset) {
+                out.add(games.get(id).copy());
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,129 @@
+package gomokuState;
+
+import ethSC.ConfirmedLogFeed;
+import ethSC.GameStateView;
+import ethSC.Gomoku;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.utils.Numeric;
+
+/**
+ * Low-latency view: the confirmed GameStateIndex plus the logs ConfirmedLogFeed still holds as
+ * pending. Games touched by pending logs live in a small overlay index seeded from confirmed
+ * copies; every other lookup falls through to the confirmed index.
+ *
+ * A rollback rebuilds only the overlay, from the confirmed games and the pending logs that
+ * survived, so it costs the events of the last few blocks rather than a resync. Feed it from
+ * the same ConfirmedLogFeed (and thread) that feeds the confirmed index, confirmed first.
+ */
+public class TentativeGameView implements GameStateView, ConfirmedLogFeed.Listener {
+    private final GameStateIndex confirmed;
+    private final List<Log> pending = new ArrayList<>();
+    private volatile GameStateIndex overlay = new GameStateIndex();
+    private volatile long headBlock = -1;
+
+    public TentativeGameView(GameStateIndex confirmed) {
+        this.confirmed = confirmed;
+    }
+
+    public GameStateIndex confirmed() {
+        return confirmed;
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    // ------------ Feed ------------
+
+    @Override
+    public synchronized void pending(Log log) {
+        pending.add(log);
+        apply(overlay, log);
+    }
+
+    /**
+     * The confirmed index has applied log; it no longer needs to be held here.
+     */
+    @Override
+    public synchronized void confirmed(Log log) {
+        for (int i = 0; i < pending.size(); i++) {
+            Log p = pending.get(i);
+            if (p.getLogIndex().equals(log.getLogIndex()) && p.getBlockHash().equalsIgnoreCase(log.getBlockHash())) {
+                pending.remove(i);
+                break;
+            }
+        }
+        if (pending.isEmpty()) {
+            overlay = new GameStateIndex();
+        }
+    }
+
+    @Override
+    public synchronized void rolledBack(long fromBlock, List<Log> dropped) {
+        pending.removeIf(l -> l.getBlockNumber().longValue() >= fromBlock);
+        GameStateIndex rebuilt = new GameStateIndex();
+        for (Log log : pending) {
+            apply(rebuilt, log);
+        }
+        overlay = rebuilt;
+    }
+
+    /**
+     * The feed has delivered every log up to headBlock, so pending state reaches that far.
+     */
+    @Override
+    public void synced(long confirmedBlock, long headBlock) {
+        if (headBlock > this.headBlock) {
+            this.headBlock = headBlock;
+        }
+    }
+
+    private void apply(GameStateIndex into, Log log) {
+        if (log.getTopics().size() > 1) {
+            BigInteger gameId = Numeric.toBigInt(log.getTopics().get(1));
+            if (into.getGame(gameId) == null) {
+                into.seed(confirmed, gameId);
+            }
+        }
+        GameEvents.dispatch(log, into);
+    }
+
+    // ------------ Lookups ------------
+
+    @Override
+    public Gomoku.GameInfo getGameInfo(BigInteger gameId) {
+        Gomoku.GameInfo info = overlay.getGameInfo(gameId);
+        return info != null ? info : confirmed.getGameInfo(gameId);
+    }
+
+    @Override
+    public int getPiece(BigInteger gameId, int x, int y) {
+        GameStateIndex o = overlay;
+        return o.getGame(gameId) != null ? o.getPiece(gameId, x, y) : confirmed.getPiece(gameId, x, y);
+    }
+
+    /**
+     * Copy of the board including pending moves, index = x * 15 + y.
+     */
+    public byte[] getBoard(BigInteger gameId) {
+        GameStateIndex o = overlay;
+        return o.getGame(gameId) != null ? o.getBoard(gameId) : confirmed.getBoard(gameId);
+    }
+
+    public BigInteger gameCounter() {
+        BigInteger pendingCounter = overlay.gameCounter();
+        BigInteger confirmedCounter = confirmed.gameCounter();
+        return pendingCounter.max(confirmedCounter);
+    }
+
+    /**
+     * Head block the pending events are complete up to (at least the confirmed block).
+     */
+    @Override
+    public long syncedBlock() {
+        return Math.max(headBlock, confirmed.syncedBlock());
+    }
+}
@@ -0,0 +1,363 @@
+package gomokuState;
+
+import java.io.Closeable;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthCall;
+
+import ethSC.Gomoku;
+import ethSC.GomokuHandler;
+import gomokuEngine.Board;
+
+/**
+ * Claims timeout wins automatically for games our accounts play.
+ *
+ * Fed by the event stream (JournalSync), it tracks whose turn it is and the block of the last
+ * move in every active game of ours. When it is the opponent's turn, the deadline
+ * lastMoveTime + TIMEOUT (lastMoveTime = that block's timestamp, fetched once per block in a
+ * batch) sits in a TimingWheel; a MoveMade reschedules it in O(1), GameEnded drops it. When a
+ * deadline passes, claimTimeout is checked with eth_call and then sent from the waiting player's
+ * account. No per-game polling: the node sees one batch per new block plus one call per claim.
+ * Deadlines are checked once start() has been called.
+ */
+public final class TimeoutWatchdog implements GameEventListener, Closeable {
+    public static final long TIMEOUT_SECONDS = 5 * 60; // Gomoku.sol TIMEOUT
+    private static final long RETRY_MS = 5_000;
+    private static final int BLOCK_TIME_CACHE = 4096;
+
+    private final Web3j web3j;
+    private final String contractAddress;
+    private final long graceMs;
+    private final long tickMs;
+    private final Map<String, GomokuHandler> accounts = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "timeout-watchdog");
+        t.setDaemon(true);
+        return t;
+    });
+    private final ExecutorService claims = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong claimed = new AtomicLong();
+
+    // Guarded by this
+    private final TimingWheel<Watch> wheel;
+    private final Map<Long, Watch> games = new HashMap<>();
+    private final List<Watch> unresolved = new ArrayList<>();
+    private final LinkedHashMap<Long, Long> blockTimes = new LinkedHashMap<Long, Long>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+            return size() > BLOCK_TIME_CACHE;
+        }
+    };
+    private long lastBlock = -1;
+    private int lastLogIndex = -1;
+
+    private static final class Watch {
+        final long gameId;
+        final String black;
+        String white;
+        int toMove = Board.BLACK;
+        long lastMoveBlock;
+        long version;       // bumped on every event, so stale claim results are ignored
+        boolean queued;     // waiting for its block timestamp
+        TimingWheel.Timer<Watch> timer;
+
+        Watch(long gameId, String black) {
+            this.gameId = gameId;
+            this.black = black;
+        }
+    }
+
+    /**
+     * 預設: 100 ms 時間輪刻度, 截止後再等 1.5 s (區塊時間與本機時鐘的誤差)
+     */
+    public TimeoutWatchdog(Web3j web3j, String contractAddress, Collection<GomokuHandler> accounts) {
+        this(web3j, contractAddress, accounts, 100, 1_500);
+    }
+
+    public TimeoutWatchdog(Web3j web3j, String contractAddress, Collection<GomokuHandler> accounts,
+            long tickMs, long graceMs) {
+        this.web3j = web3j;
+        this.contractAddress = contractAddress;
+        this.graceMs = graceMs;
+        this.wheel = new TimingWheel<>(tickMs, System.currentTimeMillis());
+        this.tickMs = tickMs;
+        for (GomokuHandler h : accounts) {
+            this.accounts.put(h.getAddress().toLowerCase(), h);
+        }
+    }
+
+    /**
+     * Starts the ticker thread; deadlines fire from here on.
+     */
+    public TimeoutWatchdog start() {
+        ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * Watches games of this account from its next event on.
+     */
+    public void addAccount(GomokuHandler handler) {
+        accounts.put(handler.getAddress().toLowerCase(), handler);
+    }
+
+    public synchronized int activeGames() {
+        return games.size();
+    }
+
+    public synchronized int scheduledDeadlines() {
+        return wheel.size();
+    }
+
+    public long claimedCount() {
+        return claimed.get();
+    }
+
+    // ------------ Events ------------
+
+    private boolean advance(long block, int logIndex) {
+        if (block < lastBlock || (block == lastBlock && logIndex <= lastLogIndex)) {
+            return false;
+        }
+        lastBlock = block;
+        lastLogIndex = logIndex;
+        return true;
+    }
+
+    private boolean ours(String address) {
+        return address != null && accounts.containsKey(address.toLowerCase());
+    }
+
+    @Override
+    public synchronized void gameCreated(long block, int logIndex, BigInteger gameId, String creator, BigInteger bet) {
+        if (advance(block, logIndex) && ours(creator)) {
+            games.put(gameId.longValue(), new Watch(gameId.longValue(), creator.toLowerCase()));
+        }
+    }
+
+    @Override
+    public synchronized void playerJoined(long block, int logIndex, BigInteger gameId, String player) {
+        if (!advance(block, logIndex)) {
+            return;
+        }
+        Watch w = games.get(gameId.longValue());
+        if (w == null) {
+            if (!ours(player)) {
+                return;
+            }
+            // Creator is not ours, so its address is never needed
+            w = new Watch(gameId.longValue(), null);
+            games.put(w.gameId, w);
+        }
+        w.white = player.toLowerCase();
+        w.timer = wheel.newTimer(w);
+        moved(w, Board.BLACK, block);
+    }
+
+    @Override
+    public synchronized void moveMade(long block, int logIndex, BigInteger gameId, String player, int x, int y,
+            int piece) {
+        if (!advance(block, logIndex)) {
+            return;
+        }
+        Watch w = games.get(gameId.longValue());
+        if (w != null && w.timer != null) {
+            moved(w, piece == Board.BLACK ? Board.WHITE : Board.BLACK, block);
+        }
+    }
+
+    @Override
+    public synchronized void gameEnded(long block, int logIndex, BigInteger gameId, int state, String winner) {
+        if (!advance(block, logIndex)) {
+            return;
+        }
+        Watch w = games.remove(gameId.longValue());
+        if (w != null) {
+            w.version++;
+            if (w.timer != null) {
+                wheel.cancel(w.timer);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void gameTimeout(long block, int logIndex, BigInteger gameId, String winner) {
+        // GameEnded follows in the same transaction
+        advance(block, logIndex);
+    }
+
+    private void moved(Watch w, int toMove, long block) {
+        w.toMove = toMove;
+        w.lastMoveBlock = block;
+        w.version++;
+        wheel.cancel(w.timer);
+        if (claimer(w) == null) {
+            return; // our own clock is running
+        }
+        Long time = blockTimes.get(block);
+        if (time != null) {
+            arm(w, time);
+        } else if (!w.queued) {
+            w.queued = true;
+            unresolved.add(w);
+        }
+    }
+
+    private void arm(Watch w, long lastMoveTime) {
+        wheel.schedule(w.timer, (lastMoveTime + TIMEOUT_SECONDS) * 1000 + graceMs);
+    }
+
+    /**
+     * The waiting player's handler if that player is ours, i.e. who would win the claim.
+     */
+    private GomokuHandler claimer(Watch w) {
+        String waiting = w.toMove == Board.BLACK ? w.white : w.black;
+        return waiting == null ? null : accounts.get(waiting);
+    }
+
+    // ------------ Deadlines ------------
+
+    private void tick() {
+        try {
+            List<Watch> pending;
+            synchronized (this) {
+                pending = unresolved.isEmpty() ? List.of() : new ArrayList<>(unresolved);
+                unresolved.clear();
+            }
+            if (!pending.isEmpty()) {
+                resolve(pending);
+            }
+            List<TimingWheel.Timer<Watch>> fired;
+            synchronized (this) {
+                fired = wheel.advance(System.currentTimeMillis());
+            }
+            for (TimingWheel.Timer<Watch> t : fired) {
+                claims.submit(() -> claim(t.payload));
+            }
+        } catch (RuntimeException e) {
+            System.err.println("[X] Timeout watchdog: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Fetches the timestamps of the blocks these watches wait for (one batch), then arms them.
+     */
+    private void resolve(List<Watch> pending) {
+        TreeSet<Long> missing = new TreeSet<>();
+        synchronized (this) {
+            for (Watch w : pending) {
+                if (!blockTimes.containsKey(w.lastMoveBlock)) {
+                    missing.add(w.lastMoveBlock);
+                }
+            }
+        }
+        Map<Long, Long> fetched = new HashMap<>();
+        if (!missing.isEmpty()) {
+            try {
+                BatchRequest batch = web3j.newBatch();
+                for (long b : missing) {
+                    batch.add(web3j.ethGetBlockByNumber(DefaultBlockParameter.valueOf(BigInteger.valueOf(b)), false));
+                }
+                BatchResponse response = batch.send();
+                for (Response<?> r : response.getResponses()) {
+                    EthBlock.Block block = ((EthBlock) r).getBlock();
+                    if (block != null) {
+                        fetched.put(block.getNumber().longValue(), block.getTimestamp().longValue());
+                    }
+                }
+            } catch (Exception e) {
+                System.err.println("[X] Timeout watchdog: block timestamps unavailable: " + e.getMessage());
+            }
+        }
+        synchronized (this) {
+            blockTimes.putAll(fetched);
+            for (Watch w : pending) {
+                w.queued = false;
+                if (games.get(w.gameId) != w || claimer(w) == null) {
+                    continue;
+                }
+                Long time = blockTimes.get(w.lastMoveBlock);
+                if (time != null) {
+                    arm(w, time);
+                } else {
+                    // Retried on the next tick
+                    w.queued = true;
+                    unresolved.add(w);
+                }
+            }
+        }
+    }
+
+    private void claim(Watch w) {
+        GomokuHandler claimer;
+        long version;
+        synchronized (this) {
+            claimer = claimer(w);
+            version = w.version;
+            if (claimer == null || games.get(w.gameId) != w) {
+                return;
+            }
+        }
+        BigInteger gameId = BigInteger.valueOf(w.gameId);
+        try {
+            String data = FunctionEncoder.encode(Gomoku.claimTimeoutFunction(gameId));
+            EthCall call = web3j.ethCall(Transaction.createEthCallTransaction(claimer.getAddress(), contractAddress, data),
+                    DefaultBlockParameterName.LATEST).send();
+            String reason = call.isReverted() ? call.getRevertReason()
+                    : call.hasError() ? call.getError().getMessage() : null;
+            if (reason != null) {
+                if (reason.contains("Timeout not reached") || !reason.contains("revert")) {
+                    retry(w, version); // chain clock behind ours, or a node error
+                }
+                // Otherwise the game is over; its GameEnded event drops the watch
+                return;
+            }
+        } catch (Exception e) {
+            System.err.println("[X] claimTimeout check for game " + gameId + " failed: " + e.getMessage());
+            retry(w, version);
+            return;
+        }
+        claimer.claimTimeoutAsync(gameId).whenComplete((receipt, e) -> {
+            if (e == null) {
+                claimed.incrementAndGet();
+                System.out.println("✓ Claimed timeout win in game " + gameId + " (" + receipt.getTransactionHash() + ")");
+            } else {
+                System.err.println("[X] claimTimeout for game " + gameId + " failed: " + e.getMessage());
+                retry(w, version);
+            }
+        });
+    }
+
+    private synchronized void retry(Watch w, long version) {
+        if (w.version == version && games.get(w.gameId) == w) {
+            wheel.schedule(w.timer, System.currentTimeMillis() + RETRY_MS);
+        }
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+        claims.shutdownNow();
+    }
+}
@@ -0,0 +1,173 @@
+package gomokuState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel (Varghese & Lauck): LEVELS wheels of 256 slots, level l slot width
+ * 256^l ticks. Timers live in intrusive doubly-linked slot lists, so schedule, cancel and
+ * reschedule are O(1) whatever the number of timers; a timer moves down a level at most
+ * LEVELS - 1 times before it fires. Horizon: 2^32 ticks.
+ *
+ * Not thread-safe: callers serialize access (TimeoutWatchdog uses its own lock).
+ */
+public class TimingWheel<T> {
+    private static final int BITS = 8;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    /**
+     * A scheduled timer; keep it to cancel or reschedule.
+     */
+    public static final class Timer<T> {
+        public final T payload;
+        long deadlineTick;
+        Timer<T> prev;
+        Timer<T> next;
+        Timer<T>[] slotOwner; // wheel array holding the slot head, null when not scheduled
+        int slot;
+
+        Timer(T payload) {
+            this.payload = payload;
+        }
+
+        public boolean isScheduled() {
+            return slotOwner != null;
+        }
+    }
+
+    private final long tickMs;
+    private final long startMs;
+    @SuppressWarnings("unchecked")
+    private final Timer<T>[][] wheels = (Timer<T>[][]) new Timer<?>[LEVELS][SLOTS];
+    private long currentTick; // next tick to process
+    private int size;
+
+    public TimingWheel(long tickMs, long nowMs) {
+        this.tickMs = tickMs;
+        this.startMs = nowMs;
+    }
+
+    public Timer<T> newTimer(T payload) {
+        return new Timer<>(payload);
+    }
+
+    /**
+     * (Re)schedules timer to fire at deadlineMs (rounded up to a tick); a deadline in the past
+     * fires on the next advance().
+     */
+    public void schedule(Timer<T> timer, long deadlineMs) {
+        cancel(timer);
+        long tick = Math.max(currentTick, ceilDiv(deadlineMs - startMs, tickMs));
+        if (tick - currentTick >= 1L << (BITS * LEVELS)) {
+            throw new IllegalArgumentException("Deadline beyond the wheel horizon: " + deadlineMs);
+        }
+        timer.deadlineTick = tick;
+        insert(timer);
+        size++;
+    }
+
+    public boolean cancel(Timer<T> timer) {
+        if (timer.slotOwner == null) {
+            return false;
+        }
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Processes every tick up to nowMs and returns the timers that fired, in deadline order.
+     */
+    public List<Timer<T>> advance(long nowMs) {
+        List<Timer<T>> fired = new ArrayList<>();
+        long target = Math.floorDiv(nowMs - startMs, tickMs);
+        while (currentTick <= target) {
+            if (size == 0) {
+                currentTick = target + 1; // nothing can fire, skip the empty ticks
+                break;
+            }
+            cascade();
+            int slot = (int) (currentTick & MASK);
+            Timer<T> t = wheels[0][slot];
+            while (t != null) {
+                Timer<T> next = t.next;
+                unlink(t);
+                size--;
+                fired.add(t);
+                t = next;
+            }
+            currentTick++;
+        }
+        return fired;
+    }
+
+    /**
+     * At a level boundary, pulls the due slot of each higher wheel down (highest level first,
+     * so its timers can land in the slot cascaded next).
+     */
+    private void cascade() {
+        int top = 0;
+        while (top + 1 < LEVELS && (currentTick & ((1L << (BITS * (top + 1))) - 1)) == 0) {
+            top++;
+        }
+        for (int level = top; level >= 1; level--) {
+            Timer<T>[] wheel = wheels[level];
+            int slot = (int) ((currentTick >>> (BITS * level)) & MASK);
+            Timer<T> t = wheel[slot];
+            wheel[slot] = null;
+            while (t != null) {
+                Timer<T> next = t.next;
+                t.prev = null;
+                t.next = null;
+                t.slotOwner = null;
+                insert(t);
+                t = next;
+            }
+        }
+    }
+
+    /**
+     * Lowest level whose slot range still separates the deadline from the current tick.
+     */
+    private void insert(Timer<T> t) {
+        long d = t.deadlineTick;
+        int level = 0;
+        while (level + 1 < LEVELS && (d >>> (BITS * (level + 1))) != (currentTick >>> (BITS * (level + 1)))) {
+            level++;
+        }
+        Timer<T>[] wheel = wheels[level];
+        int slot = (int) ((d >>> (BITS * level)) & MASK);
+        t.slotOwner = wheel;
+        t.slot = slot;
+        t.prev = null;
+        t.next = wheel[slot];
+        if (t.next != null) {
+            t.next.prev = t;
+        }
+        wheel[slot] = t;
+    }
+
+    private void unlink(Timer<T> t) {
+        if (t.prev != null) {
+            t.prev.next = t.next;
+        } else {
+            t.slotOwner[t.slot] = t.next;
+        }
+        if (t.next != null) {
+            t.next.prev = t.prev;
+        }
+        t.prev = null;
+        t.next = null;
+        t.slotOwner = null;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return -Math.floorDiv(-a, b);
+    }
+}
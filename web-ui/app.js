@@ -88,6 +88,10 @@ async function loadAccounts() {
 
 async function updateGameCounter() {
     try {
+        if (gatewayEnabled()) {
+            await updateGameCounterFromGateway();
+            return;
+        }
         const gameCounter = await contract.methods.gameCounter().call();
         document.getElementById('totalGames').textContent = gameCounter;
         logEvent("System", `Currently have ${gameCounter} games (ID: 0-${gameCounter - 1})`);
@@ -190,6 +194,11 @@ async function loadGame() {
     try {
         currentGameId = parseInt(gameId);
         
+        if (gatewayEnabled()) {
+            await loadGameFromGateway(currentGameId);
+            return;
+        }
+        
         const gameCounter = await contract.methods.gameCounter().call();
         if (currentGameId >= parseInt(gameCounter)) {
             showToast(`✗ Game ${currentGameId} does not exist! Currently only have ${gameCounter} games (ID: 0-${gameCounter - 1})`, "error");
@@ -243,22 +252,17 @@ async function loadBoardState(gameId) {
         
         board.clear();
         
-        // Contract uses board[row][col]; getPiece(_x, _y) means _x=row, _y=col
+        // Contract uses board[row][col]; fetch the whole grid in one eth_call
+        const boardData = await contract.methods.getBoard(gameId).call();
         for (let row = 0; row < 15; row++) {
             for (let col = 0; col < 15; col++) {
-                try {
-                    // Call contract: getPiece(gameId, row, col)
-                    const cellValue = await contract.methods.getPiece(gameId, row, col).call();
-                    const piece = parseInt(cellValue);
-                    
-                    if (piece !== 0) {
-                        // Contract [row][col] corresponds to UI (col, row)
-                        // UI uses x as column and y as row; contract uses _x=row, _y=col
-                        console.log(`📍 Contract[${row}][${col}] = ${piece} -> UI(${col}, ${row})`);
-                        board.placePiece(col, row, piece);
-                    }
-                } catch (err) {
-                    console.warn(`Failed to get cell (${row}, ${col}):`, err.message);
+                const piece = parseInt(boardData[row][col]);
+                
+                if (piece !== 0) {
+                    // Contract [row][col] corresponds to UI (col, row)
+                    // UI uses x as column and y as row; contract uses _x=row, _y=col
+                    console.log(`📍 Contract[${row}][${col}] = ${piece} -> UI(${col}, ${row})`);
+                    board.placePiece(col, row, piece);
                 }
             }
         }
@@ -458,6 +462,10 @@ function subscribeToEvents() {
     eventSubscriptions = [];
     
     if (currentGameId === null) return;
+    if (gatewayEnabled()) {
+        subscribeToGateway(currentGameId);
+        return;
+    }
     
     // Subscribe to MoveMade event
     const moveSub = contract.events.MoveMade({
@@ -56,6 +56,7 @@ async function sendChat() {
 // Load chat history
 async function loadChatHistory() {
     if (currentGameId === null) return;
+    if (gatewayEnabled()) return;  // chat arrives with the gateway snapshot and stream
     
     try {
         // Cancel old subscription
@@ -2,6 +2,11 @@
 const CONTRACT_ADDRESS = "0xC1a3dCD9178952DB33934Be3143a6413FADe7200";
 const RPC_URL = "http://localhost:8545";
 
+// Board gateway (gomokuGateway.BoardGateway). Set to its URL, e.g. "http://localhost:8090"
+// ("" when the page is served by the gateway itself), to read boards and chat from it;
+// leave null to query the node directly.
+const GATEWAY_URL = null;
+
 // accounts setup
 const ACCOUNTS = {
     player1: "0x851de6089fdbdee99562dd922a0aa74147f52b70",
@@ -0,0 +1,143 @@
+// Board gateway client (gomokuGateway.BoardGateway)
+// With GATEWAY_URL set, game state and chat come from the gateway's snapshot and push stream
+// instead of per-browser node calls; transactions still go to the node.
+let gatewayStream = null;
+let gatewayMoveCount = 0;
+let gatewayLastChat = { block: -1, logIndex: -1 };
+
+function gatewayEnabled() {
+    return typeof GATEWAY_URL === 'string';
+}
+
+async function gatewayFetch(path) {
+    const response = await fetch(`${GATEWAY_URL}${path}`);
+    const body = await response.json();
+    if (!response.ok) {
+        throw new Error(body.error || `Gateway returned ${response.status}`);
+    }
+    return body;
+}
+
+async function updateGameCounterFromGateway() {
+    const counter = await gatewayFetch('/api/counter');
+    document.getElementById('totalGames').textContent = counter.gameCounter;
+    logEvent("System", `Currently have ${counter.gameCounter} games (gateway synced to block ${counter.syncedBlock})`);
+}
+
+// Load a game from the gateway snapshot, then follow its push stream
+async function loadGameFromGateway(gameId) {
+    try {
+        showToast(`⏳ Loading game ${gameId}...`, "info");
+        const snapshot = await gatewayFetch(`/api/games/${gameId}`);
+        renderGatewaySnapshot(snapshot);
+        localStorage.setItem('currentGameId', gameId);
+        showToast(`✓ Game ${gameId} loaded successfully`, "success");
+        logEvent("System", `Game ${gameId} loaded from gateway`);
+        subscribeToGateway(gameId);
+    } catch (error) {
+        console.error("Failed to load game:", error);
+        showToast("✗ Failed to load game: " + error.message, "error");
+        logEvent("Error", "Failed to load game: " + error.message);
+    }
+}
+
+function renderGatewaySnapshot(s) {
+    document.getElementById('gameState').textContent = GameState[s.state];
+    document.getElementById('currentTurn').textContent =
+        s.currentPlayer == 1 ? "Black (First)" : "White (Second)";
+    document.getElementById('blackPlayer').textContent = formatAddress(s.blackPlayer);
+    document.getElementById('whitePlayer').textContent =
+        s.whitePlayer === "0x0000000000000000000000000000000000000000"
+            ? "Waiting..."
+            : formatAddress(s.whitePlayer);
+    document.getElementById('betAmountDisplay').textContent = `${s.betAmount} wei`;
+    document.getElementById('moveCount').textContent = s.moveCount;
+    gatewayMoveCount = s.moveCount;
+
+    // Contract board[x][y] is (row, col); the UI board is indexed (col, row)
+    const display = Array(15).fill(null).map(() => Array(15).fill(0));
+    for (let x = 0; x < 15; x++) {
+        for (let y = 0; y < 15; y++) {
+            display[y][x] = s.board[x][y];
+        }
+    }
+    board.updateBoard(display);
+
+    const chatMessages = document.getElementById('chatMessages');
+    chatMessages.innerHTML = '';
+    gatewayLastChat = { block: -1, logIndex: -1 };
+    if (s.chat.length === 0) {
+        chatMessages.innerHTML = '<div class="chat-empty">No chat messages yet</div>';
+    }
+    s.chat.forEach(addGatewayChat);
+}
+
+function addGatewayChat(m) {
+    // A snapshot can already contain messages that are still queued behind it
+    if (m.block < gatewayLastChat.block
+        || (m.block === gatewayLastChat.block && m.logIndex <= gatewayLastChat.logIndex)) {
+        return false;
+    }
+    gatewayLastChat = { block: m.block, logIndex: m.logIndex };
+    addChatMessage(m.sender, m.message, m.moveNumber, m.block);
+    return true;
+}
+
+function subscribeToGateway(gameId) {
+    if (gatewayStream) {
+        gatewayStream.close();
+    }
+    const stream = new EventSource(`${GATEWAY_URL}/api/games/${gameId}/events`);
+    gatewayStream = stream;
+
+    // Sent on connect and whenever this client fell too far behind
+    stream.addEventListener('snapshot', (e) => renderGatewaySnapshot(JSON.parse(e.data)));
+
+    stream.addEventListener('move', (e) => {
+        const m = JSON.parse(e.data);
+        if (m.moveCount <= gatewayMoveCount) {
+            return;
+        }
+        if (m.moveCount > gatewayMoveCount + 1) {
+            // Missed a move: start over from a fresh snapshot
+            loadGameFromGateway(gameId);
+            return;
+        }
+        gatewayMoveCount = m.moveCount;
+        board.placePiece(m.y, m.x, m.piece);  // contract (x, y) -> UI (y, x)
+        document.getElementById('moveCount').textContent = m.moveCount;
+        document.getElementById('currentTurn').textContent =
+            m.piece == 1 ? "White (Second)" : "Black (First)";
+        logEvent("Move", `Player ${formatAddress(m.player)} placed at (${m.y}, ${m.x})`);
+    });
+
+    stream.addEventListener('joined', (e) => {
+        const j = JSON.parse(e.data);
+        document.getElementById('whitePlayer').textContent = formatAddress(j.player);
+        document.getElementById('gameState').textContent = GameState[1];
+        logEvent("Player Joined", `Player ${formatAddress(j.player)} joined game`);
+        showToast(`✓ Player joined game`, "success");
+    });
+
+    stream.addEventListener('timeout', (e) => {
+        const t = JSON.parse(e.data);
+        logEvent("Timeout", `Timeout claimed, winner: ${formatAddress(t.winner)}`);
+    });
+
+    stream.addEventListener('ended', (e) => {
+        const end = JSON.parse(e.data);
+        const stateNames = ["Waiting", "Playing", "Black Won", "White Won", "Draw"];
+        document.getElementById('gameState').textContent = GameState[end.state];
+        logEvent("Game Ended", `Result: ${stateNames[end.state]}, Winner: ${formatAddress(end.winner)}`);
+        showToast(`🎉 Game ended! ${stateNames[end.state]}`, "success");
+    });
+
+    stream.addEventListener('chat', (e) => {
+        if (addGatewayChat(JSON.parse(e.data))) {
+            playNotificationSound();
+        }
+    });
+
+    // EventSource reconnects by itself; the new connection starts with a snapshot
+    stream.onerror = () => logEvent("System", "Gateway stream interrupted, reconnecting...");
+}